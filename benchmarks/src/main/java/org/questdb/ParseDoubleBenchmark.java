@@ -0,0 +1,160 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.questdb;
+
+import io.questdb.std.Numbers;
+import io.questdb.std.NumericException;
+import io.questdb.std.Unsafe;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ParseDoubleBenchmark {
+
+    private static final long LONG_OVERFLOW_MAX = Long.MAX_VALUE / 10 + 1;
+    private static final double[] pow10d = new double[309];
+    private static final double[] pow10dNeg = new double[309];
+
+    @Param({"3.4", "0.8998893432", "0.1253852754303285", "-73.87202453613281", "1.7976931348623157E308", "4.9E-324"})
+    public String value;
+
+    private long lo;
+    private long hi;
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(ParseDoubleBenchmark.class.getSimpleName())
+                .warmupIterations(5)
+                .measurementIterations(5)
+                .addProfiler("gc")
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final int len = value.length();
+        lo = Unsafe.malloc(len);
+        hi = lo + len;
+        for (int i = 0; i < len; i++) {
+            Unsafe.getUnsafe().putByte(lo + i, (byte) value.charAt(i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Unsafe.free(lo, hi - lo);
+    }
+
+    @Benchmark
+    public double testJdk() {
+        return Double.parseDouble(value);
+    }
+
+    @Benchmark
+    public double testLegacy() throws NumericException {
+        return parseDoubleLegacy(value);
+    }
+
+    @Benchmark
+    public double testNumbers() throws NumericException {
+        return Numbers.parseDouble(value);
+    }
+
+    @Benchmark
+    public double testNumbersUtf8() throws NumericException {
+        return Numbers.parseDouble(lo, hi);
+    }
+
+    // Numbers.parseDouble() prior to Eisel-Lemire, it scales long mantissa by power of ten
+    // and is not correctly rounded
+    private static double parseDoubleLegacy(CharSequence sequence) throws NumericException {
+        int lim = sequence.length();
+        boolean negative = sequence.charAt(0) == '-';
+        int i = negative ? 1 : 0;
+
+        long val = 0;
+        int dp = -1;
+        int dpe = lim;
+        int exp = 0;
+        out:
+        for (; i < lim; i++) {
+            final int c = sequence.charAt(i);
+            switch (c) {
+                case '.':
+                    dp = i;
+                    continue;
+                case 'E':
+                case 'e':
+                    exp = Numbers.parseInt(sequence, i + 1, lim);
+                    if (dpe == lim) {
+                        dpe = i;
+                    }
+                    break out;
+                default:
+                    if (c < '0' || c > '9') {
+                        throw NumericException.INSTANCE;
+                    }
+
+                    if (val < LONG_OVERFLOW_MAX) {
+                        val = (val << 3) + (val << 1) + (c - '0');
+                    } else if (dpe == lim) {
+                        dpe = i;
+                    }
+                    break;
+            }
+        }
+
+        exp = dp == -1 ? exp : exp - (dpe - dp - 1);
+
+        if (exp > 308) {
+            exp = 308;
+        } else if (exp < -308) {
+            exp = -308;
+        }
+
+        if (exp > -1) {
+            return (negative ? -val : val) * pow10d[exp];
+        } else {
+            return (negative ? -val : val) * pow10dNeg[-exp];
+        }
+    }
+
+    static {
+        for (int i = 0; i < pow10d.length; i++) {
+            pow10d[i] = Double.parseDouble("1E" + i);
+            pow10dNeg[i] = Double.parseDouble("1E-" + i);
+        }
+    }
+}
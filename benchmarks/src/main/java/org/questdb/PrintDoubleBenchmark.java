@@ -65,6 +65,24 @@ public class PrintDoubleBenchmark {
         Numbers.append(sink, 0.1253852754303285, 16);
     }
 
+    @Benchmark
+    public void testJdk1() {
+        sink.clear();
+        sink.put(Double.toString(0.8998893432));
+    }
+
+    @Benchmark
+    public void testJdk2() {
+        sink.clear();
+        sink.put(Double.toString(0.1253852754303285));
+    }
+
+    @Benchmark
+    public void testJdk3() {
+        sink.clear();
+        sink.put(Double.toString(5.684341886080802E-14));
+    }
+
     @Benchmark
     public void testNew1() {
         sink.clear();
@@ -76,4 +94,10 @@ public class PrintDoubleBenchmark {
         sink.clear();
         Numbers.append(sink, 0.1253852754303285);
     }
+
+    @Benchmark
+    public void testNew3() {
+        sink.clear();
+        Numbers.append(sink, 5.684341886080802E-14);
+    }
 }
@@ -0,0 +1,148 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.questdb;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.DefaultCairoConfiguration;
+import io.questdb.cairo.security.AllowAllCairoSecurityContext;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.SqlCompiler;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.SqlExecutionContextImpl;
+import io.questdb.log.LogFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares filtered table scans with and without column access advice. Cold runs
+ * drop OS page cache before each iteration, which requires the benchmark to run as root
+ * on Linux.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TableScanBenchmark {
+
+    private static final String ROOT = ".";
+    private static final long ROW_COUNT = 50_000_000L;
+
+    @Param({"true", "false"})
+    public boolean advice;
+
+    @Param({"true", "false"})
+    public boolean cold;
+
+    private CairoEngine engine;
+    private SqlCompiler compiler;
+    private SqlExecutionContext sqlExecutionContext;
+    private RecordCursorFactory factory;
+
+    public static void main(String[] args) throws RunnerException, SqlException {
+        final CairoConfiguration configuration = new DefaultCairoConfiguration(ROOT);
+        final SqlExecutionContext sqlExecutionContext = new SqlExecutionContextImpl(configuration, null, 1)
+                .with(AllowAllCairoSecurityContext.INSTANCE, null, null);
+        try (CairoEngine engine = new CairoEngine(configuration)) {
+            try (SqlCompiler compiler = new SqlCompiler(engine)) {
+                compiler.compile("drop table scan", sqlExecutionContext);
+            } catch (SqlException ignore) {
+                // table did not exist
+            }
+            try (SqlCompiler compiler = new SqlCompiler(engine)) {
+                compiler.compile(
+                        "create table scan as (" +
+                                "select rnd_long() v, timestamp_sequence(0, 20000) ts from long_sequence(" + ROW_COUNT + "L)" +
+                                ") timestamp(ts) partition by DAY",
+                        sqlExecutionContext
+                );
+            }
+        }
+
+        Options opt = new OptionsBuilder()
+                .include(TableScanBenchmark.class.getSimpleName())
+                .warmupIterations(2)
+                .measurementIterations(5)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+
+        LogFactory.INSTANCE.haltThread();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws SqlException {
+        final boolean advice = this.advice;
+        final CairoConfiguration configuration = new DefaultCairoConfiguration(ROOT) {
+            @Override
+            public boolean isColumnAccessAdviceEnabled() {
+                return advice;
+            }
+        };
+        engine = new CairoEngine(configuration);
+        compiler = new SqlCompiler(engine);
+        sqlExecutionContext = new SqlExecutionContextImpl(configuration, null, 1)
+                .with(AllowAllCairoSecurityContext.INSTANCE, null, null);
+        factory = compiler.compile("scan where v > 0", sqlExecutionContext).getRecordCursorFactory();
+    }
+
+    @Setup(Level.Iteration)
+    public void dropPageCache() throws IOException {
+        if (cold) {
+            // readers keep their maps between iterations, release them so that pages can be evicted
+            engine.releaseAllReaders();
+            try (FileWriter writer = new FileWriter("/proc/sys/vm/drop_caches")) {
+                writer.write("3");
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        factory.close();
+        compiler.close();
+        engine.close();
+    }
+
+    @Benchmark
+    public long testScan() {
+        long count = 0;
+        try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+            while (cursor.hasNext()) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
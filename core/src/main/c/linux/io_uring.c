@@ -0,0 +1,299 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+#include <jni.h>
+#include <stddef.h>
+#include <poll.h>
+
+#if __has_include(<linux/io_uring.h>)
+
+#include <linux/io_uring.h>
+#include <sys/syscall.h>
+#include <sys/mman.h>
+#include <unistd.h>
+#include <stdlib.h>
+#include <string.h>
+
+typedef struct {
+    int fd;
+    unsigned *sq_head;
+    unsigned *sq_tail;
+    unsigned *sq_mask;
+    unsigned *sq_flags;
+    unsigned *sq_array;
+    unsigned sq_entries;
+    // tail of queued entries, kernel sees them when tail is published on submit
+    unsigned sq_local_tail;
+    struct io_uring_sqe *sqes;
+    unsigned *cq_head;
+    unsigned *cq_tail;
+    unsigned *cq_mask;
+    struct io_uring_cqe *cqes;
+    void *sq_ring;
+    size_t sq_ring_size;
+    void *cq_ring;
+    size_t cq_ring_size;
+    size_t sqes_size;
+} ring_t;
+
+static int ring_enter(ring_t *ring, unsigned to_submit, unsigned flags) {
+    return (int) syscall(__NR_io_uring_enter, ring->fd, to_submit, 0, flags, NULL, 0);
+}
+
+static void ring_free(ring_t *ring) {
+    if (ring->sqes != NULL && ring->sqes != MAP_FAILED) {
+        munmap(ring->sqes, ring->sqes_size);
+    }
+    if (ring->cq_ring != NULL && ring->cq_ring != MAP_FAILED && ring->cq_ring != ring->sq_ring) {
+        munmap(ring->cq_ring, ring->cq_ring_size);
+    }
+    if (ring->sq_ring != NULL && ring->sq_ring != MAP_FAILED) {
+        munmap(ring->sq_ring, ring->sq_ring_size);
+    }
+    close(ring->fd);
+    free(ring);
+}
+
+static int ring_submit(ring_t *ring) {
+    // entries published by failed submit are still ahead of head, they go to kernel again
+    const unsigned to_submit = ring->sq_local_tail - __atomic_load_n(ring->sq_head, __ATOMIC_ACQUIRE);
+    const unsigned overflow = __atomic_load_n(ring->sq_flags, __ATOMIC_RELAXED) & IORING_SQ_CQ_OVERFLOW;
+    if (to_submit == 0 && overflow == 0) {
+        // nothing for kernel to do, completions are read from shared memory
+        return 0;
+    }
+    __atomic_store_n(ring->sq_tail, ring->sq_local_tail, __ATOMIC_RELEASE);
+    // getting events with zero minimum returns immediately, it moves overflown completions to ring
+    return ring_enter(ring, to_submit, overflow ? IORING_ENTER_GETEVENTS : 0);
+}
+
+static struct io_uring_sqe *ring_next_sqe(ring_t *ring) {
+    if (ring->sq_local_tail - __atomic_load_n(ring->sq_head, __ATOMIC_ACQUIRE) >= ring->sq_entries) {
+        // submission queue is full, hand queued entries to kernel to make room
+        if (ring_submit(ring) < 0) {
+            return NULL;
+        }
+        if (ring->sq_local_tail - __atomic_load_n(ring->sq_head, __ATOMIC_ACQUIRE) >= ring->sq_entries) {
+            return NULL;
+        }
+    }
+    const unsigned index = ring->sq_local_tail & *ring->sq_mask;
+    struct io_uring_sqe *sqe = &ring->sqes[index];
+    memset(sqe, 0, sizeof(struct io_uring_sqe));
+    ring->sq_array[index] = index;
+    ring->sq_local_tail++;
+    return sqe;
+}
+
+JNIEXPORT jlong JNICALL Java_io_questdb_network_IOUringAccessor_create
+        (JNIEnv *e, jclass cl, jint capacity, jint completionCapacity) {
+    struct io_uring_params params;
+    memset(&params, 0, sizeof(params));
+    params.flags = IORING_SETUP_CQSIZE;
+    params.cq_entries = (unsigned) completionCapacity;
+
+    const int fd = (int) syscall(__NR_io_uring_setup, (unsigned) capacity, &params);
+    if (fd < 0) {
+        return 0;
+    }
+
+    if ((params.features & IORING_FEAT_NODROP) == 0) {
+        // older kernels drop completions when ring is full, connections would be lost
+        close(fd);
+        return 0;
+    }
+
+    ring_t *ring = calloc(1, sizeof(ring_t));
+    if (ring == NULL) {
+        close(fd);
+        return 0;
+    }
+    ring->fd = fd;
+    ring->sq_ring_size = params.sq_off.array + params.sq_entries * sizeof(unsigned);
+    ring->cq_ring_size = params.cq_off.cqes + params.cq_entries * sizeof(struct io_uring_cqe);
+    if (params.features & IORING_FEAT_SINGLE_MMAP) {
+        if (ring->cq_ring_size > ring->sq_ring_size) {
+            ring->sq_ring_size = ring->cq_ring_size;
+        }
+        ring->cq_ring_size = ring->sq_ring_size;
+    }
+
+    ring->sq_ring = mmap(NULL, ring->sq_ring_size, PROT_READ | PROT_WRITE, MAP_SHARED | MAP_POPULATE, fd, IORING_OFF_SQ_RING);
+    if (ring->sq_ring == MAP_FAILED) {
+        ring_free(ring);
+        return 0;
+    }
+
+    if (params.features & IORING_FEAT_SINGLE_MMAP) {
+        ring->cq_ring = ring->sq_ring;
+    } else {
+        ring->cq_ring = mmap(NULL, ring->cq_ring_size, PROT_READ | PROT_WRITE, MAP_SHARED | MAP_POPULATE, fd, IORING_OFF_CQ_RING);
+        if (ring->cq_ring == MAP_FAILED) {
+            ring_free(ring);
+            return 0;
+        }
+    }
+
+    ring->sqes_size = params.sq_entries * sizeof(struct io_uring_sqe);
+    ring->sqes = mmap(NULL, ring->sqes_size, PROT_READ | PROT_WRITE, MAP_SHARED | MAP_POPULATE, fd, IORING_OFF_SQES);
+    if (ring->sqes == MAP_FAILED) {
+        ring_free(ring);
+        return 0;
+    }
+
+    char *sq = (char *) ring->sq_ring;
+    ring->sq_head = (unsigned *) (sq + params.sq_off.head);
+    ring->sq_tail = (unsigned *) (sq + params.sq_off.tail);
+    ring->sq_mask = (unsigned *) (sq + params.sq_off.ring_mask);
+    ring->sq_flags = (unsigned *) (sq + params.sq_off.flags);
+    ring->sq_array = (unsigned *) (sq + params.sq_off.array);
+    ring->sq_entries = params.sq_entries;
+    ring->sq_local_tail = *ring->sq_tail;
+
+    char *cq = (char *) ring->cq_ring;
+    ring->cq_head = (unsigned *) (cq + params.cq_off.head);
+    ring->cq_tail = (unsigned *) (cq + params.cq_off.tail);
+    ring->cq_mask = (unsigned *) (cq + params.cq_off.ring_mask);
+    ring->cqes = (struct io_uring_cqe *) (cq + params.cq_off.cqes);
+    return (jlong) ring;
+}
+
+JNIEXPORT void JNICALL Java_io_questdb_network_IOUringAccessor_close
+        (JNIEnv *e, jclass cl, jlong ring) {
+    ring_free((ring_t *) ring);
+}
+
+JNIEXPORT jint JNICALL Java_io_questdb_network_IOUringAccessor_poll
+        (JNIEnv *e, jclass cl, jlong ring, jlong fd, jint events, jlong data) {
+    struct io_uring_sqe *sqe = ring_next_sqe((ring_t *) ring);
+    if (sqe == NULL) {
+        return -1;
+    }
+    sqe->opcode = IORING_OP_POLL_ADD;
+    sqe->fd = (int) fd;
+    sqe->poll32_events = (unsigned) events;
+    sqe->user_data = (__u64) data;
+    return 0;
+}
+
+JNIEXPORT jint JNICALL Java_io_questdb_network_IOUringAccessor_pollRemove
+        (JNIEnv *e, jclass cl, jlong ring, jlong data) {
+    struct io_uring_sqe *sqe = ring_next_sqe((ring_t *) ring);
+    if (sqe == NULL) {
+        return -1;
+    }
+    sqe->opcode = IORING_OP_POLL_REMOVE;
+    sqe->fd = -1;
+    sqe->addr = (__u64) data;
+    // completion of removal itself is of no interest
+    sqe->user_data = (__u64) -1;
+    return 0;
+}
+
+JNIEXPORT jint JNICALL Java_io_questdb_network_IOUringAccessor_submit
+        (JNIEnv *e, jclass cl, jlong ring) {
+    return ring_submit((ring_t *) ring);
+}
+
+JNIEXPORT jint JNICALL Java_io_questdb_network_IOUringAccessor_harvest
+        (JNIEnv *e, jclass cl, jlong ring, jlong eventPtr, jint eventCount) {
+    ring_t *r = (ring_t *) ring;
+    unsigned head = *r->cq_head;
+    const unsigned tail = __atomic_load_n(r->cq_tail, __ATOMIC_ACQUIRE);
+    struct io_uring_cqe *events = (struct io_uring_cqe *) eventPtr;
+    jint count = 0;
+    while (head != tail && count < eventCount) {
+        events[count++] = r->cqes[head & *r->cq_mask];
+        head++;
+    }
+    __atomic_store_n(r->cq_head, head, __ATOMIC_RELEASE);
+    return count;
+}
+
+#else
+
+#include <linux/types.h>
+
+// kernel headers predate io_uring, rings cannot be created and dispatcher falls back to epoll
+struct io_uring_cqe {
+    __u64 user_data;
+    __s32 res;
+    __u32 flags;
+};
+
+JNIEXPORT jlong JNICALL Java_io_questdb_network_IOUringAccessor_create
+        (JNIEnv *e, jclass cl, jint capacity, jint completionCapacity) {
+    return 0;
+}
+
+JNIEXPORT void JNICALL Java_io_questdb_network_IOUringAccessor_close
+        (JNIEnv *e, jclass cl, jlong ring) {
+}
+
+JNIEXPORT jint JNICALL Java_io_questdb_network_IOUringAccessor_poll
+        (JNIEnv *e, jclass cl, jlong ring, jlong fd, jint events, jlong data) {
+    return -1;
+}
+
+JNIEXPORT jint JNICALL Java_io_questdb_network_IOUringAccessor_pollRemove
+        (JNIEnv *e, jclass cl, jlong ring, jlong data) {
+    return -1;
+}
+
+JNIEXPORT jint JNICALL Java_io_questdb_network_IOUringAccessor_submit
+        (JNIEnv *e, jclass cl, jlong ring) {
+    return -1;
+}
+
+JNIEXPORT jint JNICALL Java_io_questdb_network_IOUringAccessor_harvest
+        (JNIEnv *e, jclass cl, jlong ring, jlong eventPtr, jint eventCount) {
+    return 0;
+}
+
+#endif
+
+JNIEXPORT jshort JNICALL Java_io_questdb_network_IOUringAccessor_getDataOffset
+        (JNIEnv *e, jclass cl) {
+    return (jshort) offsetof(struct io_uring_cqe, user_data);
+}
+
+JNIEXPORT jshort JNICALL Java_io_questdb_network_IOUringAccessor_getResultOffset
+        (JNIEnv *e, jclass cl) {
+    return (jshort) offsetof(struct io_uring_cqe, res);
+}
+
+JNIEXPORT jshort JNICALL Java_io_questdb_network_IOUringAccessor_getEventSize
+        (JNIEnv *e, jclass cl) {
+    return sizeof(struct io_uring_cqe);
+}
+
+JNIEXPORT jint JNICALL Java_io_questdb_network_IOUringAccessor_getPOLLIN
+        (JNIEnv *e, jclass cl) {
+    return POLLIN;
+}
+
+JNIEXPORT jint JNICALL Java_io_questdb_network_IOUringAccessor_getPOLLOUT
+        (JNIEnv *e, jclass cl) {
+    return POLLOUT;
+}
@@ -40,10 +40,28 @@
 
 #include <stdlib.h>
 #include <dirent.h>
+#include <limits.h>
 #include <sys/errno.h>
 #include <sys/time.h>
 #include "files.h"
 
+#ifdef __linux__
+
+#include <sys/syscall.h>
+#include <fcntl.h>
+
+#ifndef RENAME_EXCHANGE
+#define RENAME_EXCHANGE (1 << 1)
+#endif
+
+#endif
+
+#ifdef __APPLE__
+
+#include <stdio.h>
+
+#endif
+
 JNIEXPORT jlong JNICALL Java_io_questdb_std_Files_write
         (JNIEnv *e, jclass cl,
          jlong fd,
@@ -71,6 +89,41 @@ JNIEXPORT jint JNICALL Java_io_questdb_std_Files_munmap0
     return munmap((void *) address, (size_t) len);
 }
 
+JNIEXPORT jint JNICALL Java_io_questdb_std_Files_madvise0
+        (JNIEnv *e, jclass cl, jlong address, jlong len, jint advice) {
+    int adv;
+    switch (advice) {
+        case com_questdb_std_Files_MADV_RANDOM:
+            adv = MADV_RANDOM;
+            break;
+        case com_questdb_std_Files_MADV_SEQUENTIAL:
+            adv = MADV_SEQUENTIAL;
+            break;
+        case com_questdb_std_Files_MADV_WILLNEED:
+            adv = MADV_WILLNEED;
+            break;
+        case com_questdb_std_Files_MADV_DONTNEED:
+            adv = MADV_DONTNEED;
+            break;
+        default:
+            adv = MADV_NORMAL;
+            break;
+    }
+    return madvise((void *) address, (size_t) len, adv);
+}
+
+JNIEXPORT jint JNICALL Java_io_questdb_std_Files_readAhead0
+        (JNIEnv *e, jclass cl, jlong fd, jlong offset, jlong len) {
+#ifdef __APPLE__
+    struct radvisory advisory;
+    advisory.ra_offset = (off_t) offset;
+    advisory.ra_count = len > INT_MAX ? INT_MAX : (int) len;
+    return fcntl((int) fd, F_RDADVISE, &advisory);
+#else
+    return posix_fadvise((int) fd, (off_t) offset, (off_t) len, POSIX_FADV_WILLNEED);
+#endif
+}
+
 JNIEXPORT jlong JNICALL Java_io_questdb_std_Files_append
         (JNIEnv *e, jclass cl,
          jlong fd,
@@ -281,7 +334,96 @@ JNIEXPORT jboolean JNICALL Java_io_questdb_std_Files_rename
     return (jboolean) (rename((const char *) lpszOld, (const char *) lpszNew) == 0);
 }
 
+JNIEXPORT jboolean JNICALL Java_io_questdb_std_Files_exchange
+        (JNIEnv *e, jclass cls, jlong lpszA, jlong lpszB) {
+#if defined(__linux__) && defined(SYS_renameat2)
+    return (jboolean) (syscall(SYS_renameat2, AT_FDCWD, (const char *) lpszA, AT_FDCWD, (const char *) lpszB, RENAME_EXCHANGE) == 0);
+#elif defined(__APPLE__) && defined(RENAME_SWAP)
+    return (jboolean) (renamex_np((const char *) lpszA, (const char *) lpszB, RENAME_SWAP) == 0);
+#else
+    errno = ENOTSUP;
+    return JNI_FALSE;
+#endif
+}
+
+JNIEXPORT jboolean JNICALL Java_io_questdb_std_Files_softLink
+        (JNIEnv *e, jclass cls, jlong lpszSrc, jlong lpszSoftLink) {
+    return (jboolean) (symlink((const char *) lpszSrc, (const char *) lpszSoftLink) == 0);
+}
+
+JNIEXPORT jboolean JNICALL Java_io_questdb_std_Files_isSoftLink
+        (JNIEnv *e, jclass cls, jlong lpsz) {
+    struct stat st;
+    return (jboolean) (lstat((const char *) lpsz, &st) == 0 && S_ISLNK(st.st_mode));
+}
+
 JNIEXPORT jboolean JNICALL Java_io_questdb_std_Files_exists0
         (JNIEnv *e, jclass cls, jlong lpsz) {
     return access((const char *) lpsz, F_OK) == 0;
 }
+
+JNIEXPORT jboolean JNICALL Java_io_questdb_std_Files_hardLink
+        (JNIEnv *e, jclass cls, jlong lpszSrc, jlong lpszHardLink) {
+    return (jboolean) (link((const char *) lpszSrc, (const char *) lpszHardLink) == 0);
+}
+
+JNIEXPORT jboolean JNICALL Java_io_questdb_std_Files_copy
+        (JNIEnv *e, jclass cls, jlong lpszFrom, jlong lpszTo) {
+    int in = open((const char *) lpszFrom, O_RDONLY);
+    if (in == -1) {
+        return JNI_FALSE;
+    }
+
+    struct stat st;
+    if (fstat(in, &st) == -1) {
+        close(in);
+        return JNI_FALSE;
+    }
+
+    int out = open((const char *) lpszTo, O_WRONLY | O_CREAT | O_TRUNC, st.st_mode & 0777);
+    if (out == -1) {
+        close(in);
+        return JNI_FALSE;
+    }
+
+    off_t remaining = st.st_size;
+#if defined(__linux__) && defined(__NR_copy_file_range)
+    // let kernel copy the data, file systems that support reflinks will not copy at all
+    while (remaining > 0) {
+        ssize_t n = syscall(__NR_copy_file_range, in, NULL, out, NULL, (size_t) remaining, 0);
+        if (n <= 0) {
+            break;
+        }
+        remaining -= n;
+    }
+    // fall back to read/write when copy_file_range is not supported between these files
+    if (remaining > 0) {
+        lseek(in, st.st_size - remaining, SEEK_SET);
+        lseek(out, st.st_size - remaining, SEEK_SET);
+    }
+#endif
+
+    char buf[64 * 1024];
+    while (remaining > 0) {
+        ssize_t n = read(in, buf, sizeof(buf));
+        if (n <= 0) {
+            break;
+        }
+        ssize_t written = 0;
+        while (written < n) {
+            ssize_t w = write(out, buf + written, (size_t) (n - written));
+            if (w <= 0) {
+                break;
+            }
+            written += w;
+        }
+        if (written < n) {
+            break;
+        }
+        remaining -= n;
+    }
+
+    close(in);
+    close(out);
+    return (jboolean) (remaining == 0);
+}
@@ -29,6 +29,16 @@ extern "C" {
 #define com_questdb_std_Files_MAP_RO 1L
 #undef com_questdb_std_Files_MAP_RW
 #define com_questdb_std_Files_MAP_RW 2L
+#undef com_questdb_std_Files_MADV_NORMAL
+#define com_questdb_std_Files_MADV_NORMAL 0L
+#undef com_questdb_std_Files_MADV_RANDOM
+#define com_questdb_std_Files_MADV_RANDOM 1L
+#undef com_questdb_std_Files_MADV_SEQUENTIAL
+#define com_questdb_std_Files_MADV_SEQUENTIAL 2L
+#undef com_questdb_std_Files_MADV_WILLNEED
+#define com_questdb_std_Files_MADV_WILLNEED 3L
+#undef com_questdb_std_Files_MADV_DONTNEED
+#define com_questdb_std_Files_MADV_DONTNEED 4L
 /*
  * Class:     com_questdb_std_Files
  * Method:    append
@@ -141,6 +151,22 @@ JNIEXPORT jint JNICALL Java_io_questdb_std_Files_close0
 JNIEXPORT jint JNICALL Java_io_questdb_std_Files_munmap0
         (JNIEnv *, jclass, jlong, jlong);
 
+/*
+ * Class:     com_questdb_std_Files
+ * Method:    readAhead0
+ * Signature: (JJJ)I
+ */
+JNIEXPORT jint JNICALL Java_io_questdb_std_Files_readAhead0
+        (JNIEnv *, jclass, jlong, jlong, jlong);
+
+/*
+ * Class:     com_questdb_std_Files
+ * Method:    madvise0
+ * Signature: (JJI)I
+ */
+JNIEXPORT jint JNICALL Java_io_questdb_std_Files_madvise0
+        (JNIEnv *, jclass, jlong, jlong, jint);
+
 /*
  * Class:     com_questdb_std_Files
  * Method:    mmap0
@@ -245,6 +271,46 @@ JNIEXPORT jboolean JNICALL Java_io_questdb_std_Files_setLastModified
 JNIEXPORT jboolean JNICALL Java_io_questdb_std_Files_rename
         (JNIEnv *, jclass, jlong, jlong);
 
+/*
+ * Class:     com_questdb_std_Files
+ * Method:    hardLink
+ * Signature: (JJ)Z
+ */
+JNIEXPORT jboolean JNICALL Java_io_questdb_std_Files_hardLink
+        (JNIEnv *, jclass, jlong, jlong);
+
+/*
+ * Class:     com_questdb_std_Files
+ * Method:    copy
+ * Signature: (JJ)Z
+ */
+JNIEXPORT jboolean JNICALL Java_io_questdb_std_Files_copy
+        (JNIEnv *, jclass, jlong, jlong);
+
+/*
+ * Class:     com_questdb_std_Files
+ * Method:    exchange
+ * Signature: (JJ)Z
+ */
+JNIEXPORT jboolean JNICALL Java_io_questdb_std_Files_exchange
+        (JNIEnv *, jclass, jlong, jlong);
+
+/*
+ * Class:     com_questdb_std_Files
+ * Method:    softLink
+ * Signature: (JJ)Z
+ */
+JNIEXPORT jboolean JNICALL Java_io_questdb_std_Files_softLink
+        (JNIEnv *, jclass, jlong, jlong);
+
+/*
+ * Class:     com_questdb_std_Files
+ * Method:    isSoftLink
+ * Signature: (J)Z
+ */
+JNIEXPORT jboolean JNICALL Java_io_questdb_std_Files_isSoftLink
+        (JNIEnv *, jclass, jlong);
+
 #ifdef __cplusplus
 }
 #endif
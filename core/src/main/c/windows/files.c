@@ -315,6 +315,18 @@ JNIEXPORT jint JNICALL Java_io_questdb_std_Files_munmap0
     }
 }
 
+JNIEXPORT jint JNICALL Java_io_questdb_std_Files_readAhead0
+        (JNIEnv *e, jclass cl, jlong fd, jlong offset, jlong len) {
+    // Windows cache manager does its own read-ahead on sequential access
+    return 0;
+}
+
+JNIEXPORT jint JNICALL Java_io_questdb_std_Files_madvise0
+        (JNIEnv *e, jclass cl, jlong address, jlong len, jint advice) {
+    // there is no per-mapping access hint on Windows
+    return 0;
+}
+
 JNIEXPORT jlong JNICALL Java_io_questdb_std_Files_mmap0
         (JNIEnv *e, jclass cl, jlong fd, jlong len, jlong offset, jint flags) {
     jlong maxsize = offset + len;
@@ -500,3 +512,88 @@ JNIEXPORT jboolean JNICALL Java_io_questdb_std_Files_rename(JNIEnv *e, jclass cl
     SaveLastError();
     return FALSE;
 }
+
+JNIEXPORT jboolean JNICALL Java_io_questdb_std_Files_hardLink(JNIEnv *e, jclass cl, jlong lpszSrc, jlong lpszHardLink) {
+
+    size_t len = MultiByteToWideChar(CP_UTF8, 0, (LPCCH) lpszSrc, -1, NULL, 0);
+    if (len > 0) {
+        wchar_t buf1[len];
+        MultiByteToWideChar(CP_UTF8, 0, (LPCCH) lpszSrc, -1, buf1, len);
+
+        len = MultiByteToWideChar(CP_UTF8, 0, (LPCCH) lpszHardLink, -1, NULL, 0);
+
+        if (len > 0) {
+            wchar_t buf2[len];
+            MultiByteToWideChar(CP_UTF8, 0, (LPCCH) lpszHardLink, -1, buf2, len);
+
+            if (CreateHardLinkW(buf2, buf1, NULL)) {
+                return TRUE;
+            }
+        }
+    }
+    SaveLastError();
+    return FALSE;
+}
+
+JNIEXPORT jboolean JNICALL Java_io_questdb_std_Files_softLink(JNIEnv *e, jclass cl, jlong lpszSrc, jlong lpszSoftLink) {
+
+    size_t len = MultiByteToWideChar(CP_UTF8, 0, (LPCCH) lpszSrc, -1, NULL, 0);
+    if (len > 0) {
+        wchar_t buf1[len];
+        MultiByteToWideChar(CP_UTF8, 0, (LPCCH) lpszSrc, -1, buf1, len);
+
+        len = MultiByteToWideChar(CP_UTF8, 0, (LPCCH) lpszSoftLink, -1, NULL, 0);
+
+        if (len > 0) {
+            wchar_t buf2[len];
+            MultiByteToWideChar(CP_UTF8, 0, (LPCCH) lpszSoftLink, -1, buf2, len);
+
+            if (CreateSymbolicLinkW(buf2, buf1, SYMBOLIC_LINK_FLAG_DIRECTORY)) {
+                return TRUE;
+            }
+        }
+    }
+    SaveLastError();
+    return FALSE;
+}
+
+JNIEXPORT jboolean JNICALL Java_io_questdb_std_Files_isSoftLink(JNIEnv *e, jclass cl, jlong lpsz) {
+    size_t len = MultiByteToWideChar(CP_UTF8, 0, (LPCCH) lpsz, -1, NULL, 0);
+    if (len > 0) {
+        wchar_t buf[len];
+        MultiByteToWideChar(CP_UTF8, 0, (LPCCH) lpsz, -1, buf, len);
+
+        DWORD attrs = GetFileAttributesW(buf);
+        return attrs != INVALID_FILE_ATTRIBUTES && (attrs & FILE_ATTRIBUTE_REPARSE_POINT) != 0;
+    }
+    return FALSE;
+}
+
+JNIEXPORT jboolean JNICALL Java_io_questdb_std_Files_exchange(JNIEnv *e, jclass cl, jlong lpszA, jlong lpszB) {
+    // there is no atomic directory swap on Windows
+    SetLastError(ERROR_NOT_SUPPORTED);
+    SaveLastError();
+    return FALSE;
+}
+
+JNIEXPORT jboolean JNICALL Java_io_questdb_std_Files_copy(JNIEnv *e, jclass cl, jlong lpszFrom, jlong lpszTo) {
+
+    size_t len = MultiByteToWideChar(CP_UTF8, 0, (LPCCH) lpszFrom, -1, NULL, 0);
+    if (len > 0) {
+        wchar_t buf1[len];
+        MultiByteToWideChar(CP_UTF8, 0, (LPCCH) lpszFrom, -1, buf1, len);
+
+        len = MultiByteToWideChar(CP_UTF8, 0, (LPCCH) lpszTo, -1, NULL, 0);
+
+        if (len > 0) {
+            wchar_t buf2[len];
+            MultiByteToWideChar(CP_UTF8, 0, (LPCCH) lpszTo, -1, buf2, len);
+
+            if (CopyFileW(buf1, buf2, FALSE)) {
+                return TRUE;
+            }
+        }
+    }
+    SaveLastError();
+    return FALSE;
+}
@@ -27,15 +27,36 @@ package io.questdb;
 import io.questdb.mp.RingQueue;
 import io.questdb.mp.Sequence;
 import io.questdb.tasks.ColumnIndexerTask;
+import io.questdb.tasks.ColumnPrefetchTask;
+import io.questdb.tasks.ColumnSyncTask;
+import io.questdb.tasks.TextImportTask;
 import io.questdb.tasks.VectorAggregateTask;
 
 public interface MessageBus {
+    Sequence getColumnPrefetchPubSequence();
+
+    RingQueue<ColumnPrefetchTask> getColumnPrefetchQueue();
+
+    Sequence getColumnPrefetchSubSequence();
+
+    Sequence getColumnSyncPubSequence();
+
+    RingQueue<ColumnSyncTask> getColumnSyncQueue();
+
+    Sequence getColumnSyncSubSequence();
+
     Sequence getIndexerPubSequence();
 
     RingQueue<ColumnIndexerTask> getIndexerQueue();
 
     Sequence getIndexerSubSequence();
 
+    Sequence getTextImportPubSequence();
+
+    RingQueue<TextImportTask> getTextImportQueue();
+
+    Sequence getTextImportSubSequence();
+
     RingQueue<VectorAggregateTask> getVectorAggregateQueue();
 
     Sequence getVectorAggregatePubSequence();
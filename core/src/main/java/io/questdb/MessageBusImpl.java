@@ -29,6 +29,9 @@ import io.questdb.mp.MPSequence;
 import io.questdb.mp.RingQueue;
 import io.questdb.mp.Sequence;
 import io.questdb.tasks.ColumnIndexerTask;
+import io.questdb.tasks.ColumnPrefetchTask;
+import io.questdb.tasks.ColumnSyncTask;
+import io.questdb.tasks.TextImportTask;
 import io.questdb.tasks.VectorAggregateTask;
 
 public class MessageBusImpl implements MessageBus {
@@ -40,9 +43,54 @@ public class MessageBusImpl implements MessageBus {
     private final MPSequence vectorAggregatePubSeq = new MPSequence(vectorAggregaterQueue.getCapacity());
     private final MCSequence vectorAggregateSubSeq = new MCSequence(vectorAggregaterQueue.getCapacity());
 
+    private final RingQueue<ColumnPrefetchTask> columnPrefetchQueue = new RingQueue<>(ColumnPrefetchTask::new, 1024);
+    private final MPSequence columnPrefetchPubSeq = new MPSequence(columnPrefetchQueue.getCapacity());
+    private final MCSequence columnPrefetchSubSeq = new MCSequence(columnPrefetchQueue.getCapacity());
+
+    private final RingQueue<ColumnSyncTask> columnSyncQueue = new RingQueue<>(ColumnSyncTask::new, 1024);
+    private final MPSequence columnSyncPubSeq = new MPSequence(columnSyncQueue.getCapacity());
+    private final MCSequence columnSyncSubSeq = new MCSequence(columnSyncQueue.getCapacity());
+
+    private final RingQueue<TextImportTask> textImportQueue = new RingQueue<>(TextImportTask::new, 256);
+    private final MPSequence textImportPubSeq = new MPSequence(textImportQueue.getCapacity());
+    private final MCSequence textImportSubSeq = new MCSequence(textImportQueue.getCapacity());
+
     public MessageBusImpl() {
         this.indexerPubSeq.then(this.indexerSubSeq).then(this.indexerPubSeq);
+        this.textImportPubSeq.then(textImportSubSeq).then(textImportPubSeq);
         this.vectorAggregatePubSeq.then(vectorAggregateSubSeq).then(vectorAggregatePubSeq);
+        this.columnPrefetchPubSeq.then(columnPrefetchSubSeq).then(columnPrefetchPubSeq);
+        this.columnSyncPubSeq.then(columnSyncSubSeq).then(columnSyncPubSeq);
+    }
+
+    @Override
+    public Sequence getColumnPrefetchPubSequence() {
+        return columnPrefetchPubSeq;
+    }
+
+    @Override
+    public RingQueue<ColumnPrefetchTask> getColumnPrefetchQueue() {
+        return columnPrefetchQueue;
+    }
+
+    @Override
+    public Sequence getColumnPrefetchSubSequence() {
+        return columnPrefetchSubSeq;
+    }
+
+    @Override
+    public Sequence getColumnSyncPubSequence() {
+        return columnSyncPubSeq;
+    }
+
+    @Override
+    public RingQueue<ColumnSyncTask> getColumnSyncQueue() {
+        return columnSyncQueue;
+    }
+
+    @Override
+    public Sequence getColumnSyncSubSequence() {
+        return columnSyncSubSeq;
     }
 
     @Override
@@ -60,6 +108,21 @@ public class MessageBusImpl implements MessageBus {
         return indexerSubSeq;
     }
 
+    @Override
+    public Sequence getTextImportPubSequence() {
+        return textImportPubSeq;
+    }
+
+    @Override
+    public RingQueue<TextImportTask> getTextImportQueue() {
+        return textImportQueue;
+    }
+
+    @Override
+    public Sequence getTextImportSubSequence() {
+        return textImportSubSeq;
+    }
+
     @Override
     public RingQueue<VectorAggregateTask> getVectorAggregateQueue() {
         return vectorAggregaterQueue;
@@ -75,8 +75,10 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final int maxSwapFileCount;
     private final int mkdirMode;
     private final int parallelIndexThreshold;
+    private final int bloomFilterSize;
     private final int readerPoolMaxSegments;
     private final long spinLockTimeoutUs;
+    private final long groupCommitWaitTimeout;
     private final int sqlCacheRows;
     private final int sqlCacheBlocks;
     private final int sqlCharacterStoreCapacity;
@@ -99,6 +101,7 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final int sqlSortValuePageSize;
     private final long workStealTimeoutNanos;
     private final boolean parallelIndexingEnabled;
+    private final boolean parallelColumnSyncEnabled;
     private final int sqlJoinMetadataPageSize;
     private final int lineUdpCommitRate;
     private final int lineUdpGroupIPv4Address;
@@ -123,7 +126,15 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final int lineUdpOwnThreadAffinity;
     private final boolean lineUdpUnicast;
     private final boolean lineUdpOwnThread;
+    private final int lineUdpWriterShardCount;
+    private final int lineUdpReceiverCount;
+    private final long lineUdpMaxCommitLatency;
+    private final long lineUdpMaxUncommittedRows;
+    private final long lineUdpMaxUncommittedBytes;
+    private final int[] lineUdpReceiverAffinity;
+    private final int lineUdpWriterQueueCapacity;
     private final int sqlCopyBufferSize;
+    private final long sqlCopyParallelChunkSize;
     private final int sqlAnalyticColumnPoolCapacity;
     private final int sqlCreateTableModelPoolCapacity;
     private final int sqlColumnCastModelPoolCapacity;
@@ -136,6 +147,12 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final TimestampFormat backupDirTimestampFormat;
     private final CharSequence backupTempDirName;
     private final int backupMkdirMode;
+    private final boolean backupFileLevelEnabled;
+    private final String coldRoot;
+    private final int coldPartitionAgeDays;
+    private final boolean columnAccessAdviceEnabled;
+    private final boolean columnPrefetchEnabled;
+    private final boolean sharedColumnMappingEnabled;
     private boolean httpAllowDeflateBeforeSend;
     private int[] httpWorkerAffinity;
     private int connectionPoolInitialCapacity;
@@ -151,6 +168,8 @@ public class PropServerConfiguration implements ServerConfiguration {
     private CharSequence indexFileName;
     private String publicDirectory;
     private int activeConnectionLimit;
+    private int dispatcherCount;
+    private boolean ioUringEnabled;
     private int eventCapacity;
     private int ioQueueCapacity;
     private long idleConnectionTimeout;
@@ -228,6 +247,8 @@ public class PropServerConfiguration implements ServerConfiguration {
             }
 
             this.activeConnectionLimit = getInt(properties, "http.net.active.connection.limit", 256);
+            this.dispatcherCount = getInt(properties, "http.net.dispatcher.count", 1);
+            this.ioUringEnabled = getBoolean(properties, "http.net.io.uring.enabled", false);
             this.eventCapacity = getInt(properties, "http.net.event.capacity", 1024);
             this.ioQueueCapacity = getInt(properties, "http.net.io.queue.capacity", 1024);
             this.idleConnectionTimeout = getLong(properties, "http.net.idle.connection.timeout", 5 * 60 * 1000L);
@@ -276,8 +297,10 @@ public class PropServerConfiguration implements ServerConfiguration {
         this.maxSwapFileCount = getInt(properties, "cairo.max.swap.file.count", 30);
         this.mkdirMode = getInt(properties, "cairo.mkdir.mode", 509);
         this.parallelIndexThreshold = getInt(properties, "cairo.parallel.index.threshold", 100000);
+        this.bloomFilterSize = Numbers.ceilPow2(getIntSize(properties, "cairo.bloom.filter.size", 1024 * 1024));
         this.readerPoolMaxSegments = getInt(properties, "cairo.reader.pool.max.segments", 5);
         this.spinLockTimeoutUs = getLong(properties, "cairo.spin.lock.timeout", 1_000_000);
+        this.groupCommitWaitTimeout = getLong(properties, "cairo.group.commit.wait.timeout", 1_000);
         this.sqlCacheRows = getInt(properties, "cairo.cache.rows", 16);
         this.sqlCacheBlocks = getIntSize(properties, "cairo.cache.blocks", 4);
         this.sqlCharacterStoreCapacity = getInt(properties, "cairo.character.store.capacity", 1024);
@@ -299,6 +322,7 @@ public class PropServerConfiguration implements ServerConfiguration {
         this.sqlSortValuePageSize = getIntSize(properties, "cairo.sql.sort.value.page.size", 16777216);
         this.workStealTimeoutNanos = getLong(properties, "cairo.work.steal.timeout.nanos", 10_000);
         this.parallelIndexingEnabled = getBoolean(properties, "cairo.parallel.indexing.enabled", true);
+        this.parallelColumnSyncEnabled = getBoolean(properties, "cairo.parallel.column.sync.enabled", true);
         this.sqlJoinMetadataPageSize = getIntSize(properties, "cairo.sql.join.metadata.page.size", 16384);
         this.sqlAnalyticColumnPoolCapacity = getInt(properties, "cairo.sql.analytic.column.pool.capacity", 64);
         this.sqlCreateTableModelPoolCapacity = getInt(properties, "cairo.sql.create.table.model.pool.capacity", 16);
@@ -308,6 +332,7 @@ public class PropServerConfiguration implements ServerConfiguration {
         this.sqlInsertModelPoolCapacity = getInt(properties, "cairo.sql.insert.model.pool.capacity", 64);
         this.sqlCopyModelPoolCapacity = getInt(properties, "cairo.sql.copy.model.pool.capacity", 32);
         this.sqlCopyBufferSize = getIntSize(properties, "cairo.sql.copy.buffer.size", 2 * 1024 * 1024);
+        this.sqlCopyParallelChunkSize = getLongSize(properties, "cairo.sql.copy.parallel.chunk.size", 64 * 1024 * 1024);
         final String sqlCopyFormatsFile = getString(properties, "cairo.sql.copy.formats.file", "/text_loader.json");
 
         final String dateLocale = getString(properties, "cairo.date.locale", "en");
@@ -340,6 +365,18 @@ public class PropServerConfiguration implements ServerConfiguration {
         this.backupDirTimestampFormat = getTimestampFormat(properties, "cairo.sql.backup.dir.datetime.format", "yyyy-MM-dd");
         this.backupTempDirName = getString(properties, "cairo.sql.backup.dir.tmp.name", "tmp");
         this.backupMkdirMode = getInt(properties, "cairo.sql.backup.mkdir.mode", 509);
+        this.backupFileLevelEnabled = getBoolean(properties, "cairo.sql.backup.file.level.enabled", false);
+
+        final String coldRoot = getString(properties, "cairo.cold.root", null);
+        if (coldRoot == null || new File(coldRoot).isAbsolute()) {
+            this.coldRoot = coldRoot;
+        } else {
+            this.coldRoot = new File(root, coldRoot).getAbsolutePath();
+        }
+        this.coldPartitionAgeDays = getInt(properties, "cairo.cold.partition.age.days", 30);
+        this.columnAccessAdviceEnabled = getBoolean(properties, "cairo.column.access.advice.enabled", false);
+        this.columnPrefetchEnabled = getBoolean(properties, "cairo.column.prefetch.enabled", false);
+        this.sharedColumnMappingEnabled = getBoolean(properties, "cairo.shared.column.mapping.enabled", true);
 
         parseBindTo(properties, "line.udp.bind.to", "0.0.0.0:9009", (a, p) -> {
             this.lineUdpBindIPV4Address = a;
@@ -356,6 +393,13 @@ public class PropServerConfiguration implements ServerConfiguration {
         this.lineUdpOwnThread = getBoolean(properties, "line.udp.own.thread", false);
         this.lineUdpUnicast = getBoolean(properties, "line.udp.unicast", false);
         this.lineUdpCommitMode = getCommitMode(properties, "line.udp.commit.mode");
+        this.lineUdpWriterShardCount = getInt(properties, "line.udp.writer.shard.count", 0);
+        this.lineUdpReceiverCount = getInt(properties, "line.udp.receiver.count", 1);
+        this.lineUdpMaxCommitLatency = getLong(properties, "line.udp.commit.max.latency", 0);
+        this.lineUdpMaxUncommittedRows = getLong(properties, "line.udp.commit.max.rows", 0);
+        this.lineUdpMaxUncommittedBytes = getLongSize(properties, "line.udp.commit.max.bytes", 0);
+        this.lineUdpReceiverAffinity = getAffinity(properties, "line.udp.receiver.affinity", lineUdpReceiverCount);
+        this.lineUdpWriterQueueCapacity = getInt(properties, "line.udp.writer.queue.capacity", 1024);
 
         final String lineUdpTimestampSwitch = getString(properties, "line.udp.timestamp", "n");
         switch (lineUdpTimestampSwitch) {
@@ -619,6 +663,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return MillisecondClockImpl.INSTANCE;
         }
 
+        @Override
+        public int getDispatcherCount() {
+            return dispatcherCount;
+        }
+
         @Override
         public String getDispatcherLogName() {
             return "http-server";
@@ -678,6 +727,11 @@ public class PropServerConfiguration implements ServerConfiguration {
         public int getSndBufSize() {
             return sndBufSize;
         }
+
+        @Override
+        public boolean isIOUringEnabled() {
+            return ioUringEnabled;
+        }
     }
 
     private class PropTextConfiguration implements TextConfiguration {
@@ -868,6 +922,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return sqlCopyBufferSize;
         }
 
+        @Override
+        public long getSqlCopyParallelChunkSize() {
+            return sqlCopyParallelChunkSize;
+        }
+
         @Override
         public int getCopyPoolCapacity() {
             return sqlCopyModelPoolCapacity;
@@ -878,6 +937,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return createAsSelectRetryCount;
         }
 
+        @Override
+        public int getBloomFilterSize() {
+            return bloomFilterSize;
+        }
+
         @Override
         public CharSequence getDefaultMapType() {
             return defaultMapType;
@@ -988,11 +1052,46 @@ public class PropServerConfiguration implements ServerConfiguration {
             return backupMkdirMode;
         }
 
+        @Override
+        public boolean isBackupFileLevelEnabled() {
+            return backupFileLevelEnabled;
+        }
+
+        @Override
+        public CharSequence getColdRoot() {
+            return coldRoot;
+        }
+
+        @Override
+        public int getColdPartitionAgeDays() {
+            return coldPartitionAgeDays;
+        }
+
+        @Override
+        public boolean isColumnAccessAdviceEnabled() {
+            return columnAccessAdviceEnabled;
+        }
+
+        @Override
+        public boolean isColumnPrefetchEnabled() {
+            return columnPrefetchEnabled;
+        }
+
+        @Override
+        public boolean isSharedColumnMappingEnabled() {
+            return sharedColumnMappingEnabled;
+        }
+
         @Override
         public long getSpinLockTimeoutUs() {
             return spinLockTimeoutUs;
         }
 
+        @Override
+        public long getGroupCommitWaitTimeout() {
+            return groupCommitWaitTimeout;
+        }
+
         @Override
         public int getSqlCharacterStoreCapacity() {
             return sqlCharacterStoreCapacity;
@@ -1093,6 +1192,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return parallelIndexingEnabled;
         }
 
+        @Override
+        public boolean isParallelColumnSyncEnabled() {
+            return parallelColumnSyncEnabled;
+        }
+
         @Override
         public int getSqlJoinMetadataPageSize() {
             return sqlJoinMetadataPageSize;
@@ -1219,6 +1323,41 @@ public class PropServerConfiguration implements ServerConfiguration {
         public LineProtoTimestampAdapter getTimestampAdapter() {
             return lineUdpTimestampAdapter;
         }
+
+        @Override
+        public long getMaxCommitLatency() {
+            return lineUdpMaxCommitLatency;
+        }
+
+        @Override
+        public long getMaxUncommittedBytes() {
+            return lineUdpMaxUncommittedBytes;
+        }
+
+        @Override
+        public long getMaxUncommittedRows() {
+            return lineUdpMaxUncommittedRows;
+        }
+
+        @Override
+        public int[] getReceiverAffinity() {
+            return lineUdpReceiverAffinity;
+        }
+
+        @Override
+        public int getReceiverCount() {
+            return lineUdpReceiverCount;
+        }
+
+        @Override
+        public int getWriterQueueCapacity() {
+            return lineUdpWriterQueueCapacity;
+        }
+
+        @Override
+        public int getWriterShardCount() {
+            return lineUdpWriterShardCount;
+        }
     }
 
     private class PropJsonQueryProcessorConfiguration implements JsonQueryProcessorConfiguration {
@@ -26,9 +26,7 @@ package io.questdb;
 
 import io.questdb.cairo.CairoEngine;
 import io.questdb.cutlass.http.HttpServer;
-import io.questdb.cutlass.line.udp.AbstractLineProtoReceiver;
-import io.questdb.cutlass.line.udp.LineProtoReceiver;
-import io.questdb.cutlass.line.udp.LinuxMMLineProtoReceiver;
+import io.questdb.cutlass.line.udp.LineUdpServer;
 import io.questdb.cutlass.pgwire.PGWireServer;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
@@ -158,23 +156,13 @@ public class ServerMain {
                 messageBus
         );
 
-        final AbstractLineProtoReceiver lineProtocolReceiver;
-
-        if (Os.type == Os.LINUX_AMD64 || Os.type == Os.LINUX_ARM64) {
-            lineProtocolReceiver = new LinuxMMLineProtoReceiver(
-                    configuration.getLineUdpReceiverConfiguration(),
-                    cairoEngine,
-                    workerPool
-            );
-        } else {
-            lineProtocolReceiver = new LineProtoReceiver(
-                    configuration.getLineUdpReceiverConfiguration(),
-                    cairoEngine,
-                    workerPool
-            );
-        }
+        final LineUdpServer lineUdpServer = new LineUdpServer(
+                configuration.getLineUdpReceiverConfiguration(),
+                cairoEngine,
+                workerPool
+        );
 
-        startQuestDb(workerPool, lineProtocolReceiver, log);
+        startQuestDb(workerPool, lineUdpServer, log);
 
         if (Os.type != Os.WINDOWS && optHash.get("-n") == null) {
             // suppress HUP signal
@@ -184,7 +172,7 @@ public class ServerMain {
 
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             System.err.println(new Date() + " QuestDB is shutting down");
-            shutdownQuestDb(workerPool, cairoEngine, httpServer, pgWireServer, lineProtocolReceiver);
+            shutdownQuestDb(workerPool, cairoEngine, httpServer, pgWireServer, lineUdpServer);
             System.err.println(new Date() + " QuestDB is down");
         }));
     }
@@ -325,22 +313,22 @@ public class ServerMain {
                                           final CairoEngine cairoEngine,
                                           final HttpServer httpServer,
                                           final PGWireServer pgWireServer,
-                                          final AbstractLineProtoReceiver lineProtocolReceiver
+                                          final LineUdpServer lineUdpServer
     ) {
-        lineProtocolReceiver.halt();
+        lineUdpServer.halt();
         workerPool.halt();
         Misc.free(pgWireServer);
         Misc.free(httpServer);
         Misc.free(cairoEngine);
-        Misc.free(lineProtocolReceiver);
+        Misc.free(lineUdpServer);
     }
 
     protected static void startQuestDb(
             final WorkerPool workerPool,
-            final AbstractLineProtoReceiver lineProtocolReceiver,
+            final LineUdpServer lineUdpServer,
             final Log log
     ) {
         workerPool.start(log);
-        lineProtocolReceiver.start();
+        lineUdpServer.start();
     }
 }
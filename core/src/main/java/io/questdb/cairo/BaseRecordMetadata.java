@@ -74,6 +74,10 @@ public abstract class BaseRecordMetadata implements RecordMetadata {
         return getColumnQuick(columnIndex).isIndexed();
     }
 
+    public boolean isColumnBloomFiltered(int columnIndex) {
+        return getColumnQuick(columnIndex).isBloomFiltered();
+    }
+
     public TableColumnMetadata getColumnQuick(int index) {
         return columnMetadata.getQuick(index);
     }
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.sql.DataFrame;
+import io.questdb.cairo.sql.DataFrameCursor;
+import io.questdb.cairo.sql.StaticSymbolTable;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Skips data frames of partitions, which bloom filter proves do not contain
+ * value of equality predicate. Frames that are not skipped still have to be
+ * filtered because bloom filter can produce false positives.
+ */
+public class BloomFilterDataFrameCursor implements DataFrameCursor {
+    private final int columnIndex;
+    private final long hash;
+    private DataFrameCursor delegate;
+    private int lastPartitionIndex = -1;
+    private boolean lastPartitionMightContain;
+
+    public BloomFilterDataFrameCursor(int columnIndex, long hash) {
+        this.columnIndex = columnIndex;
+        this.hash = hash;
+    }
+
+    @Override
+    public void close() {
+        if (delegate != null) {
+            delegate.close();
+            delegate = null;
+        }
+    }
+
+    @Override
+    public TableReader getTableReader() {
+        return delegate.getTableReader();
+    }
+
+    @Override
+    public boolean reload() {
+        lastPartitionIndex = -1;
+        return delegate.reload();
+    }
+
+    @Override
+    public StaticSymbolTable getSymbolTable(int columnIndex) {
+        return delegate.getSymbolTable(columnIndex);
+    }
+
+    @Override
+    public @Nullable DataFrame next() {
+        DataFrame frame;
+        while ((frame = delegate.next()) != null) {
+            final int partitionIndex = frame.getPartitionIndex();
+            if (partitionIndex != lastPartitionIndex) {
+                lastPartitionIndex = partitionIndex;
+                lastPartitionMightContain = delegate.getTableReader().bloomFilterMightContain(partitionIndex, columnIndex, hash);
+            }
+
+            if (lastPartitionMightContain) {
+                return frame;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void toTop() {
+        delegate.toTop();
+    }
+
+    @Override
+    public long size() {
+        // number of rows in partitions we are not going to skip is unknown upfront
+        return -1;
+    }
+
+    public BloomFilterDataFrameCursor of(DataFrameCursor delegate) {
+        this.delegate = delegate;
+        this.lastPartitionIndex = -1;
+        return this;
+    }
+}
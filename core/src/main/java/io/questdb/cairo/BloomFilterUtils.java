@@ -0,0 +1,149 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.std.Unsafe;
+import io.questdb.std.str.Path;
+
+/**
+ * Per-partition bloom filter layout. File consists of fixed size header followed by
+ * bit array, which size is power of 2 bytes. Header stores number of partition rows
+ * filter is known to cover. Readers must not trust filter that covers fewer rows than
+ * partition they are about to skip.
+ * <p>
+ * Each value is hashed into 64-bit number and sets {@link #PROBE_COUNT} bits, which
+ * positions are derived from lower and upper halves of the hash (double hashing).
+ */
+public final class BloomFilterUtils {
+    static final int HEADER_OFFSET_ROW_COUNT = 0;
+    static final int HEADER_OFFSET_BIT_ARRAY_SIZE = 8;
+    static final int HEADER_SIZE = 64;
+    static final int PROBE_COUNT = 3;
+
+    private BloomFilterUtils() {
+    }
+
+    public static Path fileName(Path path, CharSequence name) {
+        return path.concat(name).put(".bf").$();
+    }
+
+    public static long hash(long value) {
+        // murmur3 finalizer
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    public static long hash(CharSequence value) {
+        return hash(value, 0, value.length());
+    }
+
+    public static long hash(CharSequence value, int lo, int hi) {
+        long h = 0;
+        for (int i = lo; i < hi; i++) {
+            h = 31 * h + value.charAt(i);
+        }
+        return hash(h ^ (hi - lo));
+    }
+
+    /**
+     * Same as {@link #hash(CharSequence)} for UTF16 characters in native memory.
+     *
+     * @param address address of first character
+     * @param len     number of characters
+     * @return value hash
+     */
+    public static long hashChars(long address, int len) {
+        long h = 0;
+        for (int i = 0; i < len; i++) {
+            h = 31 * h + Unsafe.getUnsafe().getChar(address + i * 2L);
+        }
+        return hash(h ^ len);
+    }
+
+    public static long hash(char value) {
+        return hash(value ^ 1L);
+    }
+
+    /**
+     * Sets bits of given hash in bit array.
+     *
+     * @param address address of first byte of bit array
+     * @param bitMask number of bits in array - 1
+     * @param hash    value hash as returned by one of hash() methods
+     */
+    static void add(long address, long bitMask, long hash) {
+        for (int i = 0; i < PROBE_COUNT; i++) {
+            final long p = address + wordOffset(bitMask, hash, i);
+            Unsafe.getUnsafe().putLong(p, Unsafe.getUnsafe().getLong(p) | wordBit(bitMask, hash, i));
+        }
+    }
+
+    /**
+     * Probes mapped filter file. Answer errs on the side of caution: when filter is malformed
+     * or does not cover all partition rows we assume value might be present.
+     *
+     * @param address  address of mapped filter file
+     * @param size     size of mapped filter file
+     * @param rowCount number of rows in partition
+     * @param hash     value hash
+     * @return false when value is definitely not in partition
+     */
+    static boolean mightContain(long address, long size, long rowCount, long hash) {
+        if (size < HEADER_SIZE || Unsafe.getUnsafe().getLong(address + HEADER_OFFSET_ROW_COUNT) < rowCount) {
+            return true;
+        }
+
+        final long bitArraySize = Unsafe.getUnsafe().getLong(address + HEADER_OFFSET_BIT_ARRAY_SIZE);
+        if (bitArraySize < 8 || (bitArraySize & (bitArraySize - 1)) != 0 || HEADER_SIZE + bitArraySize > size) {
+            return true;
+        }
+
+        final long bitMask = bitArraySize * 8 - 1;
+        final long bits = address + HEADER_SIZE;
+        for (int i = 0; i < PROBE_COUNT; i++) {
+            if ((Unsafe.getUnsafe().getLong(bits + wordOffset(bitMask, hash, i)) & wordBit(bitMask, hash, i)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Position of long word in bit array, relative to start of array, which
+     * contains bit for given probe.
+     */
+    static long wordOffset(long bitMask, long hash, int probe) {
+        return (((int) hash + (long) probe * (int) (hash >>> 32)) & bitMask) >>> 6 << 3;
+    }
+
+    static long wordBit(long bitMask, long hash, int probe) {
+        return 1L << ((((int) hash + (long) probe * (int) (hash >>> 32)) & bitMask) & 63);
+    }
+}
@@ -0,0 +1,174 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.Files;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.Unsafe;
+import io.questdb.std.str.Path;
+
+import java.io.Closeable;
+
+/**
+ * Maintains bloom filter of single column in single partition. Filter file is created
+ * on first open and its bit array is mapped into memory for the lifetime of the writer.
+ * Values can only be added, which means rows that have been cancelled or rolled back
+ * leave their bits behind. This is harmless, such bits can only produce false positives.
+ */
+public class BloomFilterWriter implements Closeable {
+    private static final Log LOG = LogFactory.getLog(BloomFilterWriter.class);
+    private FilesFacade ff;
+    private long fd = -1;
+    private long address = 0;
+    private long size = 0;
+    private long bitMask;
+
+    public BloomFilterWriter(CairoConfiguration configuration, Path path, CharSequence name) {
+        of(configuration, path, name);
+    }
+
+    public BloomFilterWriter() {
+    }
+
+    public void add(long hash) {
+        BloomFilterUtils.add(address + BloomFilterUtils.HEADER_SIZE, bitMask, hash);
+    }
+
+    /**
+     * Records number of partition rows filter covers. Filter that has been invalidated
+     * stays invalid until it is truncated.
+     *
+     * @param rowCount partition row count
+     */
+    public void commit(long rowCount) {
+        if (getRowCount() > -1) {
+            setRowCount(rowCount);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (address != 0) {
+            ff.munmap(address, size);
+            address = 0;
+        }
+        if (fd != -1) {
+            ff.close(fd);
+            LOG.debug().$("closed [fd=").$(fd).$(']').$();
+            fd = -1;
+        }
+    }
+
+    public long getRowCount() {
+        return Unsafe.getUnsafe().getLong(address + BloomFilterUtils.HEADER_OFFSET_ROW_COUNT);
+    }
+
+    public void invalidate() {
+        setRowCount(-1);
+    }
+
+    public boolean isOpen() {
+        return address != 0;
+    }
+
+    final public void of(CairoConfiguration configuration, Path path, CharSequence name) {
+        close();
+        this.ff = configuration.getFilesFacade();
+        final int plen = path.length();
+        try {
+            BloomFilterUtils.fileName(path, name);
+            this.fd = ff.openRW(path);
+            if (fd == -1) {
+                throw CairoException.instance(ff.errno()).put("Cannot open ").put(path);
+            }
+
+            final long len = ff.length(fd);
+            long bitArraySize = 0;
+            if (len >= BloomFilterUtils.HEADER_SIZE + 8) {
+                // existing filter keeps the size it was created with
+                bitArraySize = readLong(BloomFilterUtils.HEADER_OFFSET_BIT_ARRAY_SIZE);
+                if (len != BloomFilterUtils.HEADER_SIZE + bitArraySize || bitArraySize < 8 || (bitArraySize & (bitArraySize - 1)) != 0) {
+                    LOG.error().$("incorrect file size [corrupt] of ").$(path).$(" [size=").$(bitArraySize).$(']').$();
+                    throw CairoException.instance(0).put("Incorrect file size of ").put(path);
+                }
+            }
+
+            final boolean created = bitArraySize == 0;
+            if (created) {
+                bitArraySize = Math.max(8, configuration.getBloomFilterSize());
+                if (!ff.truncate(fd, BloomFilterUtils.HEADER_SIZE + bitArraySize)) {
+                    throw CairoException.instance(ff.errno()).put("Cannot resize ").put(path);
+                }
+            }
+
+            this.size = BloomFilterUtils.HEADER_SIZE + bitArraySize;
+            this.address = ff.mmap(fd, size, 0, Files.MAP_RW);
+            if (address == -1) {
+                address = 0;
+                throw CairoException.instance(ff.errno()).put("Cannot mmap read-write fd=").put(fd).put(", size=").put(size);
+            }
+            this.bitMask = bitArraySize * 8 - 1;
+
+            if (created) {
+                Unsafe.getUnsafe().setMemory(address, size, (byte) 0);
+                Unsafe.getUnsafe().putLong(address + BloomFilterUtils.HEADER_OFFSET_BIT_ARRAY_SIZE, bitArraySize);
+            }
+        } catch (CairoException e) {
+            close();
+            throw e;
+        } finally {
+            path.trimTo(plen);
+        }
+    }
+
+    public void setRowCount(long rowCount) {
+        Unsafe.getUnsafe().putLong(address + BloomFilterUtils.HEADER_OFFSET_ROW_COUNT, rowCount);
+    }
+
+    public void sync(boolean async) {
+        if (address != 0 && ff.msync(address, size, async) != 0) {
+            LOG.error().$("could not msync [fd=").$(fd).$(", errno=").$(ff.errno()).$(']').$();
+        }
+    }
+
+    public void truncate() {
+        Unsafe.getUnsafe().setMemory(address + BloomFilterUtils.HEADER_SIZE, size - BloomFilterUtils.HEADER_SIZE, (byte) 0);
+        setRowCount(0);
+    }
+
+    private long readLong(long offset) {
+        final long buf = Unsafe.malloc(8);
+        try {
+            if (ff.read(fd, buf, 8, offset) != 8) {
+                throw CairoException.instance(ff.errno()).put("Cannot read header of bloom filter [fd=").put(fd).put(']');
+            }
+            return Unsafe.getUnsafe().getLong(buf);
+        } finally {
+            Unsafe.free(buf, 8);
+        }
+    }
+}
@@ -37,6 +37,12 @@ public interface CairoConfiguration {
 
     int getSqlCopyBufferSize();
 
+    // COPY splits files larger than two chunks to be parsed in parallel, 0 disables parallel import
+    long getSqlCopyParallelChunkSize();
+
+    // size of per-partition bloom filter in bytes, must be power of 2
+    int getBloomFilterSize();
+
     int getCopyPoolCapacity();
 
     int getCreateAsSelectRetryCount();
@@ -87,8 +93,28 @@ public interface CairoConfiguration {
 
     int getBackupMkDirMode();
 
+    boolean isBackupFileLevelEnabled();
+
+    // null disables moving partitions to cold storage
+    CharSequence getColdRoot();
+
+    // partitions older than this are moved to cold root by writer maintenance
+    int getColdPartitionAgeDays();
+
+    // when true table scans hint OS on how column pages are going to be accessed
+    boolean isColumnAccessAdviceEnabled();
+
+    // when true table scans request read-ahead of the next data frame while current one is being read
+    boolean isColumnPrefetchEnabled();
+
+    // when true pooled readers share maps of immutable column files instead of mapping them each
+    boolean isSharedColumnMappingEnabled();
+
     long getSpinLockTimeoutUs();
 
+    // how long insert waits to join group commit before failing as if table were busy, milliseconds
+    long getGroupCommitWaitTimeout();
+
     int getSqlCharacterStoreCapacity();
 
     int getSqlCharacterStoreSequencePoolCapacity();
@@ -129,6 +155,9 @@ public interface CairoConfiguration {
 
     boolean isParallelIndexingEnabled();
 
+    // when true synchronous commit syncs column files on worker threads and waits for all of them
+    boolean isParallelColumnSyncEnabled();
+
     /**
      * This holds table metadata, which is usually quite small. 16K page should be adequate.
      *
@@ -34,15 +34,24 @@ import io.questdb.MessageBus;
 import io.questdb.cairo.pool.PoolListener;
 import io.questdb.cairo.pool.ReaderPool;
 import io.questdb.cairo.pool.WriterPool;
+import io.questdb.cairo.pool.ex.EntryLockedException;
+import io.questdb.cairo.pool.ex.EntryUnavailableException;
 import io.questdb.cairo.sql.ReaderOutOfDateException;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.mp.SynchronizedJob;
+import io.questdb.std.Chars;
+import io.questdb.std.ConcurrentHashMap;
 import io.questdb.std.Files;
 import io.questdb.std.FilesFacade;
+import io.questdb.std.FindVisitor;
 import io.questdb.std.Misc;
+import io.questdb.std.Sinkable;
 import io.questdb.std.Transient;
+import io.questdb.std.Unsafe;
 import io.questdb.std.microtime.MicrosecondClock;
+import io.questdb.std.microtime.Timestamps;
+import io.questdb.std.str.NativeLPSZ;
 import io.questdb.std.str.Path;
 
 public class CairoEngine implements Closeable {
@@ -53,6 +62,7 @@ public class CairoEngine implements Closeable {
     private final CairoConfiguration configuration;
     private final WriterMaintenanceJob writerMaintenanceJob;
     private final MessageBus messageBus;
+    private final ConcurrentHashMap<GroupCommitQueue> groupCommitQueues = new ConcurrentHashMap<>();
 
     public CairoEngine(CairoConfiguration configuration) {
         this(configuration, null);
@@ -74,6 +84,7 @@ public class CairoEngine implements Closeable {
     public void close() {
         Misc.free(writerPool);
         Misc.free(readerPool);
+        Misc.free(writerMaintenanceJob);
     }
 
     public void creatTable(
@@ -158,6 +169,32 @@ public class CairoEngine implements Closeable {
         return writerPool.get(tableName);
     }
 
+    /**
+     * Appends row described by task to the table and commits it, possibly together with rows
+     * other threads are inserting into the same table at the same time. Returns once commit
+     * containing the row is complete.
+     *
+     * @param securityContext security context
+     * @param tableName       table to insert row into
+     * @param task            appends row to the table writer
+     */
+    public void appendAndCommit(
+            CairoSecurityContext securityContext,
+            CharSequence tableName,
+            GroupCommitQueue.Task task
+    ) {
+        GroupCommitQueue queue = groupCommitQueues.get(tableName);
+        if (queue == null) {
+            final String name = Chars.toString(tableName);
+            queue = new GroupCommitQueue(this, name);
+            GroupCommitQueue other = groupCommitQueues.putIfAbsent(name, queue);
+            if (other != null) {
+                queue = other;
+            }
+        }
+        queue.appendAndCommit(securityContext, task);
+    }
+
     public TableWriter getBackupWriter(
             CairoSecurityContext securityContext,
             CharSequence tableName,
@@ -229,11 +266,13 @@ public class CairoEngine implements Closeable {
         if (lock(securityContext, tableName)) {
             try {
                 path.of(configuration.getRoot()).concat(tableName).$();
+                removeColdPartitions(path);
                 if (!configuration.getFilesFacade().rmdir(path)) {
                     int error = configuration.getFilesFacade().errno();
                     LOG.error().$("remove failed [tableName='").utf8(tableName).$("', error=").$(error).$(']').$();
                     throw CairoException.instance(error).put("Table remove failed");
                 }
+                groupCommitQueues.remove(tableName);
                 return;
             } finally {
                 unlock(securityContext, tableName, null);
@@ -258,6 +297,7 @@ public class CairoEngine implements Closeable {
         if (lock(securityContext, tableName)) {
             try {
                 rename0(path, tableName, otherPath, newName);
+                groupCommitQueues.remove(tableName);
             } finally {
                 unlock(securityContext, tableName, null);
             }
@@ -280,6 +320,24 @@ public class CairoEngine implements Closeable {
         readerPool.unlock(tableName);
     }
 
+    // partitions moved to cold root are links, table directory removal would leave their targets behind
+    private void removeColdPartitions(Path path) {
+        final FilesFacade ff = configuration.getFilesFacade();
+        final int len = path.length();
+        try (Path linkTarget = new Path()) {
+            ff.iterateDir(path, (name, type) -> {
+                if (type == Files.DT_LNK) {
+                    path.trimTo(len).concat(name).$();
+                    if (!TableUtils.removePartitionDir(ff, path, linkTarget)) {
+                        LOG.error().$("could not remove cold partition [path=").$(path).$(", errno=").$(ff.errno()).$(']').$();
+                    }
+                }
+            });
+        } finally {
+            path.trimTo(len).$();
+        }
+    }
+
     private void rename0(Path path, CharSequence tableName, Path otherPath, CharSequence to) {
         final FilesFacade ff = configuration.getFilesFacade();
         final CharSequence root = configuration.getRoot();
@@ -304,19 +362,91 @@ public class CairoEngine implements Closeable {
         }
     }
 
-    private class WriterMaintenanceJob extends SynchronizedJob {
+    private class WriterMaintenanceJob extends SynchronizedJob implements Closeable {
 
         private final MicrosecondClock clock;
         private final long checkInterval;
+        private final CharSequence coldRoot;
+        private final NativeLPSZ nativeLPSZ = new NativeLPSZ();
+        private final FindVisitor maintainTable = this::maintainTable0;
+        private final Path path = new Path();
+        private long ttlBuf = Unsafe.malloc(Integer.BYTES);
         private long last = 0;
+        private long now;
+        private boolean useful;
 
         public WriterMaintenanceJob(CairoConfiguration configuration) {
             this.clock = configuration.getMicrosecondClock();
             this.checkInterval = configuration.getIdleCheckInterval() * 1000;
+            this.coldRoot = configuration.getColdRoot();
+        }
+
+        @Override
+        public void close() {
+            Misc.free(path);
+            if (ttlBuf != 0) {
+                Unsafe.free(ttlBuf, Integer.BYTES);
+                ttlBuf = 0;
+            }
         }
 
         protected boolean doRun() {
-        	return releaseInactive();
+            boolean useful = releaseInactive();
+            useful |= maintainTables();
+            return useful;
+        }
+
+        private boolean maintainTables() {
+            now = clock.getTicks();
+            useful = false;
+            configuration.getFilesFacade().iterateDir(path.of(configuration.getRoot()).$(), maintainTable);
+            return useful;
+        }
+
+        // drops expired partitions and moves old ones to cold root while holding table writer,
+        // writers that are never released catch up on expiry when they commit a new partition
+        private void maintainTable0(long name, int type) {
+            nativeLPSZ.of(name);
+            if (type != Files.DT_DIR || nativeLPSZ.charAt(0) == '.') {
+                return;
+            }
+
+            final FilesFacade ff = configuration.getFilesFacade();
+            final String tableName = nativeLPSZ.toString();
+            if (TableUtils.exists(ff, path, configuration.getRoot(), tableName) != TableUtils.TABLE_EXISTS) {
+                return;
+            }
+
+            if (coldRoot == null && readTtl(ff, tableName) == 0) {
+                return;
+            }
+
+            try (TableWriter writer = writerPool.get(tableName)) {
+                if (writer.removeExpiredPartitions(now) > 0) {
+                    useful = true;
+                }
+
+                if (coldRoot != null && writer.moveColdPartitions(now - configuration.getColdPartitionAgeDays() * Timestamps.DAY_MICROS) > 0) {
+                    useful = true;
+                }
+            } catch (EntryUnavailableException | EntryLockedException e) {
+                // table is busy, try again next time
+                LOG.debug().$("skipped table maintenance [table=").$(tableName).$(']').$();
+            } catch (CairoException e) {
+                LOG.error().$("table maintenance failed [table=").$(tableName).$(", e=").$((Sinkable) e).$(']').$();
+            }
+        }
+
+        private int readTtl(FilesFacade ff, CharSequence tableName) {
+            final long fd = ff.openRO(path.of(configuration.getRoot()).concat(tableName).concat(TableUtils.META_FILE_NAME).$());
+            if (fd == -1) {
+                return 0;
+            }
+            try {
+                return ff.read(fd, ttlBuf, Integer.BYTES, TableUtils.META_OFFSET_TTL) == Integer.BYTES ? Unsafe.getUnsafe().getInt(ttlBuf) : 0;
+            } finally {
+                ff.close(fd);
+            }
         }
 
         @Override
@@ -0,0 +1,121 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.std.IntList;
+import io.questdb.std.LongList;
+import io.questdb.std.Mutable;
+import io.questdb.std.ObjList;
+
+/**
+ * Column-oriented batch of rows for {@link TableWriter#appendBatch(ColumnBatch)}. Batch
+ * references native buffers owned by the caller, one buffer per column, each holding values
+ * for all rows of the batch:
+ * <ul>
+ * <li>fixed size columns - values laid out as in column file, e.g. 8 bytes per LONG</li>
+ * <li>STRING and BINARY columns - values laid out as in column file, length prefix followed by
+ * characters or bytes, length of -1 denotes null</li>
+ * <li>SYMBOL columns - 4 byte keys into dictionary supplied with the buffer, -1 denotes null</li>
+ * </ul>
+ * Columns that are not set are appended as nulls. Designated timestamp column is set via
+ * {@link #setTimestamps(long)}, timestamps must be in ascending order.
+ */
+public class ColumnBatch implements Mutable {
+    private final LongList addresses = new LongList();
+    private final LongList positions = new LongList();
+    private final ObjList<ObjList<? extends CharSequence>> dictionaries = new ObjList<>();
+    private final ObjList<IntList> symbolKeys = new ObjList<>();
+    private long rowCount;
+    private long timestampAddress;
+
+    @Override
+    public void clear() {
+        addresses.clear();
+        positions.clear();
+        dictionaries.clear();
+        rowCount = 0;
+        timestampAddress = 0;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public long getTimestampAddress() {
+        return timestampAddress;
+    }
+
+    public ColumnBatch of(int columnCount, long rowCount) {
+        clear();
+        this.rowCount = rowCount;
+        addresses.setAll(columnCount, 0);
+        positions.setAll(columnCount, 0);
+        dictionaries.setAll(columnCount, null);
+        return this;
+    }
+
+    public ColumnBatch setColumn(int columnIndex, long address) {
+        addresses.setQuick(columnIndex, address);
+        positions.setQuick(columnIndex, address);
+        return this;
+    }
+
+    public ColumnBatch setSymbolColumn(int columnIndex, long keysAddress, ObjList<? extends CharSequence> dictionary) {
+        setColumn(columnIndex, keysAddress);
+        dictionaries.setQuick(columnIndex, dictionary);
+        return this;
+    }
+
+    public ColumnBatch setTimestamps(long address) {
+        this.timestampAddress = address;
+        return this;
+    }
+
+    long getColumnAddress(int columnIndex) {
+        return columnIndex < addresses.size() ? addresses.getQuick(columnIndex) : 0;
+    }
+
+    ObjList<? extends CharSequence> getDictionary(int columnIndex) {
+        return dictionaries.getQuick(columnIndex);
+    }
+
+    // read position in variable length column buffer, batch is appended in segments
+    // when it spans multiple partitions
+    long getPosition(int columnIndex) {
+        return positions.getQuick(columnIndex);
+    }
+
+    IntList getSymbolKeys(int columnIndex) {
+        IntList keys = symbolKeys.getQuiet(columnIndex);
+        if (keys == null) {
+            symbolKeys.extendAndSet(columnIndex, keys = new IntList());
+        }
+        return keys;
+    }
+
+    void setPosition(int columnIndex, long position) {
+        positions.setQuick(columnIndex, position);
+    }
+}
@@ -0,0 +1,129 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.CharSequenceObjHashMap;
+import io.questdb.std.Chars;
+import io.questdb.std.Files;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.str.LPSZ;
+import io.questdb.std.str.StringSink;
+
+/**
+ * Reference counted read-only mappings of column files shared by readers of the same pool.
+ * Mappings are keyed by file name and size, readers that see the same file at the same size
+ * get the same address range and file descriptor. File that has grown gets a new mapping,
+ * old one is released when last reader lets go of it. Readers that outlive their pool release
+ * mappings as they close, registry does not own any mapping itself.
+ */
+public class ColumnMappingRegistry {
+    private static final Log LOG = LogFactory.getLog(ColumnMappingRegistry.class);
+    private final CharSequenceObjHashMap<Mapping> mappings = new CharSequenceObjHashMap<>();
+    private final StringSink keySink = new StringSink();
+    private final FilesFacade ff;
+
+    public ColumnMappingRegistry(FilesFacade ff) {
+        this.ff = ff;
+    }
+
+    public synchronized Mapping acquire(LPSZ name, long size) {
+        keySink.clear();
+        keySink.put(name).put('#').put(size);
+        Mapping mapping = mappings.get(keySink);
+        if (mapping != null) {
+            if (ff.exists(mapping.fd)) {
+                mapping.refCount++;
+                return mapping;
+            }
+            // file has been removed and possibly re-created under the same name,
+            // readers still holding on to the old mapping will release it
+            mappings.remove(keySink);
+            mapping.key = null;
+        }
+
+        final long fd = ff.openRO(name);
+        if (fd == -1) {
+            throw CairoException.instance(ff.errno()).put("Cannot open file: ").put(name);
+        }
+        mapping = new Mapping(Chars.toString(keySink), fd, ff.mmap(fd, size, 0, Files.MAP_RO), size);
+        mappings.put(mapping.key, mapping);
+        LOG.info().$("mapped ").$(name).$(" [fd=").$(fd).$(", size=").$(size).$(']').$();
+        return mapping;
+    }
+
+    public synchronized void release(Mapping mapping) {
+        if (--mapping.refCount == 0) {
+            if (mapping.key != null) {
+                mappings.remove(mapping.key);
+            }
+            free(mapping);
+        }
+    }
+
+    synchronized int size() {
+        return mappings.size();
+    }
+
+    private void free(Mapping mapping) {
+        if (mapping.address != -1) {
+            ff.munmap(mapping.address, mapping.size);
+        }
+        ff.close(mapping.fd);
+        LOG.info().$("unmapped [fd=").$(mapping.fd).$(", size=").$(mapping.size).$(']').$();
+    }
+
+    public static class Mapping {
+        private final long fd;
+        private final long address;
+        private final long size;
+        private String key;
+        private int refCount = 1;
+
+        private Mapping(String key, long fd, long address, long size) {
+            this.key = key;
+            this.fd = fd;
+            this.address = address;
+            this.size = size;
+        }
+
+        public long getAddress() {
+            return address;
+        }
+
+        public long getFd() {
+            return fd;
+        }
+
+        /**
+         * @return true when nobody else holds on to this mapping. Hints that change how kernel treats
+         * pages of the mapping should not be given when other readers might be reading it.
+         */
+        public boolean isExclusive() {
+            return refCount == 1;
+        }
+    }
+}
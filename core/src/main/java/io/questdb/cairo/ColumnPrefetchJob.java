@@ -0,0 +1,64 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.MessageBus;
+import io.questdb.mp.Job;
+import io.questdb.mp.RingQueue;
+import io.questdb.mp.Sequence;
+import io.questdb.std.FilesFacade;
+import io.questdb.tasks.ColumnPrefetchTask;
+
+public class ColumnPrefetchJob implements Job {
+    private final RingQueue<ColumnPrefetchTask> queue;
+    private final Sequence subSeq;
+    private final FilesFacade ff;
+
+    public ColumnPrefetchJob(MessageBus messageBus, FilesFacade ff) {
+        this.queue = messageBus.getColumnPrefetchQueue();
+        this.subSeq = messageBus.getColumnPrefetchSubSequence();
+        this.ff = ff;
+    }
+
+    @Override
+    public boolean run(int workerId) {
+        long cursor = subSeq.next();
+        if (cursor < 0) {
+            return false;
+        }
+
+        final ColumnPrefetchTask queueItem = queue.get(cursor);
+        // copy values and release queue item
+        final long fd = queueItem.fd;
+        final long offset = queueItem.offset;
+        final long len = queueItem.len;
+        subSeq.done(cursor);
+
+        // Reader may have closed the file by now and descriptor could even be reused.
+        // This is harmless, worst case we warm up page cache for the wrong file.
+        ff.readAhead(fd, offset, len);
+        return true;
+    }
+}
@@ -0,0 +1,64 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.MessageBus;
+import io.questdb.mp.Job;
+import io.questdb.mp.RingQueue;
+import io.questdb.mp.SOCountDownLatch;
+import io.questdb.mp.Sequence;
+import io.questdb.tasks.ColumnSyncTask;
+
+public class ColumnSyncJob implements Job {
+    private final RingQueue<ColumnSyncTask> queue;
+    private final Sequence subSeq;
+
+    public ColumnSyncJob(MessageBus messageBus) {
+        this.queue = messageBus.getColumnSyncQueue();
+        this.subSeq = messageBus.getColumnSyncSubSequence();
+    }
+
+    @Override
+    public boolean run(int workerId) {
+        long cursor = subSeq.next();
+        if (cursor < 0) {
+            return false;
+        }
+
+        final ColumnSyncTask queueItem = queue.get(cursor);
+        // copy values and release queue item
+        final ColumnSyncer syncer = queueItem.syncer;
+        final long sequence = queueItem.sequence;
+        final SOCountDownLatch latch = queueItem.countDownLatch;
+        subSeq.done(cursor);
+
+        // writer steals columns it got tired of waiting for, same as with column indexers
+        if (syncer.tryLock(sequence)) {
+            TableWriter.syncAndCountDown(syncer, latch);
+            return true;
+        }
+        return false;
+    }
+}
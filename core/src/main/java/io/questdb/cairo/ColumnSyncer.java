@@ -0,0 +1,63 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.std.Unsafe;
+
+/**
+ * Syncs primary and secondary files of a column on behalf of writer. Writer and
+ * ColumnSyncJob race to lock syncer for given sequence, whoever wins does the work.
+ */
+public class ColumnSyncer {
+    private static final long SEQUENCE_OFFSET;
+
+    static {
+        SEQUENCE_OFFSET = Unsafe.getFieldOffset(ColumnSyncer.class, "sequence");
+    }
+
+    private AppendMemory primary;
+    private AppendMemory secondary;
+    private volatile long sequence = 0L;
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void of(AppendMemory primary, AppendMemory secondary) {
+        this.primary = primary;
+        this.secondary = secondary;
+    }
+
+    public void sync() {
+        primary.sync(false);
+        if (secondary != null) {
+            secondary.sync(false);
+        }
+    }
+
+    public boolean tryLock(long expectedSequence) {
+        return Unsafe.cas(this, SEQUENCE_OFFSET, expectedSequence, expectedSequence + 1);
+    }
+}
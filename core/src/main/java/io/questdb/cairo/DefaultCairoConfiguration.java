@@ -47,6 +47,16 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 1024 * 1024;
     }
 
+    @Override
+    public long getSqlCopyParallelChunkSize() {
+        return 64 * 1024 * 1024;
+    }
+
+    @Override
+    public int getBloomFilterSize() {
+        return 1024 * 1024;
+    }
+
     @Override
     public int getCopyPoolCapacity() {
         return 16;
@@ -167,11 +177,46 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 509;
     }
 
+    @Override
+    public boolean isBackupFileLevelEnabled() {
+        return false;
+    }
+
+    @Override
+    public CharSequence getColdRoot() {
+        return null;
+    }
+
+    @Override
+    public int getColdPartitionAgeDays() {
+        return 30;
+    }
+
+    @Override
+    public boolean isColumnAccessAdviceEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isColumnPrefetchEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isSharedColumnMappingEnabled() {
+        return true;
+    }
+
     @Override
     public long getSpinLockTimeoutUs() {
         return 1000000;
     }
 
+    @Override
+    public long getGroupCommitWaitTimeout() {
+        return 1000;
+    }
+
     @Override
     public int getSqlCharacterStoreCapacity() {
         // 1024 seems like a good fit, but tests need
@@ -274,6 +319,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return true;
     }
 
+    @Override
+    public boolean isParallelColumnSyncEnabled() {
+        return true;
+    }
+
     @Override
     public int getSqlJoinMetadataPageSize() {
         return 16 * 1024;
@@ -0,0 +1,190 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.pool.ex.EntryUnavailableException;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.ObjList;
+import io.questdb.std.time.MillisecondClock;
+
+/**
+ * Commits rows inserted concurrently into the same table together. Each inserter enqueues its row
+ * and one of them, the leader, takes the table writer, appends every queued row and commits once.
+ * Inserters that arrive while leader is busy wait for it to finish, rows that did not make it into
+ * leader's batch are committed by the next leader. Every inserter returns only after commit
+ * containing its row is complete or with the error that prevented its row from being committed.
+ * <p>
+ * Inserters wait on IO worker threads, so waiting to join a batch is bounded. Row that has not been
+ * taken by a leader within {@link CairoConfiguration#getGroupCommitWaitTimeout()} is withdrawn and
+ * inserter fails with {@link EntryUnavailableException}, same as when table writer is busy.
+ */
+public class GroupCommitQueue {
+    private static final Log LOG = LogFactory.getLog(GroupCommitQueue.class);
+    private final CairoEngine engine;
+    private final CharSequence tableName;
+    private final MillisecondClock clock;
+    private final long waitTimeout;
+    private final ObjList<Task> pending = new ObjList<>();
+    private final ObjList<Task> batch = new ObjList<>();
+    private boolean leaderActive = false;
+
+    public GroupCommitQueue(CairoEngine engine, CharSequence tableName) {
+        this.engine = engine;
+        this.tableName = tableName;
+        this.clock = engine.getConfiguration().getMillisecondClock();
+        this.waitTimeout = engine.getConfiguration().getGroupCommitWaitTimeout();
+    }
+
+    public void appendAndCommit(CairoSecurityContext securityContext, Task task) {
+        task.done = false;
+        task.taken = false;
+        task.error = null;
+
+        boolean interrupted = false;
+        boolean timedOut = false;
+        synchronized (this) {
+            pending.add(task);
+            final long deadline = clock.getTicks() + waitTimeout;
+            while (leaderActive && !task.done) {
+                try {
+                    if (task.taken) {
+                        // leader owns our task until it marks it done, we cannot leave before that
+                        wait();
+                    } else {
+                        final long remaining = deadline - clock.getTicks();
+                        if (remaining <= 0) {
+                            pending.remove(task);
+                            timedOut = true;
+                            break;
+                        }
+                        wait(remaining);
+                    }
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (!task.done && !timedOut) {
+                leaderActive = true;
+                takePending();
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (timedOut) {
+            LOG.info().$("group commit wait timed out [table=").$(tableName).$(']').$();
+            throw EntryUnavailableException.INSTANCE;
+        }
+
+        if (!task.done) {
+            try {
+                commitBatch(securityContext);
+            } finally {
+                synchronized (this) {
+                    for (int i = 0, n = batch.size(); i < n; i++) {
+                        batch.getQuick(i).done = true;
+                    }
+                    batch.clear();
+                    leaderActive = false;
+                    notifyAll();
+                }
+            }
+        }
+
+        final Throwable error = task.error;
+        if (error != null) {
+            task.error = null;
+            if (error instanceof RuntimeException) {
+                throw (RuntimeException) error;
+            }
+            throw (Error) error;
+        }
+    }
+
+    public CharSequence getTableName() {
+        return tableName;
+    }
+
+    private void commitBatch(CairoSecurityContext securityContext) {
+        final int n = batch.size();
+        final TableWriter writer;
+        try {
+            writer = engine.getWriter(securityContext, tableName);
+        } catch (Throwable e) {
+            setError(e);
+            return;
+        }
+
+        try {
+            for (int i = 0; i < n; i++) {
+                final Task task = batch.getQuick(i);
+                try {
+                    task.append(writer);
+                } catch (Throwable e) {
+                    // partially appended row is cancelled by next row or commit
+                    task.error = e;
+                }
+            }
+            writer.commit();
+            LOG.debug().$("group commit [table=").$(tableName).$(", size=").$(n).$(']').$();
+        } catch (Throwable e) {
+            setError(e);
+        } finally {
+            writer.close();
+        }
+    }
+
+    private void setError(Throwable e) {
+        for (int i = 0, n = batch.size(); i < n; i++) {
+            final Task task = batch.getQuick(i);
+            if (task.error == null) {
+                task.error = e;
+            }
+        }
+    }
+
+    private void takePending() {
+        for (int i = 0, n = pending.size(); i < n; i++) {
+            pending.getQuick(i).taken = true;
+        }
+        batch.addAll(pending);
+        pending.clear();
+    }
+
+    /**
+     * Row waiting in the queue. Task is appended on leader's thread while inserter that
+     * enqueued it waits, so the task is free to use inserter's state.
+     */
+    public abstract static class Task {
+        private boolean done;
+        private boolean taken;
+        private Throwable error;
+
+        protected abstract void append(TableWriter writer);
+    }
+}
@@ -114,6 +114,10 @@ public class NullColumn implements ReadOnlyColumn {
     public void grow(long size) {
     }
 
+    @Override
+    public void advise(int advice) {
+    }
+
     @Override
     public void getLong256(long offset, CharSink sink) {
     }
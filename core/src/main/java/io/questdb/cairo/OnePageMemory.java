@@ -40,6 +40,9 @@ public class OnePageMemory implements ReadOnlyColumn, Closeable {
     private final CharSequenceView csview2 = new CharSequenceView();
     private final Long256Impl long256 = new Long256Impl();
     private final Long256Impl long256B = new Long256Impl();
+    // mapping is shared with other readers when registry is set
+    private final ColumnMappingRegistry registry;
+    private ColumnMappingRegistry.Mapping mapping;
     private long page = -1;
     private FilesFacade ff;
     private long fd = -1;
@@ -47,6 +50,11 @@ public class OnePageMemory implements ReadOnlyColumn, Closeable {
     private long absolutePointer;
 
     public OnePageMemory(FilesFacade ff, LPSZ name, long size) {
+        this(ff, name, size, null);
+    }
+
+    public OnePageMemory(FilesFacade ff, LPSZ name, long size, ColumnMappingRegistry registry) {
+        this.registry = registry;
         of(ff, name, 0, size);
     }
 
@@ -57,6 +65,14 @@ public class OnePageMemory implements ReadOnlyColumn, Closeable {
 
     @Override
     public void close() {
+        if (mapping != null) {
+            registry.release(mapping);
+            mapping = null;
+            page = -1;
+            fd = -1;
+            this.size = 0;
+            return;
+        }
         if (page != -1) {
             ff.munmap(page, size);
         }
@@ -76,6 +92,16 @@ public class OnePageMemory implements ReadOnlyColumn, Closeable {
         if (!exists) {
             throw CairoException.instance(0).put("File not found: ").put(name);
         }
+
+        if (registry != null) {
+            mapping = registry.acquire(name, size);
+            this.fd = mapping.getFd();
+            this.size = size;
+            this.page = mapping.getAddress();
+            this.absolutePointer = page;
+            return;
+        }
+
         fd = ff.openRO(name);
         if (fd == -1) {
             throw CairoException.instance(ff.errno()).put("Cannot open file: ").put(name);
@@ -171,6 +197,13 @@ public class OnePageMemory implements ReadOnlyColumn, Closeable {
     public void grow(long size) {
     }
 
+    @Override
+    public void advise(int advice) {
+        if (page != -1 && (mapping == null || mapping.isExclusive())) {
+            ff.madvise(page, size, advice);
+        }
+    }
+
     @Override
     public boolean isDeleted() {
         return !ff.exists(fd);
@@ -75,6 +75,12 @@ public interface ReadOnlyColumn extends Closeable {
 
     void grow(long size);
 
+    /**
+     * Hints OS on how mapped pages of this column are going to be read,
+     * advice is one of Files.MADV_* constants.
+     */
+    void advise(int advice);
+
     boolean isDeleted();
 
     int getPageCount();
@@ -39,6 +39,7 @@ public class ReadOnlyMemory extends VirtualMemory implements ReadOnlyColumn {
     private int lastPageIndex;
     private long pageSize;
     private long userSize = 0;
+    private int advice = Files.MADV_NORMAL;
 
     public ReadOnlyMemory(FilesFacade ff, LPSZ name, long pageSize, long size) {
         of(ff, name, pageSize, size);
@@ -56,6 +57,7 @@ public class ReadOnlyMemory extends VirtualMemory implements ReadOnlyColumn {
             fd = -1;
             this.size = 0;
             this.userSize = 0;
+            this.advice = Files.MADV_NORMAL;
         }
     }
 
@@ -100,6 +102,20 @@ public class ReadOnlyMemory extends VirtualMemory implements ReadOnlyColumn {
         }
     }
 
+    @Override
+    public void advise(int advice) {
+        if (advice != this.advice) {
+            for (int i = 0, n = pages.size(); i < n; i++) {
+                final long address = pages.getQuick(i);
+                if (address != 0) {
+                    ff.madvise(address, getPageSize(i), advice);
+                }
+            }
+            // dropped pages are mapped back with default access pattern
+            this.advice = advice == Files.MADV_DONTNEED ? Files.MADV_NORMAL : advice;
+        }
+    }
+
     @Override
     public long getFd() {
         return fd;
@@ -190,7 +206,13 @@ public class ReadOnlyMemory extends VirtualMemory implements ReadOnlyColumn {
             }
 
             address = ff.mmap(fd, sz, offset, Files.MAP_RO);
-            return address == -1L ? recoverPageMapOrFail(page, offset, sz) : cachePageAddress(page, address);
+            if (address == -1L) {
+                return recoverPageMapOrFail(page, offset, sz);
+            }
+            if (advice != Files.MADV_NORMAL) {
+                ff.madvise(address, sz, advice);
+            }
+            return cachePageAddress(page, address);
         }
         throw CairoException.instance(ff.errno()).put("Trying to map read-only page outside of file boundary. fd=").put(fd).put(", offset=").put(offset).put(", size=").put(this.size).put(", page=").put(sz);
     }
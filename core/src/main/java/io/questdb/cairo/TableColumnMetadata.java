@@ -30,6 +30,7 @@ public class TableColumnMetadata {
     private final boolean symbolTableStatic;
     private int indexValueBlockCapacity;
     private boolean indexed;
+    private boolean bloomFiltered;
 
     public TableColumnMetadata(String name, int type) {
         this(name, type, false, 0, false);
@@ -42,12 +43,24 @@ public class TableColumnMetadata {
             boolean indexFlag,
             int indexValueBlockCapacity,
             boolean symbolTableStatic
+    ) {
+        this(name, type, indexFlag, indexValueBlockCapacity, symbolTableStatic, false);
+    }
+
+    public TableColumnMetadata(
+            String name,
+            int type,
+            boolean indexFlag,
+            int indexValueBlockCapacity,
+            boolean symbolTableStatic,
+            boolean bloomFilterFlag
     ) {
         this.name = name;
         this.type = type;
         this.indexed = indexFlag;
         this.indexValueBlockCapacity = indexValueBlockCapacity;
         this.symbolTableStatic = symbolTableStatic;
+        this.bloomFiltered = bloomFilterFlag;
     }
 
     public int getIndexValueBlockCapacity() {
@@ -66,6 +79,14 @@ public class TableColumnMetadata {
         return type;
     }
 
+    public boolean isBloomFiltered() {
+        return bloomFiltered;
+    }
+
+    public void setBloomFiltered(boolean value) {
+        bloomFiltered = value;
+    }
+
     public boolean isIndexed() {
         return indexed;
     }
@@ -0,0 +1,244 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.*;
+import io.questdb.std.str.NativeLPSZ;
+import io.questdb.std.str.Path;
+import io.questdb.std.str.StringSink;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+
+/**
+ * Copies table directory at the transaction of given reader without going through table writer.
+ * Partitions, which are sealed at that transaction, are hard linked when possible and the active
+ * partition along with table level files is copied. Writer only ever appends to files, so copying
+ * them after transaction file is enough for the copy to be consistent. Hard linked files are
+ * shared between the copy and the source table, which is how table snapshots are made cheap.
+ * <p>
+ * When root of previous backups is provided, sealed partition files that are already present in
+ * the most recent backup of the table are linked to instead of being copied.
+ */
+public class TableFileBackup implements Closeable {
+    private static final Log LOG = LogFactory.getLog(TableFileBackup.class);
+    private final FilesFacade ff;
+    private final CharSequence root;
+    private final Path srcPath = new Path();
+    private final Path dstPath = new Path();
+    private final Path priorPath = new Path();
+    private final AppendMemory mem = new AppendMemory();
+    private final NativeLPSZ nativeLPSZ = new NativeLPSZ();
+    private final StringSink activePartitionName = new StringSink();
+    private CharSequence tableName;
+    private CharSequence backupRoot;
+    private int mkDirMode;
+    private long priorLastModified;
+    private boolean hasPrior;
+    private boolean sealed;
+    private int srcLen;
+    private int dstLen;
+    private int priorLen;
+    private int partitionSrcLen;
+    private int partitionDstLen;
+    private int partitionPriorLen;
+    private int linkCount;
+    private int copyCount;
+    private final FindVisitor priorOnFind = this::onPriorFind;
+    private final FindVisitor partitionFileOnFind = this::onPartitionFileFind;
+    private final FindVisitor tableFileOnFind = this::onTableFileFind;
+
+    public TableFileBackup(CairoConfiguration configuration) {
+        this.ff = configuration.getFilesFacade();
+        this.root = configuration.getRoot();
+    }
+
+    /**
+     * Copies table of the reader into dstRoot. Reader may be reloaded when writer commits
+     * while transaction file is being copied.
+     *
+     * @param reader       reader of the table to be copied
+     * @param dstRoot      directory to create copy of table in
+     * @param dstTableName name of the copy
+     * @param mkDirMode    mode to create directories of the copy with
+     * @param backupRoot   directory, subdirectories of which contain previous backups or null
+     */
+    public void backup(TableReader reader, CharSequence dstRoot, CharSequence dstTableName, int mkDirMode, @Nullable CharSequence backupRoot) {
+        this.tableName = dstTableName;
+        this.mkDirMode = mkDirMode;
+        try {
+            findPrior(backupRoot);
+
+            dstPath.of(dstRoot).concat(tableName);
+            dstLen = dstPath.length();
+            if (ff.exists(dstPath.put(Files.SEPARATOR).$())) {
+                throw CairoException.instance(0).put("Backup dir for table \"").put(tableName).put("\" already exists [dir=").put(dstPath).put(']');
+            }
+
+            if (ff.mkdirs(dstPath, mkDirMode) != 0) {
+                throw CairoException.instance(ff.errno()).put("Could not create [dir=").put(dstPath).put(']');
+            }
+
+            // transaction file goes first, files we copy after it have at least as much data
+            try {
+                mem.of(ff, dstPath.trimTo(dstLen).concat(TableUtils.TXN_FILE_NAME).$(), ff.getPageSize());
+                while (!reader.copyTxnTo(mem)) {
+                    reader.reload();
+                }
+                mem.of(ff, dstPath.trimTo(dstLen).concat(TableUtils.META_FILE_NAME).$(), ff.getPageSize());
+                ((TableReaderMetadata) reader.getMetadata()).cloneTo(mem);
+            } finally {
+                mem.close();
+            }
+
+            activePartitionName.clear();
+            if (reader.getPartitionedBy() == PartitionBy.NONE) {
+                activePartitionName.put(TableUtils.DEFAULT_PARTITION_NAME);
+            } else if (reader.getMaxTimestamp() != Numbers.LONG_NaN) {
+                TableWriter.selectPartitionDirFmt(reader.getPartitionedBy()).format(
+                        reader.floorToPartitionTimestamp(reader.getMaxTimestamp()),
+                        null,
+                        null,
+                        activePartitionName
+                );
+            }
+            // when table is empty active partition name is empty and all partitions are skipped
+
+            linkCount = 0;
+            copyCount = 0;
+            srcPath.of(root).concat(reader.getTableName());
+            srcLen = srcPath.length();
+            ff.iterateDir(srcPath.$(), tableFileOnFind);
+
+            LOG.info().$("copied table files [table=").$(reader.getTableName())
+                    .$(", to=").$(dstPath.trimTo(dstLen).$())
+                    .$(", linked=").$(linkCount)
+                    .$(", copied=").$(copyCount)
+                    .$(']').$();
+        } finally {
+            this.tableName = null;
+            this.backupRoot = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        Misc.free(srcPath);
+        Misc.free(dstPath);
+        Misc.free(priorPath);
+        Misc.free(mem);
+    }
+
+    private void copyFile() {
+        if (!ff.copy(srcPath, dstPath)) {
+            throw CairoException.instance(ff.errno()).put("Could not copy [from=").put(srcPath).put(", to=").put(dstPath).put(']');
+        }
+        copyCount++;
+    }
+
+    private void findPrior(@Nullable CharSequence backupRoot) {
+        hasPrior = false;
+        if (backupRoot != null) {
+            this.backupRoot = backupRoot;
+            priorLastModified = Long.MIN_VALUE;
+            ff.iterateDir(srcPath.of(backupRoot).$(), priorOnFind);
+            if (hasPrior) {
+                priorLen = priorPath.length();
+                LOG.info().$("found previous backup [table=").$(tableName).$(", dir=").$(priorPath.$()).$(']').$();
+            }
+        }
+    }
+
+    private void onPartitionFileFind(long file, int type) {
+        if (type == Files.DT_DIR) {
+            return;
+        }
+        srcPath.trimTo(partitionSrcLen).concat(file).$();
+        dstPath.trimTo(partitionDstLen).concat(file).$();
+        if (sealed) {
+            if (hasPrior) {
+                priorPath.trimTo(partitionPriorLen).concat(file).$();
+                if (ff.exists(priorPath) && ff.length(priorPath) == ff.length(srcPath) && ff.hardLink(priorPath, dstPath)) {
+                    linkCount++;
+                    return;
+                }
+            }
+            if (ff.hardLink(srcPath, dstPath)) {
+                linkCount++;
+                return;
+            }
+        }
+        copyFile();
+    }
+
+    private void onPriorFind(long file, int type) {
+        nativeLPSZ.of(file);
+        if (type == Files.DT_DIR && nativeLPSZ.charAt(0) != '.') {
+            dstPath.of(backupRoot).concat(file).concat(tableName).concat(TableUtils.TXN_FILE_NAME).$();
+            if (ff.exists(dstPath)) {
+                final long lastModified = ff.getLastModified(dstPath);
+                if (lastModified > priorLastModified) {
+                    priorLastModified = lastModified;
+                    priorPath.of(backupRoot).concat(file).concat(tableName);
+                    hasPrior = true;
+                }
+            }
+        }
+    }
+
+    private void onTableFileFind(long file, int type) {
+        nativeLPSZ.of(file);
+        if (TableUtils.isPartitionDir(type)) {
+            if (nativeLPSZ.charAt(0) == '.') {
+                return;
+            }
+            final int cmp = Chars.compare(nativeLPSZ, activePartitionName);
+            // partitions after the active one are not yet in the transaction we copied
+            if (cmp <= 0) {
+                sealed = cmp < 0;
+                srcPath.trimTo(srcLen).concat(file);
+                partitionSrcLen = srcPath.length();
+                dstPath.trimTo(dstLen).concat(file);
+                partitionDstLen = dstPath.length();
+                if (ff.mkdir(dstPath.$(), mkDirMode) != 0) {
+                    throw CairoException.instance(ff.errno()).put("Could not create [dir=").put(dstPath).put(']');
+                }
+                if (hasPrior) {
+                    priorPath.trimTo(priorLen).concat(file);
+                    partitionPriorLen = priorPath.length();
+                }
+                ff.iterateDir(srcPath.$(), partitionFileOnFind);
+            }
+        } else if (!Chars.equals(nativeLPSZ, TableUtils.TXN_FILE_NAME)
+                && !Chars.equals(nativeLPSZ, TableUtils.META_FILE_NAME)
+                && !Chars.equals(nativeLPSZ, TableUtils.TODO_FILE_NAME)) {
+            srcPath.trimTo(srcLen).concat(file).$();
+            dstPath.trimTo(dstLen).concat(file).$();
+            copyFile();
+        }
+    }
+}
@@ -24,12 +24,16 @@
 
 package io.questdb.cairo;
 
+import io.questdb.MessageBus;
 import io.questdb.cairo.sql.RecordMetadata;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
+import io.questdb.mp.Sequence;
 import io.questdb.std.*;
 import io.questdb.std.microtime.Timestamps;
 import io.questdb.std.str.Path;
+import io.questdb.tasks.ColumnPrefetchTask;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.Closeable;
 import java.util.concurrent.locks.LockSupport;
@@ -55,6 +59,8 @@ public class TableReader implements Closeable {
     private final TableReaderMetadata metadata;
     private final LongList partitionRowCounts;
     private final PartitionPathGenerator partitionPathGenerator;
+    // files of partitions other than the last do not change, their maps can be shared with other readers
+    private final ColumnMappingRegistry columnMappingRegistry;
     private final TableReaderRecordCursor recordCursor = new TableReaderRecordCursor();
     private final Timestamps.TimestampFloorMethod timestampFloorMethod;
     private final IntervalLengthMethod intervalLengthMethod;
@@ -63,7 +69,10 @@ public class TableReader implements Closeable {
     private final ObjList<SymbolMapReader> symbolMapReaders = new ObjList<>();
     private final CairoConfiguration configuration;
     private final IntList symbolCountSnapshot = new IntList();
+    private final IntList partitionAdvice = new IntList();
     private final LongHashSet removedPartitions = new LongHashSet();
+    // mapped bloom filter files, indexed same way as column tops
+    private final ObjList<OnePageMemory> bloomFilters = new ObjList<>();
     private LongList columnTops;
     private ObjList<ReadOnlyColumn> columns;
     private ObjList<BitmapIndexReader> bitmapIndexes;
@@ -85,8 +94,13 @@ public class TableReader implements Closeable {
     private long tempMem8b = Unsafe.malloc(8);
 
     public TableReader(CairoConfiguration configuration, CharSequence tableName) {
+        this(configuration, tableName, null);
+    }
+
+    public TableReader(CairoConfiguration configuration, CharSequence tableName, @Nullable ColumnMappingRegistry columnMappingRegistry) {
         LOG.info().$("open '").utf8(tableName).$('\'').$();
         this.configuration = configuration;
+        this.columnMappingRegistry = columnMappingRegistry;
         this.ff = configuration.getFilesFacade();
         this.tableName = Chars.toString(tableName);
         this.path = new Path().of(configuration.getRoot()).concat(tableName);
@@ -158,6 +172,23 @@ public class TableReader implements Closeable {
         return 2 + base + index * 2;
     }
 
+    /**
+     * Applies access hint to mapped pages of every open column in the given partition.
+     * Partition must have been opened beforehand. Advice is one of Files.MADV_* constants.
+     */
+    public void advisePartition(int partitionIndex, int advice) {
+        if (configuration.isColumnAccessAdviceEnabled()) {
+            // columns opened later on inherit advice of their partition
+            partitionAdvice.extendAndSet(partitionIndex, advice == Files.MADV_DONTNEED ? Files.MADV_NORMAL : advice);
+            final int base = getColumnBase(partitionIndex);
+            for (int i = 0; i < columnCount; i++) {
+                final int index = getPrimaryColumnIndex(base, i);
+                adviseColumn(columns.getQuick(index), advice);
+                adviseColumn(columns.getQuick(index + 1), advice);
+            }
+        }
+    }
+
     public double avgDouble(int columnIndex) {
         double result = 0;
         long countTotal = 0;
@@ -165,7 +196,7 @@ public class TableReader implements Closeable {
             openPartition(i);
             final int base = getColumnBase(i);
             final int index = getPrimaryColumnIndex(base, columnIndex);
-            final ReadOnlyColumn column = columns.getQuick(index);
+            final ReadOnlyColumn column = getColumn(index);
             if (column != null) {
                 for (int pageIndex = 0, pageCount = column.getPageCount(); pageIndex < pageCount; pageIndex++) {
                     final long a = column.getPageAddress(pageIndex);
@@ -192,6 +223,7 @@ public class TableReader implements Closeable {
             Misc.free(metadata);
             Misc.free(txMem);
             freeColumns();
+            freeBloomFilters();
             freeTempMem();
             LOG.info().$("closed '").utf8(tableName).$('\'').$();
         }
@@ -229,6 +261,29 @@ public class TableReader implements Closeable {
         closeColumnForRemove(metadata.getColumnIndex(columnName));
     }
 
+    /**
+     * Copies transaction file content, as seen by this reader, to given memory. Copy is only
+     * stable when writer has not committed since this reader last reloaded. When this method
+     * returns false caller is expected to reload reader and try again.
+     *
+     * @param mem memory to append transaction file content to
+     * @return true when copy matches transaction this reader is on, false otherwise
+     */
+    public boolean copyTxnTo(AppendMemory mem) {
+        final long size = TableUtils.getTxMemSize(symbolCountSnapshot.size(), removedPartitions.size());
+        txMem.grow(size);
+        if (txMem.getLong(TableUtils.TX_OFFSET_TXN) != txn || txMem.getLong(TableUtils.TX_OFFSET_TXN_CHECK) != txn) {
+            return false;
+        }
+        Unsafe.getUnsafe().loadFence();
+        mem.jumpTo(0);
+        for (long offset = 0; offset < size; offset += 4) {
+            mem.putInt(txMem.getInt(offset));
+        }
+        Unsafe.getUnsafe().loadFence();
+        return txMem.getLong(TableUtils.TX_OFFSET_TXN) == txn;
+    }
+
     public long floorToPartitionTimestamp(long timestamp) {
         return timestampFloorMethod.floor(timestamp);
     }
@@ -310,13 +365,41 @@ public class TableReader implements Closeable {
         return tempMem8b != 0;
     }
 
+    /**
+     * Checks bloom filter of column in given partition. This method returns true whenever filter is
+     * missing or does not cover all rows of partition, so that "false" is a guarantee partition
+     * does not contain the value.
+     *
+     * @param partitionIndex index of partition
+     * @param columnIndex    index of column, which has bloom filter
+     * @param hash           value hash, see {@link BloomFilterUtils}
+     * @return false if value is definitely not in the partition
+     */
+    public boolean bloomFilterMightContain(int partitionIndex, int columnIndex, long hash) {
+        final long rowCount = openPartition(partitionIndex);
+        if (rowCount < 1) {
+            return false;
+        }
+
+        final int index = getColumnBase(partitionIndex) / 2 + columnIndex;
+        OnePageMemory filter = bloomFilters.getQuiet(index);
+        if (filter == null) {
+            filter = openBloomFilter(partitionIndex, columnIndex);
+            if (filter == null) {
+                return true;
+            }
+            bloomFilters.extendAndSet(index, filter);
+        }
+        return BloomFilterUtils.mightContain(filter.addressOf(0), filter.size(), rowCount, hash);
+    }
+
     public double maxDouble(int columnIndex) {
         double max = Double.NEGATIVE_INFINITY;
         for (int i = 0; i < partitionCount; i++) {
             openPartition(i);
             final int base = getColumnBase(i);
             final int index = getPrimaryColumnIndex(base, columnIndex);
-            final ReadOnlyColumn column = columns.getQuick(index);
+            final ReadOnlyColumn column = getColumn(index);
             if (column != null) {
                 for (int pageIndex = 0, pageCount = column.getPageCount(); pageIndex < pageCount; pageIndex++) {
                     long a = column.getPageAddress(pageIndex);
@@ -337,7 +420,7 @@ public class TableReader implements Closeable {
             openPartition(i);
             final int base = getColumnBase(i);
             final int index = getPrimaryColumnIndex(base, columnIndex);
-            final ReadOnlyColumn column = columns.getQuick(index);
+            final ReadOnlyColumn column = getColumn(index);
             if (column != null) {
                 for (int pageIndex = 0, pageCount = column.getPageCount(); pageIndex < pageCount; pageIndex++) {
                     long a = column.getPageAddress(pageIndex);
@@ -352,6 +435,62 @@ public class TableReader implements Closeable {
         return min;
     }
 
+    /**
+     * Publishes read-ahead requests for the given row range of partition, so that ColumnPrefetchJob can bring
+     * them into page cache while caller is busy with other rows. Only columns caller has accessed in the
+     * partition it is currently reading are prefetched. Partition must have been opened beforehand.
+     * Nothing is published when queue is full.
+     */
+    public void prefetch(MessageBus messageBus, int currentPartitionIndex, int partitionIndex, long rowLo, long rowHi) {
+        if (!configuration.isColumnPrefetchEnabled()) {
+            return;
+        }
+        final int currentBase = getColumnBase(currentPartitionIndex);
+        final int base = getColumnBase(partitionIndex);
+        final long partitionRowCount = getPartitionRowCount(partitionIndex);
+        for (int i = 0; i < columnCount; i++) {
+            if (columns.getQuick(getPrimaryColumnIndex(currentBase, i)) == null) {
+                continue;
+            }
+            final int index = getPrimaryColumnIndex(base, i);
+            final ReadOnlyColumn column = getColumn(index);
+            if (column == null || column.getFd() == -1) {
+                continue;
+            }
+
+            final long top = getColumnTop(base, i);
+            final long lo = Math.max(rowLo - top, 0);
+            final long hi = rowHi - top;
+            if (hi <= lo) {
+                continue;
+            }
+
+            final int columnType = metadata.getColumnType(i);
+            switch (columnType) {
+                case ColumnType.STRING:
+                case ColumnType.BINARY:
+                    final ReadOnlyColumn indexColumn = columns.getQuick(index + 1);
+                    publishPrefetch(messageBus, indexColumn.getFd(), lo * Long.BYTES, (hi - lo) * Long.BYTES);
+                    final long dataLo;
+                    final long dataHi;
+                    if (lo == 0 && hi == partitionRowCount - top) {
+                        // whole column, there is no need to touch index to find out boundaries
+                        dataLo = 0;
+                        dataHi = ff.length(column.getFd());
+                    } else {
+                        dataLo = indexColumn.getLong(lo * Long.BYTES);
+                        dataHi = hi < partitionRowCount - top ? indexColumn.getLong(hi * Long.BYTES) : ff.length(column.getFd());
+                    }
+                    publishPrefetch(messageBus, column.getFd(), dataLo, dataHi - dataLo);
+                    break;
+                default:
+                    final int size = ColumnType.sizeOf(columnType);
+                    publishPrefetch(messageBus, column.getFd(), lo * size, (hi - lo) * size);
+                    break;
+            }
+        }
+    }
+
     public boolean reload() {
         return reloadMethod.reload(this);
     }
@@ -437,7 +576,7 @@ public class TableReader implements Closeable {
             openPartition(i);
             final int base = getColumnBase(i);
             final int index = getPrimaryColumnIndex(base, columnIndex);
-            final ReadOnlyColumn column = columns.getQuick(index);
+            final ReadOnlyColumn column = getColumn(index);
             if (column != null) {
                 for (int pageIndex = 0, pageCount = column.getPageCount(); pageIndex < pageCount; pageIndex++) {
                     long a = column.getPageAddress(pageIndex);
@@ -449,6 +588,31 @@ public class TableReader implements Closeable {
         return result;
     }
 
+    private static void adviseColumn(ReadOnlyColumn column, int advice) {
+        if (column != null) {
+            column.advise(advice);
+        }
+    }
+
+    private static void publishPrefetch(MessageBus messageBus, long fd, long offset, long len) {
+        if (len > 0) {
+            final Sequence pubSeq = messageBus.getColumnPrefetchPubSequence();
+            long cursor;
+            do {
+                cursor = pubSeq.next();
+                if (cursor == -1) {
+                    // queue is full, prefetch is optional
+                    return;
+                }
+            } while (cursor < 0);
+            final ColumnPrefetchTask task = messageBus.getColumnPrefetchQueue().get(cursor);
+            task.fd = fd;
+            task.offset = offset;
+            task.len = len;
+            pubSeq.done(cursor);
+        }
+    }
+
     private static int getColumnBits(int columnCount) {
         return Numbers.msb(Numbers.ceilPow2(columnCount) * 2);
     }
@@ -503,6 +667,7 @@ public class TableReader implements Closeable {
 
     private void applyTruncate() {
         LOG.info().$("truncate detected").$();
+        freeBloomFilters();
         for (int i = 0, n = partitionCount; i < n; i++) {
             long size = openPartition0(i);
             if (size == -1) {
@@ -554,6 +719,8 @@ public class TableReader implements Closeable {
     }
 
     private void closeRemovedPartitions() {
+        // partition indexes shift when leading partitions are removed
+        freeBloomFilters();
         for (int i = 0, n = removedPartitions.size(); i < n; i++) {
             final long timestamp = removedPartitions.get(i);
 
@@ -603,7 +770,8 @@ public class TableReader implements Closeable {
             long partitionRowCount,
             boolean lastPartition) {
         ReadOnlyColumn mem1 = tempCopyStruct.mem1;
-        final boolean reload = (mem1 instanceof ReadOnlyMemory || mem1 instanceof NullColumn) && mem1.isDeleted();
+        // columns that have not been opened yet are left for lazy open to pick up the current file
+        final boolean reload = mem1 != null && mem1.isDeleted();
         final int index = getPrimaryColumnIndex(columnBase, columnIndex);
         tempCopyStruct.mem1 = columns.getAndSetQuick(index, mem1);
         tempCopyStruct.mem2 = columns.getAndSetQuick(index + 1, tempCopyStruct.mem2);
@@ -628,7 +796,7 @@ public class TableReader implements Closeable {
             throw CairoException.instance(0).put("Not indexed: ").put(metadata.getColumnName(columnIndex));
         }
 
-        ReadOnlyColumn col = columns.getQuick(globalIndex);
+        ReadOnlyColumn col = getColumn(globalIndex);
         if (col instanceof NullColumn) {
             if (direction == BitmapIndexReader.DIR_BACKWARD) {
                 reader = new BitmapIndexBwdNullReader();
@@ -723,6 +891,11 @@ public class TableReader implements Closeable {
         Misc.freeObjList(bitmapIndexes);
     }
 
+    private void freeBloomFilters() {
+        Misc.freeObjList(bloomFilters);
+        bloomFilters.clear();
+    }
+
     private void freeColumns() {
         Misc.freeObjList(columns);
     }
@@ -742,6 +915,12 @@ public class TableReader implements Closeable {
     }
 
     ReadOnlyColumn getColumn(int absoluteIndex) {
+        final ReadOnlyColumn column = columns.getQuick(absoluteIndex);
+        if (column != null) {
+            return column;
+        }
+        final int columnBase = (absoluteIndex - 2) & -(1 << columnCountBits);
+        openColumn(columnBase, (absoluteIndex - 2 - columnBase) >> 1);
         return columns.getQuick(absoluteIndex);
     }
 
@@ -750,7 +929,8 @@ public class TableReader implements Closeable {
     }
 
     long getColumnTop(int base, int columnIndex) {
-        return this.columnTops.getQuick(base / 2 + columnIndex);
+        final long columnTop = this.columnTops.getQuick(base / 2 + columnIndex);
+        return columnTop > -1 ? columnTop : openColumn(base, columnIndex);
     }
 
     int getPartitionIndex(int columnBase) {
@@ -775,7 +955,7 @@ public class TableReader implements Closeable {
             openPartition(i);
             final int base = getColumnBase(i);
             final int index = getPrimaryColumnIndex(base, columnIndex);
-            final ReadOnlyColumn column = columns.getQuick(index);
+            final ReadOnlyColumn column = getColumn(index);
             if (column != null) {
                 for (int pageIndex = 0, pageCount = column.getPageCount(); pageIndex < pageCount; pageIndex++) {
                     long a = column.getPageAddress(pageIndex);
@@ -847,7 +1027,7 @@ public class TableReader implements Closeable {
                         .$(']').$();
 
                 if (partitionSize > 0) {
-                    openPartitionColumns(path, getColumnBase(partitionIndex), partitionSize, lastPartition);
+                    closePartitionColumns(getColumnBase(partitionIndex));
                     partitionRowCounts.setQuick(partitionIndex, partitionSize);
                     if (maxTimestamp != Numbers.LONG_NaN) {
                         if (reloadMethod == FIRST_TIME_PARTITIONED_RELOAD_METHOD) {
@@ -866,9 +1046,78 @@ public class TableReader implements Closeable {
         }
     }
 
-    private void openPartitionColumns(Path path, int columnBase, long partitionRowCount, boolean lastPartition) {
+    /**
+     * Opens column files of open partition on first access. Queries typically read handful of columns
+     * of wide tables, mapping every column when partition is opened is wasteful.
+     *
+     * @return column top
+     */
+    private long openColumn(int columnBase, int columnIndex) {
+        final int partitionIndex = getPartitionIndex(columnBase);
+        final long partitionRowCount = getPartitionRowCount(partitionIndex);
+        final int topIndex = columnBase / 2 + columnIndex;
+        if (partitionRowCount < 1 || columnTops.getQuick(topIndex) > -1) {
+            // partition is not open or column has been opened already
+            return Math.max(columnTops.getQuick(topIndex), 0);
+        }
+
+        try {
+            final Path path = partitionPathGenerator.generate(this, partitionIndex);
+            reloadColumnAt(
+                    path.chopZ(),
+                    columns,
+                    columnTops,
+                    bitmapIndexes,
+                    columnBase,
+                    columnIndex,
+                    partitionRowCount,
+                    partitionIndex == partitionCount - 1
+            );
+        } finally {
+            path.trimTo(rootLen);
+        }
+
+        final int advice = partitionIndex < partitionAdvice.size() ? partitionAdvice.getQuick(partitionIndex) : Files.MADV_NORMAL;
+        if (advice != Files.MADV_NORMAL) {
+            final int index = getPrimaryColumnIndex(columnBase, columnIndex);
+            adviseColumn(columns.getQuick(index), advice);
+            adviseColumn(columns.getQuick(index + 1), advice);
+        }
+        return columnTops.getQuick(topIndex);
+    }
+
+    // columns of partition being opened are left to be opened on first access
+    private void closePartitionColumns(int columnBase) {
         for (int i = 0; i < columnCount; i++) {
-            reloadColumnAt(path, this.columns, this.columnTops, this.bitmapIndexes, columnBase, i, partitionRowCount, lastPartition);
+            final int index = getPrimaryColumnIndex(columnBase, i);
+            Misc.free(columns.getAndSetQuick(index, null));
+            Misc.free(columns.getAndSetQuick(index + 1, null));
+            Misc.free(bitmapIndexes.getAndSetQuick(index, null));
+            Misc.free(bitmapIndexes.getAndSetQuick(index + 1, null));
+            columnTops.setQuick(columnBase / 2 + i, -1);
+            if (columnBase / 2 + i < bloomFilters.size()) {
+                bloomFilters.setQuick(columnBase / 2 + i, Misc.free(bloomFilters.getQuick(columnBase / 2 + i)));
+            }
+        }
+    }
+
+    private OnePageMemory openBloomFilter(int partitionIndex, int columnIndex) {
+        try {
+            final Path path = BloomFilterUtils.fileName(
+                    partitionPathGenerator.generate(this, partitionIndex).chopZ(),
+                    metadata.getColumnName(columnIndex)
+            );
+            if (!ff.exists(path)) {
+                return null;
+            }
+            final long size = ff.length(path);
+            if (size < BloomFilterUtils.HEADER_SIZE) {
+                return null;
+            }
+            // writer updates filter of active partition in place, shared mapping sees its changes
+            return new OnePageMemory(ff, path, size);
+        } finally {
+            path.trimTo(rootLen);
         }
     }
 
@@ -1040,7 +1289,7 @@ public class TableReader implements Closeable {
                     if (lastPartition) {
                         mem1 = new ReadOnlyMemory(ff, path, ff.getMapPageSize(), 0);
                     } else {
-                        mem1 = new OnePageMemory(ff, path, ff.length(path));
+                        mem1 = new OnePageMemory(ff, path, ff.length(path), columnMappingRegistry);
                     }
                     columns.setQuick(primaryIndex, mem1);
                 }
@@ -1058,7 +1307,7 @@ public class TableReader implements Closeable {
                             if (lastPartition) {
                                 mem2 = new ReadOnlyMemory(ff, path, ff.getMapPageSize(), 0);
                             } else {
-                                mem2 = new OnePageMemory(ff, path, ff.length(path));
+                                mem2 = new OnePageMemory(ff, path, ff.length(path), columnMappingRegistry);
                             }
                             columns.setQuick(secondaryIndex, mem2);
                         }
@@ -1090,6 +1339,7 @@ public class TableReader implements Closeable {
             } else {
                 Misc.free(columns.getAndSetQuick(primaryIndex, NullColumn.INSTANCE));
                 Misc.free(columns.getAndSetQuick(secondaryIndex, NullColumn.INSTANCE));
+                columnTops.setQuick(columnBase / 2 + columnIndex, 0);
                 // the appropriate index for NUllColumn will be created lazily when requested
                 // these indexes have state and may not be always required
                 Misc.free(indexReaders.getAndSetQuick(primaryIndex, null));
@@ -1103,6 +1353,7 @@ public class TableReader implements Closeable {
     private void reloadColumnChanges() {
         // create transition index, which will help us reuse already open resources
         long pTransitionIndex = metadata.createTransitionIndex();
+        freeBloomFilters();
         try {
             metadata.applyTransitionIndex(pTransitionIndex);
             final int columnCount = Unsafe.getUnsafe().getInt(pTransitionIndex + 4);
@@ -1190,13 +1441,17 @@ public class TableReader implements Closeable {
         int symbolMapIndex = 0;
         int columnBase = getColumnBase(partitionIndex);
         for (int i = 0; i < columnCount; i++) {
-            final int index = getPrimaryColumnIndex(columnBase, i);
-            growColumn(
-                    columns.getQuick(index),
-                    columns.getQuick(index + 1),
-                    metadata.getColumnType(i),
-                    rowCount - getColumnTop(columnBase, i)
-            );
+            final long columnTop = columnTops.getQuick(columnBase / 2 + i);
+            // columns that have not been accessed yet are sized when they are opened
+            if (columnTop > -1) {
+                final int index = getPrimaryColumnIndex(columnBase, i);
+                growColumn(
+                        columns.getQuick(index),
+                        columns.getQuick(index + 1),
+                        metadata.getColumnType(i),
+                        rowCount - columnTop
+                );
+            }
 
             // reload symbol map
             SymbolMapReader reader = symbolMapReaders.getQuick(i);
@@ -1318,7 +1573,7 @@ public class TableReader implements Closeable {
                             //    instance and the column from disk
                             // 3. Column hasn't been altered and we can skip to next column.
                             ReadOnlyColumn col = columns.getQuick(getPrimaryColumnIndex(base, i));
-                            if ((col instanceof ReadOnlyMemory && col.isDeleted()) || col instanceof NullColumn) {
+                            if (col != null && col.isDeleted()) {
                                 reloadColumnAt(path, columns, columnTops, bitmapIndexes, base, i, partitionRowCount, lastPartition);
                             }
                             continue;
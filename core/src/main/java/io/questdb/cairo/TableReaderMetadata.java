@@ -58,7 +58,8 @@ public class TableReaderMetadata extends BaseRecordMetadata implements Closeable
                                 TableUtils.getColumnType(metaMem, i),
                                 TableUtils.isColumnIndexed(metaMem, i),
                                 TableUtils.getIndexBlockCapacity(metaMem, i),
-                                true
+                                true,
+                                TableUtils.isColumnBloomFiltered(metaMem, i)
                         )
                 );
                 offset += ReadOnlyMemory.getStorageLength(name);
@@ -250,7 +251,8 @@ public class TableReaderMetadata extends BaseRecordMetadata implements Closeable
                 TableUtils.getColumnType(metaMem, index),
                 TableUtils.isColumnIndexed(metaMem, index),
                 TableUtils.getIndexBlockCapacity(metaMem, index),
-                true
+                true,
+                TableUtils.isColumnBloomFiltered(metaMem, index)
         );
     }
 
@@ -94,11 +94,14 @@ public final class TableUtils {
     static final long META_OFFSET_PARTITION_BY = 4;
     static final long META_OFFSET_TIMESTAMP_INDEX = 8;
     static final long META_OFFSET_VERSION = 12;
+    // INT - partition retention, positive value is number of hours, negative is number of months, 0 keeps data forever
+    static final long META_OFFSET_TTL = 16;
     static final long META_COLUMN_DATA_SIZE = 16;
     static final long META_COLUMN_DATA_RESERVED = 3;
     static final long META_OFFSET_COLUMN_TYPES = 128;
     static final int META_FLAG_BIT_INDEXED = 1;
     static final int META_FLAG_BIT_SEQUENTIAL = 1 << 1;
+    static final int META_FLAG_BIT_BLOOM_FILTER = 1 << 2;
 
     static final String TODO_FILE_NAME = "_todo";
     private static final int MIN_SYMBOL_CAPACITY = 2;
@@ -314,6 +317,10 @@ public final class TableUtils {
                     throw validationException(metaMem).put("Invalid column type ").put(type).put(" at [").put(i).put(']');
                 }
 
+                if (isColumnBloomFiltered(metaMem, i) && type != ColumnType.LONG && type != ColumnType.STRING) {
+                    throw validationException(metaMem).put("Bloom filter flag is only supported for LONG and STRING").put(" at [").put(i).put(']');
+                }
+
                 if (isColumnIndexed(metaMem, i)) {
                     if (type != ColumnType.SYMBOL) {
                         throw validationException(metaMem).put("Index flag is only supported for SYMBOL").put(" at [").put(i).put(']');
@@ -432,6 +439,10 @@ public final class TableUtils {
         return (getColumnFlags(metaMem, columnIndex) & META_FLAG_BIT_INDEXED) != 0;
     }
 
+    static boolean isColumnBloomFiltered(ReadOnlyColumn metaMem, int columnIndex) {
+        return (getColumnFlags(metaMem, columnIndex) & META_FLAG_BIT_BLOOM_FILTER) != 0;
+    }
+
     static boolean isSequential(ReadOnlyColumn metaMem, int columnIndex) {
         return (getColumnFlags(metaMem, columnIndex) & META_FLAG_BIT_SEQUENTIAL) != 0;
     }
@@ -500,6 +511,30 @@ public final class TableUtils {
         }
     }
 
+    // partitions moved to cold root are soft links to directories
+    static boolean isPartitionDir(int type) {
+        return type == Files.DT_DIR || type == Files.DT_LNK;
+    }
+
+    /**
+     * Removes partition directory. When partition has been moved to cold root the directory is a
+     * soft link, in which case link target is removed together with the link. Other directory removals
+     * leave link targets alone.
+     *
+     * @param path       partition path without trailing separator
+     * @param linkTarget receives link target, contents are undefined after the call
+     * @return true when partition has been removed
+     */
+    static boolean removePartitionDir(FilesFacade ff, Path path, Path linkTarget) {
+        if (ff.isSoftLink(path)) {
+            if (ff.readLink(path, linkTarget) && ff.exists(linkTarget) && !ff.rmdir(linkTarget)) {
+                return false;
+            }
+            return ff.remove(path);
+        }
+        return ff.rmdir(path);
+    }
+
     static long readPartitionSize(FilesFacade ff, Path path, long tempMem8b) {
         int plen = path.length();
         try {
@@ -40,6 +40,7 @@ import io.questdb.std.str.LPSZ;
 import io.questdb.std.str.NativeLPSZ;
 import io.questdb.std.str.Path;
 import io.questdb.tasks.ColumnIndexerTask;
+import io.questdb.tasks.ColumnSyncTask;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -61,11 +62,16 @@ public class TableWriter implements Closeable {
     private final ObjList<SymbolMapWriter> denseSymbolMapWriters;
     private final ObjList<ColumnIndexer> indexers;
     private final ObjList<ColumnIndexer> denseIndexers = new ObjList<>();
+    private final ObjList<BloomFilterWriter> bloomFilters;
+    private final ObjList<BloomFilterWriter> denseBloomFilters = new ObjList<>();
     private final Path path;
     private final Path other;
     private final LongList refs = new LongList();
     private final Row row = new Row();
     private final int rootLen;
+    private int partitionPathLen;
+    private int coldPathLen;
+    private boolean coldCopyFailed;
     private final ReadWriteMemory txMem;
     private final ReadOnlyMemory metaMem;
     private final VirtualMemory txPendingPartitionSizes;
@@ -89,14 +95,22 @@ public class TableWriter implements Closeable {
     private final LongList indexSequences = new LongList();
     private final MessageBus messageBus;
     private final boolean parallelIndexerEnabled;
+    private final SOCountDownLatch syncLatch = new SOCountDownLatch();
+    private final LongList syncSequences = new LongList();
+    private final ObjList<ColumnSyncer> columnSyncers = new ObjList<>();
+    private final boolean parallelSyncEnabled;
     private final LongHashSet removedPartitions = new LongHashSet();
     private final Timestamps.TimestampFloorMethod timestampFloorMethod;
     private final Timestamps.TimestampAddMethod timestampAddMethod;
     private final int defaultCommitMode;
     private final FindVisitor removePartitionDirectories = this::removePartitionDirectories0;
+    private final FindVisitor copyColdPartitionFile = this::copyColdPartitionFile0;
+    private final Path coldPath;
+    private final Path linkTarget = new Path();
     private final ObjList<Runnable> nullers;
     private int txPartitionCount = 0;
     private long lockFd;
+    private long nextExpiryCheck = Long.MIN_VALUE;
     private LongConsumer timestampSetter;
     private int columnCount;
     private long fixedRowCount = 0;
@@ -121,6 +135,7 @@ public class TableWriter implements Closeable {
     private final FragileCode RECOVER_FROM_SWAP_RENAME_FAILURE = this::recoverFromSwapRenameFailure;
     private final FragileCode RECOVER_FROM_COLUMN_OPEN_FAILURE = this::recoverOpenColumnFailure;
     private int indexCount;
+    private int bloomFilterCount;
     private boolean performRecovery;
     private boolean distressed = false;
     private LifecycleManager lifecycleManager;
@@ -157,11 +172,13 @@ public class TableWriter implements Closeable {
         this.defaultCommitMode = configuration.getCommitMode();
         this.lifecycleManager = lifecycleManager;
         this.parallelIndexerEnabled = messageBus != null && configuration.isParallelIndexingEnabled();
+        this.parallelSyncEnabled = messageBus != null && configuration.isParallelColumnSyncEnabled();
         this.ff = configuration.getFilesFacade();
         this.mkDirMode = configuration.getMkDirMode();
         this.fileOperationRetryCount = configuration.getFileOperationRetryCount();
         this.path = new Path().of(root).concat(name);
         this.other = new Path().of(root).concat(name);
+        this.coldPath = configuration.getColdRoot() != null ? new Path() : null;
         this.name = Chars.toString(name);
         this.rootLen = path.length();
         try {
@@ -201,6 +218,7 @@ public class TableWriter implements Closeable {
             this.columns = new ObjList<>(columnCount * 2);
             this.symbolMapWriters = new ObjList<>(columnCount);
             this.indexers = new ObjList<>(columnCount);
+            this.bloomFilters = new ObjList<>(columnCount);
             this.denseSymbolMapWriters = new ObjList<>(metadata.getSymbolMapCount());
             this.nullers = new ObjList<>(columnCount);
             this.columnTops = new LongList(columnCount);
@@ -480,6 +498,160 @@ public class TableWriter implements Closeable {
         LOG.info().$("ADDED index to '").utf8(columnName).$('[').$(ColumnType.nameOf(existingType)).$("]' to ").$(path).$();
     }
 
+    /**
+     * Adds bloom filter to LONG or STRING column. Filter is built for every existing partition and then
+     * maintained as rows are added. Query execution uses these filters to skip partitions that cannot
+     * contain value of equality predicate.
+     *
+     * @param columnName name of existing column
+     */
+    public void addBloomFilter(CharSequence columnName) {
+        checkDistressed();
+
+        final int columnIndex = getColumnIndexQuiet(metaMem, columnName, columnCount);
+
+        if (columnIndex == -1) {
+            throw CairoException.instance(0).put("Invalid column name: ").put(columnName);
+        }
+
+        commit();
+
+        if (isColumnBloomFiltered(metaMem, columnIndex)) {
+            throw CairoException.instance(0).put("already has bloom filter [column=").put(columnName).put(']');
+        }
+
+        final int existingType = getColumnType(metaMem, columnIndex);
+        LOG.info().$("adding bloom filter to '").utf8(columnName).$('[').$(ColumnType.nameOf(existingType)).$(", path=").$(path).$(']').$();
+
+        if (existingType != ColumnType.LONG && existingType != ColumnType.STRING) {
+            LOG.error().$("cannot create bloom filter for [column='").utf8(columnName).$(", type=").$(ColumnType.nameOf(existingType)).$(", path=").$(path).$(']').$();
+            throw CairoException.instance(0).put("cannot create bloom filter for [column='").put(columnName).put(", type=").put(ColumnType.nameOf(existingType)).put(", path=").put(path).put(']');
+        }
+
+        final BloomFilterWriter writer = new BloomFilterWriter();
+
+        try {
+            try {
+                if (partitionBy != PartitionBy.NONE) {
+                    final long timestamp = bloomFilterHistoricPartitions(writer, columnName, existingType);
+                    path.trimTo(rootLen);
+                    setStateForTimestamp(timestamp, true);
+                } else {
+                    setStateForTimestamp(0, false);
+                }
+
+                // last partition filter stays open to continue functioning as normal
+                if (transientRowCount > 0 || partitionBy == PartitionBy.NONE) {
+                    bloomFilterPartition(writer, columnName, existingType, transientRowCount);
+                }
+            } finally {
+                path.trimTo(rootLen);
+            }
+        } catch (CairoException | CairoError e) {
+            LOG.error().$("rolling back bloom filter created so far [path=").$(path).$(']').$();
+            writer.close();
+            removeBloomFilterFiles(columnName);
+            throw e;
+        }
+
+        metaSwapIndex = copyMetadataAndSetBloomFiltered(columnIndex);
+
+        // close _meta so we can rename it
+        metaMem.close();
+
+        // validate new meta
+        validateSwapMeta(columnName);
+
+        // rename _meta to _meta.prev
+        renameMetaToMetaPrev(columnName);
+
+        // after we moved _meta to _meta.prev
+        // we have to have _todo to restore _meta should anything go wrong
+        writeRestoreMetaTodo(columnName);
+
+        // rename _meta.swp to -_meta
+        renameSwapMetaToMeta(columnName);
+
+        try {
+            // open _meta file
+            openMetaFile();
+
+            // remove _todo
+            removeTodoFile();
+
+        } catch (CairoException err) {
+            throwDistressException(err);
+        }
+
+        bumpStructureVersion();
+
+        bloomFilters.extendAndSet(columnIndex, writer);
+        populateDenseBloomFilterList();
+
+        metadata.getColumnQuick(columnIndex).setBloomFiltered(true);
+
+        LOG.info().$("ADDED bloom filter to '").utf8(columnName).$('[').$(ColumnType.nameOf(existingType)).$("]' to ").$(path).$();
+    }
+
+    /**
+     * Appends rows of column batch to the table. Column values are copied from batch buffers
+     * in bulk, symbol values are resolved once per distinct dictionary entry. Rows become visible
+     * to readers on commit, same as rows appended via {@link #newRow(long)}. Batch must not be
+     * appended while there is pending uncommitted row, such row is cancelled.
+     *
+     * @param batch rows to append
+     */
+    public void appendBatch(ColumnBatch batch) {
+        if ((masterRef & 1) != 0) {
+            cancelRow();
+        }
+
+        final long rowCount = batch.getRowCount();
+        if (rowCount == 0) {
+            return;
+        }
+
+        final int timestampIndex = metadata.getTimestampIndex();
+        final long timestamps = batch.getTimestampAddress();
+        if (timestampIndex != -1 && timestamps == 0) {
+            throw CairoException.instance(0).put("timestamps expected [table=").put(name).put(']');
+        }
+
+        // batch is validated up front, failure must not leave part of the batch appended
+        validateBatch(batch, timestamps);
+        resolveBatchSymbols(batch);
+
+        long lo = 0;
+        while (lo < rowCount) {
+            long hi;
+            if (timestampIndex == -1) {
+                openBatchPartition(0);
+                hi = rowCount;
+                prevMaxTimestamp = maxTimestamp;
+                maxTimestamp = 0;
+            } else {
+                long timestamp = Unsafe.getUnsafe().getLong(timestamps + lo * Long.BYTES);
+                openBatchPartition(timestamp);
+                // rows up to the end of current partition
+                for (hi = lo + 1; hi < rowCount; hi++) {
+                    final long next = Unsafe.getUnsafe().getLong(timestamps + hi * Long.BYTES);
+                    if (next > partitionHi) {
+                        break;
+                    }
+                    timestamp = next;
+                }
+                prevMaxTimestamp = maxTimestamp;
+                maxTimestamp = timestamp;
+            }
+            appendBatchRows(batch, lo, hi);
+            transientRowCount += hi - lo;
+            if (prevMinTimestamp == Long.MAX_VALUE) {
+                prevMinTimestamp = minTimestamp;
+            }
+            lo = hi;
+        }
+    }
+
     @Override
     public void close() {
         if (isOpen() && lifecycleManager.close()) {
@@ -514,13 +686,15 @@ public class TableWriter implements Closeable {
             }
 
             updateIndexes();
+            updateBloomFilters(transientRowCount, commitMode);
 
             txMem.putLong(TX_OFFSET_TXN, ++txn);
             Unsafe.getUnsafe().storeFence();
 
             txMem.putLong(TX_OFFSET_TRANSIENT_ROW_COUNT, transientRowCount);
 
-            if (txPartitionCount > 1) {
+            final boolean partitionsCommitted = txPartitionCount > 1;
+            if (partitionsCommitted) {
                 commitPendingPartitions();
                 txMem.putLong(TX_OFFSET_FIXED_ROW_COUNT, fixedRowCount);
                 txPendingPartitionSizes.jumpTo(0);
@@ -541,6 +715,10 @@ public class TableWriter implements Closeable {
                 txMem.sync(0, commitMode == CommitMode.ASYNC);
             }
             txPrevTransientRowCount = transientRowCount;
+
+            if (partitionsCommitted) {
+                removeExpiredPartitionsThrottled();
+            }
         }
     }
 
@@ -572,6 +750,14 @@ public class TableWriter implements Closeable {
         return structureVersion;
     }
 
+    /**
+     * @return partition retention, positive value is number of hours, negative value is number of months
+     * and 0 means partitions do not expire.
+     */
+    public int getTtl() {
+        return metaMem.getInt(META_OFFSET_TTL);
+    }
+
     public boolean inTransaction() {
         return txPartitionCount > 1 || transientRowCount != txPrevTransientRowCount;
     }
@@ -584,6 +770,122 @@ public class TableWriter implements Closeable {
         return rowFunction.newRow(timestamp);
     }
 
+    /**
+     * Moves sealed partitions, which end at or before given timestamp, to cold root.
+     *
+     * @param olderThan partitions ending before this timestamp are moved
+     * @return number of partitions moved
+     */
+    public int moveColdPartitions(long olderThan) {
+        if (coldPath == null || partitionBy == PartitionBy.NONE || maxTimestamp == Long.MIN_VALUE) {
+            return 0;
+        }
+
+        int count = 0;
+        final long activePartitionTimestamp = timestampFloorMethod.floor(maxTimestamp);
+        long timestamp = timestampFloorMethod.floor(minTimestamp);
+        while (timestamp < activePartitionTimestamp) {
+            final long nextTimestamp = timestampAddMethod.calculate(timestamp, 1);
+            if (nextTimestamp > olderThan) {
+                break;
+            }
+
+            if (!removedPartitions.contains(timestamp) && isPartitionPresent(timestamp, false) && movePartition(timestamp)) {
+                count++;
+            }
+            timestamp = nextTimestamp;
+        }
+        return count;
+    }
+
+    /**
+     * Relocates sealed partition to cold root. Partition files are copied there first and then
+     * partition directory is atomically swapped for a link to the copy, or renamed aside when the
+     * swap is not available, see {@link #swapPartitionForLink()}. Readers and this writer
+     * keep resolving partition by its usual path and existing column mappings stay valid.
+     *
+     * @param timestamp timestamp within partition
+     * @return true when partition has been moved, false when there is no cold root, partition
+     * is active, missing, already moved or could not be copied.
+     */
+    public boolean movePartition(long timestamp) {
+        if (coldPath == null || partitionBy == PartitionBy.NONE || timestamp < timestampFloorMethod.floor(minTimestamp) || timestamp > maxTimestamp) {
+            return false;
+        }
+
+        if (timestampFloorMethod.floor(timestamp) == timestampFloorMethod.floor(maxTimestamp)) {
+            LOG.error()
+                    .$("cannot move active partition [path=").$(path)
+                    .$(", maxTimestamp=").$ts(maxTimestamp)
+                    .$(']').$();
+            return false;
+        }
+
+        if (removedPartitions.contains(timestamp)) {
+            LOG.error().$("partition is marked for delete [path=").$(path).$(']').$();
+            return false;
+        }
+
+        try {
+            setStateForTimestamp(timestamp, false);
+            partitionPathLen = path.length();
+
+            if (!ff.exists(path.$())) {
+                LOG.error().$("cannot move missing partition [path=").$(path).$(']').$();
+                return false;
+            }
+
+            if (ff.isSoftLink(path)) {
+                LOG.error().$("partition is already moved [path=").$(path).$(']').$();
+                return false;
+            }
+
+            // suffix keeps copies of same partition apart when table is re-created under the same name
+            coldPath.of(configuration.getColdRoot()).concat(name).put(Files.SEPARATOR);
+            coldPath.put(path, rootLen + 1, partitionPathLen);
+            coldPath.put('.').put(configuration.getMicrosecondClock().getTicks());
+            coldPathLen = coldPath.length();
+
+            if (ff.mkdirs(coldPath.put(Files.SEPARATOR).$(), mkDirMode) != 0) {
+                LOG.error().$("could not create [path=").$(coldPath).$(", errno=").$(ff.errno()).$(']').$();
+                return false;
+            }
+
+            coldCopyFailed = false;
+            ff.iterateDir(path, copyColdPartitionFile);
+            if (coldCopyFailed) {
+                ff.rmdir(coldPath.trimTo(coldPathLen).$());
+                return false;
+            }
+
+            other.trimTo(rootLen).put(path, rootLen, partitionPathLen);
+            other.put(".lnk").$();
+            if (!ff.softLink(coldPath.trimTo(coldPathLen).$(), other)) {
+                LOG.error().$("could not link [path=").$(other).$(", target=").$(coldPath).$(", errno=").$(ff.errno()).$(']').$();
+                ff.rmdir(coldPath);
+                return false;
+            }
+
+            if (!ff.exchange(other, path.trimTo(partitionPathLen).$()) && !swapPartitionForLink()) {
+                LOG.error().$("could not swap partition for link [path=").$(path).$(", errno=").$(ff.errno()).$(']').$();
+                ff.remove(other);
+                ff.rmdir(coldPath);
+                return false;
+            }
+
+            // link is in place, 'other' is now the original directory
+            if (!ff.rmdir(other)) {
+                LOG.info().$("could not remove [path=").$(other).$(", errno=").$(ff.errno()).$(']').$();
+            }
+
+            LOG.info().$("moved partition [path=").$(path).$(", to=").$(coldPath).$(']').$();
+            return true;
+        } finally {
+            path.trimTo(rootLen);
+            other.trimTo(rootLen);
+        }
+    }
+
     public Row newRow() {
         return newRow(0L);
     }
@@ -612,6 +914,44 @@ public class TableWriter implements Closeable {
         }
     }
 
+    /**
+     * Removes partitions, which are entirely older than table TTL. TTL is counted back from max timestamp of
+     * the table, but never from a point in the future, so that stray row with future timestamp does
+     * not expire recent data.
+     *
+     * @param now current time
+     * @return number of partitions removed
+     */
+    public int removeExpiredPartitions(long now) {
+        final int ttl = getTtl();
+        if (ttl == 0 || partitionBy == PartitionBy.NONE || maxTimestamp == Long.MIN_VALUE) {
+            return 0;
+        }
+
+        final long reference = Math.min(maxTimestamp, now);
+        final long expiredBefore = ttl > 0 ? reference - ttl * Timestamps.HOUR_MICROS : Timestamps.addMonths(reference, ttl);
+
+        int count = 0;
+        final long activePartitionTimestamp = timestampFloorMethod.floor(maxTimestamp);
+        long timestamp = timestampFloorMethod.floor(minTimestamp);
+        while (timestamp < activePartitionTimestamp) {
+            final long nextTimestamp = timestampAddMethod.calculate(timestamp, 1);
+            if (nextTimestamp > expiredBefore) {
+                break;
+            }
+
+            if (!removedPartitions.contains(timestamp) && isPartitionPresent(timestamp, true) && removePartition(timestamp)) {
+                count++;
+            }
+            timestamp = nextTimestamp;
+        }
+
+        if (count > 0) {
+            LOG.info().$("removed expired partitions [table=").$(name).$(", count=").$(count).$(", before=").$ts(expiredBefore).$(']').$();
+        }
+        return count;
+    }
+
     public void removeColumn(CharSequence name) {
 
         checkDistressed();
@@ -763,7 +1103,7 @@ public class TableWriter implements Closeable {
                 // txn check
                 txMem.putLong(TX_OFFSET_TXN_CHECK, txn);
 
-                if (!ff.rmdir(path.chopZ().put(Files.SEPARATOR).$())) {
+                if (!removePartitionDir(ff, path.$(), linkTarget)) {
                     LOG.info().$("partition directory delete is postponed [path=").$(path).$(']').$();
                 }
 
@@ -781,6 +1121,19 @@ public class TableWriter implements Closeable {
         }
     }
 
+    /**
+     * Adds value to symbol table of column unless value is already there. Returned key
+     * stays valid for as long as writer is open and can be written to rows via
+     * {@link Row#putSymIndex(int, int)}, which saves looking value up for every row.
+     *
+     * @param columnIndex index of symbol column
+     * @param value       symbol value
+     * @return symbol key
+     */
+    public int putSymbol(int columnIndex, CharSequence value) {
+        return symbolMapWriters.getQuick(columnIndex).put(value);
+    }
+
     public void rollback() {
         checkDistressed();
         if (inTransaction()) {
@@ -794,6 +1147,19 @@ public class TableWriter implements Closeable {
         }
     }
 
+    /**
+     * Changes partition retention of the table. Expired partitions are removed by {@link #removeExpiredPartitions(long)}.
+     *
+     * @param ttl positive value is number of hours, negative value is number of months, 0 disables retention
+     */
+    public void setTtl(int ttl) {
+        if (ttl != 0 && partitionBy == PartitionBy.NONE) {
+            throw CairoException.instance(0).put("TTL requires partitioned table");
+        }
+        rewriteMetadata(ttl);
+        LOG.info().$("set TTL [table=").$(name).$(", ttl=").$(ttl).$(']').$();
+    }
+
     public void setLifecycleManager(LifecycleManager lifecycleManager) {
         this.lifecycleManager = lifecycleManager;
     }
@@ -834,6 +1200,13 @@ public class TableWriter implements Closeable {
             }
         }
 
+        for (int i = 0, n = denseBloomFilters.size(); i < n; i++) {
+            BloomFilterWriter w = denseBloomFilters.getQuick(i);
+            if (w.isOpen()) {
+                w.truncate();
+            }
+        }
+
         if (partitionBy != PartitionBy.NONE) {
             freeColumns(false);
             if (indexers != null) {
@@ -866,31 +1239,7 @@ public class TableWriter implements Closeable {
     }
 
     public void updateMetadataVersion() {
-
-        checkDistressed();
-
-        commit();
-        // create new _meta.swp
-        this.metaSwapIndex = copyMetadataAndUpdateVersion();
-
-        // close _meta so we can rename it
-        metaMem.close();
-
-        // rename _meta to _meta.prev
-        this.metaPrevIndex = rename(fileOperationRetryCount);
-
-        // rename _meta.swp to -_meta
-        restoreMetaFrom(META_SWAP_FILE_NAME, metaSwapIndex);
-
-        try {
-            // open _meta file
-            openMetaFile();
-        } catch (CairoException err) {
-            throwDistressException(err);
-        }
-
-        bumpStructureVersion();
-        metadata.setTableVersion();
+        rewriteMetadata(getTtl());
     }
 
     /**
@@ -1009,6 +1358,14 @@ public class TableWriter implements Closeable {
         }
     }
 
+    static void syncAndCountDown(ColumnSyncer syncer, SOCountDownLatch latch) {
+        try {
+            syncer.sync();
+        } finally {
+            latch.countDown();
+        }
+    }
+
     private int addColumnToMeta(
             CharSequence name,
             int type,
@@ -1024,6 +1381,7 @@ public class TableWriter implements Closeable {
             ddlMem.putInt(metaMem.getInt(META_OFFSET_PARTITION_BY));
             ddlMem.putInt(metaMem.getInt(META_OFFSET_TIMESTAMP_INDEX));
             ddlMem.putInt(ColumnType.VERSION);
+            ddlMem.putInt(metaMem.getInt(META_OFFSET_TTL));
             ddlMem.jumpTo(META_OFFSET_COLUMN_TYPES);
             for (int i = 0; i < columnCount; i++) {
                 writeColumnEntry(i);
@@ -1057,6 +1415,80 @@ public class TableWriter implements Closeable {
         return index;
     }
 
+    private void appendBatchRows(ColumnBatch batch, long lo, long hi) {
+        final long count = hi - lo;
+        final int timestampIndex = metadata.getTimestampIndex();
+        for (int i = 0; i < columnCount; i++) {
+            final AppendMemory primary = getPrimaryColumn(i);
+            if (i == timestampIndex) {
+                primary.putBlockOfBytes(batch.getTimestampAddress() + lo * Long.BYTES, count * Long.BYTES);
+                continue;
+            }
+
+            final long address = batch.getColumnAddress(i);
+            if (address == 0) {
+                final Runnable nuller = nullers.getQuick(i);
+                for (long r = 0; r < count; r++) {
+                    nuller.run();
+                }
+                continue;
+            }
+
+            final int type = metadata.getColumnType(i);
+            final BloomFilterWriter bloomFilter = bloomFilterCount > 0 ? bloomFilters.getQuiet(i) : null;
+            switch (type) {
+                case ColumnType.STRING:
+                case ColumnType.BINARY: {
+                    final AppendMemory secondary = getSecondaryColumn(i);
+                    final long base = primary.getAppendOffset();
+                    final long start = batch.getPosition(i);
+                    long p = start;
+                    for (long r = 0; r < count; r++) {
+                        secondary.putLong(base + p - start);
+                        if (type == ColumnType.STRING) {
+                            final int len = Unsafe.getUnsafe().getInt(p);
+                            p += Integer.BYTES;
+                            // empty string is a value like any other, only null is not hashed
+                            if (len > -1) {
+                                if (bloomFilter != null) {
+                                    bloomFilter.add(BloomFilterUtils.hashChars(p, len));
+                                }
+                                p += len * 2L;
+                            }
+                        } else {
+                            final long len = Unsafe.getUnsafe().getLong(p);
+                            p += Long.BYTES + Math.max(len, 0);
+                        }
+                    }
+                    primary.putBlockOfBytes(start, p - start);
+                    batch.setPosition(i, p);
+                    break;
+                }
+                case ColumnType.SYMBOL: {
+                    final IntList keys = batch.getSymbolKeys(i);
+                    for (long r = lo; r < hi; r++) {
+                        final int key = Unsafe.getUnsafe().getInt(address + r * Integer.BYTES);
+                        primary.putInt(key < 0 ? keys.getLast() : keys.getQuick(key));
+                    }
+                    break;
+                }
+                default: {
+                    final int size = ColumnType.sizeOf(type);
+                    primary.putBlockOfBytes(address + lo * size, count * size);
+                    if (bloomFilter != null && type == ColumnType.LONG) {
+                        for (long r = lo; r < hi; r++) {
+                            final long value = Unsafe.getUnsafe().getLong(address + r * Long.BYTES);
+                            if (value != Numbers.LONG_NaN) {
+                                bloomFilter.add(BloomFilterUtils.hash(value));
+                            }
+                        }
+                    }
+                    break;
+                }
+            }
+        }
+    }
+
     private void bumpMasterRef() {
         if ((masterRef & 1) != 0) {
             cancelRow();
@@ -1268,8 +1700,13 @@ public class TableWriter implements Closeable {
             if (metadata.isColumnIndexed(i)) {
                 indexers.extendAndSet(i, new SymbolColumnIndexer());
             }
+
+            if (metadata.isColumnBloomFiltered(i)) {
+                bloomFilters.extendAndSet(i, new BloomFilterWriter());
+            }
         }
         populateDenseIndexerList();
+        populateDenseBloomFilterList();
     }
 
     private void configureNuller(int type, AppendMemory mem1, AppendMemory mem2) {
@@ -1334,6 +1771,7 @@ public class TableWriter implements Closeable {
             ddlMem.putInt(metaMem.getInt(META_OFFSET_PARTITION_BY));
             ddlMem.putInt(metaMem.getInt(META_OFFSET_TIMESTAMP_INDEX));
             ddlMem.putInt(ColumnType.VERSION);
+            ddlMem.putInt(metaMem.getInt(META_OFFSET_TTL));
             ddlMem.jumpTo(META_OFFSET_COLUMN_TYPES);
             for (int i = 0; i < columnCount; i++) {
                 if (i != columnIndex) {
@@ -1344,6 +1782,9 @@ public class TableWriter implements Closeable {
                     if (isSequential(metaMem, i)) {
                         flags |= META_FLAG_BIT_SEQUENTIAL;
                     }
+                    if (isColumnBloomFiltered(metaMem, i)) {
+                        flags |= META_FLAG_BIT_BLOOM_FILTER;
+                    }
                     ddlMem.putLong(flags);
                     ddlMem.putInt(indexValueBlockSize);
                     ddlMem.skip(META_COLUMN_DATA_RESERVED);
@@ -1362,7 +1803,33 @@ public class TableWriter implements Closeable {
         }
     }
 
-    private int copyMetadataAndUpdateVersion() {
+    private int copyMetadataAndSetBloomFiltered(int columnIndex) {
+        try {
+            int index = openMetaSwapFile(ff, ddlMem, path, rootLen, configuration.getMaxSwapFileCount());
+            int columnCount = metaMem.getInt(META_OFFSET_COUNT);
+            ddlMem.putInt(columnCount);
+            ddlMem.putInt(metaMem.getInt(META_OFFSET_PARTITION_BY));
+            ddlMem.putInt(metaMem.getInt(META_OFFSET_TIMESTAMP_INDEX));
+            ddlMem.putInt(ColumnType.VERSION);
+            ddlMem.putInt(metaMem.getInt(META_OFFSET_TTL));
+            ddlMem.jumpTo(META_OFFSET_COLUMN_TYPES);
+            for (int i = 0; i < columnCount; i++) {
+                writeColumnEntry(i, i == columnIndex ? META_FLAG_BIT_BLOOM_FILTER : 0);
+            }
+
+            long nameOffset = getColumnNameOffset(columnCount);
+            for (int i = 0; i < columnCount; i++) {
+                CharSequence columnName = metaMem.getStr(nameOffset);
+                ddlMem.putStr(columnName);
+                nameOffset += VirtualMemory.getStorageLength(columnName);
+            }
+            return index;
+        } finally {
+            ddlMem.close();
+        }
+    }
+
+    private int copyMetadataAndUpdateVersion(int ttl) {
         int index;
         try {
             index = openMetaSwapFile(ff, ddlMem, path, rootLen, configuration.getMaxSwapFileCount());
@@ -1372,6 +1839,7 @@ public class TableWriter implements Closeable {
             ddlMem.putInt(metaMem.getInt(META_OFFSET_PARTITION_BY));
             ddlMem.putInt(metaMem.getInt(META_OFFSET_TIMESTAMP_INDEX));
             ddlMem.putInt(ColumnType.VERSION);
+            ddlMem.putInt(ttl);
             ddlMem.jumpTo(META_OFFSET_COLUMN_TYPES);
             for (int i = 0; i < columnCount; i++) {
                 writeColumnEntry(i);
@@ -1441,6 +1909,7 @@ public class TableWriter implements Closeable {
         freeColumns(truncate);
         freeSymbolMapWriters();
         freeIndexers();
+        freeBloomFilters();
         try {
             freeTxMem();
         } finally {
@@ -1448,6 +1917,8 @@ public class TableWriter implements Closeable {
             Misc.free(txPendingPartitionSizes);
             Misc.free(ddlMem);
             Misc.free(other);
+            Misc.free(coldPath);
+            Misc.free(linkTarget);
             try {
                 releaseLock(!truncate | tx | performRecovery | distressed);
             } finally {
@@ -1467,6 +1938,20 @@ public class TableWriter implements Closeable {
                 }
             }
         }
+
+        for (int i = 0, n = denseBloomFilters.size(); i < n; i++) {
+            denseBloomFilters.getQuick(i).close();
+        }
+    }
+
+    private void freeBloomFilters() {
+        if (bloomFilters != null) {
+            for (int i = 0, n = bloomFilters.size(); i < n; i++) {
+                Misc.free(bloomFilters.getQuick(i));
+            }
+            bloomFilters.clear();
+            denseBloomFilters.clear();
+        }
     }
 
     private void freeIndexers() {
@@ -1577,6 +2062,76 @@ public class TableWriter implements Closeable {
         return txPartitionCount;
     }
 
+    private long bloomFilterHistoricPartitions(BloomFilterWriter writer, CharSequence columnName, int columnType) {
+        final long maxTimestamp = timestampFloorMethod.floor(this.maxTimestamp);
+        long timestamp = minTimestamp;
+
+        try {
+            while (timestamp < maxTimestamp) {
+
+                path.trimTo(rootLen);
+
+                setStateForTimestamp(timestamp, true);
+
+                if (ff.exists(path.$())) {
+                    final int plen = path.length();
+                    final long partitionSize = TableUtils.readPartitionSize(ff, path.trimTo(plen), tempMem8b);
+                    LOG.info().$("building bloom filter [path=").$(path).$(']').$();
+                    bloomFilterPartition(writer, columnName, columnType, partitionSize);
+                    writer.close();
+                }
+                timestamp = timestampAddMethod.calculate(timestamp, 1);
+            }
+        } finally {
+            writer.close();
+        }
+        return timestamp;
+    }
+
+    /**
+     * Creates bloom filter file in partition, which path is in "path" variable, and adds to it
+     * all values column has in this partition. Filter is left open for the caller to close.
+     */
+    private void bloomFilterPartition(BloomFilterWriter writer, CharSequence columnName, int columnType, long partitionSize) {
+        final int plen = path.length();
+        try {
+            final long columnTop = TableUtils.readColumnTop(ff, path.trimTo(plen), columnName, plen, tempMem8b);
+            writer.of(configuration, path.trimTo(plen), columnName);
+            writer.truncate();
+
+            if (partitionSize > columnTop) {
+                final long rowCount = partitionSize - columnTop;
+                if (columnType == ColumnType.LONG) {
+                    try (ReadOnlyMemory roMem = new ReadOnlyMemory()) {
+                        roMem.of(ff, dFile(path.trimTo(plen), columnName), ff.getPageSize(), rowCount << 3);
+                        for (long r = 0; r < rowCount; r++) {
+                            final long value = roMem.getLong(r << 3);
+                            if (value != Numbers.LONG_NaN) {
+                                writer.add(BloomFilterUtils.hash(value));
+                            }
+                        }
+                    }
+                } else {
+                    try (ReadOnlyMemory dataMem = new ReadOnlyMemory(); ReadOnlyMemory offsetMem = new ReadOnlyMemory()) {
+                        offsetMem.of(ff, iFile(path.trimTo(plen), columnName), ff.getPageSize(), rowCount << 3);
+                        dFile(path.trimTo(plen), columnName);
+                        dataMem.of(ff, path, ff.getPageSize(), ff.length(path));
+                        for (long r = 0; r < rowCount; r++) {
+                            final CharSequence value = dataMem.getStr(offsetMem.getLong(r << 3));
+                            if (value != null) {
+                                writer.add(BloomFilterUtils.hash(value));
+                            }
+                        }
+                    }
+                }
+            }
+            writer.setRowCount(partitionSize);
+            writer.sync(false);
+        } finally {
+            path.trimTo(plen);
+        }
+    }
+
     private long indexHistoricPartitions(SymbolColumnIndexer indexer, CharSequence columnName, int indexValueBlockSize) {
         final long maxTimestamp = timestampFloorMethod.floor(this.maxTimestamp);
         long timestamp = minTimestamp;
@@ -1687,6 +2242,25 @@ public class TableWriter implements Closeable {
         path.trimTo(plen);
     }
 
+    // same transitions as row functions take for first row of the batch segment
+    private void openBatchPartition(long timestamp) {
+        if (rowFunction == openPartitionFunction) {
+            if (maxTimestamp == Long.MIN_VALUE) {
+                minTimestamp = timestamp;
+                openFirstPartition(timestamp);
+            }
+            rowFunction = switchPartitionFunction;
+        }
+
+        if (timestamp < maxTimestamp) {
+            throw CairoException.instance(0).put("Cannot insert rows out of order. Table=").put(path);
+        }
+
+        if (timestamp > partitionHi && partitionBy != PartitionBy.NONE) {
+            switchPartition(timestamp);
+        }
+    }
+
     private void openFirstPartition(long timestamp) {
         openPartition(repairDataGaps(timestamp));
         setAppendPosition(transientRowCount);
@@ -1766,6 +2340,17 @@ public class TableWriter implements Closeable {
                     assert indexer != null;
                     indexer.configureFollowerAndWriter(configuration, path, name, getPrimaryColumn(i), columnTop);
                 }
+
+                final BloomFilterWriter bloomFilter = bloomFilters.getQuiet(i);
+                if (bloomFilter != null) {
+                    bloomFilter.of(configuration, path, name);
+                    if (bloomFilter.getRowCount() < transientRowCount) {
+                        // filter does not know about some of the existing rows,
+                        // readers must not use it to skip this partition
+                        LOG.error().$("bloom filter is behind partition data [path=").$(path).$(", column=").utf8(name).$(']').$();
+                        bloomFilter.invalidate();
+                    }
+                }
             }
             LOG.info().$("switched partition to '").$(path).$('\'').$();
         } finally {
@@ -1802,6 +2387,17 @@ public class TableWriter implements Closeable {
         indexCount = denseIndexers.size();
     }
 
+    private void populateDenseBloomFilterList() {
+        denseBloomFilters.clear();
+        for (int i = 0, n = bloomFilters.size(); i < n; i++) {
+            BloomFilterWriter w = bloomFilters.getQuick(i);
+            if (w != null) {
+                denseBloomFilters.add(w);
+            }
+        }
+        bloomFilterCount = denseBloomFilters.size();
+    }
+
     private void purgeUnusedPartitions() {
         if (partitionBy != PartitionBy.NONE) {
             removePartitionDirsNewerThan(maxTimestamp);
@@ -1885,13 +2481,18 @@ public class TableWriter implements Closeable {
             indexers.remove(columnIndex);
             populateDenseIndexerList();
         }
+        if (columnIndex < bloomFilters.size()) {
+            Misc.free(bloomFilters.getQuick(columnIndex));
+            bloomFilters.remove(columnIndex);
+            populateDenseBloomFilterList();
+        }
     }
 
     private void removeColumnFiles(CharSequence columnName, int columnType, RemoveFileLambda removeLambda) {
         try {
             ff.iterateDir(path.$(), (file, type) -> {
                 nativeLPSZ.of(file);
-                if (type == Files.DT_DIR && IGNORED_FILES.excludes(nativeLPSZ)) {
+                if (isPartitionDir(type) && IGNORED_FILES.excludes(nativeLPSZ)) {
                     path.trimTo(rootLen);
                     path.concat(nativeLPSZ);
                     int plen = path.length();
@@ -1900,6 +2501,7 @@ public class TableWriter implements Closeable {
                     removeLambda.remove(ff, topFile(path.trimTo(plen), columnName));
                     removeLambda.remove(ff, BitmapIndexUtils.keyFileName(path.trimTo(plen), columnName));
                     removeLambda.remove(ff, BitmapIndexUtils.valueFileName(path.trimTo(plen), columnName));
+                    removeLambda.remove(ff, BloomFilterUtils.fileName(path.trimTo(plen), columnName));
                 }
             });
 
@@ -1929,6 +2531,7 @@ public class TableWriter implements Closeable {
                 ddlMem.putInt(timestampIndex);
             }
             ddlMem.putInt(ColumnType.VERSION);
+            ddlMem.putInt(metaMem.getInt(META_OFFSET_TTL));
             ddlMem.jumpTo(META_OFFSET_COLUMN_TYPES);
 
             for (int i = 0; i < columnCount; i++) {
@@ -1956,7 +2559,7 @@ public class TableWriter implements Closeable {
         try {
             ff.iterateDir(path.$(), (file, type) -> {
                 nativeLPSZ.of(file);
-                if (type == Files.DT_DIR && IGNORED_FILES.excludes(nativeLPSZ)) {
+                if (isPartitionDir(type) && IGNORED_FILES.excludes(nativeLPSZ)) {
                     path.trimTo(rootLen);
                     path.concat(nativeLPSZ);
                     int plen = path.length();
@@ -1969,11 +2572,66 @@ public class TableWriter implements Closeable {
         }
     }
 
+    private void removeBloomFilterFiles(CharSequence columnName) {
+        try {
+            ff.iterateDir(path.$(), (file, type) -> {
+                nativeLPSZ.of(file);
+                if (isPartitionDir(type) && IGNORED_FILES.excludes(nativeLPSZ)) {
+                    path.trimTo(rootLen);
+                    path.concat(nativeLPSZ);
+                    removeFileAndOrLog(ff, BloomFilterUtils.fileName(path, columnName));
+                }
+            });
+        } finally {
+            path.trimTo(rootLen);
+        }
+    }
+
     private void removeLastColumn() {
         removeColumn(columnCount - 1);
         columnCount--;
     }
 
+    private void copyColdPartitionFile0(long name, int type) {
+        if (type == Files.DT_DIR || coldCopyFailed) {
+            return;
+        }
+        path.trimTo(partitionPathLen).concat(name).$();
+        coldPath.trimTo(coldPathLen).concat(name).$();
+        // hard link is enough when cold root shares file system with the table
+        if (!ff.hardLink(path, coldPath) && !ff.copy(path, coldPath)) {
+            LOG.error().$("could not copy [from=").$(path).$(", to=").$(coldPath).$(", errno=").$(ff.errno()).$(']').$();
+            coldCopyFailed = true;
+        }
+    }
+
+    private boolean isPartitionPresent(long timestamp, boolean includeLinks) {
+        try {
+            setStateForTimestamp(timestamp, false);
+            return ff.exists(path.$()) && (includeLinks || !ff.isSoftLink(path));
+        } finally {
+            path.trimTo(rootLen);
+        }
+    }
+
+    // Maintenance job expires partitions of tables it can lock. Writer that is never released is not seen by the job,
+    // such writer catches up on partition switch, but not more often than maintenance job would run.
+    private void removeExpiredPartitionsThrottled() {
+        if (getTtl() == 0) {
+            return;
+        }
+        final long now = configuration.getMicrosecondClock().getTicks();
+        if (now < nextExpiryCheck) {
+            return;
+        }
+        nextExpiryCheck = now + configuration.getIdleCheckInterval() * 1000;
+        try {
+            removeExpiredPartitions(now);
+        } catch (CairoException e) {
+            LOG.error().$("could not remove expired partitions [table=").$(name).$(", e=").$((Sinkable) e).$(']').$();
+        }
+    }
+
     private void removeMetaFile() {
         try {
             path.concat(META_FILE_NAME).$();
@@ -1985,6 +2643,38 @@ public class TableWriter implements Closeable {
         }
     }
 
+    /**
+     * Fallback for when atomic exchange of partition directory and link is not available. Partition
+     * is renamed aside and link takes its place, which leaves a short window where partition path does
+     * not resolve. Query opening partition in that window reads it as empty, next query sees it again.
+     * Mappings of readers that have partition open stay valid.
+     * <p>
+     * On entry 'path' is partition directory and 'other' is link. On success 'other' is the original
+     * directory, same as after exchange. On failure both are left as they were.
+     */
+    private boolean swapPartitionForLink() {
+        linkTarget.of(path).put(".old").$();
+        if (!ff.rename(path, linkTarget)) {
+            return false;
+        }
+
+        if (!ff.rename(other, path)) {
+            final int errno = ff.errno();
+            if (!ff.rename(linkTarget, path)) {
+                LOG.error().$("could not restore partition [path=").$(path).$(", from=").$(linkTarget).$(", errno=").$(ff.errno()).$(']').$();
+            }
+            LOG.error().$("could not rename link [from=").$(other).$(", to=").$(path).$(", errno=").$(errno).$(']').$();
+            return false;
+        }
+
+        if (!ff.rename(linkTarget, other)) {
+            // link is in place already, leftover directory is removed without going through 'other'
+            LOG.info().$("could not rename [from=").$(linkTarget).$(", to=").$(other).$(", errno=").$(ff.errno()).$(']').$();
+            other.of(linkTarget).$();
+        }
+        return true;
+    }
+
     private void removePartitionDirectories() {
         try {
             ff.iterateDir(path.$(), removePartitionDirectories);
@@ -1997,7 +2687,7 @@ public class TableWriter implements Closeable {
         path.trimTo(rootLen);
         path.concat(name).$();
         nativeLPSZ.of(name);
-        if (IGNORED_FILES.excludes(nativeLPSZ) && type == Files.DT_DIR && !ff.rmdir(path)) {
+        if (IGNORED_FILES.excludes(nativeLPSZ) && isPartitionDir(type) && !removePartitionDir(ff, path, linkTarget)) {
             LOG.info().$("could not remove [path=").$(path).$(", errno=").$(ff.errno()).$(']').$();
         }
     }
@@ -2013,7 +2703,7 @@ public class TableWriter implements Closeable {
                 path.trimTo(rootLen);
                 path.concat(pName).$();
                 nativeLPSZ.of(pName);
-                if (IGNORED_FILES.excludes(nativeLPSZ) && type == Files.DT_DIR) {
+                if (IGNORED_FILES.excludes(nativeLPSZ) && isPartitionDir(type)) {
                     try {
                         long dirTimestamp = partitionDirFmt.parse(nativeLPSZ, null);
                         if (dirTimestamp <= timestamp) {
@@ -2023,7 +2713,7 @@ public class TableWriter implements Closeable {
                         // not a date?
                         // ignore exception and remove directory
                     }
-                    if (ff.rmdir(path)) {
+                    if (removePartitionDir(ff, path, linkTarget)) {
                         LOG.info().$("removing partition dir: ").$(path).$();
                     } else {
                         LOG.error().$("cannot remove: ").$(path).$(" [errno=").$(ff.errno()).$(']').$();
@@ -2203,6 +2893,33 @@ public class TableWriter implements Closeable {
         return timestamp;
     }
 
+    private void resolveBatchSymbols(ColumnBatch batch) {
+        final long rowCount = batch.getRowCount();
+        for (int i = 0; i < columnCount; i++) {
+            final long address = batch.getColumnAddress(i);
+            if (address == 0 || metadata.getColumnType(i) != ColumnType.SYMBOL) {
+                continue;
+            }
+
+            final ObjList<? extends CharSequence> dictionary = batch.getDictionary(i);
+            final SymbolMapWriter symbolMapWriter = symbolMapWriters.getQuick(i);
+            final IntList keys = batch.getSymbolKeys(i);
+            keys.clear();
+            for (int k = 0, n = dictionary.size(); k < n; k++) {
+                keys.add(symbolMapWriter.put(dictionary.getQuick(k)));
+            }
+
+            // null is resolved only when batch has it, resolution marks column as having nulls
+            for (long r = 0; r < rowCount; r++) {
+                if (Unsafe.getUnsafe().getInt(address + r * Integer.BYTES) < 0) {
+                    symbolMapWriter.put(null);
+                    break;
+                }
+            }
+            keys.add(SymbolTable.VALUE_IS_NULL);
+        }
+    }
+
     private void repairMetaRename(int index) {
         try {
             path.concat(META_PREV_FILE_NAME);
@@ -2259,6 +2976,34 @@ public class TableWriter implements Closeable {
         }
     }
 
+    private void rewriteMetadata(int ttl) {
+
+        checkDistressed();
+
+        commit();
+        // create new _meta.swp
+        this.metaSwapIndex = copyMetadataAndUpdateVersion(ttl);
+
+        // close _meta so we can rename it
+        metaMem.close();
+
+        // rename _meta to _meta.prev
+        this.metaPrevIndex = rename(fileOperationRetryCount);
+
+        // rename _meta.swp to -_meta
+        restoreMetaFrom(META_SWAP_FILE_NAME, metaSwapIndex);
+
+        try {
+            // open _meta file
+            openMetaFile();
+        } catch (CairoException err) {
+            throwDistressException(err);
+        }
+
+        bumpStructureVersion();
+        metadata.setTableVersion();
+    }
+
     private void rollbackIndexes() {
         final long maxRow = transientRowCount - 1;
         for (int i = 0, n = denseIndexers.size(); i < n; i++) {
@@ -2365,6 +3110,9 @@ public class TableWriter implements Closeable {
         // files after switch.
         updateIndexes();
 
+        // Filters of partition we are leaving cover all of its rows.
+        updateBloomFilters(transientRowCount, defaultCommitMode);
+
         // We need to store reference on partition so that archive
         // file can be created in appropriate directory.
         // For simplicity use partitionLo, which can be
@@ -2381,6 +3129,11 @@ public class TableWriter implements Closeable {
 
     private void syncColumns(int commitMode) {
         final boolean async = commitMode == CommitMode.ASYNC;
+        // asynchronous msync only schedules write-back, there is nothing to wait on in parallel
+        if (!async && parallelSyncEnabled && columnCount > 1) {
+            syncColumnsParallel();
+            return;
+        }
         for (int i = 0; i < columnCount; i++) {
             columns.getQuick(i * 2).sync(async);
             final AppendMemory m2 = columns.getQuick(i * 2 + 1);
@@ -2390,11 +3143,95 @@ public class TableWriter implements Closeable {
         }
     }
 
+    private void syncColumnsParallel() {
+        syncSequences.clear();
+        syncLatch.setCount(columnCount);
+        final int nParallelSyncs = columnCount - 1;
+        final Sequence syncPubSequence = this.messageBus.getColumnSyncPubSequence();
+        final RingQueue<ColumnSyncTask> syncQueue = this.messageBus.getColumnSyncQueue();
+
+        for (int i = columnSyncers.size(); i < columnCount; i++) {
+            columnSyncers.add(new ColumnSyncer());
+        }
+
+        int serialSyncCount = 0;
+
+        // we are going to sync last column in this thread while other columns are on the queue
+        OUT:
+        for (int i = 0; i < nParallelSyncs; i++) {
+            final ColumnSyncer syncer = columnSyncers.getQuick(i);
+            syncer.of(columns.getQuick(i * 2), columns.getQuick(i * 2 + 1));
+
+            long cursor = syncPubSequence.next();
+            if (cursor == -1) {
+                // queue is full, sync column in the current thread
+                syncAndCountDown(syncer, syncLatch);
+                syncSequences.add(-1);
+                serialSyncCount++;
+                continue;
+            }
+
+            if (cursor == -2) {
+                // CAS issue, retry
+                do {
+                    cursor = syncPubSequence.next();
+                    if (cursor == -1) {
+                        syncAndCountDown(syncer, syncLatch);
+                        syncSequences.add(-1);
+                        serialSyncCount++;
+                        continue OUT;
+                    }
+                } while (cursor < 0);
+            }
+
+            final ColumnSyncTask queueItem = syncQueue.get(cursor);
+            final long sequence = syncer.getSequence();
+            queueItem.syncer = syncer;
+            queueItem.countDownLatch = syncLatch;
+            queueItem.sequence = sequence;
+            syncSequences.add(sequence);
+            syncPubSequence.done(cursor);
+        }
+
+        final ColumnSyncer last = columnSyncers.getQuick(nParallelSyncs);
+        last.of(columns.getQuick(nParallelSyncs * 2), columns.getQuick(nParallelSyncs * 2 + 1));
+        syncAndCountDown(last, syncLatch);
+        serialSyncCount++;
+
+        // txn file must not be written before all column files are on disk, steal columns
+        // that have not been picked up by workers and wait for the ones being synced
+        if (!syncLatch.await(configuration.getWorkStealTimeoutNanos())) {
+            for (int i = 0; i < nParallelSyncs; i++) {
+                final long sequence = syncSequences.getQuick(i);
+                final ColumnSyncer syncer = columnSyncers.getQuick(i);
+                if (sequence > -1 && syncer.tryLock(sequence)) {
+                    syncAndCountDown(syncer, syncLatch);
+                    serialSyncCount++;
+                }
+            }
+            syncLatch.await();
+        }
+
+        LOG.debug().$("parallel sync done [columnCount=").$(columnCount).$(", serialCount=").$(serialSyncCount).$(']').$();
+    }
+
     private void throwDistressException(Throwable cause) {
         this.distressed = true;
         throw new CairoError(cause);
     }
 
+    private void updateBloomFilters(long rowCount, int commitMode) {
+        for (int i = 0; i < bloomFilterCount; i++) {
+            final BloomFilterWriter w = denseBloomFilters.getQuick(i);
+            if (w.isOpen()) {
+                w.commit(rowCount);
+                if (commitMode != CommitMode.NOSYNC) {
+                    w.sync(commitMode == CommitMode.ASYNC);
+                }
+            }
+        }
+    }
+
     private void updateIndexes() {
         if (indexCount > 0) {
             final long lo = txPartitionCount == 1 ? txPrevTransientRowCount : 0;
@@ -2508,6 +3345,43 @@ public class TableWriter implements Closeable {
         this.timestampSetter.accept(timestamp);
     }
 
+    private void validateBatch(ColumnBatch batch, long timestamps) {
+        final long rowCount = batch.getRowCount();
+        if (timestamps != 0) {
+            long prev = maxTimestamp;
+            for (long r = 0; r < rowCount; r++) {
+                final long timestamp = Unsafe.getUnsafe().getLong(timestamps + r * Long.BYTES);
+                if (timestamp < prev) {
+                    throw CairoException.instance(0).put("Cannot insert rows out of order. Table=").put(path);
+                }
+                prev = timestamp;
+            }
+        }
+
+        for (int i = 0; i < columnCount; i++) {
+            final long address = batch.getColumnAddress(i);
+            if (address == 0 || metadata.getColumnType(i) != ColumnType.SYMBOL) {
+                continue;
+            }
+
+            final ObjList<? extends CharSequence> dictionary = batch.getDictionary(i);
+            if (dictionary == null) {
+                throw CairoException.instance(0).put("symbol dictionary expected [column=").put(metadata.getColumnName(i)).put(']');
+            }
+
+            final int size = dictionary.size();
+            for (long r = 0; r < rowCount; r++) {
+                final int key = Unsafe.getUnsafe().getInt(address + r * Integer.BYTES);
+                if (key >= size) {
+                    throw CairoException.instance(0).put("symbol key is out of dictionary bounds [column=").put(metadata.getColumnName(i))
+                            .put(", key=").put(key)
+                            .put(", size=").put(size)
+                            .put(']');
+                }
+            }
+        }
+    }
+
     private void validateSwapMeta(CharSequence columnName) {
         try {
             try {
@@ -2528,8 +3402,12 @@ public class TableWriter implements Closeable {
     }
 
     private void writeColumnEntry(int i) {
+        writeColumnEntry(i, 0);
+    }
+
+    private void writeColumnEntry(int i, long extraFlags) {
         ddlMem.putByte((byte) getColumnType(metaMem, i));
-        long flags = 0;
+        long flags = extraFlags;
         if (isColumnIndexed(metaMem, i)) {
             flags |= META_FLAG_BIT_INDEXED;
         }
@@ -2537,6 +3415,10 @@ public class TableWriter implements Closeable {
         if (isSequential(metaMem, i)) {
             flags |= META_FLAG_BIT_SEQUENTIAL;
         }
+
+        if (isColumnBloomFiltered(metaMem, i)) {
+            flags |= META_FLAG_BIT_BLOOM_FILTER;
+        }
         ddlMem.putLong(flags);
         ddlMem.putInt(getIndexBlockCapacity(metaMem, i));
         ddlMem.skip(META_COLUMN_DATA_RESERVED);
@@ -2705,6 +3587,9 @@ public class TableWriter implements Closeable {
 
         public void putLong(int index, long value) {
             getPrimaryColumn(index).putLong(value);
+            if (bloomFilterCount > 0 && value != Numbers.LONG_NaN) {
+                addToBloomFilter(index, BloomFilterUtils.hash(value));
+            }
             notNull(index);
         }
 
@@ -2730,16 +3615,25 @@ public class TableWriter implements Closeable {
 
         public void putStr(int index, CharSequence value) {
             getSecondaryColumn(index).putLong(getPrimaryColumn(index).putStr(value));
+            if (bloomFilterCount > 0 && value != null) {
+                addToBloomFilter(index, BloomFilterUtils.hash(value));
+            }
             notNull(index);
         }
 
         public void putStr(int index, char value) {
             getSecondaryColumn(index).putLong(getPrimaryColumn(index).putStr(value));
+            if (bloomFilterCount > 0 && value != 0) {
+                addToBloomFilter(index, BloomFilterUtils.hash(value));
+            }
             notNull(index);
         }
 
         public void putStr(int index, CharSequence value, int pos, int len) {
             getSecondaryColumn(index).putLong(getPrimaryColumn(index).putStr(value, pos, len));
+            if (bloomFilterCount > 0 && value != null) {
+                addToBloomFilter(index, BloomFilterUtils.hash(value, pos, pos + len));
+            }
             notNull(index);
         }
 
@@ -2748,10 +3642,22 @@ public class TableWriter implements Closeable {
             notNull(index);
         }
 
+        public void putSymIndex(int index, int symbolKey) {
+            getPrimaryColumn(index).putInt(symbolKey);
+            notNull(index);
+        }
+
         public void putTimestamp(int index, long value) {
             putLong(index, value);
         }
 
+        private void addToBloomFilter(int index, long hash) {
+            final BloomFilterWriter w = bloomFilters.getQuiet(index);
+            if (w != null) {
+                w.add(hash);
+            }
+        }
+
         private void notNull(int index) {
             refs.setQuick(index, masterRef);
         }
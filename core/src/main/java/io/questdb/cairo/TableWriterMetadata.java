@@ -54,7 +54,8 @@ public class TableWriterMetadata extends BaseRecordMetadata {
                             type,
                             TableUtils.isColumnIndexed(metaMem, i),
                             TableUtils.getIndexBlockCapacity(metaMem, i),
-                            true
+                            true,
+                            TableUtils.isColumnBloomFiltered(metaMem, i)
                     )
             );
             if (type == ColumnType.SYMBOL) {
@@ -31,13 +31,13 @@ import io.questdb.std.Unsafe;
 public final class FastMapCursor implements RecordCursor {
     private final FastMapRecord recordA;
     private final MapRecord recordB;
-    private final FastMap map;
+    private final Map map;
     private int remaining;
     private long address;
     private long topAddress;
     private int count;
 
-    FastMapCursor(FastMapRecord record, FastMap map) {
+    FastMapCursor(FastMapRecord record, Map map) {
         this.recordA = record;
         this.recordB = record.clone();
         this.map = map;
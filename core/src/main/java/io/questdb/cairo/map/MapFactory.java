@@ -26,6 +26,7 @@ package io.questdb.cairo.map;
 
 import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.CairoException;
+import io.questdb.cairo.ColumnType;
 import io.questdb.cairo.ColumnTypes;
 import io.questdb.std.Chars;
 import io.questdb.std.Transient;
@@ -39,6 +40,15 @@ public class MapFactory {
     ) {
         CharSequence mapType = configuration.getDefaultMapType();
         if (Chars.equalsLowerCaseAscii(mapType, "fast")) {
+            if (isPrimitiveKey(keyTypes)) {
+                return new PrimitiveKeyMap(
+                        configuration.getSqlMapPageSize(),
+                        keyTypes,
+                        valueTypes,
+                        configuration.getSqlMapKeyCapacity(),
+                        configuration.getSqlFastMapLoadFactor()
+                );
+            }
             return new FastMap(
                     configuration.getSqlMapPageSize(),
                     keyTypes,
@@ -64,6 +74,15 @@ public class MapFactory {
             @Transient @NotNull ColumnTypes keyTypes) {
         CharSequence mapType = configuration.getDefaultMapType();
         if (Chars.equalsLowerCaseAscii(mapType, "fast")) {
+            if (isPrimitiveKey(keyTypes)) {
+                return new PrimitiveKeyMap(
+                        configuration.getSqlMapPageSize(),
+                        keyTypes,
+                        null,
+                        configuration.getSqlMapKeyCapacity(),
+                        configuration.getSqlFastMapLoadFactor()
+                );
+            }
             return new FastMap(
                     configuration.getSqlMapPageSize(),
                     keyTypes,
@@ -83,4 +102,19 @@ public class MapFactory {
         throw CairoException.instance(0).put("unknown map type: ").put(mapType);
     }
 
+    private static boolean isPrimitiveKey(ColumnTypes keyTypes) {
+        if (keyTypes.getColumnCount() != 1) {
+            return false;
+        }
+        switch (keyTypes.getColumnType(0)) {
+            case ColumnType.INT:
+            case ColumnType.SYMBOL:
+            case ColumnType.LONG:
+            case ColumnType.DATE:
+            case ColumnType.TIMESTAMP:
+                return true;
+            default:
+                return false;
+        }
+    }
 }
@@ -0,0 +1,355 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo.map;
+
+import io.questdb.cairo.*;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.std.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Map keyed by single fixed-width column: INT, SYMBOL, LONG, DATE or TIMESTAMP. Unlike {@link FastMap}
+ * key is not serialized into variable length record and hashed as memory. Key value is hashed directly
+ * and stored in hash slot next to entry offset, so that probing compares longs without touching entries.
+ * Entries are fixed size and laid out same way as in {@link FastMap}, which makes its record, value
+ * and cursor reusable here:
+ * <pre>
+ * [ len | value block | key ]
+ * </pre>
+ * Entries are iterated in order of insertion.
+ */
+public class PrimitiveKeyMap implements Map {
+    private static final int MIN_INITIAL_CAPACITY = 128;
+    private final double loadFactor;
+    private final Key key = new Key();
+    private final FastMapValue value;
+    private final FastMapCursor cursor;
+    private final FastMapRecord record;
+    private final int keyOffset;
+    private final int keySize;
+    private final int entrySize;
+    private long capacity;
+    // pairs of [key value, entry offset], entry offset is -1 when slot is empty
+    private DirectLongList slots;
+    private long kStart;
+    private long kLimit;
+    private long kPos;
+    private int free;
+    private int keyCapacity;
+    private int size = 0;
+    private int mask;
+
+    public PrimitiveKeyMap(
+            int pageSize,
+            @Transient @NotNull ColumnTypes keyTypes,
+            @Transient @Nullable ColumnTypes valueTypes,
+            int keyCapacity,
+            double loadFactor
+    ) {
+        assert loadFactor > 0 && loadFactor < 1d;
+        assert keyTypes.getColumnCount() == 1;
+
+        this.loadFactor = loadFactor;
+        switch (keyTypes.getColumnType(0)) {
+            case ColumnType.INT:
+            case ColumnType.SYMBOL:
+                this.keySize = Integer.BYTES;
+                break;
+            case ColumnType.LONG:
+            case ColumnType.DATE:
+            case ColumnType.TIMESTAMP:
+                this.keySize = Long.BYTES;
+                break;
+            default:
+                throw CairoException.instance(0).put("key type is not supported: ").put(ColumnType.nameOf(keyTypes.getColumnType(0)));
+        }
+
+        int[] valueOffsets = null;
+        int offset = 4;
+        final int valueColumnCount = valueTypes != null ? valueTypes.getColumnCount() : 0;
+        if (valueColumnCount > 0) {
+            valueOffsets = new int[valueColumnCount];
+            for (int i = 0; i < valueColumnCount; i++) {
+                valueOffsets[i] = offset;
+                switch (valueTypes.getColumnType(i)) {
+                    case ColumnType.BYTE:
+                    case ColumnType.BOOLEAN:
+                        offset++;
+                        break;
+                    case ColumnType.SHORT:
+                    case ColumnType.CHAR:
+                        offset += 2;
+                        break;
+                    case ColumnType.INT:
+                    case ColumnType.FLOAT:
+                    case ColumnType.SYMBOL:
+                        offset += 4;
+                        break;
+                    case ColumnType.LONG:
+                    case ColumnType.DOUBLE:
+                    case ColumnType.DATE:
+                    case ColumnType.TIMESTAMP:
+                        offset += 8;
+                        break;
+                    case ColumnType.LONG256:
+                        offset += Long256.BYTES;
+                        break;
+                    default:
+                        throw CairoException.instance(0).put("value type is not supported: ").put(ColumnType.nameOf(valueTypes.getColumnType(i)));
+                }
+            }
+        }
+        this.keyOffset = offset;
+        this.entrySize = offset + keySize;
+
+        this.kStart = kPos = Unsafe.malloc(this.capacity = Math.max(pageSize, entrySize));
+        this.kLimit = kStart + capacity;
+
+        this.keyCapacity = (int) (keyCapacity / loadFactor);
+        this.keyCapacity = this.keyCapacity < MIN_INITIAL_CAPACITY ? MIN_INITIAL_CAPACITY : Numbers.ceilPow2(this.keyCapacity);
+        this.mask = this.keyCapacity - 1;
+        this.free = (int) (this.keyCapacity * loadFactor);
+        this.slots = new DirectLongList(this.keyCapacity * 2L);
+        this.slots.setPos(this.keyCapacity * 2L);
+        this.slots.zero(-1);
+
+        this.value = new FastMapValue(valueOffsets);
+        this.record = new FastMapRecord(valueOffsets, valueColumnCount, keyOffset, keyOffset, value, keyTypes);
+        this.cursor = new FastMapCursor(record, this);
+    }
+
+    @Override
+    public void clear() {
+        kPos = kStart;
+        free = (int) (keyCapacity * loadFactor);
+        size = 0;
+        slots.zero(-1);
+    }
+
+    @Override
+    public final void close() {
+        slots = Misc.free(slots);
+        if (kStart != 0) {
+            Unsafe.free(kStart, capacity);
+            kStart = 0;
+        }
+    }
+
+    @Override
+    public RecordCursor getCursor() {
+        return cursor.init(kStart, size);
+    }
+
+    @Override
+    public MapRecord getRecord() {
+        return record;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public MapValue valueAt(long address) {
+        value.of(address, false);
+        return value;
+    }
+
+    @Override
+    public MapKey withKey() {
+        return key;
+    }
+
+    private FastMapValue asNew(long keyValue, int index) {
+        if (kPos + entrySize > kLimit) {
+            resize();
+        }
+        final long address = kPos;
+        Unsafe.getUnsafe().putInt(address, entrySize);
+        if (keySize == Integer.BYTES) {
+            Unsafe.getUnsafe().putInt(address + keyOffset, (int) keyValue);
+        } else {
+            Unsafe.getUnsafe().putLong(address + keyOffset, keyValue);
+        }
+        kPos += entrySize;
+
+        slots.set(index << 1, keyValue);
+        slots.set((index << 1) + 1, address - kStart);
+        if (--free == 0) {
+            rehash();
+        }
+        size++;
+        return value.of(address, true);
+    }
+
+    private int keyIndex(long keyValue) {
+        return Hash.hashLong(keyValue) & mask;
+    }
+
+    private void rehash() {
+        int capacity = keyCapacity << 1;
+        mask = capacity - 1;
+        DirectLongList slots = new DirectLongList(capacity * 2L);
+        slots.setPos(capacity * 2L);
+        slots.zero(-1);
+
+        for (int i = 0, k = this.slots.size(); i < k; i += 2) {
+            long offset = this.slots.get(i + 1);
+            if (offset == -1) {
+                continue;
+            }
+            long keyValue = this.slots.get(i);
+            int index = keyIndex(keyValue);
+            while (slots.get((index << 1) + 1) != -1) {
+                index = (index + 1) & mask;
+            }
+            slots.set(index << 1, keyValue);
+            slots.set((index << 1) + 1, offset);
+        }
+        this.slots.close();
+        this.slots = slots;
+        this.free += (capacity - keyCapacity) * loadFactor;
+        this.keyCapacity = capacity;
+    }
+
+    private void resize() {
+        long kCapacity = capacity << 1;
+        long kAddress = Unsafe.realloc(this.kStart, this.capacity, kCapacity);
+        this.capacity = kCapacity;
+        this.kPos += kAddress - this.kStart;
+        this.kStart = kAddress;
+        this.kLimit = kAddress + kCapacity;
+    }
+
+    public class Key implements MapKey {
+        private long keyValue;
+
+        @Override
+        public MapValue createValue() {
+            final long keyValue = this.keyValue;
+            int index = keyIndex(keyValue);
+            long offset;
+            while ((offset = slots.get((index << 1) + 1)) != -1) {
+                if (slots.get(index << 1) == keyValue) {
+                    return value.of(kStart + offset, false);
+                }
+                index = (index + 1) & mask;
+            }
+            return asNew(keyValue, index);
+        }
+
+        @Override
+        public MapValue findValue() {
+            final long keyValue = this.keyValue;
+            int index = keyIndex(keyValue);
+            long offset;
+            while ((offset = slots.get((index << 1) + 1)) != -1) {
+                if (slots.get(index << 1) == keyValue) {
+                    return value.of(kStart + offset, false);
+                }
+                index = (index + 1) & mask;
+            }
+            return null;
+        }
+
+        @Override
+        public void put(Record record, RecordSink sink) {
+            sink.copy(record, this);
+        }
+
+        @Override
+        public void putBin(BinarySequence value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void putBool(boolean value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void putByte(byte value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void putDate(long value) {
+            keyValue = value;
+        }
+
+        @Override
+        public void putDouble(double value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void putFloat(float value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void putInt(int value) {
+            keyValue = value;
+        }
+
+        @Override
+        public void putLong(long value) {
+            keyValue = value;
+        }
+
+        @Override
+        public void putLong256(Long256 value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void putShort(short value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void putChar(char value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void putStr(CharSequence value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void putStr(CharSequence value, int lo, int hi) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void putTimestamp(long value) {
+            keyValue = value;
+        }
+    }
+}
@@ -26,6 +26,7 @@ package io.questdb.cairo.pool;
 
 import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.CairoException;
+import io.questdb.cairo.ColumnMappingRegistry;
 import io.questdb.cairo.TableReader;
 import io.questdb.cairo.pool.ex.EntryLockedException;
 import io.questdb.cairo.pool.ex.EntryUnavailableException;
@@ -51,11 +52,13 @@ public class ReaderPool extends AbstractPool implements ResourcePool<TableReader
     private final ConcurrentHashMap<Entry> entries = new ConcurrentHashMap<>();
     private final int maxSegments;
     private final int maxEntries;
+    private final ColumnMappingRegistry columnMappingRegistry;
 
     public ReaderPool(CairoConfiguration configuration) {
         super(configuration, configuration.getInactiveReaderTTL());
         this.maxSegments = configuration.getReaderPoolMaxSegments();
         this.maxEntries = maxSegments * ENTRY_SIZE;
+        this.columnMappingRegistry = configuration.isSharedColumnMappingEnabled() ? new ColumnMappingRegistry(ff) : null;
     }
 
     @Override
@@ -347,7 +350,7 @@ public class ReaderPool extends AbstractPool implements ResourcePool<TableReader
         private Entry entry;
 
         public R(ReaderPool pool, Entry entry, int index, CharSequence name) {
-            super(pool.getConfiguration(), name);
+            super(pool.getConfiguration(), name, pool.columnMappingRegistry);
             this.pool = pool;
             this.entry = entry;
             this.index = index;
@@ -32,4 +32,12 @@ public interface InsertStatement {
     long getStructureVersion();
 
     InsertMethod createMethod(SqlExecutionContext executionContext);
+
+    /**
+     * Inserts single row and commits it. Rows inserted into the same table concurrently
+     * are committed together, method returns once row is committed.
+     *
+     * @param executionContext execution context
+     */
+    void insert(SqlExecutionContext executionContext);
 }
@@ -0,0 +1,172 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cutlass.http;
+
+import io.questdb.network.PeerDisconnectedException;
+import io.questdb.network.PeerIsSlowToReadException;
+import io.questdb.network.ServerDisconnectException;
+import io.questdb.std.Mutable;
+import io.questdb.std.Numbers;
+import io.questdb.std.NumericException;
+import io.questdb.std.Unsafe;
+
+/**
+ * Decodes request content sent with "Transfer-Encoding: chunked". Chunk data is passed
+ * to listener as soon as it is received, chunk sizes, extensions and trailer are discarded.
+ */
+public class HttpChunkedContentParser implements Mutable {
+    private static final int SIZE = 1;
+    private static final int SIZE_EXTENSION = 2;
+    private static final int DATA = 3;
+    private static final int DATA_END = 4;
+    private static final int TRAILER = 5;
+    private static final int DONE = 6;
+    // chunk size of 15 hex digits is far beyond what we can receive
+    private static final int MAX_SIZE_DIGITS = 15;
+    private int state;
+    private long chunkSize;
+    private int sizeDigits;
+    private int trailerLineLen;
+
+    public HttpChunkedContentParser() {
+        clear();
+    }
+
+    @Override
+    public final void clear() {
+        state = SIZE;
+        chunkSize = 0;
+        sizeDigits = 0;
+        trailerLineLen = 0;
+    }
+
+    /**
+     * Parses next part of chunked content.
+     *
+     * @param lo       address of first byte received
+     * @param hi       address of byte after last byte received
+     * @param listener receiver of chunk data
+     * @return true when last chunk and trailer have been received
+     * @throws PeerDisconnectedException when listener throws it
+     * @throws PeerIsSlowToReadException when listener throws it
+     * @throws ServerDisconnectException when listener throws it
+     */
+    public boolean parse(long lo, long hi, HttpContentListener listener)
+            throws PeerDisconnectedException, PeerIsSlowToReadException, ServerDisconnectException {
+        long p = lo;
+        while (p < hi) {
+            switch (state) {
+                case SIZE:
+                    p = parseSize(p);
+                    break;
+                case SIZE_EXTENSION:
+                    // extensions are ignored
+                    if (Unsafe.getUnsafe().getByte(p++) == '\n') {
+                        onSizeEnd();
+                    }
+                    break;
+                case DATA:
+                    final long len = Math.min(hi - p, chunkSize);
+                    listener.onChunk(p, p + len);
+                    p += len;
+                    chunkSize -= len;
+                    if (chunkSize == 0) {
+                        state = DATA_END;
+                    }
+                    break;
+                case DATA_END:
+                    switch (Unsafe.getUnsafe().getByte(p++)) {
+                        case '\r':
+                            break;
+                        case '\n':
+                            state = SIZE;
+                            break;
+                        default:
+                            throw HttpException.instance("chunk must end with CRLF");
+                    }
+                    break;
+                case TRAILER:
+                    switch (Unsafe.getUnsafe().getByte(p++)) {
+                        case '\r':
+                            break;
+                        case '\n':
+                            if (trailerLineLen == 0) {
+                                state = DONE;
+                                return true;
+                            }
+                            trailerLineLen = 0;
+                            break;
+                        default:
+                            trailerLineLen++;
+                            break;
+                    }
+                    break;
+                default:
+                    // content after last chunk
+                    return true;
+            }
+        }
+        return state == DONE;
+    }
+
+    private void onSizeEnd() {
+        if (sizeDigits == 0) {
+            throw HttpException.instance("chunk size expected");
+        }
+        state = chunkSize == 0 ? TRAILER : DATA;
+        sizeDigits = 0;
+    }
+
+    private long parseSize(long p) {
+        final byte b = Unsafe.getUnsafe().getByte(p);
+        switch (b) {
+            case '\r':
+                break;
+            case '\n':
+                onSizeEnd();
+                break;
+            case ';':
+            case ' ':
+            case '\t':
+                state = SIZE_EXTENSION;
+                break;
+            default:
+                if (b < 0) {
+                    throw HttpException.instance("invalid chunk size");
+                }
+                if (sizeDigits == MAX_SIZE_DIGITS) {
+                    throw HttpException.instance("chunk size is too large");
+                }
+                try {
+                    chunkSize = chunkSize * 16 + Numbers.hexToDecimal(b);
+                    sizeDigits++;
+                } catch (NumericException e) {
+                    throw HttpException.instance("invalid chunk size");
+                }
+                break;
+        }
+        return p + 1;
+    }
+}
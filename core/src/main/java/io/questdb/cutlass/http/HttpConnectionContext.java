@@ -29,10 +29,7 @@ import io.questdb.cairo.security.AllowAllCairoSecurityContext;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.network.*;
-import io.questdb.std.Chars;
-import io.questdb.std.Mutable;
-import io.questdb.std.ObjectPool;
-import io.questdb.std.Unsafe;
+import io.questdb.std.*;
 import io.questdb.std.str.DirectByteCharSequence;
 import io.questdb.std.str.StdoutSink;
 
@@ -43,6 +40,7 @@ public class HttpConnectionContext implements IOContext, Locality, Mutable {
     private final int recvBufferSize;
     private final HttpMultipartContentParser multipartContentParser;
     private final HttpHeaderParser multipartContentHeaderParser;
+    private final HttpChunkedContentParser chunkedContentParser = new HttpChunkedContentParser();
     private final HttpResponseSink responseSink;
     private final ObjectPool<DirectByteCharSequence> csPool;
     private final long sendBuffer;
@@ -56,6 +54,8 @@ public class HttpConnectionContext implements IOContext, Locality, Mutable {
     private long fd;
     private HttpRequestProcessor resumeProcessor = null;
     private IODispatcher<HttpConnectionContext> dispatcher;
+    // number of content bytes yet to be received or -1 when content is chunked
+    private long contentRemaining = 0;
 
     public HttpConnectionContext(HttpServerConfiguration configuration) {
         this.configuration = configuration;
@@ -79,6 +79,8 @@ public class HttpConnectionContext implements IOContext, Locality, Mutable {
         this.headerParser.clear();
         this.multipartContentParser.clear();
         this.multipartContentHeaderParser.clear();
+        this.chunkedContentParser.clear();
+        this.contentRemaining = 0;
         this.csPool.clear();
         this.localValueMap.clear();
         this.responseSink.clear();
@@ -168,6 +170,69 @@ public class HttpConnectionContext implements IOContext, Locality, Mutable {
         processor.onRequestComplete(this);
     }
 
+    private void consumeContent(
+            long fd,
+            HttpRequestProcessor processor,
+            long headerEnd,
+            int read,
+            boolean newRequest
+    ) throws PeerDisconnectedException, PeerIsSlowToReadException, ServerDisconnectException {
+        if (newRequest) {
+            if (Chars.equalsNc("chunked", headerParser.getHeader("Transfer-Encoding"))) {
+                chunkedContentParser.clear();
+                contentRemaining = -1;
+            } else {
+                contentRemaining = getContentLength();
+            }
+            processor.onHeadersReady(this);
+        }
+
+        processor.resumeRecv(this);
+
+        final HttpContentListener contentListener = (HttpContentListener) processor;
+        final long bufferEnd = recvBuffer + read;
+
+        // content may have arrived together with headers
+        boolean complete = headerEnd < bufferEnd ? consumeContent(headerEnd, bufferEnd, contentListener) : contentRemaining == 0;
+
+        // unlike multipart, content is passed on as soon as it is received
+        while (!complete) {
+            final int n = nf.recv(fd, recvBuffer, contentRemaining > 0 && contentRemaining < recvBufferSize ? (int) contentRemaining : recvBufferSize);
+            if (n < 0) {
+                dispatcher.disconnect(this);
+                return;
+            }
+
+            if (n == 0) {
+                LOG.debug().$("peer is slow [content]").$();
+                dispatcher.registerChannel(this, IOOperation.READ);
+                return;
+            }
+
+            LOG.debug().$("content recv [len=").$(n).$(']').$();
+            dumpBuffer(recvBuffer, n);
+            complete = consumeContent(recvBuffer, recvBuffer + n, contentListener);
+        }
+        completeRequest(processor);
+    }
+
+    private boolean consumeContent(
+            long lo,
+            long hi,
+            HttpContentListener listener
+    ) throws PeerDisconnectedException, PeerIsSlowToReadException, ServerDisconnectException {
+        if (contentRemaining < 0) {
+            return chunkedContentParser.parse(lo, hi, listener);
+        }
+
+        final long len = Math.min(hi - lo, contentRemaining);
+        if (len > 0) {
+            listener.onChunk(lo, lo + len);
+            contentRemaining -= len;
+        }
+        return contentRemaining == 0;
+    }
+
     private void consumeMultipart(
             long fd,
             HttpRequestProcessor processor,
@@ -260,6 +325,21 @@ public class HttpConnectionContext implements IOContext, Locality, Mutable {
         }
     }
 
+    private long getContentLength() {
+        final DirectByteCharSequence contentLength = headerParser.getHeader("Content-Length");
+        if (contentLength == null) {
+            return 0;
+        }
+        try {
+            final long len = Numbers.parseLong(contentLength);
+            if (len > -1) {
+                return len;
+            }
+        } catch (NumericException ignore) {
+        }
+        throw HttpException.instance("invalid Content-Length");
+    }
+
     private void dumpBuffer(long buffer, int size) {
         if (dumpNetworkTraffic && size > 0) {
             StdoutSink.INSTANCE.put('>');
@@ -306,6 +386,7 @@ public class HttpConnectionContext implements IOContext, Locality, Mutable {
 
             final boolean multipartRequest = Chars.equalsNc("multipart/form-data", headerParser.getContentType());
             final boolean multipartProcessor = processor instanceof HttpMultipartContentListener;
+            final boolean contentProcessor = processor instanceof HttpContentListener;
 
             if (allowDeflateBeforeSend && Chars.contains(headerParser.getHeader("Accept-Encoding"), "gzip")) {
                 responseSink.setDeflateBeforeSend(true);
@@ -323,6 +404,8 @@ public class HttpConnectionContext implements IOContext, Locality, Mutable {
                     dispatcher.registerChannel(this, IOOperation.READ);
                 } else if (multipartProcessor) {
                     consumeMultipart(fd, processor, headerEnd, read, newRequest);
+                } else if (contentProcessor) {
+                    consumeContent(fd, processor, headerEnd, read, newRequest);
                 } else {
 
                     // Do not expect any more bytes to be sent to us before
@@ -28,7 +28,10 @@ import io.questdb.MessageBus;
 import io.questdb.WorkerPoolAwareConfiguration;
 import io.questdb.cairo.CairoEngine;
 import io.questdb.cairo.ColumnIndexerJob;
+import io.questdb.cairo.ColumnPrefetchJob;
+import io.questdb.cairo.ColumnSyncJob;
 import io.questdb.cutlass.http.processors.*;
+import io.questdb.cutlass.text.TextImportJob;
 import io.questdb.griffin.engine.groupby.vect.GroupByNotKeyedJob;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
@@ -49,7 +52,7 @@ public class HttpServer implements Closeable {
     private static final Log LOG = LogFactory.getLog(HttpServer.class);
     private static final WorkerPoolAwareConfiguration.ServerFactory<HttpServer, HttpServerConfiguration> CREATE0 = HttpServer::create0;
     private final ObjList<HttpRequestProcessorSelectorImpl> selectors;
-    private final IODispatcher<HttpConnectionContext> dispatcher;
+    private final ObjList<IODispatcher<HttpConnectionContext>> dispatchers;
     private final int workerCount;
     private final HttpContextFactory httpContextFactory;
     private final WorkerPool workerPool;
@@ -69,12 +72,20 @@ public class HttpServer implements Closeable {
         }
 
         this.httpContextFactory = new HttpContextFactory(configuration);
-        this.dispatcher = IODispatchers.create(
+        this.dispatchers = IODispatchers.create(
                 configuration.getDispatcherConfiguration(),
-                httpContextFactory
+                httpContextFactory,
+                workerCount
         );
+        final int dispatcherCount = dispatchers.size();
 
-        pool.assign(dispatcher);
+        if (dispatcherCount == 1) {
+            pool.assign(dispatchers.getQuick(0));
+        } else {
+            for (int i = 0; i < dispatcherCount; i++) {
+                pool.assign(i, (Job) dispatchers.getQuick(i));
+            }
+        }
 
         for (int i = 0, n = pool.getWorkerCount(); i < n; i++) {
             final int index = i;
@@ -85,7 +96,13 @@ public class HttpServer implements Closeable {
 
                 @Override
                 public boolean run(int workerId) {
-                    return dispatcher.processIOQueue(processor);
+                    // worker serves requests of its own dispatcher first and helps others when idle
+                    for (int j = 0; j < dispatcherCount; j++) {
+                        if (dispatchers.getQuick((index + j) % dispatcherCount).processIOQueue(processor)) {
+                            return true;
+                        }
+                    }
+                    return false;
                 }
             });
 
@@ -135,7 +152,7 @@ public class HttpServer implements Closeable {
             workerPool.halt();
         }
         Misc.free(httpContextFactory);
-        Misc.free(dispatcher);
+        Misc.freeObjList(dispatchers);
     }
 
     private static HttpServer create0(
@@ -207,6 +224,18 @@ public class HttpServer implements Closeable {
             }
         });
 
+        s.bind(new HttpRequestProcessorFactory() {
+            @Override
+            public HttpRequestProcessor newInstance() {
+                return new LineProtoWriteProcessor(cairoEngine, configuration.getJsonQueryProcessorConfiguration());
+            }
+
+            @Override
+            public String getUrl() {
+                return "/write";
+            }
+        });
+
         s.bind(new HttpRequestProcessorFactory() {
             @Override
             public HttpRequestProcessor newInstance() {
@@ -221,7 +250,10 @@ public class HttpServer implements Closeable {
 
         // jobs that help parallel execution of queries
         workerPool.assign(new ColumnIndexerJob(messageBus));
+        workerPool.assign(new ColumnSyncJob(messageBus));
+        workerPool.assign(new ColumnPrefetchJob(messageBus, cairoEngine.getConfiguration().getFilesFacade()));
         workerPool.assign(new GroupByNotKeyedJob(messageBus));
+        workerPool.assign(new TextImportJob(messageBus));
         return s;
 
     }
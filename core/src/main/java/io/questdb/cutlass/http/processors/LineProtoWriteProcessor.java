@@ -0,0 +1,195 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cutlass.http.processors;
+
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.CairoException;
+import io.questdb.cutlass.http.*;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.network.*;
+import io.questdb.std.Chars;
+
+import java.io.Closeable;
+
+/**
+ * Writes line protocol sent as request content. Content is lexed and written to tables as it
+ * arrives, so it is never held in memory as a whole. Rows of all tables are committed once,
+ * when request is complete, and writers are released for other requests and receivers.
+ * <p>
+ * Response is JSON with number of lines received, number of rejected lines and details of
+ * the first rejected lines. Status is 200 when every line has been written and 400 when
+ * some lines were rejected, rows of the other lines are committed either way.
+ */
+public class LineProtoWriteProcessor implements HttpRequestProcessor, HttpContentListener, Closeable {
+    static final int RESPONSE_PREFIX = 1;
+    private static final int RESPONSE_DETAILS = 2;
+    private static final int RESPONSE_SUFFIX = 3;
+    private static final int RESPONSE_DONE = 4;
+    private static final Log LOG = LogFactory.getLog(LineProtoWriteProcessor.class);
+    private static final CharSequence CONTENT_TYPE_JSON = "application/json; charset=utf-8";
+    // Local value has to be static because each thread will have its own instance of
+    // processor. For different threads to lookup the same value from local value map the key,
+    // which is LV, has to be the same between processor instances
+    private static final LocalValue<LineProtoWriteProcessorState> LV = new LocalValue<>();
+    private final CairoEngine engine;
+    private final int commitMode;
+    private final String keepAliveHeader;
+    private LineProtoWriteProcessorState transientState;
+
+    public LineProtoWriteProcessor(CairoEngine engine, JsonQueryProcessorConfiguration configuration) {
+        this.engine = engine;
+        this.commitMode = engine.getConfiguration().getCommitMode();
+        this.keepAliveHeader = Chars.toString(configuration.getKeepAliveHeader());
+    }
+
+    private static void resumeJson(LineProtoWriteProcessorState state, HttpChunkedResponseSocket socket) throws PeerDisconnectedException, PeerIsSlowToReadException {
+        // states are checked in order, each one continues into the next
+        if (state.responseState == RESPONSE_PREFIX) {
+            socket.put('{')
+                    .putQuoted("status").put(':').putQuoted(state.errorCount == 0 ? "OK" : "ERROR").put(',')
+                    .putQuoted("lines").put(':').put(state.lineCount).put(',')
+                    .putQuoted("errors").put(':').put(state.errorCount).put(',')
+                    .putQuoted("details").put(':').put('[');
+            state.responseState = RESPONSE_DETAILS;
+        }
+
+        if (state.responseState == RESPONSE_DETAILS) {
+            for (int n = state.errorLines.size(); state.errorIndex < n; state.errorIndex++) {
+                socket.bookmark();
+                if (state.errorIndex > 0) {
+                    socket.put(',');
+                }
+                socket.put('{')
+                        .putQuoted("line").put(':').put(state.errorLines.getQuick(state.errorIndex)).put(',')
+                        .putQuoted("message").put(':').encodeUtf8AndQuote(state.errorMessages.getQuick(state.errorIndex))
+                        .put('}');
+            }
+            state.responseState = RESPONSE_SUFFIX;
+        }
+
+        if (state.responseState == RESPONSE_SUFFIX) {
+            socket.bookmark();
+            socket.put(']').put('}');
+            state.responseState = RESPONSE_DONE;
+            socket.sendChunk();
+        }
+
+        if (state.responseState == RESPONSE_DONE) {
+            socket.done();
+        }
+    }
+
+    private static void doResumeSend(
+            LineProtoWriteProcessorState state,
+            HttpConnectionContext context
+    ) throws PeerDisconnectedException, PeerIsSlowToReadException, ServerDisconnectException {
+        final HttpChunkedResponseSocket socket = context.getChunkedResponseSocket();
+        while (true) {
+            try {
+                resumeJson(state, socket);
+                break;
+            } catch (NoSpaceLeftInResponseBufferException ignored) {
+                if (socket.resetToBookmark()) {
+                    socket.sendChunk();
+                } else {
+                    // error message is larger than response buffer
+                    throw ServerDisconnectException.INSTANCE;
+                }
+            }
+        }
+        state.clear();
+        readyForNextRequest(context);
+    }
+
+    private static void readyForNextRequest(HttpConnectionContext context) {
+        context.clear();
+        context.getDispatcher().registerChannel(context, IOOperation.READ);
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void onChunk(long lo, long hi) {
+        transientState.lexer.parse(lo, hi);
+    }
+
+    @Override
+    public void onHeadersReady(HttpConnectionContext context) {
+        resumeRecv(context);
+        transientState.clear();
+    }
+
+    @Override
+    public void onRequestComplete(HttpConnectionContext context) throws PeerDisconnectedException, PeerIsSlowToReadException {
+        final LineProtoWriteProcessorState state = LV.get(context);
+        state.lexer.parseLast();
+        try {
+            state.parser.commitAll(commitMode);
+        } catch (CairoException e) {
+            LOG.error().$("commit failed [fd=").$(context.getFd()).$(", e=").$(e.getFlyweightMessage()).$(']').$();
+            state.parser.releaseWriters();
+            state.clear();
+            context.simpleResponse().sendStatus(500, e.getFlyweightMessage());
+            readyForNextRequest(context);
+            return;
+        }
+        state.parser.releaseWriters();
+
+        LOG.debug().$("written [fd=").$(context.getFd())
+                .$(", lines=").$(state.lineCount)
+                .$(", errors=").$(state.errorCount)
+                .$(']').$();
+
+        final HttpChunkedResponseSocket socket = context.getChunkedResponseSocket();
+        socket.status(state.errorCount == 0 ? 200 : 400, CONTENT_TYPE_JSON);
+        socket.headers().put(keepAliveHeader);
+        socket.sendHeader();
+        try {
+            doResumeSend(state, context);
+        } catch (ServerDisconnectException e) {
+            throw PeerDisconnectedException.INSTANCE;
+        }
+    }
+
+    @Override
+    public void resumeRecv(HttpConnectionContext context) {
+        this.transientState = LV.get(context);
+        if (this.transientState == null) {
+            LOG.debug().$("new line protocol state").$();
+            LV.set(context, this.transientState = new LineProtoWriteProcessorState(engine, context.getCairoSecurityContext()));
+        }
+    }
+
+    @Override
+    public void resumeSend(HttpConnectionContext context) throws PeerDisconnectedException, PeerIsSlowToReadException, ServerDisconnectException {
+        final LineProtoWriteProcessorState state = LV.get(context);
+        if (state != null) {
+            doResumeSend(state, context);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cutlass.http.processors;
+
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.CairoSecurityContext;
+import io.questdb.cutlass.line.*;
+import io.questdb.std.*;
+import io.questdb.std.str.StringSink;
+
+import java.io.Closeable;
+
+/**
+ * Per-connection state of {@link LineProtoWriteProcessor}. Sits between lexer and parser to
+ * number lines and to collect reasons lines were rejected.
+ */
+class LineProtoWriteProcessorState implements LineProtoParser, LineProtoErrorListener, Mutable, Closeable {
+    private static final int LEXER_BUFFER_SIZE = 4096;
+    private static final int MAX_ERROR_DETAILS = 16;
+    final LineProtoLexer lexer = new LineProtoLexer(LEXER_BUFFER_SIZE);
+    final CairoLineProtoParser parser;
+    // line numbers and messages of first errors, the rest are only counted
+    final LongList errorLines = new LongList();
+    final ObjList<StringSink> errorMessages = new ObjList<>();
+    int responseState = LineProtoWriteProcessor.RESPONSE_PREFIX;
+    int errorIndex = 0;
+    long lineCount = 0;
+    long errorCount = 0;
+
+    LineProtoWriteProcessorState(CairoEngine engine, CairoSecurityContext cairoSecurityContext) {
+        this.parser = new CairoLineProtoParser(engine, cairoSecurityContext, LineProtoNanoTimestampAdapter.INSTANCE);
+        parser.setErrorListener(this);
+        lexer.withParser(this);
+    }
+
+    @Override
+    public void clear() {
+        lexer.clear();
+        // drops rows of request that did not complete
+        parser.releaseWriters();
+        errorLines.clear();
+        responseState = LineProtoWriteProcessor.RESPONSE_PREFIX;
+        errorIndex = 0;
+        lineCount = 0;
+        errorCount = 0;
+    }
+
+    @Override
+    public void close() {
+        Misc.free(lexer);
+        Misc.free(parser);
+    }
+
+    @Override
+    public void onError(int position, int state, int code) {
+        parser.onError(position, state, code);
+        final StringSink sink = nextErrorSink();
+        if (sink != null) {
+            switch (code) {
+                case LineProtoParser.ERROR_ENCODING:
+                    sink.put("invalid encoding");
+                    break;
+                case LineProtoParser.ERROR_EMPTY:
+                    sink.put("empty name or value");
+                    break;
+                default:
+                    sink.put("unexpected character");
+                    break;
+            }
+            sink.put(" at position ").put(position);
+        }
+        lineCount++;
+    }
+
+    @Override
+    public void onEvent(CachedCharSequence token, int type, CharSequenceCache cache) {
+        parser.onEvent(token, type, cache);
+    }
+
+    @Override
+    public void onLineEnd(CharSequenceCache cache) {
+        parser.onLineEnd(cache);
+        lineCount++;
+    }
+
+    @Override
+    public void onLineError(CharSequence message) {
+        final StringSink sink = nextErrorSink();
+        if (sink != null) {
+            sink.put(message);
+        }
+    }
+
+    private StringSink nextErrorSink() {
+        errorCount++;
+        final int index = errorLines.size();
+        if (index == MAX_ERROR_DETAILS) {
+            return null;
+        }
+        // lines are numbered from 1
+        errorLines.add(lineCount + 1);
+        StringSink sink = errorMessages.getQuiet(index);
+        if (sink == null) {
+            errorMessages.extendAndSet(index, sink = new StringSink());
+        } else {
+            sink.clear();
+        }
+        return sink;
+    }
+}
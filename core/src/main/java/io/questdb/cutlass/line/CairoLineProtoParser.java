@@ -30,7 +30,10 @@ import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.std.*;
 import io.questdb.std.microtime.MicrosecondClock;
+import io.questdb.std.str.AbstractCharSequence;
 import io.questdb.std.str.Path;
+import io.questdb.std.str.StringSink;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.Closeable;
 
@@ -45,7 +48,12 @@ public class CairoLineProtoParser implements LineProtoParser, Closeable {
     };
     private static final FieldNameParser NOOP_FIELD_NAME = name -> {
     };
+    private static final LineProtoErrorListener NOOP_ERROR_LISTENER = message -> {
+    };
     private static final ObjList<ColumnWriter> writers = new ObjList<>();
+    // shapes are dropped all at once when there are too many of them, this keeps
+    // lines with random tag values from growing the cache without limit
+    private static final int MAX_LINE_SHAPES = 4096;
 
     static {
         writers.extendAndSet(ColumnType.LONG, CairoLineProtoParser::putLong);
@@ -58,6 +66,7 @@ public class CairoLineProtoParser implements LineProtoParser, Closeable {
     private final CairoEngine engine;
     private final CharSequenceObjHashMap<CacheEntry> writerCache = new CharSequenceObjHashMap<>();
     private final CharSequenceObjHashMap<TableWriter> commitList = new CharSequenceObjHashMap<>();
+    private final ObjList<CacheEntry> uncommittedEntries = new ObjList<>();
     private final Path path = new Path();
     private final CairoConfiguration configuration;
     private final LongList columnNameType = new LongList();
@@ -70,9 +79,14 @@ public class CairoLineProtoParser implements LineProtoParser, Closeable {
     private final TableStructureAdapter tableStructureAdapter = new TableStructureAdapter();
     private final CairoSecurityContext cairoSecurityContext;
     private final LineProtoTimestampAdapter timestampAdapter;
+    private final CharSequenceObjHashMap<LineShape> lineShapes = new CharSequenceObjHashMap<>();
+    private final StringSink lineShapeKey = new StringSink();
+    // cache addresses of measurement, tag names and tag values of current line
+    private final LongList lineShapeTokens = new LongList();
+    private final ReplayedToken replayedToken = new ReplayedToken();
     // state
-    // cache entry index is always a negative value
-    private int cacheEntryIndex = 0;
+    private CacheEntry cacheEntry;
+    private LineShape lineShape;
     private TableWriter writer;
     private final LineEndParser MY_LINE_END = this::appendRow;
     private RecordMetadata metadata;
@@ -88,8 +102,17 @@ public class CairoLineProtoParser implements LineProtoParser, Closeable {
     private FieldNameParser onFieldName;
     private FieldValueParser onFieldValue;
     private FieldValueParser onTagValue;
+    private int lineLo;
+    // clock reading row timestamp was taken from, when line has no timestamp
+    private long lineTicks;
+    private int commitMode;
+    private long maxCommitLatency = 0;
+    private long maxUncommittedRows = 0;
+    private long maxUncommittedBytes = 0;
+    private long nextCommitDeadline = Long.MAX_VALUE;
     private final FieldValueParser MY_FIELD_VALUE = this::parseFieldValue;
     private final FieldValueParser MY_NEW_FIELD_VALUE = this::parseFieldValueNewTable;
+    private LineProtoErrorListener errorListener = NOOP_ERROR_LISTENER;
 
     public CairoLineProtoParser(
             CairoEngine engine,
@@ -101,6 +124,7 @@ public class CairoLineProtoParser implements LineProtoParser, Closeable {
         this.engine = engine;
         this.cairoSecurityContext = cairoSecurityContext;
         this.timestampAdapter = timestampAdapter;
+        this.commitMode = configuration.getCommitMode();
     }
 
     private static boolean isTrue(CharSequence value) {
@@ -120,21 +144,29 @@ public class CairoLineProtoParser implements LineProtoParser, Closeable {
         row.putBool(index, isTrue(value));
     }
 
-    private static void putDouble(TableWriter.Row row, int index, CharSequence value) throws BadCastException {
+    private static void putDouble(TableWriter.Row row, int index, CharSequence value) throws NumericException {
+        if (LineProtoLexer.isBinary(value)) {
+            row.putDouble(index, Double.longBitsToDouble(LineProtoLexer.getBinaryLong(value)));
+            return;
+        }
         try {
             row.putDouble(index, Numbers.parseDouble(value));
         } catch (NumericException e) {
             LOG.error().$("not a DOUBLE: ").$(value).$();
-            throw BadCastException.INSTANCE;
+            throw e;
         }
     }
 
-    private static void putLong(TableWriter.Row row, int index, CharSequence value) throws BadCastException {
+    private static void putLong(TableWriter.Row row, int index, CharSequence value) throws NumericException {
+        if (LineProtoLexer.isBinary(value)) {
+            row.putLong(index, LineProtoLexer.getBinaryLong(value));
+            return;
+        }
         try {
             row.putLong(index, Numbers.parseLong(value, 0, value.length() - 1));
         } catch (NumericException e) {
             LOG.error().$("not an INT: ").$(value).$();
-            throw BadCastException.INSTANCE;
+            throw e;
         }
     }
 
@@ -155,6 +187,103 @@ public class CairoLineProtoParser implements LineProtoParser, Closeable {
             commitList.valueQuick(i).commit(commitMode);
         }
         commitList.clear();
+
+        final long now = clock.getTicks();
+        for (int i = 0, n = uncommittedEntries.size(); i < n; i++) {
+            uncommittedEntries.getQuick(i).onCommit(now);
+        }
+        uncommittedEntries.clear();
+        nextCommitDeadline = Long.MAX_VALUE;
+    }
+
+    /**
+     * Commits tables which uncommitted rows have been waiting for longer than maximum commit latency.
+     * With latency of 0 every table that has uncommitted rows is committed. This method is meant to be
+     * called whenever source of lines is drained, including when there was nothing to read.
+     *
+     * @return true if any table has been committed
+     */
+    public boolean commitDue() {
+        final int n = uncommittedEntries.size();
+        if (n == 0) {
+            return false;
+        }
+
+        final long now = clock.getTicks();
+        if (now < nextCommitDeadline) {
+            return false;
+        }
+
+        long deadline = Long.MAX_VALUE;
+        int pending = 0;
+        for (int i = 0; i < n; i++) {
+            final CacheEntry entry = uncommittedEntries.getQuick(i);
+            final long entryDeadline = entry.firstUncommittedTimestamp + maxCommitLatency;
+            if (entryDeadline <= now) {
+                commit(entry, now);
+            } else {
+                deadline = Math.min(deadline, entryDeadline);
+                uncommittedEntries.setQuick(pending++, entry);
+            }
+        }
+        uncommittedEntries.setPos(pending);
+        nextCommitDeadline = deadline;
+        return true;
+    }
+
+    /**
+     * @param tableName table name as it appears in lines
+     * @return commit lag of table or null if table has not been written to by this parser
+     */
+    @Nullable
+    public LineProtoCommitStats getCommitStats(CharSequence tableName) {
+        return writerCache.get(tableName);
+    }
+
+    /**
+     * Sets limits of how long and how much data can stay uncommitted. Table is committed when whichever
+     * limit is reached first. Zero row and byte limits are ignored.
+     *
+     * @param commitMode          commit mode of writers
+     * @param maxCommitLatency    maximum time in microseconds first uncommitted row of table waits for commit, see {@link #commitDue()}
+     * @param maxUncommittedRows  maximum number of uncommitted rows in table
+     * @param maxUncommittedBytes maximum size of uncommitted lines of table
+     */
+    public void setCommitPolicy(int commitMode, long maxCommitLatency, long maxUncommittedRows, long maxUncommittedBytes) {
+        this.commitMode = commitMode;
+        this.maxCommitLatency = maxCommitLatency;
+        this.maxUncommittedRows = maxUncommittedRows;
+        this.maxUncommittedBytes = maxUncommittedBytes;
+    }
+
+    /**
+     * Returns writers to engine, so that other writers can use tables. Uncommitted rows are
+     * rolled back, call {@link #commitAll(int)} beforehand to keep them. Parser remains usable,
+     * writers are reacquired when tables are written to again.
+     */
+    public void releaseWriters() {
+        for (int i = 0, n = writerCache.size(); i < n; i++) {
+            final CacheEntry entry = writerCache.valueQuick(i);
+            if (entry.writer != null) {
+                entry.writer.rollback();
+                entry.writer = Misc.free(entry.writer);
+            }
+            entry.state = 0;
+        }
+        commitList.clear();
+        uncommittedEntries.clear();
+        nextCommitDeadline = Long.MAX_VALUE;
+        lineShapes.clear();
+        cacheEntry = null;
+        writer = null;
+        clearState();
+    }
+
+    /**
+     * @param errorListener receiver of reasons lines were rejected, null to stop reporting them
+     */
+    public void setErrorListener(@Nullable LineProtoErrorListener errorListener) {
+        this.errorListener = errorListener == null ? NOOP_ERROR_LISTENER : errorListener;
     }
 
     @Override
@@ -167,27 +296,20 @@ public class CairoLineProtoParser implements LineProtoParser, Closeable {
 
         switch (eventType) {
             case EVT_MEASUREMENT:
-                int wrtIndex = writerCache.keyIndex(token);
-                // this condition relies on the fact that this.cacheEntryIndex is always negative
-                // which indicates that entry is in cache
-                if (wrtIndex == this.cacheEntryIndex) {
-                    // same table as from last line?
-                    // make sure we append it in case it was in "create" mode
-                    if (writer != null) {
-                        switchModeToAppend();
-                    } else {
-                        initCacheEntry(token, writerCache.valueAtQuick(wrtIndex));
-                    }
-                } else {
-                    switchTable(token, wrtIndex);
-                }
+                lineLo = Numbers.decodeHighInt(token.getCacheAddress());
+                lineShapeKey.clear();
+                addLineShapeToken(token);
                 break;
-            case EVT_FIELD_NAME:
             case EVT_TAG_NAME:
-                onFieldName.parse(token);
-                break;
             case EVT_TAG_VALUE:
-                onTagValue.parse(token, cache);
+                // table and tags are resolved together, when line shape is known
+                addLineShapeToken(token);
+                break;
+            case EVT_FIELD_NAME:
+                if (lineShapeTokens.size() > 0) {
+                    resolveLineShape(cache);
+                }
+                onFieldName.parse(token);
                 break;
             case EVT_FIELD_VALUE:
                 onFieldValue.parse(token, cache);
@@ -203,19 +325,30 @@ public class CairoLineProtoParser implements LineProtoParser, Closeable {
     @Override
     public void onLineEnd(CharSequenceCache cache) {
         try {
+            if (lineShapeTokens.size() > 0) {
+                resolveLineShape(cache);
+            }
             onLineEnd.parse(cache);
         } catch (CairoException e) {
             LOG.error().$((Sinkable) e).$();
+            errorListener.onLineError(e.getFlyweightMessage());
         }
         clearState();
     }
 
+    private void addLineShapeToken(CachedCharSequence token) {
+        final int len = token.length();
+        lineShapeTokens.add(token.getCacheAddress());
+        // lengths keep tokens apart, delimiters are not part of tokens
+        lineShapeKey.put((char) len).put((char) (len >>> 16)).put(token);
+    }
+
     private void appendFirstRowAndCacheWriter(CharSequenceCache cache) {
         TableWriter writer = engine.getWriter(cairoSecurityContext, cache.get(tableName));
         this.writer = writer;
         this.metadata = writer.getMetadata();
         this.columnCount = metadata.getColumnCount();
-        writerCache.valueAtQuick(cacheEntryIndex).writer = writer;
+        cacheEntry.writer = writer;
 
         final int columnCount = columnNameType.size() / 2;
         final TableWriter.Row row = createNewRow(cache, columnCount);
@@ -233,8 +366,10 @@ public class CairoLineProtoParser implements LineProtoParser, Closeable {
                 );
             }
             row.append();
-        } catch (BadCastException ignore) {
+            onRowAppended();
+        } catch (NumericException ignore) {
             row.cancel();
+            errorListener.onLineError("cannot cast value to column type");
         }
     }
 
@@ -246,7 +381,15 @@ public class CairoLineProtoParser implements LineProtoParser, Closeable {
         }
 
         try {
-            for (int i = 0; i < columnCount; i++) {
+            int i = 0;
+            if (lineShape != null) {
+                final IntList columnIndexes = lineShape.columnIndexes;
+                final IntList symbolKeys = lineShape.symbolKeys;
+                for (int n = columnIndexes.size(); i < n; i++) {
+                    row.putSymIndex(columnIndexes.getQuick(i), symbolKeys.getQuick(i));
+                }
+            }
+            for (; i < columnCount; i++) {
                 final long value = columnIndexAndType.getQuick(i);
                 putValue(
                         row
@@ -256,8 +399,35 @@ public class CairoLineProtoParser implements LineProtoParser, Closeable {
                 );
             }
             row.append();
-        } catch (BadCastException ignore) {
+            onRowAppended();
+        } catch (NumericException ignore) {
             row.cancel();
+            errorListener.onLineError("cannot cast value to column type");
+        }
+    }
+
+    private void commit(CacheEntry entry, long now) {
+        entry.writer.commit(commitMode);
+        entry.onCommit(now);
+        LOG.debug().$("committed [table=").$(entry.writer.getName()).$(", lag=").$(entry.lastCommitLag).$(']').$();
+    }
+
+    private void onRowAppended() {
+        final CacheEntry entry = cacheEntry;
+        final long lineSize = columnValues.size() > 0 ? Numbers.decodeLowInt(columnValues.getQuick(columnValues.size() - 1)) - lineLo : 0;
+        if (entry.uncommittedRowCount++ == 0) {
+            final long now = lineTicks != Numbers.LONG_NaN ? lineTicks : clock.getTicks();
+            entry.firstUncommittedTimestamp = now;
+            uncommittedEntries.add(entry);
+            nextCommitDeadline = Math.min(nextCommitDeadline, now + maxCommitLatency);
+        }
+        // lexer keeps lines as UTF16
+        entry.uncommittedByteCount += lineSize / 2;
+
+        if ((maxUncommittedRows > 0 && entry.uncommittedRowCount >= maxUncommittedRows)
+                || (maxUncommittedBytes > 0 && entry.uncommittedByteCount >= maxUncommittedBytes)) {
+            commit(entry, clock.getTicks());
+            uncommittedEntries.remove(entry);
         }
     }
 
@@ -265,6 +435,22 @@ public class CairoLineProtoParser implements LineProtoParser, Closeable {
         columnNameType.clear();
         columnIndexAndType.clear();
         columnValues.clear();
+        lineShapeTokens.clear();
+        lineShape = null;
+    }
+
+    private void cacheLineShape(CharSequenceCache cache) {
+        if (lineShapes.size() == MAX_LINE_SHAPES) {
+            lineShapes.clear();
+        }
+        final LineShape shape = new LineShape(cacheEntry);
+        for (int i = 0, n = columnIndexAndType.size(); i < n; i++) {
+            final int index = Numbers.decodeLowInt(columnIndexAndType.getQuick(i));
+            shape.columnIndexes.add(index);
+            shape.symbolKeys.add(writer.putSymbol(index, cache.get(columnValues.getQuick(i))));
+        }
+        lineShapes.put(Chars.toString(lineShapeKey), shape);
+        lineShape = shape;
     }
 
     private void cacheWriter(CacheEntry entry, CachedCharSequence tableName) {
@@ -275,6 +461,7 @@ public class CairoLineProtoParser implements LineProtoParser, Closeable {
             LOG.info().$("cached writer [name=").$(tableName).$(']').$();
         } catch (CairoException ex) {
             LOG.error().$((Sinkable) ex).$();
+            errorListener.onLineError(ex.getFlyweightMessage());
             switchModeToSkipLine();
         }
     }
@@ -282,12 +469,14 @@ public class CairoLineProtoParser implements LineProtoParser, Closeable {
     private TableWriter.Row createNewRow(CharSequenceCache cache, int columnCount) {
         final int valueCount = columnValues.size();
         if (columnCount == valueCount) {
-            return writer.newRow(clock.getTicks());
+            return writer.newRow(lineTicks = clock.getTicks());
         } else {
+            lineTicks = Numbers.LONG_NaN;
             try {
-                return writer.newRow(timestampAdapter.getMicros(cache.get(columnValues.getQuick(valueCount - 1))));
+                return writer.newRow(getTimestampMicros(cache.get(columnValues.getQuick(valueCount - 1))));
             } catch (NumericException e) {
                 LOG.error().$("invalid timestamp: ").$(cache.get(columnValues.getQuick(valueCount - 1))).$();
+                errorListener.onLineError("invalid timestamp");
                 return null;
             }
         }
@@ -310,7 +499,20 @@ public class CairoLineProtoParser implements LineProtoParser, Closeable {
         appendFirstRowAndCacheWriter(cache);
     }
 
+    private long getTimestampMicros(CharSequence token) throws NumericException {
+        if (LineProtoLexer.isBinary(token)) {
+            if (LineProtoLexer.getBinaryType(token) == LineProtoLexer.BINARY_TYPE_LONG) {
+                return timestampAdapter.getMicros(LineProtoLexer.getBinaryLong(token));
+            }
+            throw NumericException.INSTANCE;
+        }
+        return timestampAdapter.getMicros(token);
+    }
+
     private int getValueType(CharSequence token) {
+        if (LineProtoLexer.isBinary(token)) {
+            return LineProtoLexer.getBinaryType(token) == LineProtoLexer.BINARY_TYPE_DOUBLE ? ColumnType.DOUBLE : ColumnType.LONG;
+        }
         int len = token.length();
         switch (token.charAt(len - 1)) {
             case 'i':
@@ -358,6 +560,7 @@ public class CairoLineProtoParser implements LineProtoParser, Closeable {
                         break;
                     default:
                         entry.state = 3;
+                        errorListener.onLineError("reserved table name");
                         switchModeToSkipLine();
                         break;
                 }
@@ -366,6 +569,7 @@ public class CairoLineProtoParser implements LineProtoParser, Closeable {
                 cacheWriter(entry, token);
                 break;
             default:
+                errorListener.onLineError("reserved table name");
                 switchModeToSkipLine();
                 break;
         }
@@ -396,6 +600,7 @@ public class CairoLineProtoParser implements LineProtoParser, Closeable {
     private void parseFieldValue(CachedCharSequence value, CharSequenceCache cache) {
         int valueType = getValueType(value);
         if (valueType == -1) {
+            errorListener.onLineError("incorrectly quoted string");
             switchModeToSkipLine();
         } else {
             parseValue(value, valueType, cache);
@@ -406,6 +611,7 @@ public class CairoLineProtoParser implements LineProtoParser, Closeable {
     private void parseFieldValueNewTable(CachedCharSequence value, CharSequenceCache cache) {
         int valueType = getValueType(value);
         if (valueType == -1) {
+            errorListener.onLineError("incorrectly quoted string");
             switchModeToSkipLine();
         } else {
             parseValueNewTable(value, valueType);
@@ -421,6 +627,59 @@ public class CairoLineProtoParser implements LineProtoParser, Closeable {
         parseValueNewTable(value, ColumnType.SYMBOL);
     }
 
+    /**
+     * Finds table and tag columns of current line. When measurement and tags are the same as on
+     * one of the previous lines, column indexes and symbol keys are taken from line shape cache.
+     * Otherwise tokens are resolved by name and line shape is cached for the lines to follow.
+     *
+     * @param cache lexer cache
+     */
+    private void resolveLineShape(CharSequenceCache cache) {
+        final LineShape shape = lineShapes.get(lineShapeKey);
+        final int tokenCount = lineShapeTokens.size();
+        if (shape != null) {
+            if (shape.entry != cacheEntry) {
+                commitLater();
+                cacheEntry = shape.entry;
+                createState(shape.entry);
+            } else {
+                switchModeToAppend();
+            }
+            final IntList columnIndexes = shape.columnIndexes;
+            for (int i = 0, n = columnIndexes.size(); i < n; i++) {
+                columnIndexAndType.add(Numbers.encodeLowHighInts(columnIndexes.getQuick(i), ColumnType.SYMBOL));
+                columnValues.add(lineShapeTokens.getQuick(i * 2 + 2));
+            }
+            lineShape = shape;
+        } else {
+            resolveTable(replayedToken.of(lineShapeTokens.getQuick(0), cache));
+            for (int i = 1; i < tokenCount; i += 2) {
+                onFieldName.parse(replayedToken.of(lineShapeTokens.getQuick(i), cache));
+                onTagValue.parse(replayedToken.of(lineShapeTokens.getQuick(i + 1), cache), cache);
+            }
+            // lines that create tables or columns of other types or get skipped are not cached
+            if (onLineEnd == MY_LINE_END && columnIndexAndType.size() == tokenCount / 2) {
+                cacheLineShape(cache);
+            }
+        }
+        lineShapeTokens.clear();
+    }
+
+    private void resolveTable(CachedCharSequence token) {
+        int wrtIndex = writerCache.keyIndex(token);
+        if (wrtIndex < 0 && writerCache.valueAtQuick(wrtIndex) == cacheEntry) {
+            // same table as from last line?
+            // make sure we append it in case it was in "create" mode
+            if (writer != null) {
+                switchModeToAppend();
+            } else {
+                initCacheEntry(token, cacheEntry);
+            }
+        } else {
+            switchTable(token, wrtIndex);
+        }
+    }
+
     private void possibleNewColumn(CachedCharSequence value, int valueType, CharSequenceCache cache) {
         if (columnIndex > -1) {
             LOG.error().$("mismatched column and value types [table=").$(writer.getName())
@@ -428,6 +687,7 @@ public class CairoLineProtoParser implements LineProtoParser, Closeable {
                     .$(", columnType=").$(ColumnType.nameOf(columnType))
                     .$(", valueType=").$(ColumnType.nameOf(valueType))
                     .$(']').$();
+            errorListener.onLineError("mismatched column and value types");
             switchModeToSkipLine();
         } else {
             columnIndexAndType.add(Numbers.encodeLowHighInts(columnCount++, valueType));
@@ -449,14 +709,14 @@ public class CairoLineProtoParser implements LineProtoParser, Closeable {
     /**
      * Writes column value to table row. CharSequence value is interpreted depending on
      * column type and written to column, identified by columnIndex. If value cannot be
-     * cast to column type, #BadCastException is thrown.
+     * cast to column type, #NumericException is thrown.
      *
      * @param row        table row
      * @param index      index of column to write value to
      * @param columnType column type value will be cast to
      * @param value      value characters
      */
-    private void putValue(TableWriter.Row row, int index, int columnType, CharSequence value) throws BadCastException {
+    private void putValue(TableWriter.Row row, int index, int columnType, CharSequence value) throws NumericException {
         writers.getQuick(columnType).write(row, index, value);
     }
 
@@ -478,14 +738,15 @@ public class CairoLineProtoParser implements LineProtoParser, Closeable {
         }
     }
 
-    private void switchTable(CachedCharSequence tableName, int entryIndex) {
-        if (this.cacheEntryIndex != 0) {
-            // add previous writer to commit list
-            CacheEntry e = writerCache.valueAtQuick(cacheEntryIndex);
-            if (e.writer != null) {
-                commitList.put(e.writer.getName(), e.writer);
-            }
+    private void commitLater() {
+        // add previous writer to commit list
+        if (cacheEntry != null && cacheEntry.writer != null) {
+            commitList.put(cacheEntry.writer.getName(), cacheEntry.writer);
         }
+    }
+
+    private void switchTable(CachedCharSequence tableName, int entryIndex) {
+        commitLater();
 
         CacheEntry entry;
         if (entryIndex < 0) {
@@ -493,11 +754,9 @@ public class CairoLineProtoParser implements LineProtoParser, Closeable {
         } else {
             entry = new CacheEntry();
             writerCache.putAt(entryIndex, Chars.toString(tableName), entry);
-            // adjust writer map index to negative, which indicates that entry exists
-            entryIndex = -entryIndex - 1;
         }
 
-        this.cacheEntryIndex = entryIndex;
+        this.cacheEntry = entry;
 
         if (entry.writer == null) {
             initCacheEntry(tableName, entry);
@@ -507,7 +766,7 @@ public class CairoLineProtoParser implements LineProtoParser, Closeable {
     }
 
     private interface ColumnWriter {
-        void write(TableWriter.Row row, int columnIndex, CharSequence value) throws BadCastException;
+        void write(TableWriter.Row row, int columnIndex, CharSequence value) throws NumericException;
     }
 
     @FunctionalInterface
@@ -525,15 +784,47 @@ public class CairoLineProtoParser implements LineProtoParser, Closeable {
         void parse(CachedCharSequence value, CharSequenceCache cache);
     }
 
-    private static class BadCastException extends Exception {
-        private static final BadCastException INSTANCE = new BadCastException();
-    }
-
-    private static class CacheEntry {
+    private static class CacheEntry extends LineProtoCommitStats {
         private TableWriter writer;
         private int state = 0;
     }
 
+    private static class LineShape {
+        private final CacheEntry entry;
+        private final IntList columnIndexes = new IntList();
+        private final IntList symbolKeys = new IntList();
+
+        private LineShape(CacheEntry entry) {
+            this.entry = entry;
+        }
+    }
+
+    private static class ReplayedToken extends AbstractCharSequence implements CachedCharSequence {
+        private CharSequence value;
+        private long address;
+
+        @Override
+        public long getCacheAddress() {
+            return address;
+        }
+
+        @Override
+        public int length() {
+            return value.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return value.charAt(index);
+        }
+
+        ReplayedToken of(long address, CharSequenceCache cache) {
+            this.address = address;
+            this.value = cache.get(address);
+            return this;
+        }
+    }
+
     private class TableStructureAdapter implements TableStructure {
         private CharSequenceCache cache;
         private int columnCount;
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cutlass.line;
+
+/**
+ * Commit lag of a table written by line protocol. Lag is time between first uncommitted
+ * row of a transaction being appended and the transaction being committed, which is how long
+ * the row stayed invisible to readers. Values are updated by the writing thread and
+ * can be read by any thread without synchronisation for monitoring purposes.
+ */
+public class LineProtoCommitStats {
+    long commitCount;
+    long committedRowCount;
+    long lastCommitLag;
+    long maxCommitLag;
+    long totalCommitLag;
+    long uncommittedRowCount;
+    long uncommittedByteCount;
+    long firstUncommittedTimestamp;
+
+    public long getAvgCommitLag() {
+        final long count = commitCount;
+        return count == 0 ? 0 : totalCommitLag / count;
+    }
+
+    public long getCommitCount() {
+        return commitCount;
+    }
+
+    public long getCommittedRowCount() {
+        return committedRowCount;
+    }
+
+    /**
+     * @return lag of the last commit in microseconds
+     */
+    public long getLastCommitLag() {
+        return lastCommitLag;
+    }
+
+    public long getMaxCommitLag() {
+        return maxCommitLag;
+    }
+
+    public long getUncommittedByteCount() {
+        return uncommittedByteCount;
+    }
+
+    public long getUncommittedRowCount() {
+        return uncommittedRowCount;
+    }
+
+    void onCommit(long now) {
+        if (uncommittedRowCount > 0) {
+            final long lag = now - firstUncommittedTimestamp;
+            lastCommitLag = lag;
+            maxCommitLag = Math.max(maxCommitLag, lag);
+            totalCommitLag += lag;
+            committedRowCount += uncommittedRowCount;
+            commitCount++;
+            uncommittedRowCount = 0;
+            uncommittedByteCount = 0;
+        }
+    }
+}
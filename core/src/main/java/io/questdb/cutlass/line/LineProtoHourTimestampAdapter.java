@@ -24,15 +24,13 @@
 
 package io.questdb.cutlass.line;
 
-import io.questdb.std.Numbers;
-import io.questdb.std.NumericException;
 import io.questdb.std.microtime.Timestamps;
 
 public class LineProtoHourTimestampAdapter implements LineProtoTimestampAdapter {
     public static final LineProtoHourTimestampAdapter INSTANCE = new LineProtoHourTimestampAdapter();
 
     @Override
-    public long getMicros(CharSequence value) throws NumericException {
-        return Numbers.parseLong(value) * Timestamps.HOUR_MICROS;
+    public long getMicros(long timestamp) {
+        return timestamp * Timestamps.HOUR_MICROS;
     }
 }
@@ -32,7 +32,17 @@ import io.questdb.std.str.CharSink;
 import java.io.Closeable;
 
 public class LineProtoLexer implements Mutable, Closeable {
-
+    /**
+     * Type marker of binary field value or timestamp, which is followed by 8 bytes of little-endian
+     * IEEE 754 double.
+     */
+    public static final byte BINARY_TYPE_DOUBLE = 16;
+    /**
+     * Type marker of binary field value or timestamp, which is followed by 8 bytes of little-endian long.
+     */
+    public static final byte BINARY_TYPE_LONG = 17;
+    // '=', type marker and one character per value byte
+    private static final int BINARY_TOKEN_LENGTH = 10;
     private static final Runnable NOOP = LineProtoLexer::noop;
     private final ArrayBackedCharSink sink = new ArrayBackedCharSink();
     private final ArrayBackedCharSequence cs = new ArrayBackedCharSequence();
@@ -51,6 +61,7 @@ public class LineProtoLexer implements Mutable, Closeable {
     private long utf8ErrorPos;
     private int errorCode = 0;
     private boolean unquoted = true;
+    private int binaryRemaining = 0;
 
     public LineProtoLexer(int bufferSize) {
         buffer = Unsafe.malloc(bufferSize);
@@ -74,9 +85,49 @@ public class LineProtoLexer implements Mutable, Closeable {
         utf8ErrorTop = utf8ErrorPos = -1;
         skipLine = false;
         unquoted = true;
+        binaryRemaining = 0;
         errorCode = 0;
     }
 
+    /**
+     * Reads value of binary token as long. Token is expected to be binary, see {@link #isBinary(CharSequence)}.
+     *
+     * @param token field value or timestamp token
+     * @return long value or raw bits of double value
+     */
+    public static long getBinaryLong(CharSequence token) {
+        long value = 0;
+        for (int i = BINARY_TOKEN_LENGTH - 1; i > 1; i--) {
+            value = (value << 8) | token.charAt(i);
+        }
+        return value;
+    }
+
+    /**
+     * @param token field value or timestamp token
+     * @return type marker of binary token
+     */
+    public static int getBinaryType(CharSequence token) {
+        return token.charAt(1);
+    }
+
+    /**
+     * Binary values are opt-in alternative to text representation of numbers. Value starts with '=' immediately
+     * after field name delimiter or timestamp delimiter, followed by type marker and 8 bytes of
+     * value. Text value cannot start with unescaped '=', which keeps the two representations apart.
+     * Lexer keeps value bytes as characters, one character per byte.
+     *
+     * @param token field value or timestamp token
+     * @return true when token carries binary value
+     */
+    public static boolean isBinary(CharSequence token) {
+        if (token.length() == BINARY_TOKEN_LENGTH && token.charAt(0) == '=') {
+            final char type = token.charAt(1);
+            return type == BINARY_TYPE_DOUBLE || type == BINARY_TYPE_LONG;
+        }
+        return false;
+    }
+
     @Override
     public void close() {
         Unsafe.free(buffer, bufferHi - buffer);
@@ -101,6 +152,17 @@ public class LineProtoLexer implements Mutable, Closeable {
                 continue;
             }
 
+            if (binaryRemaining > 0) {
+                try {
+                    putBinary(b);
+                } catch (LineProtoException ex) {
+                    skipLine = true;
+                    parser.onError((int) (dstPos - 2 - buffer) / 2, state, errorCode);
+                }
+                p++;
+                continue;
+            }
+
             if (escape) {
                 dstPos -= 2;
             }
@@ -217,6 +279,11 @@ public class LineProtoLexer implements Mutable, Closeable {
     }
 
     private void onEol() throws LineProtoException {
+        if (binaryRemaining > 0) {
+            // line ended before all value bytes arrived
+            errorCode = LineProtoParser.ERROR_EXPECTED;
+            throw LineProtoException.INSTANCE;
+        }
         switch (state) {
             case LineProtoParser.EVT_MEASUREMENT:
                 chop();
@@ -236,7 +303,12 @@ public class LineProtoLexer implements Mutable, Closeable {
 
     private void onEquals() {
         if (unquoted) {
-            fireEventTransition2();
+            if (dstPos - dstTop == 2 && (state == LineProtoParser.EVT_FIELD_VALUE || state == LineProtoParser.EVT_TIMESTAMP)) {
+                // '=' at the start of value is not valid text, it introduces binary value
+                binaryRemaining = BINARY_TOKEN_LENGTH - 1;
+            } else {
+                fireEventTransition2();
+            }
         }
     }
 
@@ -268,6 +340,16 @@ public class LineProtoLexer implements Mutable, Closeable {
         charHandlers.extendAndSet('=', this::onEquals);
     }
 
+    private void putBinary(byte b) throws LineProtoException {
+        if (binaryRemaining == BINARY_TOKEN_LENGTH - 1 && b != BINARY_TYPE_DOUBLE && b != BINARY_TYPE_LONG) {
+            errorCode = LineProtoParser.ERROR_ENCODING;
+            throw LineProtoException.INSTANCE;
+        }
+        sink.put((char) (b & 0xff));
+        dstPos += 2;
+        binaryRemaining--;
+    }
+
     private long repairMultiByteChar(long lo, long hi, byte b) throws LineProtoException {
         int n = -1;
         do {
@@ -24,14 +24,11 @@
 
 package io.questdb.cutlass.line;
 
-import io.questdb.std.Numbers;
-import io.questdb.std.NumericException;
-
 public class LineProtoMicroTimestampAdapter implements LineProtoTimestampAdapter {
     public static final LineProtoMicroTimestampAdapter INSTANCE = new LineProtoMicroTimestampAdapter();
 
     @Override
-    public long getMicros(CharSequence value) throws NumericException {
-        return Numbers.parseLong(value);
+    public long getMicros(long timestamp) {
+        return timestamp;
     }
 }
@@ -24,15 +24,13 @@
 
 package io.questdb.cutlass.line;
 
-import io.questdb.std.Numbers;
-import io.questdb.std.NumericException;
 import io.questdb.std.microtime.Timestamps;
 
 public class LineProtoMinuteTimestampAdapter implements LineProtoTimestampAdapter {
     public static final LineProtoMinuteTimestampAdapter INSTANCE = new LineProtoMinuteTimestampAdapter();
 
     @Override
-    public long getMicros(CharSequence value) throws NumericException {
-        return Numbers.parseLong(value) * Timestamps.MINUTE_MICROS;
+    public long getMicros(long timestamp) {
+        return timestamp * Timestamps.MINUTE_MICROS;
     }
 }
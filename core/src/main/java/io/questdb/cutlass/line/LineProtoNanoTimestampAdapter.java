@@ -24,14 +24,11 @@
 
 package io.questdb.cutlass.line;
 
-import io.questdb.std.Numbers;
-import io.questdb.std.NumericException;
-
 public class LineProtoNanoTimestampAdapter implements LineProtoTimestampAdapter {
     public static final LineProtoNanoTimestampAdapter INSTANCE = new LineProtoNanoTimestampAdapter();
 
     @Override
-    public long getMicros(CharSequence value) throws NumericException {
-        return Numbers.parseLong(value) / 1000L;
+    public long getMicros(long timestamp) {
+        return timestamp / 1000L;
     }
 }
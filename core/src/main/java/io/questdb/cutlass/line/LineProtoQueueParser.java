@@ -0,0 +1,110 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cutlass.line;
+
+import io.questdb.std.LongList;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Line-protocol parser that does not write anything. Lines are routed to writer shard
+ * queues by table name and are appended to tables by {@link LineProtoWriterJob}s. Lines
+ * accumulate in the current task of the shard until the task is large enough or
+ * {@link #flush()} is called.
+ */
+public class LineProtoQueueParser implements LineProtoParser {
+    private static final int TASK_FLUSH_SIZE = 64 * 1024;
+    private final LineProtoWriterShards shards;
+    private final LongList lineEvents = new LongList();
+    private final LongList cursors = new LongList();
+    private int shard;
+
+    public LineProtoQueueParser(LineProtoWriterShards shards) {
+        this.shards = shards;
+        cursors.setAll(shards.getShardCount(), -1);
+    }
+
+    /**
+     * Publishes pending tasks of all shards to writer jobs.
+     */
+    public void flush() {
+        for (int i = 0, n = cursors.size(); i < n; i++) {
+            publish(i);
+        }
+    }
+
+    @Override
+    public void onError(int position, int state, int code) {
+        lineEvents.clear();
+    }
+
+    @Override
+    public void onEvent(CachedCharSequence token, int type, CharSequenceCache cache) {
+        if (type == EVT_MEASUREMENT) {
+            shard = shards.shardOf(token);
+        }
+        lineEvents.add(type);
+        lineEvents.add(token.getCacheAddress());
+    }
+
+    @Override
+    public void onLineEnd(CharSequenceCache cache) {
+        final LineProtoTask task = shards.getJob(shard).getTask(acquireCursor(shard));
+        task.add(lineEvents, cache);
+        lineEvents.clear();
+        if (task.getSize() > TASK_FLUSH_SIZE) {
+            publish(shard);
+        }
+    }
+
+    private long acquireCursor(int shard) {
+        long cursor = cursors.getQuick(shard);
+        if (cursor > -1) {
+            return cursor;
+        }
+
+        final LineProtoWriterJob job = shards.getJob(shard);
+        while ((cursor = job.nextCursor()) < 0) {
+            if (cursor == -1) {
+                // queue is full, let go of tasks we are holding in other shards, otherwise
+                // their writers cannot progress past them, and help writing if job is idle
+                flush();
+                if (!job.run(0)) {
+                    LockSupport.parkNanos(1);
+                }
+            }
+        }
+        cursors.setQuick(shard, cursor);
+        return cursor;
+    }
+
+    private void publish(int shard) {
+        final long cursor = cursors.getQuick(shard);
+        if (cursor > -1) {
+            shards.getJob(shard).publish(cursor);
+            cursors.setQuick(shard, -1);
+        }
+    }
+}
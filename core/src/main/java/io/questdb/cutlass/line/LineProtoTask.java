@@ -0,0 +1,167 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cutlass.line;
+
+import io.questdb.std.LongList;
+import io.questdb.std.Mutable;
+import io.questdb.std.Numbers;
+import io.questdb.std.Unsafe;
+import io.questdb.std.str.AbstractCharSequence;
+
+import java.io.Closeable;
+
+/**
+ * Batch of lexed lines destined for tables of a single writer shard. Lines are kept in
+ * the form line-protocol lexer produces them: decoded UTF16 characters of the line and the list
+ * of events with cache addresses of their tokens. Writer replays events into its parser
+ * exactly as lexer would have fired them.
+ */
+public class LineProtoTask implements Mutable, Closeable {
+    private static final int EVT_LINE_END = -1;
+    private final LongList events = new LongList();
+    private final Token token = new Token();
+    private final Token cacheToken = new Token();
+    private final CharSequenceCache cache = address -> cacheToken.of(address);
+    private long buffer;
+    private long bufferSize;
+    private long bufferPos;
+    private int lineCount;
+
+    /**
+     * Copies line from lexer buffer into this task.
+     *
+     * @param lineEvents event types and cache addresses of line tokens
+     * @param lineCache  lexer cache the addresses refer to
+     */
+    public void add(LongList lineEvents, CharSequenceCache lineCache) {
+        final int n = lineEvents.size();
+        // tokens are laid out in lexer buffer in the order of events and the buffer
+        // is reset for every line, so the last token marks the end of line characters
+        final int lineHi = Numbers.decodeLowInt(lineEvents.getQuick(n - 1));
+        final CharSequence line = lineCache.get(Numbers.encodeLowHighInts(lineHi, 0));
+        final int len = line.length();
+
+        ensureCapacity(lineHi);
+        final long p = buffer + bufferPos;
+        for (int i = 0; i < len; i++) {
+            Unsafe.getUnsafe().putChar(p + i * 2L, line.charAt(i));
+        }
+
+        final int base = (int) bufferPos;
+        for (int i = 0; i < n; i += 2) {
+            final long address = lineEvents.getQuick(i + 1);
+            events.add(lineEvents.getQuick(i));
+            events.add(Numbers.encodeLowHighInts(Numbers.decodeLowInt(address) + base, Numbers.decodeHighInt(address) + base));
+        }
+        events.add(EVT_LINE_END);
+        events.add(0);
+        bufferPos += lineHi;
+        lineCount++;
+    }
+
+    @Override
+    public void clear() {
+        events.clear();
+        bufferPos = 0;
+        lineCount = 0;
+    }
+
+    @Override
+    public void close() {
+        if (buffer != 0) {
+            Unsafe.free(buffer, bufferSize);
+            buffer = 0;
+            bufferSize = 0;
+        }
+        clear();
+    }
+
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    public long getSize() {
+        return bufferPos;
+    }
+
+    /**
+     * Fires events of all lines in this task on given parser.
+     *
+     * @param parser receiver of events
+     */
+    public void replay(LineProtoParser parser) {
+        for (int i = 0, n = events.size(); i < n; i += 2) {
+            final int type = (int) events.getQuick(i);
+            if (type == EVT_LINE_END) {
+                parser.onLineEnd(cache);
+            } else {
+                parser.onEvent(token.of(events.getQuick(i + 1)), type, cache);
+            }
+        }
+    }
+
+    private void ensureCapacity(long len) {
+        if (bufferPos + len > bufferSize) {
+            final long size = Math.max(bufferSize * 2, bufferPos + len);
+            final long buf = Unsafe.malloc(size);
+            if (buffer != 0) {
+                Unsafe.getUnsafe().copyMemory(buffer, buf, bufferPos);
+                Unsafe.free(buffer, bufferSize);
+            }
+            buffer = buf;
+            bufferSize = size;
+        }
+    }
+
+    private class Token extends AbstractCharSequence implements CachedCharSequence {
+        private long address;
+        private long lo;
+        private int len;
+
+        @Override
+        public long getCacheAddress() {
+            return address;
+        }
+
+        @Override
+        public int length() {
+            return len;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return Unsafe.getUnsafe().getChar(lo + index * 2L);
+        }
+
+        // same address arithmetic as the lexer cache: high int is the token start and
+        // low int is the position after the delimiter that terminated the token
+        Token of(long address) {
+            this.address = address;
+            this.lo = buffer + Numbers.decodeHighInt(address);
+            this.len = (Numbers.decodeLowInt(address) - Numbers.decodeHighInt(address)) / 2 - 1;
+            return this;
+        }
+    }
+}
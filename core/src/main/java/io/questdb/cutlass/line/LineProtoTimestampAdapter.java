@@ -24,9 +24,18 @@
 
 package io.questdb.cutlass.line;
 
+import io.questdb.std.Numbers;
 import io.questdb.std.NumericException;
 
 @FunctionalInterface
 public interface LineProtoTimestampAdapter {
-    long getMicros(CharSequence value) throws NumericException;
+    default long getMicros(CharSequence value) throws NumericException {
+        return getMicros(Numbers.parseLong(value));
+    }
+
+    /**
+     * @param timestamp timestamp in units of this adapter, such as binary timestamp of line
+     * @return timestamp in microseconds
+     */
+    long getMicros(long timestamp);
 }
@@ -0,0 +1,60 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cutlass.line;
+
+import io.questdb.cairo.CairoSecurityContext;
+
+public interface LineProtoWriterConfiguration {
+
+    CairoSecurityContext getCairoSecurityContext();
+
+    int getCommitMode();
+
+    int getCommitRate();
+
+    /**
+     * @return maximum time in milliseconds rows of a table stay uncommitted, 0 to commit as soon as there are no more lines to read
+     */
+    long getMaxCommitLatency();
+
+    /**
+     * @return size of uncommitted lines in bytes that triggers commit of table, 0 for no limit
+     */
+    long getMaxUncommittedBytes();
+
+    /**
+     * @return number of uncommitted rows that triggers commit of table, 0 for no limit
+     */
+    long getMaxUncommittedRows();
+
+    LineProtoTimestampAdapter getTimestampAdapter();
+
+    int getWriterQueueCapacity();
+
+    /**
+     * @return number of jobs tables are spread across for writing, 0 to write on the receiver thread
+     */
+    int getWriterShardCount();
+}
@@ -0,0 +1,120 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cutlass.line;
+
+import io.questdb.cairo.CairoEngine;
+import io.questdb.mp.MPSequence;
+import io.questdb.mp.RingQueue;
+import io.questdb.mp.SCSequence;
+import io.questdb.mp.SynchronizedJob;
+import io.questdb.std.Misc;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+
+/**
+ * Owns writers of tables that hash into one shard and appends lines receivers
+ * published on the shard queue. Receivers never touch writers directly, which lets
+ * each shard be committed by whichever worker thread picks this job up.
+ */
+public class LineProtoWriterJob extends SynchronizedJob implements Closeable {
+    private final RingQueue<LineProtoTask> queue;
+    private final MPSequence pubSeq;
+    private final SCSequence subSeq;
+    private final CairoLineProtoParser parser;
+    private final int commitMode;
+    private final int commitRate;
+    private long uncommittedLineCount = 0;
+
+    public LineProtoWriterJob(CairoEngine engine, LineProtoWriterConfiguration configuration, int queueCapacity) {
+        this.queue = new RingQueue<>(LineProtoTask::new, queueCapacity);
+        this.pubSeq = new MPSequence(queueCapacity);
+        this.subSeq = new SCSequence();
+        pubSeq.then(subSeq).then(pubSeq);
+        this.parser = new CairoLineProtoParser(engine, configuration.getCairoSecurityContext(), configuration.getTimestampAdapter());
+        this.commitRate = configuration.getCommitRate();
+        this.commitMode = configuration.getCommitMode();
+        parser.setCommitPolicy(
+                commitMode,
+                configuration.getMaxCommitLatency() * 1000,
+                configuration.getMaxUncommittedRows(),
+                configuration.getMaxUncommittedBytes()
+        );
+    }
+
+    @Override
+    public void close() {
+        // drain whatever receivers managed to publish before they stopped
+        runSerially();
+        parser.commitAll(commitMode);
+        Misc.free(parser);
+        for (int i = 0, n = queue.getCapacity(); i < n; i++) {
+            Misc.free(queue.get(i));
+        }
+    }
+
+    @Nullable
+    public LineProtoCommitStats getCommitStats(CharSequence tableName) {
+        return parser.getCommitStats(tableName);
+    }
+
+    public LineProtoTask getTask(long cursor) {
+        return queue.get(cursor);
+    }
+
+    /**
+     * @return queue cursor, -1 when queue is full and -2 when cursor was contended by another receiver
+     */
+    public long nextCursor() {
+        return pubSeq.next();
+    }
+
+    public void publish(long cursor) {
+        pubSeq.done(cursor);
+    }
+
+    @Override
+    protected boolean runSerially() {
+        boolean useful = false;
+        long cursor;
+        while ((cursor = subSeq.next()) > -1) {
+            final LineProtoTask task = queue.get(cursor);
+            task.replay(parser);
+            uncommittedLineCount += task.getLineCount();
+            task.clear();
+            subSeq.done(cursor);
+            useful = true;
+
+            if (uncommittedLineCount > commitRate) {
+                uncommittedLineCount = 0;
+                parser.commitAll(commitMode);
+            }
+        }
+
+        // queue is drained, commit tables the same way receiver does when socket is drained;
+        // this has to happen on idle runs too, otherwise latency of last lines is unbounded
+        return parser.commitDue() || useful;
+    }
+}
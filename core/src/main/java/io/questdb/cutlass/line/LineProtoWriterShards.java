@@ -0,0 +1,96 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cutlass.line;
+
+import io.questdb.cairo.CairoEngine;
+import io.questdb.mp.WorkerPool;
+import io.questdb.std.Chars;
+import io.questdb.std.Misc;
+import io.questdb.std.Numbers;
+import io.questdb.std.ObjList;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+
+/**
+ * Set of writer jobs, each owning tables which names hash into its shard. Table is
+ * always written by the same job, so that receivers can parse on as many threads as
+ * there are, while writers are never contended.
+ */
+public class LineProtoWriterShards implements Closeable {
+    private final ObjList<LineProtoWriterJob> jobs = new ObjList<>();
+
+    public LineProtoWriterShards(CairoEngine engine, LineProtoWriterConfiguration configuration, int shardCount) {
+        assert shardCount > 0;
+        final int capacity = Numbers.ceilPow2(configuration.getWriterQueueCapacity());
+        for (int i = 0; i < shardCount; i++) {
+            jobs.add(new LineProtoWriterJob(engine, configuration, capacity));
+        }
+    }
+
+    public void assign(WorkerPool workerPool) {
+        for (int i = 0, n = jobs.size(); i < n; i++) {
+            workerPool.assign(jobs.getQuick(i));
+        }
+    }
+
+    @Override
+    public void close() {
+        Misc.freeObjList(jobs);
+        jobs.clear();
+    }
+
+    @Nullable
+    public LineProtoCommitStats getCommitStats(CharSequence tableName) {
+        return getJob(shardOf(tableName)).getCommitStats(tableName);
+    }
+
+    public LineProtoWriterJob getJob(int shard) {
+        return jobs.getQuick(shard);
+    }
+
+    public int getShardCount() {
+        return jobs.size();
+    }
+
+    /**
+     * Runs all writer jobs on the calling thread. Used when there is no worker pool
+     * to assign jobs to.
+     *
+     * @return true if any of the jobs had lines to write
+     */
+    public boolean runAll() {
+        boolean useful = false;
+        for (int i = 0, n = jobs.size(); i < n; i++) {
+            useful |= jobs.getQuick(i).run(0);
+        }
+        return useful;
+    }
+
+    public int shardOf(CharSequence tableName) {
+        // table names are case insensitive, same table must not end up in two shards
+        return (Chars.lowerCaseAsciiHashCode(tableName) & Integer.MAX_VALUE) % jobs.size();
+    }
+}
@@ -28,14 +28,18 @@ import io.questdb.cairo.CairoEngine;
 import io.questdb.cairo.CairoException;
 import io.questdb.cutlass.line.CairoLineProtoParser;
 import io.questdb.cutlass.line.LineProtoLexer;
+import io.questdb.cutlass.line.LineProtoQueueParser;
+import io.questdb.cutlass.line.LineProtoWriterShards;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
+import io.questdb.mp.Job;
 import io.questdb.mp.SOCountDownLatch;
 import io.questdb.mp.SynchronizedJob;
 import io.questdb.mp.WorkerPool;
 import io.questdb.network.NetworkFacade;
 import io.questdb.std.Misc;
 import io.questdb.std.Os;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.Closeable;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -44,6 +48,11 @@ public abstract class AbstractLineProtoReceiver extends SynchronizedJob implemen
     private static final Log LOG = LogFactory.getLog(AbstractLineProtoReceiver.class);
     protected final LineProtoLexer lexer;
     protected final CairoLineProtoParser parser;
+    private final LineProtoWriterShards shards;
+    private final LineProtoQueueParser queueParser;
+    private final boolean runWriters;
+    private final boolean ownShards;
+    private final int receiverIndex;
     protected final NetworkFacade nf;
     private final AtomicBoolean running = new AtomicBoolean(false);
     private final SOCountDownLatch started = new SOCountDownLatch();
@@ -58,9 +67,25 @@ public abstract class AbstractLineProtoReceiver extends SynchronizedJob implemen
             LineUdpReceiverConfiguration configuration,
             CairoEngine engine,
             WorkerPool workerPool
+    ) {
+        this(configuration, engine, workerPool, null, 0);
+    }
+
+    /**
+     * @param sharedShards  writer shards receivers of the same port hand lines over to, when null
+     *                      receiver either owns shards or writes tables itself, depending on configuration
+     * @param receiverIndex index of this receiver among those sharing the port
+     */
+    public AbstractLineProtoReceiver(
+            LineUdpReceiverConfiguration configuration,
+            CairoEngine engine,
+            WorkerPool workerPool,
+            @Nullable LineProtoWriterShards sharedShards,
+            int receiverIndex
     ) {
         this.configuration = configuration;
         this.commitMode = configuration.getCommitMode();
+        this.receiverIndex = receiverIndex;
         nf = configuration.getNetworkFacade();
         fd = nf.socketUdp();
         if (fd < 0) {
@@ -70,6 +95,11 @@ public abstract class AbstractLineProtoReceiver extends SynchronizedJob implemen
         }
 
         try {
+            if (configuration.getReceiverCount() > 1 && nf.setReusePort(fd) != 0) {
+                int errno = nf.errno();
+                LOG.error().$("cannot set SO_REUSEPORT [errno=").$(errno).$(", fd=").$(fd).$(']').$();
+                throw CairoException.instance(errno).put("Cannot set SO_REUSEPORT");
+            }
             // when listening for multicast packets bind address must be 0
             bind(configuration);
             this.commitRate = configuration.getCommitRate();
@@ -79,11 +109,49 @@ public abstract class AbstractLineProtoReceiver extends SynchronizedJob implemen
             }
 
             lexer = new LineProtoLexer(configuration.getMsgBufferSize());
-            parser = new CairoLineProtoParser(engine, configuration.getCairoSecurityContext(), configuration.getTimestampAdapter());
-            lexer.withParser(parser);
+            if (sharedShards != null) {
+                // shards are assigned to worker pool by their owner
+                parser = null;
+                shards = sharedShards;
+                ownShards = false;
+                queueParser = new LineProtoQueueParser(shards);
+                lexer.withParser(queueParser);
+                runWriters = workerPool == null;
+            } else if (configuration.getWriterShardCount() > 0) {
+                // receiver only parses, tables are written by shard jobs
+                parser = null;
+                ownShards = true;
+                shards = new LineProtoWriterShards(engine, configuration, configuration.getWriterShardCount());
+                queueParser = new LineProtoQueueParser(shards);
+                lexer.withParser(queueParser);
+                if (workerPool != null) {
+                    shards.assign(workerPool);
+                    runWriters = false;
+                } else {
+                    runWriters = true;
+                }
+            } else {
+                parser = new CairoLineProtoParser(engine, configuration.getCairoSecurityContext(), configuration.getTimestampAdapter());
+                parser.setCommitPolicy(
+                        commitMode,
+                        configuration.getMaxCommitLatency() * 1000,
+                        configuration.getMaxUncommittedRows(),
+                        configuration.getMaxUncommittedBytes()
+                );
+                shards = null;
+                ownShards = false;
+                queueParser = null;
+                runWriters = false;
+                lexer.withParser(parser);
+            }
 
             if (!configuration.ownThread()) {
-                workerPool.assign(this);
+                if (configuration.getReceiverCount() > 1) {
+                    // spread receivers of the same port across workers rather than have them compete
+                    workerPool.assign(receiverIndex % workerPool.getWorkerCount(), (Job) this);
+                } else {
+                    workerPool.assign(this);
+                }
                 logStarted(configuration);
             }
         } catch (CairoException e) {
@@ -105,6 +173,12 @@ public abstract class AbstractLineProtoReceiver extends SynchronizedJob implemen
                 parser.commitAll(commitMode);
                 parser.close();
             }
+            if (shards != null) {
+                queueParser.flush();
+                if (ownShards) {
+                    shards.close();
+                }
+            }
             Misc.free(lexer);
             LOG.info().$("closed [fd=").$(fd).$(']').$();
             fd = -1;
@@ -121,8 +195,11 @@ public abstract class AbstractLineProtoReceiver extends SynchronizedJob implemen
     public void start() {
         if (configuration.ownThread() && running.compareAndSet(false, true)) {
             new Thread(() -> {
-                if (configuration.ownThreadAffinity() != -1) {
-                    Os.setCurrentThreadAffinity(configuration.ownThreadAffinity());
+                final int affinity = configuration.getReceiverCount() > 1
+                        ? configuration.getReceiverAffinity()[receiverIndex]
+                        : configuration.ownThreadAffinity();
+                if (affinity != -1) {
+                    Os.setCurrentThreadAffinity(affinity);
                 }
                 logStarted(configuration);
                 while (running.get()) {
@@ -135,6 +212,36 @@ public abstract class AbstractLineProtoReceiver extends SynchronizedJob implemen
         }
     }
 
+    /**
+     * Makes lines received so far visible. When tables are written by shard jobs lines are
+     * handed over to them instead, and jobs commit once they drain their queues.
+     */
+    protected void commitAll() {
+        if (shards == null) {
+            parser.commitAll(commitMode);
+        } else {
+            queueParser.flush();
+            if (runWriters) {
+                shards.runAll();
+            }
+        }
+    }
+
+    /**
+     * Called when socket is drained. Tables are committed when their commit latency has elapsed, which
+     * is immediately unless maximum latency is configured. Shard jobs commit by themselves.
+     */
+    protected void commitDue() {
+        if (shards == null) {
+            parser.commitDue();
+        } else {
+            queueParser.flush();
+            if (runWriters) {
+                shards.runAll();
+            }
+        }
+    }
+
     private void bind(LineUdpReceiverConfiguration configuration) {
         if (nf.bindUdp(fd, configuration.isUnicast() ? configuration.getBindIPv4Address() : 0, configuration.getPort())) {
             if (!configuration.isUnicast() && !nf.join(fd, configuration.getBindIPv4Address(), configuration.getGroupIPv4Address())) {
@@ -157,7 +264,9 @@ public abstract class AbstractLineProtoReceiver extends SynchronizedJob implemen
                     .$(':')
                     .$(configuration.getPort())
                     .$(" [fd=").$(fd)
+                    .$(", receiver=").$(receiverIndex)
                     .$(", commitRate=").$(commitRate)
+                    .$(", writerShards=").$(configuration.getWriterShardCount())
                     .$(']').$();
         } else {
             LOG.info()
@@ -168,7 +277,9 @@ public abstract class AbstractLineProtoReceiver extends SynchronizedJob implemen
                     .$(" via ")
                     .$ip(configuration.getBindIPv4Address())
                     .$(" [fd=").$(fd)
+                    .$(", receiver=").$(receiverIndex)
                     .$(", commitRate=").$(commitRate)
+                    .$(", writerShards=").$(configuration.getWriterShardCount())
                     .$(']').$();
         }
     }
@@ -25,9 +25,11 @@
 package io.questdb.cutlass.line.udp;
 
 import io.questdb.cairo.CairoEngine;
+import io.questdb.cutlass.line.LineProtoWriterShards;
 import io.questdb.mp.WorkerPool;
 import io.questdb.std.Unsafe;
 import io.questdb.std.str.DirectByteCharSequence;
+import org.jetbrains.annotations.Nullable;
 
 public class LineProtoReceiver extends AbstractLineProtoReceiver {
     private final DirectByteCharSequence byteSequence = new DirectByteCharSequence();
@@ -43,6 +45,17 @@ public class LineProtoReceiver extends AbstractLineProtoReceiver {
         this.buf = Unsafe.malloc(this.bufLen = configuration.getMsgBufferSize());
     }
 
+    public LineProtoReceiver(
+            LineUdpReceiverConfiguration configuration,
+            CairoEngine engine,
+            WorkerPool workerPool,
+            @Nullable LineProtoWriterShards sharedShards,
+            int receiverIndex
+    ) {
+        super(configuration, engine, workerPool, sharedShards, receiverIndex);
+        this.buf = Unsafe.malloc(this.bufLen = configuration.getMsgBufferSize());
+    }
+
     @Override
     public void close() {
         super.close();
@@ -65,7 +78,7 @@ public class LineProtoReceiver extends AbstractLineProtoReceiver {
 
             if (totalCount > commitRate) {
                 totalCount = 0;
-                parser.commitAll(commitMode);
+                commitAll();
             }
 
             if (ran) {
@@ -74,7 +87,7 @@ public class LineProtoReceiver extends AbstractLineProtoReceiver {
 
             ran = true;
         }
-        parser.commitAll(commitMode);
+        commitDue();
         return ran;
     }
 }
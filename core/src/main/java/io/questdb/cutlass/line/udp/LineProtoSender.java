@@ -25,6 +25,7 @@
 package io.questdb.cutlass.line.udp;
 
 import io.questdb.cairo.CairoException;
+import io.questdb.cutlass.line.LineProtoLexer;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.network.NetworkError;
@@ -53,6 +54,7 @@ public class LineProtoSender extends AbstractCharSink implements Closeable {
     private long lineStart;
     private boolean hasMetric = false;
     private boolean noFields = true;
+    private boolean binaryFormat = false;
 
     public LineProtoSender(
             int interfaceIPv4Address,
@@ -103,7 +105,12 @@ public class LineProtoSender extends AbstractCharSink implements Closeable {
     }
 
     public void $(long timestamp) {
-        put(' ').put(timestamp);
+        put(' ');
+        if (binaryFormat) {
+            putBinary(LineProtoLexer.BINARY_TYPE_LONG, timestamp);
+        } else {
+            put(timestamp);
+        }
         $();
     }
 
@@ -125,7 +132,12 @@ public class LineProtoSender extends AbstractCharSink implements Closeable {
     }
 
     public LineProtoSender field(CharSequence name, long value) {
-        field(name).put(value).put('i');
+        if (binaryFormat) {
+            field(name);
+            putBinary(LineProtoLexer.BINARY_TYPE_LONG, value);
+        } else {
+            field(name).put(value).put('i');
+        }
         return this;
     }
 
@@ -135,7 +147,12 @@ public class LineProtoSender extends AbstractCharSink implements Closeable {
     }
 
     public LineProtoSender field(CharSequence name, double value) {
-        field(name).put(value);
+        if (binaryFormat) {
+            field(name);
+            putBinary(LineProtoLexer.BINARY_TYPE_DOUBLE, Double.doubleToRawLongBits(value));
+        } else {
+            field(name).put(value);
+        }
         return this;
     }
 
@@ -200,6 +217,19 @@ public class LineProtoSender extends AbstractCharSink implements Closeable {
         return this;
     }
 
+    /**
+     * Switches encoding of long and double field values and timestamps between text and binary. Binary
+     * values are sent as little-endian bytes and are neither formatted here nor parsed by the receiver.
+     * Receiver must understand binary values, see {@link LineProtoLexer#isBinary(CharSequence)}.
+     *
+     * @param binaryFormat true to send numbers in binary
+     * @return this sender
+     */
+    public LineProtoSender setBinaryFormat(boolean binaryFormat) {
+        this.binaryFormat = binaryFormat;
+        return this;
+    }
+
     public LineProtoSender tag(CharSequence tag, CharSequence value) {
         if (hasMetric) {
             put(',').putNameEscaped(tag).put('=').encodeUtf8(value);
@@ -222,6 +252,19 @@ public class LineProtoSender extends AbstractCharSink implements Closeable {
         throw CairoException.instance(0).put("metric expected");
     }
 
+    private void putBinary(byte type, long value) {
+        // '=', type and value bytes
+        if (ptr + 10 >= hi) {
+            send00();
+        }
+        Unsafe.getUnsafe().putByte(ptr, (byte) '=');
+        Unsafe.getUnsafe().putByte(ptr + 1, type);
+        for (int i = 0; i < 8; i++) {
+            Unsafe.getUnsafe().putByte(ptr + 2 + i, (byte) (value >>> (i * 8)));
+        }
+        ptr += 10;
+    }
+
     private LineProtoSender putNameEscaped(CharSequence name) {
         for (int i = 0, n = name.length(); i < n; i++) {
             char c = name.charAt(i);
@@ -229,7 +272,8 @@ public class LineProtoSender extends AbstractCharSink implements Closeable {
                 case ' ':
                 case ',':
                 case '=':
-                    put('\\');
+                    put('\\').put(c);
+                    break;
                 default:
                     put(c);
                     break;
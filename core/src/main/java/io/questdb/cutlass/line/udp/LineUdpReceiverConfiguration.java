@@ -24,18 +24,13 @@
 
 package io.questdb.cutlass.line.udp;
 
-import io.questdb.cairo.CairoSecurityContext;
-import io.questdb.cutlass.line.LineProtoTimestampAdapter;
+import io.questdb.cutlass.line.LineProtoWriterConfiguration;
 import io.questdb.network.NetworkFacade;
 
-public interface LineUdpReceiverConfiguration {
-
-    int getCommitMode();
+public interface LineUdpReceiverConfiguration extends LineProtoWriterConfiguration {
 
     int getBindIPv4Address();
 
-    int getCommitRate();
-
     int getGroupIPv4Address();
 
     int getMsgBufferSize();
@@ -48,7 +43,15 @@ public interface LineUdpReceiverConfiguration {
 
     int getReceiveBufferSize();
 
-    CairoSecurityContext getCairoSecurityContext();
+    /**
+     * @return affinity of receiver threads when there is more than one receiver, -1 for no affinity
+     */
+    int[] getReceiverAffinity();
+
+    /**
+     * @return number of sockets bound to the same port with SO_REUSEPORT, each drained by its own receiver
+     */
+    int getReceiverCount();
 
     boolean isEnabled();
 
@@ -57,6 +60,4 @@ public interface LineUdpReceiverConfiguration {
     boolean ownThread();
 
     int ownThreadAffinity();
-
-    LineProtoTimestampAdapter getTimestampAdapter();
 }
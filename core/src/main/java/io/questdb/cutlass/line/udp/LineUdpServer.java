@@ -0,0 +1,124 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cutlass.line.udp;
+
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.CairoException;
+import io.questdb.cutlass.line.LineProtoWriterShards;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.mp.WorkerPool;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import io.questdb.std.Os;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+
+/**
+ * Line-protocol UDP endpoint. A single socket is drained by one thread only, so when more than one
+ * receiver is configured each binds its own socket to the same port with SO_REUSEPORT and the kernel
+ * spreads datagrams across them. Receivers of the port hand lines over to the same set of writer shards,
+ * which keeps every table written by exactly one job regardless of which socket its lines arrived on.
+ */
+public class LineUdpServer implements Closeable {
+    private static final Log LOG = LogFactory.getLog(LineUdpServer.class);
+    private final ObjList<AbstractLineProtoReceiver> receivers = new ObjList<>();
+    private final LineProtoWriterShards shards;
+
+    public LineUdpServer(LineUdpReceiverConfiguration configuration, CairoEngine engine, WorkerPool workerPool) {
+        this(
+                configuration,
+                engine,
+                workerPool,
+                Os.type == Os.LINUX_AMD64 || Os.type == Os.LINUX_ARM64 ? LinuxMMLineProtoReceiver::new : LineProtoReceiver::new
+        );
+    }
+
+    LineUdpServer(LineUdpReceiverConfiguration configuration, CairoEngine engine, @Nullable WorkerPool workerPool, ReceiverFactory factory) {
+        final int receiverCount;
+        if (configuration.isUnicast()) {
+            receiverCount = configuration.getReceiverCount();
+        } else {
+            // every socket joined to a group gets its own copy of a datagram, sharing the port would duplicate rows
+            if (configuration.getReceiverCount() > 1) {
+                LOG.info().$("multicast is received by single receiver [configured=").$(configuration.getReceiverCount()).$(']').$();
+            }
+            receiverCount = 1;
+        }
+
+        if (receiverCount > 1) {
+            // receivers cannot own writers when they do not own tables
+            this.shards = new LineProtoWriterShards(engine, configuration, Math.max(configuration.getWriterShardCount(), receiverCount));
+        } else {
+            this.shards = null;
+        }
+
+        try {
+            for (int i = 0; i < receiverCount; i++) {
+                receivers.add(factory.create(configuration, engine, workerPool, shards, i));
+            }
+        } catch (CairoException e) {
+            close();
+            throw e;
+        }
+
+        if (shards != null && workerPool != null) {
+            shards.assign(workerPool);
+        }
+    }
+
+    @Override
+    public void close() {
+        halt();
+        Misc.freeObjList(receivers);
+        receivers.clear();
+        // receivers flushed their lines to shards when they closed
+        Misc.free(shards);
+    }
+
+    public void halt() {
+        for (int i = 0, n = receivers.size(); i < n; i++) {
+            receivers.getQuick(i).halt();
+        }
+    }
+
+    public void start() {
+        for (int i = 0, n = receivers.size(); i < n; i++) {
+            receivers.getQuick(i).start();
+        }
+    }
+
+    @FunctionalInterface
+    interface ReceiverFactory {
+        AbstractLineProtoReceiver create(
+                LineUdpReceiverConfiguration configuration,
+                CairoEngine engine,
+                WorkerPool workerPool,
+                LineProtoWriterShards shards,
+                int receiverIndex
+        );
+    }
+}
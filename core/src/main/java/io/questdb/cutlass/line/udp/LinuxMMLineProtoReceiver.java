@@ -25,8 +25,10 @@
 package io.questdb.cutlass.line.udp;
 
 import io.questdb.cairo.CairoEngine;
+import io.questdb.cutlass.line.LineProtoWriterShards;
 import io.questdb.mp.WorkerPool;
 import io.questdb.network.Net;
+import org.jetbrains.annotations.Nullable;
 
 public class LinuxMMLineProtoReceiver extends AbstractLineProtoReceiver {
     private final int msgCount;
@@ -42,6 +44,18 @@ public class LinuxMMLineProtoReceiver extends AbstractLineProtoReceiver {
         msgVec = nf.msgHeaders(configuration.getMsgBufferSize(), msgCount);
     }
 
+    public LinuxMMLineProtoReceiver(
+            LineUdpReceiverConfiguration configuration,
+            CairoEngine engine,
+            WorkerPool workerPool,
+            @Nullable LineProtoWriterShards sharedShards,
+            int receiverIndex
+    ) {
+        super(configuration, engine, workerPool, sharedShards, receiverIndex);
+        this.msgCount = configuration.getMsgCount();
+        msgVec = nf.msgHeaders(configuration.getMsgBufferSize(), msgCount);
+    }
+
     @Override
     public void close() {
         super.close();
@@ -68,7 +82,7 @@ public class LinuxMMLineProtoReceiver extends AbstractLineProtoReceiver {
 
             if (totalCount > commitRate) {
                 totalCount = 0;
-                parser.commitAll(commitMode);
+                commitAll();
             }
 
             if (ran) {
@@ -77,7 +91,7 @@ public class LinuxMMLineProtoReceiver extends AbstractLineProtoReceiver {
 
             ran = true;
         }
-        parser.commitAll(commitMode);
+        commitDue();
         return ran;
     }
 }
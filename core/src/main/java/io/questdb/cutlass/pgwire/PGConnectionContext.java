@@ -374,9 +374,9 @@ public class PGConnectionContext implements IOContext, Mutable {
 
     public void setDoubleTextBindVariable(int index, long address, int valueLen) throws BadProtocolException {
         try {
-            bindVariableService.setDouble(index, Numbers.parseDouble(dbcs.of(address, address + valueLen)));
+            bindVariableService.setDouble(index, Numbers.parseDouble(address, address + valueLen));
         } catch (NumericException e) {
-            LOG.error().$("bad double variable value [index=").$(index).$(", value=`").$(dbcs).$("`]").$();
+            LOG.error().$("bad double variable value [index=").$(index).$(", value=`").$(dbcs.of(address, address + valueLen)).$("`]").$();
             throw BadProtocolException.INSTANCE;
         }
     }
@@ -388,7 +388,7 @@ public class PGConnectionContext implements IOContext, Mutable {
 
     public void setFloatTextBindVariable(int index, long address, int valueLen) throws BadProtocolException {
         try {
-            bindVariableService.setFloat(index, Numbers.parseFloat(dbcs.of(address, address + valueLen)));
+            bindVariableService.setFloat(index, Numbers.parseFloat(address, address + valueLen));
         } catch (NumericException e) {
             throw BadProtocolException.INSTANCE;
         }
@@ -746,9 +746,8 @@ public class PGConnectionContext implements IOContext, Mutable {
     }
 
     private void executeInsert() throws PeerDisconnectedException, PeerIsSlowToReadException {
-        try (final InsertMethod m = currentInsertStatement.createMethod(sqlExecutionContext)) {
-            m.execute();
-            m.commit();
+        try {
+            currentInsertStatement.insert(sqlExecutionContext);
             sendExecuteTail(TAIL_SUCCESS);
         } catch (CairoException e) {
             responseAsciiSink.put(MESSAGE_TYPE_ERROR_RESPONSE);
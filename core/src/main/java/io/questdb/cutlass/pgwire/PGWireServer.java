@@ -35,6 +35,7 @@ import io.questdb.mp.Job;
 import io.questdb.mp.WorkerPool;
 import io.questdb.network.*;
 import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
 import io.questdb.std.ThreadLocal;
 import io.questdb.std.WeakObjectPool;
 import org.jetbrains.annotations.Nullable;
@@ -43,7 +44,7 @@ import java.io.Closeable;
 
 public class PGWireServer implements Closeable {
     private static final Log LOG = LogFactory.getLog(PGWireServer.class);
-    private final IODispatcher<PGConnectionContext> dispatcher;
+    private final ObjList<IODispatcher<PGConnectionContext>> dispatchers;
     private final PGConnectionContextFactory contextFactory;
 
     public PGWireServer(
@@ -53,14 +54,23 @@ public class PGWireServer implements Closeable {
             MessageBus messageBus
     ) {
         this.contextFactory = new PGConnectionContextFactory(engine.getConfiguration(), configuration, messageBus, workerPool.getWorkerCount());
-        this.dispatcher = IODispatchers.create(
+        this.dispatchers = IODispatchers.create(
                 configuration.getDispatcherConfiguration(),
-                contextFactory
+                contextFactory,
+                workerPool.getWorkerCount()
         );
+        final int dispatcherCount = dispatchers.size();
 
-        workerPool.assign(dispatcher);
+        if (dispatcherCount == 1) {
+            workerPool.assign(dispatchers.getQuick(0));
+        } else {
+            for (int i = 0; i < dispatcherCount; i++) {
+                workerPool.assign(i, (Job) dispatchers.getQuick(i));
+            }
+        }
 
         for (int i = 0, n = workerPool.getWorkerCount(); i < n; i++) {
+            final int index = i;
             final PGJobContext jobContext = new PGJobContext(configuration, engine);
             workerPool.assign(i, new Job() {
                 private final IORequestProcessor<PGConnectionContext> processor = (operation, context) -> {
@@ -78,7 +88,13 @@ public class PGWireServer implements Closeable {
 
                 @Override
                 public boolean run(int workerId) {
-                    return dispatcher.processIOQueue(processor);
+                    // worker serves requests of its own dispatcher first and helps others when idle
+                    for (int j = 0; j < dispatcherCount; j++) {
+                        if (dispatchers.getQuick((index + j) % dispatcherCount).processIOQueue(processor)) {
+                            return true;
+                        }
+                    }
+                    return false;
                 }
             });
 
@@ -112,7 +128,7 @@ public class PGWireServer implements Closeable {
     @Override
     public void close() {
         Misc.free(contextFactory);
-        Misc.free(dispatcher);
+        Misc.freeObjList(dispatchers);
     }
 
     private static class PGConnectionContextFactory implements IOContextFactory<PGConnectionContext>, Closeable, EagerThreadSetup {
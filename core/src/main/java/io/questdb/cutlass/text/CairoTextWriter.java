@@ -110,6 +110,10 @@ public class CairoTextWriter implements Closeable, Mutable {
         return partitionBy;
     }
 
+    TableWriter getWriter() {
+        return writer;
+    }
+
     public CharSequence getTableName() {
         return tableName;
     }
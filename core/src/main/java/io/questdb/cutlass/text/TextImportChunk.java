@@ -0,0 +1,516 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cutlass.text;
+
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.ColumnBatch;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.TableUtils;
+import io.questdb.cairo.TableWriter;
+import io.questdb.cutlass.text.types.TypeAdapter;
+import io.questdb.cutlass.text.types.TypeManager;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.mp.CountDownLatchSPI;
+import io.questdb.std.CharSequenceIntHashMap;
+import io.questdb.std.Chars;
+import io.questdb.std.Misc;
+import io.questdb.std.Numbers;
+import io.questdb.std.ObjList;
+import io.questdb.std.Unsafe;
+import io.questdb.std.str.DirectByteCharSequence;
+import io.questdb.std.str.DirectCharSink;
+import io.questdb.std.str.StringSink;
+
+import java.io.Closeable;
+
+/**
+ * Parses a line-aligned slice of a text file into native column buffers, laid out the way
+ * {@link ColumnBatch} expects them. Parsed chunks are appended to the target table in file
+ * order by the thread that published them.
+ * <p>
+ * Before parsing, chunks can scan slices that start at arbitrary offsets, see {@link #ofScan(int, long, long, CountDownLatchSPI)}.
+ * Scan results of all slices are enough for the publishing thread to find line-aligned boundaries
+ * without reading the text itself. Chunks are executed either by {@link TextImportJob}
+ * or by the publishing thread and are "locked" the same way as vector aggregate entries,
+ * so that each chunk runs exactly once.
+ */
+public class TextImportChunk implements Closeable {
+    private static final Log LOG = LogFactory.getLog(TextImportChunk.class);
+    private static final long TARGET_SEQUENCE_OFFSET;
+    private static final long QUOTE_MASK = TextUtil.broadcast((byte) '"');
+    private static final long LF_MASK = TextUtil.broadcast((byte) '\n');
+
+    static {
+        TARGET_SEQUENCE_OFFSET = Unsafe.getFieldOffset(TextImportChunk.class, "targetSequence");
+    }
+
+    private final DirectCharSink utf8Sink;
+    private final TypeManager typeManager;
+    private final TextLexer textLexer;
+    private final ObjList<TypeAdapter> types = new ObjList<>();
+    private final ObjList<ColumnBuffer> buffers = new ObjList<>();
+    private final ObjList<CharSequenceIntHashMap> symbols = new ObjList<>();
+    private final StringSink error = new StringSink();
+    private final TextLexer.Listener listener = this::onFields;
+    private int timestampIndex;
+    private boolean scan;
+    private long quoteCount;
+    // first line ends of scanned slice for either parity of quotes before the slice, -1 when there is none
+    private long evenLineEnd = -1;
+    private long oddLineEnd = -1;
+    private long rowCount;
+    private long errorCount;
+    private long lo;
+    private long hi;
+    private int srcSequence;
+    // to "lock" the chunk thread must successfully CAS targetSequence form "srcSequence" value
+    // to "srcSequence+1". Executing thread must not be changing value of "srcSequence"
+    private int targetSequence;
+    private CountDownLatchSPI doneLatch;
+
+    public TextImportChunk(CairoEngine engine) {
+        final TextConfiguration textConfiguration = engine.getConfiguration().getTextConfiguration();
+        this.utf8Sink = new DirectCharSink(textConfiguration.getUtf8SinkSize());
+        this.typeManager = new TypeManager(textConfiguration, utf8Sink);
+        this.textLexer = new TextLexer(textConfiguration, typeManager);
+    }
+
+    /**
+     * @param columnType type of column
+     * @return true when values of column type can be parsed into chunk buffers
+     */
+    public static boolean isSupported(int columnType) {
+        switch (columnType) {
+            case ColumnType.BOOLEAN:
+            case ColumnType.BYTE:
+            case ColumnType.SHORT:
+            case ColumnType.CHAR:
+            case ColumnType.INT:
+            case ColumnType.LONG:
+            case ColumnType.FLOAT:
+            case ColumnType.DOUBLE:
+            case ColumnType.DATE:
+            case ColumnType.TIMESTAMP:
+            case ColumnType.STRING:
+            case ColumnType.SYMBOL:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Appends parsed rows to the table. Writer column types must match types chunk was
+     * configured with, writer may have more columns than the text, these are appended as nulls.
+     *
+     * @param writer target table writer
+     * @param batch  batch to reuse
+     */
+    public void appendTo(TableWriter writer, ColumnBatch batch) {
+        batch.of(writer.getMetadata().getColumnCount(), rowCount);
+        for (int i = 0, n = types.size(); i < n; i++) {
+            final long address = buffers.getQuick(i).getAddress();
+            if (i == timestampIndex) {
+                batch.setTimestamps(address);
+            } else if (types.getQuick(i).getType() == ColumnType.SYMBOL) {
+                batch.setSymbolColumn(i, address, symbols.getQuick(i).keys());
+            } else {
+                batch.setColumn(i, address);
+            }
+        }
+        writer.appendBatch(batch);
+        batch.clear();
+    }
+
+    public void clear() {
+        textLexer.clear();
+        typeManager.clear();
+        types.clear();
+        // buffers can be as large as the chunk text, do not hold on to them between imports
+        Misc.freeObjList(buffers);
+        buffers.clear();
+        for (int i = 0, n = symbols.size(); i < n; i++) {
+            symbols.getQuick(i).clear();
+        }
+        error.clear();
+        rowCount = 0;
+        errorCount = 0;
+        scan = false;
+        quoteCount = 0;
+        evenLineEnd = -1;
+        oddLineEnd = -1;
+        doneLatch = null;
+    }
+
+    @Override
+    public void close() {
+        clear();
+        Misc.free(textLexer);
+        Misc.free(utf8Sink);
+    }
+
+    public CharSequence getError() {
+        return error;
+    }
+
+    /**
+     * @param quoteCountBefore number of quotes in text before scanned slice
+     * @return address right after the first line end of scanned slice, which is not inside quotes,
+     * or -1 when slice has no such line end
+     */
+    public long getLineEnd(long quoteCountBefore) {
+        return (quoteCountBefore & 1) == 0 ? evenLineEnd : oddLineEnd;
+    }
+
+    /**
+     * @return number of quotes in scanned slice
+     */
+    public long getQuoteCount() {
+        return quoteCount;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public int getSequence() {
+        return srcSequence;
+    }
+
+    public boolean isFailed() {
+        return error.length() > 0;
+    }
+
+    public void of(
+            int counter,
+            byte columnDelimiter,
+            boolean skipLinesWithExtraValues,
+            ObjList<TypeAdapter> types,
+            int timestampIndex,
+            long lo,
+            long hi,
+            CountDownLatchSPI doneLatch
+    ) {
+        clear();
+        this.srcSequence = counter;
+        this.targetSequence = counter;
+        this.timestampIndex = timestampIndex;
+        this.lo = lo;
+        this.hi = hi;
+        this.doneLatch = doneLatch;
+        for (int i = 0, n = types.size(); i < n; i++) {
+            this.types.add(typeManager.copyOf(types.getQuick(i)));
+            this.buffers.add(new ColumnBuffer());
+            if (symbols.size() == i) {
+                symbols.add(new CharSequenceIntHashMap());
+            }
+        }
+        textLexer.setSkipLinesWithExtraValues(skipLinesWithExtraValues);
+        textLexer.of(columnDelimiter);
+    }
+
+    /**
+     * Configures chunk to scan [lo, hi) for quotes and line ends instead of parsing it. Slice
+     * does not have to start at line start, whether its line ends are inside quotes depends on
+     * quotes before the slice and is resolved via {@link #getLineEnd(long)}.
+     */
+    public void ofScan(int counter, long lo, long hi, CountDownLatchSPI doneLatch) {
+        clear();
+        this.srcSequence = counter;
+        this.targetSequence = counter;
+        this.lo = lo;
+        this.hi = hi;
+        this.doneLatch = doneLatch;
+        this.scan = true;
+    }
+
+    /**
+     * Runs chunk unless it has been run already. Queue items can outlive configuration of chunk
+     * they have been published with, sequence they carry keeps them from running chunk that has
+     * been configured again since.
+     *
+     * @param sequence sequence chunk has been configured with
+     * @return true when this call ran the chunk
+     */
+    public boolean run(int sequence) {
+        if (tryLock(sequence)) {
+            try {
+                if (scan) {
+                    scanLineEnds();
+                } else {
+                    textLexer.parse(lo, hi, Integer.MAX_VALUE, listener);
+                    textLexer.parseLast();
+                    LOG.info()
+                            .$("chunk parsed [index=").$(srcSequence)
+                            .$(", lines=").$(textLexer.getLineCount())
+                            .$(", rows=").$(rowCount)
+                            .$(", errors=").$(textLexer.getErrorCount() + errorCount)
+                            .$(']').$();
+                }
+            } catch (Throwable e) {
+                LOG.error().$("chunk parse failed [index=").$(srcSequence).$(", e=").$(e).$(']').$();
+                error.put(e.getMessage() == null ? e.getClass().getName() : e.getMessage());
+            } finally {
+                doneLatch.countDown();
+            }
+            return true;
+        }
+        return false;
+    }
+
+    public boolean tryLock(int sequence) {
+        return Unsafe.cas(this, TARGET_SEQUENCE_OFFSET, sequence, sequence + 1);
+    }
+
+    private void onLineEnd(long quotes, long lineEnd) {
+        if ((quotes & 1) == 0) {
+            if (evenLineEnd == -1) {
+                evenLineEnd = lineEnd;
+            }
+        } else if (oddLineEnd == -1) {
+            oddLineEnd = lineEnd;
+        }
+    }
+
+    // quote parity is counted from slice start, it flips meaning when odd number of quotes precedes the slice
+    private void scanLineEnds() {
+        final long wordHi = hi - Long.BYTES + 1;
+        long quotes = 0;
+        long p = lo;
+
+        while (p < wordHi && (evenLineEnd == -1 || oddLineEnd == -1)) {
+            final long word = Unsafe.getUnsafe().getLong(p);
+            long mask = TextUtil.zeroBytes(word ^ QUOTE_MASK) | TextUtil.zeroBytes(word ^ LF_MASK);
+            while (mask != 0) {
+                final long ptr = p + (Long.numberOfTrailingZeros(mask) >> 3);
+                if (Unsafe.getUnsafe().getByte(ptr) == '"') {
+                    quotes++;
+                } else {
+                    onLineEnd(quotes, ptr + 1);
+                }
+                mask &= mask - 1;
+            }
+            p += Long.BYTES;
+        }
+
+        // both line ends are known, the rest of slice only adds to quote count
+        while (p < wordHi) {
+            quotes += Long.bitCount(TextUtil.zeroBytes(Unsafe.getUnsafe().getLong(p) ^ QUOTE_MASK));
+            p += Long.BYTES;
+        }
+
+        for (; p < hi; p++) {
+            final byte b = Unsafe.getUnsafe().getByte(p);
+            if (b == '"') {
+                quotes++;
+            } else if (b == '\n') {
+                onLineEnd(quotes, p + 1);
+            }
+        }
+        quoteCount = quotes;
+    }
+
+    private void onFields(long line, ObjList<DirectByteCharSequence> values, int valuesLength) {
+        final int columnCount = types.size();
+        final int n = Math.min(valuesLength, columnCount);
+
+        // values that can fail to parse are written first, row is skipped on the first
+        // bad value without having to undo any of string or symbol values
+        for (int i = 0; i < columnCount; i++) {
+            final TypeAdapter type = types.getQuick(i);
+            final DirectByteCharSequence value = i < n ? values.getQuick(i) : null;
+            try {
+                putFixed(buffers.getQuick(i), type, value);
+            } catch (Exception ignore) {
+                LOG.error().$("type syntax [type=").$(ColumnType.nameOf(type.getType())).$("]\n\t")
+                        .$('[').$(line).$(':').$(i).$("] -> ").$(value).$();
+                errorCount++;
+                return;
+            }
+        }
+
+        // designated timestamp cannot be null, such rows are skipped same as by serial import
+        if (timestampIndex > -1 && Unsafe.getUnsafe().getLong(buffers.getQuick(timestampIndex).getAddress() + rowCount * Long.BYTES) == Numbers.LONG_NaN) {
+            errorCount++;
+            return;
+        }
+
+        for (int i = 0; i < columnCount; i++) {
+            final DirectByteCharSequence value = i < n ? values.getQuick(i) : null;
+            try {
+                switch (types.getQuick(i).getType()) {
+                    case ColumnType.STRING:
+                        putStr(buffers.getQuick(i), value);
+                        break;
+                    case ColumnType.SYMBOL:
+                        putSym(buffers.getQuick(i), symbols.getQuick(i), value);
+                        break;
+                    default:
+                        break;
+                }
+            } catch (Utf8Exception ignore) {
+                LOG.error().$("utf8 error [line=").$(line).$(", col=").$(i).$(']').$();
+                // symbols resolved so far stay in dictionary, same as row cancelled by table writer
+                for (int k = 0; k < i; k++) {
+                    buffers.getQuick(k).rollbackRow();
+                }
+                errorCount++;
+                return;
+            }
+        }
+        rowCount++;
+    }
+
+    // variable length and symbol columns are skipped, these are written once all fixed values parse
+    private void putFixed(ColumnBuffer buffer, TypeAdapter type, DirectByteCharSequence value) throws Exception {
+        final boolean isNull = value == null || value.length() == 0;
+        switch (type.getType()) {
+            case ColumnType.BOOLEAN:
+                Unsafe.getUnsafe().putByte(buffer.reserve(rowCount, Byte.BYTES), (byte) (!isNull && Chars.equalsLowerCaseAscii(value, "true") ? 1 : 0));
+                break;
+            case ColumnType.BYTE:
+                Unsafe.getUnsafe().putByte(buffer.reserve(rowCount, Byte.BYTES), isNull ? 0 : (byte) Numbers.parseInt(value));
+                break;
+            case ColumnType.SHORT:
+                Unsafe.getUnsafe().putShort(buffer.reserve(rowCount, Short.BYTES), isNull ? 0 : (short) Numbers.parseInt(value));
+                break;
+            case ColumnType.CHAR:
+                Unsafe.getUnsafe().putChar(buffer.reserve(rowCount, Character.BYTES), isNull ? 0 : value.charAt(0));
+                break;
+            case ColumnType.INT:
+                Unsafe.getUnsafe().putInt(buffer.reserve(rowCount, Integer.BYTES), isNull ? Numbers.INT_NaN : Numbers.parseInt(value));
+                break;
+            case ColumnType.LONG:
+                Unsafe.getUnsafe().putLong(buffer.reserve(rowCount, Long.BYTES), isNull ? Numbers.LONG_NaN : Numbers.parseLong(value));
+                break;
+            case ColumnType.FLOAT:
+                Unsafe.getUnsafe().putFloat(buffer.reserve(rowCount, Float.BYTES), isNull ? Float.NaN : Numbers.parseFloat(value.getLo(), value.getHi()));
+                break;
+            case ColumnType.DOUBLE:
+                Unsafe.getUnsafe().putDouble(buffer.reserve(rowCount, Double.BYTES), isNull ? Double.NaN : Numbers.parseDouble(value.getLo(), value.getHi()));
+                break;
+            case ColumnType.DATE:
+            case ColumnType.TIMESTAMP:
+                Unsafe.getUnsafe().putLong(buffer.reserve(rowCount, Long.BYTES), isNull ? Numbers.LONG_NaN : type.parseLong(value));
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void putStr(ColumnBuffer buffer, DirectByteCharSequence value) throws Utf8Exception {
+        buffer.markRow();
+        if (value == null || value.length() == 0) {
+            Unsafe.getUnsafe().putInt(buffer.append(Integer.BYTES), TableUtils.NULL_LEN);
+            return;
+        }
+        utf8Sink.clear();
+        TextUtil.utf8Decode(value.getLo(), value.getHi(), utf8Sink);
+        final int len = utf8Sink.length();
+        long p = buffer.append(Integer.BYTES + len * 2L);
+        Unsafe.getUnsafe().putInt(p, len);
+        p += Integer.BYTES;
+        for (int i = 0; i < len; i++, p += 2) {
+            Unsafe.getUnsafe().putChar(p, utf8Sink.charAt(i));
+        }
+    }
+
+    private void putSym(ColumnBuffer buffer, CharSequenceIntHashMap dictionary, DirectByteCharSequence value) throws Utf8Exception {
+        int key = -1;
+        if (value != null && value.length() > 0) {
+            utf8Sink.clear();
+            TextUtil.utf8Decode(value.getLo(), value.getHi(), utf8Sink);
+            final int index = dictionary.keyIndex(utf8Sink);
+            if (index > -1) {
+                key = dictionary.size();
+                dictionary.putAt(index, utf8Sink, key);
+            } else {
+                key = dictionary.valueAt(index);
+            }
+        }
+        Unsafe.getUnsafe().putInt(buffer.reserve(rowCount, Integer.BYTES), key);
+    }
+
+    /**
+     * Contiguous native buffer that grows by doubling. Fixed size values are written by row
+     * index, variable length values are appended.
+     */
+    private static class ColumnBuffer implements Closeable {
+        private long address;
+        private long capacity;
+        private long appendOffset;
+        private long rowOffset;
+
+        @Override
+        public void close() {
+            if (address != 0) {
+                Unsafe.free(address, capacity);
+                address = 0;
+                capacity = 0;
+            }
+            appendOffset = 0;
+            rowOffset = 0;
+        }
+
+        long append(long size) {
+            final long offset = appendOffset;
+            ensureCapacity(offset + size);
+            appendOffset = offset + size;
+            return address + offset;
+        }
+
+        long getAddress() {
+            return address;
+        }
+
+        void markRow() {
+            rowOffset = appendOffset;
+        }
+
+        // fixed size values of failed row are overwritten by the next row and need no rollback
+        void rollbackRow() {
+            appendOffset = rowOffset;
+        }
+
+        long reserve(long row, int size) {
+            final long offset = row * size;
+            ensureCapacity(offset + size);
+            return address + offset;
+        }
+
+        private void ensureCapacity(long size) {
+            if (size > capacity) {
+                final long newCapacity = Math.max(Math.max(capacity * 2, size), 4096);
+                if (address == 0) {
+                    address = Unsafe.malloc(newCapacity);
+                } else {
+                    address = Unsafe.realloc(address, capacity, newCapacity);
+                }
+                capacity = newCapacity;
+            }
+        }
+    }
+}
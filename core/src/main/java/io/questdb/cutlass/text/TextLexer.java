@@ -39,6 +39,9 @@ import java.io.Closeable;
 
 public class TextLexer implements Closeable, Mutable {
     private final static Log LOG = LogFactory.getLog(TextLexer.class);
+    private static final long QUOTE_MASK = TextUtil.broadcast((byte) '"');
+    private static final long LF_MASK = TextUtil.broadcast((byte) '\n');
+    private static final long CR_MASK = TextUtil.broadcast((byte) '\r');
     private final ObjList<DirectByteCharSequence> fields = new ObjList<>();
     private final ObjectPool<DirectByteCharSequence> csPool;
     private final TextMetadataDetector metadataDetector;
@@ -61,6 +64,7 @@ public class TextLexer implements Closeable, Mutable {
     private boolean useLineRollBuf = false;
     private boolean rollBufferUnusable = false;
     private byte columnDelimiter;
+    private long columnDelimiterMask;
     private boolean inQuote;
     private boolean delayedOutQuote;
     private long fieldLo;
@@ -108,6 +112,10 @@ public class TextLexer implements Closeable, Mutable {
         metadataDetector.close();
     }
 
+    public byte getColumnDelimiter() {
+        return columnDelimiter;
+    }
+
     public long getErrorCount() {
         return errorCount;
     }
@@ -127,6 +135,7 @@ public class TextLexer implements Closeable, Mutable {
     public void of(byte columnDelimiter) {
         clear();
         this.columnDelimiter = columnDelimiter;
+        this.columnDelimiterMask = TextUtil.broadcast(columnDelimiter);
     }
 
     public void parse(long lo, long hi, int lineCountLimit, Listener textLexerListener) {
@@ -157,6 +166,7 @@ public class TextLexer implements Closeable, Mutable {
         this.inQuote = false;
         this.delayedOutQuote = false;
         this.lineCount = 0;
+        this.lastLineStart = 0;
         this.lineRollBufCur = lineRollBufPtr;
         this.useLineRollBuf = false;
         this.rollBufferUnusable = false;
@@ -318,6 +328,20 @@ public class TextLexer implements Closeable, Mutable {
 
         try {
             while (ptr < hi) {
+                // Outside of line roll buffer and with no pending end-of-line or quote
+                // state, ordinary bytes only advance field end. Skip them eight at a time.
+                if (hi - ptr > 7 && !useLineRollBuf && !rollBufferUnusable && !eol && !delayedOutQuote) {
+                    final long mask = structuralMask(Unsafe.getUnsafe().getLong(ptr));
+                    if (mask == 0) {
+                        ptr += 8;
+                        this.fieldHi += 8;
+                        continue;
+                    }
+                    final int n = Long.numberOfTrailingZeros(mask) >>> 3;
+                    ptr += n;
+                    this.fieldHi += n;
+                }
+
                 final byte c = Unsafe.getUnsafe().getByte(ptr++);
 
                 if (rollBufferUnusable) {
@@ -435,6 +459,21 @@ public class TextLexer implements Closeable, Mutable {
         textLexerListener.onFields(lineCount++, fields, fieldMax + 1);
     }
 
+    /**
+     * Finds bytes in little-endian word lexer has to act on: column delimiter, quote
+     * and line ends. Each such byte has its high bit set in returned value, so that
+     * index of the first one is numberOfTrailingZeros(mask) / 8.
+     *
+     * @param word eight bytes of input
+     * @return mask of structural bytes, 0 when there are none
+     */
+    private long structuralMask(long word) {
+        return TextUtil.zeroBytes(word ^ columnDelimiterMask)
+                | TextUtil.zeroBytes(word ^ QUOTE_MASK)
+                | TextUtil.zeroBytes(word ^ LF_MASK)
+                | TextUtil.zeroBytes(word ^ CR_MASK);
+    }
+
     private void uneol(long lo) {
         eol = false;
         this.lastLineStart = this.fieldLo - lo;
@@ -26,9 +26,11 @@ package io.questdb.cutlass.text;
 
 import io.questdb.cairo.CairoEngine;
 import io.questdb.cairo.CairoSecurityContext;
+import io.questdb.cairo.TableWriter;
 import io.questdb.cairo.sql.RecordMetadata;
 import io.questdb.cutlass.json.JsonException;
 import io.questdb.cutlass.json.JsonLexer;
+import io.questdb.cutlass.text.types.TypeAdapter;
 import io.questdb.cutlass.text.types.TypeManager;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
@@ -124,6 +126,21 @@ public class TextLoader implements Closeable, Mutable {
         return columnDelimiter;
     }
 
+    public ObjList<CharSequence> getColumnNames() {
+        return textLexer.getColumnNames();
+    }
+
+    public ObjList<TypeAdapter> getColumnTypes() {
+        return textLexer.getColumnTypes();
+    }
+
+    /**
+     * @return delimiter lexer is using, either configured or detected from data
+     */
+    public byte getDetectedColumnDelimiter() {
+        return textLexer.getColumnDelimiter();
+    }
+
     public LongList getColumnErrorCounts() {
         return textWriter.getColumnErrorCounts();
     }
@@ -152,6 +169,14 @@ public class TextLoader implements Closeable, Mutable {
         return textWriter.getWrittenLineCount();
     }
 
+    /**
+     * @return writer of target table once text structure has been analyzed, rows it has been
+     * given are committed by {@link #wrapUp()}
+     */
+    public TableWriter getWriter() {
+        return textWriter.getWriter();
+    }
+
     public boolean hasHeader() {
         return textLexer.isHeaderDetected();
     }
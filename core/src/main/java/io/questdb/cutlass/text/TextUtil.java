@@ -29,6 +29,7 @@ import io.questdb.std.Unsafe;
 import io.questdb.std.str.CharSink;
 
 public class TextUtil {
+
     public static void utf8Decode(long lo, long hi, CharSink sink) throws Utf8Exception {
         long p = lo;
         int quoteCount = 0;
@@ -54,4 +55,13 @@ public class TextUtil {
             }
         }
     }
+
+    static long broadcast(byte b) {
+        return (b & 0xffL) * 0x0101010101010101L;
+    }
+
+    // sets high bit of every byte that is zero, without false positives
+    static long zeroBytes(long word) {
+        return ~(((word & 0x7f7f7f7f7f7f7f7fL) + 0x7f7f7f7f7f7f7f7fL) | word | 0x7f7f7f7f7f7f7f7fL);
+    }
 }
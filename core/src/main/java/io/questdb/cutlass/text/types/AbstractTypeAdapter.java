@@ -25,8 +25,14 @@
 package io.questdb.cutlass.text.types;
 
 import io.questdb.cairo.ColumnType;
+import io.questdb.std.str.DirectByteCharSequence;
 
 abstract class AbstractTypeAdapter implements TypeAdapter {
+    @Override
+    public long parseLong(DirectByteCharSequence value) throws Exception {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public String toString() {
         return ColumnType.nameOf(getType());
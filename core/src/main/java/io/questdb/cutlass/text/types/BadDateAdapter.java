@@ -41,6 +41,11 @@ public final class BadDateAdapter extends AbstractTypeAdapter {
         return ColumnType.DATE;
     }
 
+    @Override
+    public long parseLong(DirectByteCharSequence value) {
+        return Numbers.LONG_NaN;
+    }
+
     @Override
     public boolean probe(CharSequence text) {
         throw new UnsupportedOperationException();
@@ -41,6 +41,11 @@ public final class BadTimestampAdapter extends AbstractTypeAdapter {
         return ColumnType.TIMESTAMP;
     }
 
+    @Override
+    public long parseLong(DirectByteCharSequence value) {
+        return Numbers.LONG_NaN;
+    }
+
     @Override
     public boolean probe(CharSequence text) {
         throw new UnsupportedOperationException();
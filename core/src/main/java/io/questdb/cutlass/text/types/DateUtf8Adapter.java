@@ -49,11 +49,26 @@ public class DateUtf8Adapter extends AbstractTypeAdapter implements Mutable {
         this.locale = null;
     }
 
+    public DateFormat getFormat() {
+        return format;
+    }
+
+    public DateLocale getLocale() {
+        return locale;
+    }
+
     @Override
     public int getType() {
         return ColumnType.DATE;
     }
 
+    @Override
+    public long parseLong(DirectByteCharSequence value) throws Exception {
+        utf8Sink.clear();
+        TextUtil.utf8Decode(value.getLo(), value.getHi(), utf8Sink);
+        return format.parse(utf8Sink, locale);
+    }
+
     @Override
     public boolean probe(CharSequence text) {
         try {
@@ -66,9 +81,7 @@ public class DateUtf8Adapter extends AbstractTypeAdapter implements Mutable {
 
     @Override
     public void write(TableWriter.Row row, int column, DirectByteCharSequence value) throws Exception {
-        utf8Sink.clear();
-        TextUtil.utf8Decode(value.getLo(), value.getHi(), utf8Sink);
-        row.putDate(column, format.parse(utf8Sink, locale));
+        row.putDate(column, parseLong(value));
     }
 
     public DateUtf8Adapter of(DateFormat format, DateLocale locale) {
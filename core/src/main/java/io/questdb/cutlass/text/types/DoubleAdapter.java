@@ -57,6 +57,6 @@ public final class DoubleAdapter extends AbstractTypeAdapter {
 
     @Override
     public void write(TableWriter.Row row, int column, DirectByteCharSequence value) throws Exception {
-        row.putDouble(column, Numbers.parseDouble(value));
+        row.putDouble(column, Numbers.parseDouble(value.getLo(), value.getHi()));
     }
 }
@@ -48,6 +48,6 @@ public final class FloatAdapter extends AbstractTypeAdapter {
 
     @Override
     public void write(TableWriter.Row row, int column, DirectByteCharSequence value) throws Exception {
-        row.putFloat(column, Numbers.parseFloat(value));
+        row.putFloat(column, Numbers.parseFloat(value.getLo(), value.getHi()));
     }
 }
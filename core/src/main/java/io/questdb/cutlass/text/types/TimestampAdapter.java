@@ -47,6 +47,11 @@ public class TimestampAdapter extends AbstractTypeAdapter implements Mutable {
         return ColumnType.TIMESTAMP;
     }
 
+    @Override
+    public long parseLong(DirectByteCharSequence value) throws NumericException {
+        return format.parse(value, locale);
+    }
+
     @Override
     public boolean probe(CharSequence text) {
         try {
@@ -59,7 +64,7 @@ public class TimestampAdapter extends AbstractTypeAdapter implements Mutable {
 
     @Override
     public void write(TableWriter.Row row, int column, DirectByteCharSequence value) throws Exception {
-        row.putDate(column, format.parse(value, locale));
+        row.putDate(column, parseLong(value));
     }
 
     public long getTimestamp(DirectByteCharSequence value) throws NumericException {
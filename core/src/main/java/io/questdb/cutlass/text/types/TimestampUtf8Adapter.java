@@ -49,11 +49,26 @@ public class TimestampUtf8Adapter extends AbstractTypeAdapter implements Mutable
         this.locale = null;
     }
 
+    public TimestampFormat getFormat() {
+        return format;
+    }
+
+    public TimestampLocale getLocale() {
+        return locale;
+    }
+
     @Override
     public int getType() {
         return ColumnType.TIMESTAMP;
     }
 
+    @Override
+    public long parseLong(DirectByteCharSequence value) throws Exception {
+        utf8Sink.clear();
+        TextUtil.utf8Decode(value.getLo(), value.getHi(), utf8Sink);
+        return format.parse(utf8Sink, locale);
+    }
+
     @Override
     public boolean probe(CharSequence text) {
         try {
@@ -66,9 +81,7 @@ public class TimestampUtf8Adapter extends AbstractTypeAdapter implements Mutable
 
     @Override
     public void write(TableWriter.Row row, int column, DirectByteCharSequence value) throws Exception {
-        utf8Sink.clear();
-        TextUtil.utf8Decode(value.getLo(), value.getHi(), utf8Sink);
-        row.putDate(column, format.parse(utf8Sink, locale));
+        row.putDate(column, parseLong(value));
     }
 
     public TimestampUtf8Adapter of(TimestampFormat format, TimestampLocale locale) {
@@ -30,6 +30,15 @@ import io.questdb.std.str.DirectByteCharSequence;
 public interface TypeAdapter {
     int getType();
 
+    /**
+     * Parses DATE and TIMESTAMP text into value that is stored in column file.
+     *
+     * @param value text to parse
+     * @return milliseconds for DATE and microseconds for TIMESTAMP adapters
+     * @throws Exception when value cannot be parsed or adapter is not date or timestamp one
+     */
+    long parseLong(DirectByteCharSequence value) throws Exception;
+
     boolean probe(CharSequence text);
 
     void write(TableWriter.Row row, int column, DirectByteCharSequence value) throws Exception;
@@ -89,6 +89,36 @@ public class TypeManager implements Mutable {
         timestampAdapterPool.clear();
     }
 
+    /**
+     * Re-targets adapter, produced by another type manager, at this type manager. Adapters
+     * that decode UTF8 share the sink of their owner and cannot be used by concurrent
+     * parsers. These are re-created from this type manager's pools. Stateless adapters are
+     * returned as is.
+     *
+     * @param adapter adapter to copy
+     * @return adapter safe to use alongside this type manager's utf8 sink
+     */
+    public TypeAdapter copyOf(TypeAdapter adapter) {
+        if (adapter instanceof DateUtf8Adapter) {
+            final DateUtf8Adapter that = (DateUtf8Adapter) adapter;
+            return nextDateAdapter().of(that.getFormat(), that.getLocale());
+        }
+
+        if (adapter instanceof TimestampUtf8Adapter) {
+            final TimestampUtf8Adapter that = (TimestampUtf8Adapter) adapter;
+            return nextTimestampAdapter(true, that.getFormat(), that.getLocale());
+        }
+
+        switch (adapter.getType()) {
+            case ColumnType.STRING:
+                return stringAdapter;
+            case ColumnType.SYMBOL:
+                return symbolAdapter;
+            default:
+                return adapter;
+        }
+    }
+
     public InputFormatConfiguration getInputFormatConfiguration() {
         return inputFormatConfiguration;
     }
@@ -42,6 +42,7 @@ public interface CompiledQuery {
     int COPY_REMOTE = 10;
     int RENAME_TABLE = 11;
     int BACKUP_TABLE = 12;
+    int SNAPSHOT_TABLE = 13;
 
     RecordCursorFactory getRecordCursorFactory();
 
@@ -121,4 +121,9 @@ public class CompiledQueryImpl implements CompiledQuery {
         this.type = BACKUP_TABLE;
         return this;
     }
+
+    CompiledQuery ofSnapshotTable() {
+        this.type = SNAPSHOT_TABLE;
+        return this;
+    }
 }
@@ -25,6 +25,7 @@
 package io.questdb.griffin;
 
 import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.GroupCommitQueue;
 import io.questdb.cairo.TableWriter;
 import io.questdb.cairo.sql.*;
 import io.questdb.std.Misc;
@@ -38,6 +39,7 @@ public class InsertStatementImpl implements InsertStatement {
     private final long structureVersion;
     private final String tableName;
     private final InsertMethodImpl insertMethod = new InsertMethodImpl();
+    private final InsertTask insertTask = new InsertTask();
     private final CairoEngine engine;
     private SqlExecutionContext lastUsedContext;
 
@@ -86,6 +88,12 @@ public class InsertStatementImpl implements InsertStatement {
         return insertMethod;
     }
 
+    @Override
+    public void insert(SqlExecutionContext executionContext) {
+        initContext(executionContext);
+        engine.appendAndCommit(executionContext.getCairoSecurityContext(), tableName, insertTask);
+    }
+
     private TableWriter.Row getRowWithTimestamp(TableWriter tableWriter) {
         return tableWriter.newRow(timestampFunction.getTimestamp(null));
     }
@@ -110,6 +118,18 @@ public class InsertStatementImpl implements InsertStatement {
         TableWriter.Row getRow(TableWriter tableWriter);
     }
 
+    private class InsertTask extends GroupCommitQueue.Task {
+        @Override
+        protected void append(TableWriter writer) {
+            if (writer.getStructureVersion() != getStructureVersion()) {
+                throw WriterOutOfDateException.INSTANCE;
+            }
+            final TableWriter.Row row = rowFactory.getRow(writer);
+            copier.copy(virtualRecord, row);
+            row.append();
+        }
+    }
+
     private class InsertMethodImpl implements InsertMethod {
         private TableWriter writer = null;
 
@@ -1899,6 +1899,11 @@ public class SqlCodeGenerator implements Mutable {
                         }
                     }
                 }
+
+                if (intrinsicModel.filter != null) {
+                    // filter stays in place, bloom filters only help to skip partitions
+                    dfcFactory = bloomFilterDataFrameCursorFactory(dfcFactory, intrinsicModel.filter, (BaseRecordMetadata) readerMeta);
+                }
                 return new DataFrameRecordCursorFactory(metadata, dfcFactory, new DataFrameRowCursorFactory(), false, null);
             }
 
@@ -1960,6 +1965,14 @@ public class SqlCodeGenerator implements Mutable {
                 true
         );
 
+        // sink writes symbols as strings, map key types have to agree
+        final RecordMetadata masterMetadata = masterFactory.getMetadata();
+        keyTypes.reset();
+        for (int i = 0, n = masterMetadata.getColumnCount(); i < n; i++) {
+            final int columnType = masterMetadata.getColumnType(i);
+            keyTypes.add(columnType == ColumnType.SYMBOL ? ColumnType.STRING : columnType);
+        }
+
         valueTypes.reset();
 
         RecordCursorFactory unionFactory = new UnionRecordCursorFactory(
@@ -1967,6 +1980,7 @@ public class SqlCodeGenerator implements Mutable {
                 masterFactory,
                 slaveFactory,
                 recordSink,
+                keyTypes,
                 valueTypes
         );
 
@@ -2001,6 +2015,66 @@ public class SqlCodeGenerator implements Mutable {
         return metadata.getTimestampIndex();
     }
 
+    private DataFrameCursorFactory bloomFilterDataFrameCursorFactory(
+            DataFrameCursorFactory dfcFactory,
+            ExpressionNode node,
+            BaseRecordMetadata metadata
+    ) {
+        if (node.type == ExpressionNode.OPERATION) {
+            if (SqlKeywords.isAndKeyword(node.token)) {
+                final DataFrameCursorFactory factory = bloomFilterDataFrameCursorFactory(dfcFactory, node.lhs, metadata);
+                return factory != dfcFactory ? factory : bloomFilterDataFrameCursorFactory(dfcFactory, node.rhs, metadata);
+            }
+
+            if (Chars.equals(node.token, '=')) {
+                if (node.lhs.type == LITERAL && node.rhs.type == ExpressionNode.CONSTANT) {
+                    return bloomFilterDataFrameCursorFactory(dfcFactory, node.lhs, node.rhs, metadata);
+                }
+
+                if (node.rhs.type == LITERAL && node.lhs.type == ExpressionNode.CONSTANT) {
+                    return bloomFilterDataFrameCursorFactory(dfcFactory, node.rhs, node.lhs, metadata);
+                }
+            }
+        }
+        return dfcFactory;
+    }
+
+    private DataFrameCursorFactory bloomFilterDataFrameCursorFactory(
+            DataFrameCursorFactory dfcFactory,
+            ExpressionNode column,
+            ExpressionNode constant,
+            BaseRecordMetadata metadata
+    ) {
+        final int columnIndex = metadata.getColumnIndexQuiet(column.token);
+        if (columnIndex == -1 || !metadata.isColumnBloomFiltered(columnIndex)) {
+            return dfcFactory;
+        }
+
+        final CharSequence value = constant.token;
+        switch (metadata.getColumnType(columnIndex)) {
+            case ColumnType.LONG:
+                try {
+                    final long v = Numbers.parseLong(value);
+                    if (v != Numbers.LONG_NaN) {
+                        return new BloomFilterDataFrameCursorFactory(dfcFactory, columnIndex, BloomFilterUtils.hash(v));
+                    }
+                } catch (NumericException ignore) {
+                    // null or not a long literal
+                }
+                break;
+            case ColumnType.STRING:
+                // escaped quotes would make value hash differ from what was stored, skip those
+                final int len = value.length();
+                if (len > 1 && Chars.isQuoted(value) && Chars.indexOf(value, 1, value.charAt(0)) == len - 1) {
+                    return new BloomFilterDataFrameCursorFactory(dfcFactory, columnIndex, BloomFilterUtils.hash(value, 1, len - 1));
+                }
+                break;
+            default:
+                break;
+        }
+        return dfcFactory;
+    }
+
     private boolean isFocused(LongList intervals, Timestamps.TimestampFloorMethod floorMethod) {
         long floor = floorMethod.floor(intervals.getQuick(0));
         for (int i = 1, n = intervals.size(); i < n; i++) {
@@ -29,14 +29,20 @@ import io.questdb.cairo.*;
 import io.questdb.cairo.sql.*;
 import io.questdb.cutlass.text.Atomicity;
 import io.questdb.cutlass.text.TextException;
+import io.questdb.cutlass.text.TextImportChunk;
 import io.questdb.cutlass.text.TextLoader;
+import io.questdb.cutlass.text.types.TypeAdapter;
 import io.questdb.griffin.model.*;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
+import io.questdb.mp.RingQueue;
+import io.questdb.mp.SOUnboundedCountDownLatch;
+import io.questdb.mp.Sequence;
 import io.questdb.std.*;
 import io.questdb.std.microtime.TimestampFormat;
 import io.questdb.std.str.NativeLPSZ;
 import io.questdb.std.str.Path;
+import io.questdb.tasks.TextImportTask;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -76,10 +82,17 @@ public class SqlCompiler implements Closeable {
     private final ExecutableMethod insertAsSelectMethod = this::insertAsSelect;
     private final ExecutableMethod createTableMethod = this::createTable;
     private final TextLoader textLoader;
+    private final ObjList<TextImportChunk> textImportChunks = new ObjList<>();
+    private final ColumnBatch columnBatch = new ColumnBatch();
+    private final LongList textImportBoundaries = new LongList();
+    private final SOUnboundedCountDownLatch textImportDoneLatch = new SOUnboundedCountDownLatch();
+    // every chunk configuration gets new sequence, queue items of earlier ones cannot run the chunk
+    private int textImportSequence;
     private final FilesFacade ff;
     private final ObjHashSet<CharSequence> tableNames = new ObjHashSet<>();
     private final NativeLPSZ nativeLPSZ = new NativeLPSZ();
     private final CharSequenceObjHashMap<RecordToRowCopier> tableBackupRowCopieCache = new CharSequenceObjHashMap<>();
+    private final TableFileBackup tableFileBackup;
     private transient SqlExecutionContext currentExecutionContext;
     private transient String cachedTmpBackupRoot;
     private final FindVisitor sqlDatabaseBackupOnFind = (file, type) -> {
@@ -101,6 +114,7 @@ public class SqlCompiler implements Closeable {
         this.engine = engine;
         this.configuration = engine.getConfiguration();
         this.ff = configuration.getFilesFacade();
+        this.tableFileBackup = new TableFileBackup(configuration);
         this.messageBus = messageBus;
         this.sqlNodePool = new ObjectPool<>(ExpressionNode.FACTORY, configuration.getSqlExpressionPoolCapacity());
         this.queryColumnPool = new ObjectPool<>(QueryColumn.FACTORY, configuration.getSqlColumnPoolCapacity());
@@ -128,6 +142,8 @@ public class SqlCompiler implements Closeable {
         keywordBasedExecutors.put("DROP", this::dropTable);
         keywordBasedExecutors.put("backup", this::sqlBackup);
         keywordBasedExecutors.put("BACKUP", this::sqlBackup);
+        keywordBasedExecutors.put("snapshot", this::snapshotTable);
+        keywordBasedExecutors.put("SNAPSHOT", this::snapshotTable);
 
         configureLexer(lexer);
 
@@ -188,7 +204,9 @@ public class SqlCompiler implements Closeable {
         assert tableNames.isEmpty();
         Misc.free(path);
         Misc.free(renamePath);
+        Misc.free(tableFileBackup);
         Misc.free(textLoader);
+        Misc.freeObjList(textImportChunks);
     }
 
     @NotNull
@@ -678,7 +696,7 @@ public class SqlCompiler implements Closeable {
         CharSequence tableName = GenericLexer.immutableOf(tok);
         try (TableWriter writer = engine.getWriter(executionContext.getCairoSecurityContext(), tableName)) {
 
-            tok = expectToken(lexer, "'add', 'alter' or 'drop'");
+            tok = expectToken(lexer, "'add', 'alter', 'drop', 'move' or 'set'");
 
             if (Chars.equalsLowerCaseAscii("add", tok)) {
                 alterTableAddColumn(tableNamePosition, writer);
@@ -693,6 +711,12 @@ public class SqlCompiler implements Closeable {
                 }
             } else if (Chars.equalsLowerCaseAscii("alter", tok)) {
                 alterTableColumnAddIndex(executionContext, tableNamePosition, tableName);
+            } else if (Chars.equalsLowerCaseAscii("move", tok)) {
+                expectKeyword(lexer, "partition");
+                alterTableMovePartition(writer);
+            } else if (Chars.equalsLowerCaseAscii("set", tok)) {
+                expectKeyword(lexer, "ttl");
+                alterTableSetTtl(writer);
             } else {
                 throw SqlException.$(lexer.lastTokenPosition(), "'add' or 'drop' expected");
             }
@@ -830,7 +854,16 @@ public class SqlCompiler implements Closeable {
         final CharSequence columnName = GenericLexer.immutableOf(expectToken(lexer, "column name"));
         final int columnNamePosition = lexer.lastTokenPosition();
         expectKeyword(lexer, "add");
-        expectKeyword(lexer, "index");
+        final CharSequence tok = expectToken(lexer, "'index' or 'bloom'");
+        final boolean bloomFilter;
+        if (Chars.equalsLowerCaseAscii(tok, "index")) {
+            bloomFilter = false;
+        } else if (Chars.equalsLowerCaseAscii(tok, "bloom")) {
+            expectKeyword(lexer, "filter");
+            bloomFilter = true;
+        } else {
+            throw SqlException.$(lexer.lastTokenPosition(), "'index' or 'bloom' expected");
+        }
 
         try {
             try (TableWriter w = engine.getWriter(executionContext.getCairoSecurityContext(), tableName)) {
@@ -838,7 +871,11 @@ public class SqlCompiler implements Closeable {
                 if (w.getMetadata().getColumnIndexQuiet(columnName) == -1) {
                     throw SqlException.invalidColumn(columnNamePosition, columnName);
                 }
-                w.addIndex(columnName, configuration.getIndexValueBlockSize());
+                if (bloomFilter) {
+                    w.addBloomFilter(columnName);
+                } else {
+                    w.addIndex(columnName, configuration.getIndexValueBlockSize());
+                }
             }
         } catch (CairoException e) {
             throw SqlException.position(tableNamePosition).put(e.getFlyweightMessage());
@@ -905,6 +942,79 @@ public class SqlCompiler implements Closeable {
         } while (true);
     }
 
+    private void alterTableMovePartition(TableWriter writer) throws SqlException {
+        if (configuration.getColdRoot() == null) {
+            throw SqlException.$(lexer.lastTokenPosition(), "cold storage is disabled, no cold root directory is configured ['cairo.cold.root' property]");
+        }
+
+        do {
+            CharSequence tok = expectToken(lexer, "partition name");
+            if (Chars.equals(tok, ',')) {
+                throw SqlException.$(lexer.lastTokenPosition(), "partition name missing");
+            }
+            final CharSequence unquoted = GenericLexer.unquote(tok);
+
+            final long timestamp;
+            try {
+                timestamp = writer.partitionNameToTimestamp(unquoted);
+            } catch (CairoException e) {
+                throw SqlException.$(lexer.lastTokenPosition(), e.getFlyweightMessage());
+            }
+
+            if (!writer.movePartition(timestamp)) {
+                throw SqlException.$(lexer.lastTokenPosition(), "could not move partition '").put(unquoted).put('\'');
+            }
+
+            tok = SqlUtil.fetchNext(lexer);
+
+            if (tok == null) {
+                break;
+            }
+
+            if (!Chars.equals(tok, ',')) {
+                throw SqlException.$(lexer.lastTokenPosition(), "',' expected");
+            }
+        } while (true);
+    }
+
+    private void alterTableSetTtl(TableWriter writer) throws SqlException {
+        CharSequence tok = expectToken(lexer, "TTL value");
+        final int valuePosition = lexer.lastTokenPosition();
+        final long value;
+        try {
+            value = Numbers.parseInt(tok);
+        } catch (NumericException e) {
+            throw SqlException.$(valuePosition, "TTL value expected");
+        }
+
+        // positive TTL is in hours, negative in months
+        final long ttl;
+        tok = expectToken(lexer, "'hours', 'days', 'weeks', 'months' or 'years'");
+        if (Chars.equalsLowerCaseAscii(tok, "hour") || Chars.equalsLowerCaseAscii(tok, "hours")) {
+            ttl = value;
+        } else if (Chars.equalsLowerCaseAscii(tok, "day") || Chars.equalsLowerCaseAscii(tok, "days")) {
+            ttl = value * 24;
+        } else if (Chars.equalsLowerCaseAscii(tok, "week") || Chars.equalsLowerCaseAscii(tok, "weeks")) {
+            ttl = value * 24 * 7;
+        } else if (Chars.equalsLowerCaseAscii(tok, "month") || Chars.equalsLowerCaseAscii(tok, "months")) {
+            ttl = -value;
+        } else if (Chars.equalsLowerCaseAscii(tok, "year") || Chars.equalsLowerCaseAscii(tok, "years")) {
+            ttl = -value * 12;
+        } else {
+            throw SqlException.$(lexer.lastTokenPosition(), "'hours', 'days', 'weeks', 'months' or 'years' expected");
+        }
+
+        if (ttl > Integer.MAX_VALUE || ttl < -Integer.MAX_VALUE) {
+            throw SqlException.$(valuePosition, "TTL value is too large");
+        }
+
+        if (ttl != 0 && writer.getPartitionBy() == PartitionBy.NONE) {
+            throw SqlException.$(valuePosition, "TTL requires partitioned table");
+        }
+
+        writer.setTtl((int) ttl);
+    }
+
     private void backupTable(@NotNull CharSequence tableName, @NotNull SqlExecutionContext executionContext) {
         LOG.info().$("Starting backup of ").$(tableName).$();
         if (null == cachedTmpBackupRoot) {
@@ -919,21 +1029,25 @@ public class SqlCompiler implements Closeable {
         try {
             CairoSecurityContext securityContext = executionContext.getCairoSecurityContext();
             try (TableReader reader = engine.getReader(securityContext, tableName)) {
-                cloneMetaData(tableName, cachedTmpBackupRoot, configuration.getBackupMkDirMode(), reader);
-
-                try (TableWriter backupWriter = engine.getBackupWriter(securityContext, tableName, cachedTmpBackupRoot)) {
-                    RecordMetadata writerMetadata = backupWriter.getMetadata();
-                    path.of(tableName).put(Files.SEPARATOR).put(reader.getVersion()).$();
-                    RecordToRowCopier recordToRowCopier = tableBackupRowCopieCache.get(path);
-                    if (null == recordToRowCopier) {
-                        entityColumnFilter.of(writerMetadata.getColumnCount());
-                        recordToRowCopier = assembleRecordToRowCopier(asm, reader.getMetadata(), writerMetadata, entityColumnFilter);
-                        tableBackupRowCopieCache.put(path.toString(), recordToRowCopier);
-                    }
+                if (configuration.isBackupFileLevelEnabled()) {
+                    tableFileBackup.backup(reader, cachedTmpBackupRoot, tableName, configuration.getBackupMkDirMode(), configuration.getBackupRoot());
+                } else {
+                    cloneMetaData(tableName, cachedTmpBackupRoot, configuration.getBackupMkDirMode(), reader);
+
+                    try (TableWriter backupWriter = engine.getBackupWriter(securityContext, tableName, cachedTmpBackupRoot)) {
+                        RecordMetadata writerMetadata = backupWriter.getMetadata();
+                        path.of(tableName).put(Files.SEPARATOR).put(reader.getVersion()).$();
+                        RecordToRowCopier recordToRowCopier = tableBackupRowCopieCache.get(path);
+                        if (null == recordToRowCopier) {
+                            entityColumnFilter.of(writerMetadata.getColumnCount());
+                            recordToRowCopier = assembleRecordToRowCopier(asm, reader.getMetadata(), writerMetadata, entityColumnFilter);
+                            tableBackupRowCopieCache.put(path.toString(), recordToRowCopier);
+                        }
 
-                    RecordCursor cursor = reader.getCursor();
-                    copyTableData(cursor, backupWriter, writerMetadata, recordToRowCopier);
-                    backupWriter.commit();
+                        RecordCursor cursor = reader.getCursor();
+                        copyTableData(cursor, backupWriter, writerMetadata, recordToRowCopier);
+                        backupWriter.commit();
+                    }
                 }
             }
 
@@ -1083,6 +1197,11 @@ public class SqlCompiler implements Closeable {
                 }
                 try {
                     long fileLen = ff.length(fd);
+                    final long chunkSize = configuration.getSqlCopyParallelChunkSize();
+                    if (chunkSize > 0 && fileLen > 2 * chunkSize) {
+                        copyTableParallel(executionContext, model, fd, fileLen, chunkSize);
+                        return;
+                    }
                     long n = ff.read(fd, buf, len, 0);
                     if (n > 0) {
                         textLoader.setForceHeaders(model.isHeader());
@@ -1114,6 +1233,114 @@ public class SqlCompiler implements Closeable {
         }
     }
 
+    private void copyTableParallel(
+            SqlExecutionContext executionContext,
+            CopyModel model,
+            long fd,
+            long fileLen,
+            long chunkSize
+    ) throws SqlException, TextException {
+        final long lo = ff.mmap(fd, fileLen, 0, Files.MAP_RO);
+        if (lo == -1) {
+            throw SqlException.$(model.getFileName().position, "could not mmap file [errno=").put(ff.errno()).put(']');
+        }
+
+        final CairoSecurityContext cairoSecurityContext = executionContext.getCairoSecurityContext();
+        final long hi = lo + fileLen;
+        int chunkCount = 0;
+        try {
+            // slices start at approximate offsets, first one is large enough for structure analysis;
+            // workers scan them for quotes and line ends, here scan results are turned into boundaries
+            long sliceLo = lo;
+            long sliceHi = lo + configuration.getSqlCopyBufferSize();
+            while (sliceLo < hi) {
+                sliceHi = Math.min(sliceHi, hi);
+                getTextImportChunk(chunkCount).ofScan(textImportSequence++, sliceLo, sliceHi, textImportDoneLatch);
+                chunkCount++;
+                sliceLo = sliceHi;
+                sliceHi += chunkSize;
+            }
+            importChunks(0, chunkCount);
+
+            textImportBoundaries.clear();
+            long quoteCount = textImportChunks.getQuick(0).getQuoteCount();
+            for (int i = 1; i < chunkCount; i++) {
+                final TextImportChunk chunk = textImportChunks.getQuick(i);
+                // slice without line end outside quotes joins previous chunk
+                final long lineEnd = chunk.getLineEnd(quoteCount);
+                if (lineEnd > -1 && lineEnd < hi) {
+                    textImportBoundaries.add(lineEnd);
+                }
+                quoteCount += chunk.getQuoteCount();
+            }
+            textImportBoundaries.add(hi);
+
+            // first chunk goes through the loader, which detects text structure
+            // and creates target table
+            textLoader.setForceHeaders(model.isHeader());
+            textLoader.setSkipRowsWithExtraValues(false);
+            textLoader.parse(lo, textImportBoundaries.getQuick(0), cairoSecurityContext);
+            textLoader.setState(TextLoader.LOAD_DATA);
+
+            final ObjList<TypeAdapter> types = textLoader.getColumnTypes();
+            for (int i = 0, n = types.size(); i < n; i++) {
+                if (!TextImportChunk.isSupported(types.getQuick(i).getType())) {
+                    LOG.info().$("serial copy [column=").$(textLoader.getColumnNames().getQuick(i)).$(", type=").$(ColumnType.nameOf(types.getQuick(i).getType())).$(']').$();
+                    textLoader.parse(textImportBoundaries.getQuick(0), hi, cairoSecurityContext);
+                    textLoader.wrapUp();
+                    return;
+                }
+            }
+
+            final int timestampIndex = textLoader.getMetadata().getTimestampIndex();
+            final byte columnDelimiter = textLoader.getDetectedColumnDelimiter();
+            final int parseCount = textImportBoundaries.size() - 1;
+            for (int i = 0; i < parseCount; i++) {
+                getTextImportChunk(i).of(
+                        textImportSequence++,
+                        columnDelimiter,
+                        false,
+                        types,
+                        timestampIndex,
+                        textImportBoundaries.getQuick(i),
+                        textImportBoundaries.getQuick(i + 1),
+                        textImportDoneLatch
+                );
+            }
+
+            // rows of all chunks go to the writer loader holds rows of the first chunk in,
+            // there is single commit at the end and failed import leaves table as it was
+            final TableWriter writer = textLoader.getWriter();
+            try {
+                // chunk buffers hold parsed text in memory, parse as many chunks at a time
+                // as there are threads to parse them and append these in file order, which
+                // keeps timestamp order of the text intact
+                final int batchSize = executionContext.getWorkerCount() + 1;
+                for (int i = 0; i < parseCount; i += batchSize) {
+                    final int batchHi = Math.min(i + batchSize, parseCount);
+                    importChunks(i, batchHi);
+                    for (int k = i; k < batchHi; k++) {
+                        final TextImportChunk chunk = textImportChunks.getQuick(k);
+                        if (chunk.isFailed()) {
+                            throw SqlException.$(model.getFileName().position, "import failed [chunk=").put(k).put(", error=").put(chunk.getError()).put(']');
+                        }
+                        chunk.appendTo(writer, columnBatch);
+                        chunk.clear();
+                    }
+                }
+                textLoader.wrapUp();
+            } catch (Throwable e) {
+                writer.rollback();
+                throw e;
+            }
+        } finally {
+            for (int i = 0; i < chunkCount; i++) {
+                textImportChunks.getQuick(i).clear();
+            }
+            ff.munmap(lo, fileLen);
+        }
+    }
+
     private TableWriter copyTableData(CharSequence tableName, RecordCursor cursor, RecordMetadata cursorMetadata) {
         TableWriter writer = new TableWriter(configuration, tableName, messageBus, false, DefaultLifecycleManager.INSTANCE);
         try {
@@ -1380,6 +1607,48 @@ public class SqlCompiler implements Closeable {
         }
     }
 
+    private TextImportChunk getTextImportChunk(int index) {
+        if (textImportChunks.size() == index) {
+            textImportChunks.add(new TextImportChunk(engine));
+        }
+        return textImportChunks.getQuick(index);
+    }
+
+    private void importChunks(int lo, int hi) {
+        final Sequence pubSeq = messageBus == null ? null : messageBus.getTextImportPubSequence();
+        final RingQueue<TextImportTask> queue = messageBus == null ? null : messageBus.getTextImportQueue();
+        final int chunkCount = hi - lo;
+        int ownCount = 0;
+        int reclaimed = 0;
+
+        textImportDoneLatch.reset();
+        for (int i = lo; i < hi; i++) {
+            final TextImportChunk chunk = textImportChunks.getQuick(i);
+            final long seq = pubSeq == null ? -1 : pubSeq.next();
+            if (seq < 0) {
+                chunk.run(chunk.getSequence());
+                ownCount++;
+            } else {
+                final TextImportTask task = queue.get(seq);
+                task.chunk = chunk;
+                task.sequence = chunk.getSequence();
+                pubSeq.done(seq);
+            }
+        }
+
+        // chunks picked up by workers count down the latch too, reclaim
+        // what workers did not get to starting at the back
+        for (int i = hi - 1; i >= lo && textImportDoneLatch.getCount() > -chunkCount; i--) {
+            final TextImportChunk chunk = textImportChunks.getQuick(i);
+            if (chunk.run(chunk.getSequence())) {
+                reclaimed++;
+            }
+        }
+
+        textImportDoneLatch.await(chunkCount);
+        LOG.info().$("imported chunks [count=").$(chunkCount).$(", ownCount=").$(ownCount).$(", reclaimed=").$(reclaimed).$(']').$();
+    }
+
     private CompiledQuery insertAsSelect(ExecutionModel executionModel, SqlExecutionContext executionContext) throws SqlException {
         final InsertModel model = (InsertModel) executionModel;
         final ExpressionNode name = model.getTableName();
@@ -1570,6 +1839,57 @@ public class SqlCompiler implements Closeable {
         textLoader.configureDestination(model.getTableName().token, false, false, Atomicity.SKIP_ROW, PartitionBy.NONE, null);
     }
 
+    private CompiledQuery snapshotTable(SqlExecutionContext executionContext) throws SqlException {
+        CharSequence tok;
+        expectKeyword(lexer, "table");
+
+        final int tableNamePosition = lexer.getPosition();
+
+        tok = GenericLexer.unquote(expectToken(lexer, "table name"));
+
+        tableExistsOrFail(tableNamePosition, tok, executionContext);
+
+        final CharSequence tableName = GenericLexer.immutableOf(tok);
+
+        expectKeyword(lexer, "to");
+
+        tok = GenericLexer.unquote(expectToken(lexer, "snapshot table name"));
+        final int snapshotNamePosition = lexer.lastTokenPosition();
+        final CharSequence snapshotName = GenericLexer.immutableOf(GenericLexer.assertNoDotsAndSlashes(tok, snapshotNamePosition));
+
+        final CairoSecurityContext securityContext = executionContext.getCairoSecurityContext();
+        if (engine.lock(securityContext, snapshotName)) {
+            try {
+                if (engine.getStatus(securityContext, path, snapshotName) != TableUtils.TABLE_DOES_NOT_EXIST) {
+                    throw SqlException.$(snapshotNamePosition, "table already exists");
+                }
+
+                boolean success = false;
+                try (TableReader reader = engine.getReader(securityContext, tableName)) {
+                    tableFileBackup.backup(reader, configuration.getRoot(), snapshotName, configuration.getMkDirMode(), null);
+                    success = true;
+                } catch (CairoException e) {
+                    LOG.error().$("could not snapshot table [table=").$(tableName).$(", error=").$((Sinkable) e).$(']').$();
+                    throw SqlException.$(snapshotNamePosition, "Could not snapshot table. See log for details.");
+                } finally {
+                    // partial snapshot is removed whatever has failed, errors are re-thrown as they are
+                    if (!success) {
+                        path.of(configuration.getRoot()).concat(snapshotName).$();
+                        if (ff.exists(path) && !ff.rmdir(path)) {
+                            LOG.error().$("could not remove [path=").$(path).$(", errno=").$(ff.errno()).$(']').$();
+                        }
+                    }
+                }
+            } finally {
+                engine.unlock(securityContext, snapshotName, null);
+            }
+        } else {
+            throw SqlException.$(snapshotNamePosition, "cannot acquire table lock");
+        }
+
+        return compiledQuery.ofSnapshotTable();
+    }
+
     private CompiledQuery sqlBackup(SqlExecutionContext executionContext) throws SqlException {
         if (null == configuration.getBackupRoot()) {
             throw CairoException.instance(0).put("Backup is disabled, no backup root directory is configured in the server configuration ['cairo.sql.backup.root' property]");
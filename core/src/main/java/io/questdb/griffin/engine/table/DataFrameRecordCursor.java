@@ -24,8 +24,10 @@
 
 package io.questdb.griffin.engine.table;
 
+import io.questdb.MessageBus;
 import io.questdb.cairo.sql.*;
 import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.std.Files;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.function.BooleanSupplier;
@@ -37,7 +39,15 @@ class DataFrameRecordCursor extends AbstractDataFrameRecordCursor {
     private BooleanSupplier next;
     private final BooleanSupplier nextRow = this::nextRow;
     private final BooleanSupplier nextFrame = this::nextFrame;
+    private final BooleanSupplier nextRowAndPrefetch = this::nextRowAndPrefetch;
     private final Function filter;
+    // frame scans read columns front to back, index driven row cursors jump around
+    private final int access;
+    private int advisedPartitionIndex = -1;
+    private MessageBus messageBus;
+    // frame taken from data frame cursor ahead of time to have its columns read from disk in background
+    private DataFrame pendingFrame;
+    private int partitionIndex;
 
     public DataFrameRecordCursor(
             RowCursorFactory rowCursorFactory,
@@ -48,6 +58,15 @@ class DataFrameRecordCursor extends AbstractDataFrameRecordCursor {
         this.rowCursorFactory = rowCursorFactory;
         this.entityCursor = entityCursor;
         this.filter = filter;
+        this.access = entityCursor ? Files.MADV_SEQUENTIAL : Files.MADV_RANDOM;
+    }
+
+    @Override
+    public void close() {
+        if (dataFrameCursor != null) {
+            releaseAdvisedPartition();
+        }
+        super.close();
     }
 
     @Override
@@ -64,6 +83,7 @@ class DataFrameRecordCursor extends AbstractDataFrameRecordCursor {
         if (filter != null) {
             filter.toTop();
         }
+        pendingFrame = null;
         dataFrameCursor.toTop();
         next = nextFrame;
     }
@@ -76,6 +96,13 @@ class DataFrameRecordCursor extends AbstractDataFrameRecordCursor {
         return nextFrame();
     }
 
+    // columns are opened on first access, by the second row consumer has touched all columns it is going to read
+    private boolean nextRowAndPrefetch() {
+        next = nextRow;
+        prefetchNextFrame();
+        return nextRow();
+    }
+
     @Override
     public void of(DataFrameCursor dataFrameCursor, SqlExecutionContext executionContext) {
         if (this.dataFrameCursor != dataFrameCursor) {
@@ -86,6 +113,11 @@ class DataFrameRecordCursor extends AbstractDataFrameRecordCursor {
         this.recordB.of(dataFrameCursor.getTableReader());
         this.rowCursorFactory.prepareCursor(dataFrameCursor.getTableReader());
         this.next = nextFrame;
+        // reader may have reloaded since last use, partition index is no longer meaningful
+        this.advisedPartitionIndex = -1;
+        // only row cursors of frame scans copy row range of the frame, others may hold on to the frame itself
+        this.messageBus = entityCursor ? executionContext.getMessageBus() : null;
+        this.pendingFrame = null;
     }
 
     @Override
@@ -95,14 +127,59 @@ class DataFrameRecordCursor extends AbstractDataFrameRecordCursor {
 
     private boolean nextFrame() {
         DataFrame dataFrame;
-        while ((dataFrame = dataFrameCursor.next()) != null) {
+        while ((dataFrame = nextDataFrame()) != null) {
+            partitionIndex = dataFrame.getPartitionIndex();
+            advisePartition(partitionIndex);
             rowCursor = rowCursorFactory.getCursor(dataFrame);
             if (rowCursor.hasNext()) {
-                recordA.jumpTo(dataFrame.getPartitionIndex(), rowCursor.next());
-                next = nextRow;
+                recordA.jumpTo(partitionIndex, rowCursor.next());
+                next = messageBus != null ? nextRowAndPrefetch : nextRow;
                 return true;
             }
         }
+        releaseAdvisedPartition();
         return false;
     }
+
+    private DataFrame nextDataFrame() {
+        if (pendingFrame != null) {
+            final DataFrame frame = pendingFrame;
+            pendingFrame = null;
+            return frame;
+        }
+        return dataFrameCursor.next();
+    }
+
+    private void prefetchNextFrame() {
+        pendingFrame = dataFrameCursor.next();
+        if (pendingFrame != null) {
+            dataFrameCursor.getTableReader().prefetch(
+                    messageBus,
+                    partitionIndex,
+                    pendingFrame.getPartitionIndex(),
+                    pendingFrame.getRowLo(),
+                    pendingFrame.getRowHi()
+            );
+        }
+    }
+
+    private void advisePartition(int partitionIndex) {
+        if (partitionIndex != advisedPartitionIndex) {
+            releaseAdvisedPartition();
+            dataFrameCursor.getTableReader().advisePartition(partitionIndex, access);
+            advisedPartitionIndex = partitionIndex;
+        }
+    }
+
+    // once scan is past the partition its pages are unmapped, so that page cache can reclaim them
+    // ahead of pages other queries still have mapped; index driven access gets default read-ahead back
+    private void releaseAdvisedPartition() {
+        if (advisedPartitionIndex != -1) {
+            dataFrameCursor.getTableReader().advisePartition(
+                    advisedPartitionIndex,
+                    access == Files.MADV_SEQUENTIAL ? Files.MADV_DONTNEED : Files.MADV_NORMAL
+            );
+            advisedPartitionIndex = -1;
+        }
+    }
 }
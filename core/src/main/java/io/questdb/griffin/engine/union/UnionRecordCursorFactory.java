@@ -47,12 +47,13 @@ public class UnionRecordCursorFactory implements RecordCursorFactory {
             RecordCursorFactory masterFactory,
             RecordCursorFactory slaveFactory,
             RecordSink recordSink,
+            ColumnTypes keyTypes,
             ColumnTypes valueTypes
     ) {
         this.metadata = masterFactory.getMetadata();
         this.masterFactory = masterFactory;
         this.slaveFactory = slaveFactory;
-        this.map = MapFactory.createMap(configuration, metadata, valueTypes);
+        this.map = MapFactory.createMap(configuration, keyTypes, valueTypes);
         this.cursor = new UnionRecordCursor(map, recordSink);
     }
 
@@ -90,6 +90,10 @@ public abstract class AbstractIODispatcher<C extends IOContext> extends Synchron
         this.sndBufSize = configuration.getSndBufSize();
         this.rcvBufSize = configuration.getRcvBufSize();
 
+        if (configuration.getDispatcherCount() > 1 && nf.setReusePort(this.serverFd) != 0) {
+            throw NetworkError.instance(nf.errno(), "could not set SO_REUSEPORT");
+        }
+
         if (nf.bindTcp(this.serverFd, configuration.getBindIPv4Address(), configuration.getBindPort())) {
             nf.listen(this.serverFd, configuration.getListenBacklog());
         } else {
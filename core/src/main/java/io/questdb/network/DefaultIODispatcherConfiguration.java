@@ -49,6 +49,11 @@ public class DefaultIODispatcherConfiguration implements IODispatcherConfigurati
         return MillisecondClockImpl.INSTANCE;
     }
 
+    @Override
+    public int getDispatcherCount() {
+        return 1;
+    }
+
     @Override
     public int getEventCapacity() {
         return 1024;
@@ -103,4 +108,9 @@ public class DefaultIODispatcherConfiguration implements IODispatcherConfigurati
     public int getRcvBufSize() {
         return -1; // use system default
     }
+
+    @Override
+    public boolean isIOUringEnabled() {
+        return false;
+    }
 }
@@ -38,6 +38,16 @@ public interface IODispatcherConfiguration {
 
     MillisecondClock getClock();
 
+    /**
+     * Number of dispatchers to accept and serve connections. When there is more than one,
+     * each dispatcher listens on its own socket bound to the same port with SO_REUSEPORT
+     * and kernel spreads incoming connections between them. Active connection limit applies
+     * to each dispatcher.
+     *
+     * @return number of dispatchers
+     */
+    int getDispatcherCount();
+
     default String getDispatcherLogName() {
         return "IODispatcher";
     }
@@ -63,4 +73,12 @@ public interface IODispatcherConfiguration {
     SelectFacade getSelectFacade();
 
     int getSndBufSize();
+
+    /**
+     * Dispatcher can poll sockets via io_uring instead of epoll on Linux. When kernel does not support
+     * io_uring dispatcher falls back to epoll.
+     *
+     * @return true to use io_uring
+     */
+    boolean isIOUringEnabled();
 }
@@ -0,0 +1,203 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+package io.questdb.network;
+
+/**
+ * Linux dispatcher, which polls sockets via io_uring rather than epoll. Socket polls of loop
+ * iteration, initial as well as re-armed ones, are submitted to kernel by single system call,
+ * instead of epoll_ctl() call per socket. Iteration that has nothing to submit makes no system
+ * calls, completed polls are read from memory shared with kernel.
+ */
+public class IODispatcherLinuxIOUring<C extends IOContext> extends AbstractIODispatcher<C> {
+    private static final int M_ID = 2;
+    private final IOUring ring;
+    private long fdid = 1;
+
+    public IODispatcherLinuxIOUring(
+            IODispatcherConfiguration configuration,
+            IOContextFactory<C> ioContextFactory
+    ) {
+        super(configuration, ioContextFactory);
+        // every connection has poll in flight, all of them can complete between iterations
+        this.ring = new IOUring(
+                configuration.getEventCapacity(),
+                Math.max(configuration.getEventCapacity(), configuration.getActiveConnectionLimit()) * 2
+        );
+        armServer();
+        ring.submit();
+        logSuccess(configuration);
+    }
+
+    @Override
+    public void close() {
+        // polls in flight keep sockets open, listening port would stay taken after close
+        ring.disarm(0);
+        for (int i = 0, n = pending.size(); i < n; i++) {
+            ring.disarm(pending.get(i, M_ID));
+        }
+        ring.submit();
+        super.close();
+        this.ring.close();
+        LOG.info().$("closed").$();
+    }
+
+    @Override
+    protected void pendingAdded(int index) {
+        pending.set(index, M_ID, fdid++);
+    }
+
+    private boolean arm(long fd, long id, int operation) {
+        if (ring.arm(fd, id, operation) < 0) {
+            // queue stays full after it has been submitted, connection without poll would hang until idle timeout
+            LOG.error().$("could not queue poll, disconnecting [fd=").$(fd).$(", errno=").$(nf.errno()).$(']').$();
+            return false;
+        }
+        return true;
+    }
+
+    private void armServer() {
+        if (ring.arm(serverFd, 0, IOOperation.READ) < 0) {
+            throw NetworkError.instance(nf.errno(), "could not poll server socket");
+        }
+    }
+
+    private void enqueuePending(int watermark) {
+        for (int i = watermark, sz = pending.size(); i < sz; i++) {
+            if (!arm(
+                    pending.get(i, M_FD),
+                    pending.get(i, M_ID),
+                    initialBias == IODispatcherConfiguration.BIAS_READ ? IOOperation.READ : IOOperation.WRITE
+            )) {
+                doDisconnect(pending.get(i));
+                pending.deleteRow(i--);
+                sz--;
+            }
+        }
+    }
+
+    private void processIdleConnections(long deadline) {
+        int count = 0;
+        for (int i = 0, n = pending.size(); i < n && pending.get(i, M_TIMESTAMP) < deadline; i++, count++) {
+            // poll in flight keeps socket open, it has to go before connection is closed
+            if (ring.disarm(pending.get(i, M_ID)) < 0) {
+                // connections left are disarmed on next iteration, after completions have made room in kernel
+                LOG.error().$("could not queue poll removal [fd=").$(pending.get(i, M_FD)).$(", errno=").$(nf.errno()).$(']').$();
+                break;
+            }
+            doDisconnect(pending.get(i));
+        }
+        pending.zapTop(count);
+    }
+
+    private boolean processRegistrations(long timestamp) {
+        long cursor;
+        boolean useful = false;
+        while ((cursor = interestSubSeq.next()) > -1) {
+            IOEvent<C> evt = interestQueue.get(cursor);
+            C context = evt.context;
+            int operation = evt.operation;
+            interestSubSeq.done(cursor);
+
+            final long fd = context.getFd();
+            final long id = fdid++;
+            LOG.debug().$("registered [fd=").$(fd).$(", op=").$(operation).$(", id=").$(id).$(']').$();
+            useful = true;
+            if (!arm(fd, id, operation)) {
+                doDisconnect(context);
+                continue;
+            }
+
+            int r = pending.addRow();
+            pending.set(r, M_TIMESTAMP, timestamp);
+            pending.set(r, M_FD, fd);
+            pending.set(r, M_ID, id);
+            pending.set(r, context);
+        }
+        return useful;
+    }
+
+    @Override
+    protected boolean runSerially() {
+        boolean useful = false;
+
+        processDisconnects();
+        final long timestamp = clock.getTicks();
+        final int n = ring.poll();
+        int watermark = pending.size();
+        int offset = 0;
+        if (n > 0) {
+            LOG.debug().$("io_uring [n=").$(n).$(']').$();
+            for (int i = 0; i < n; i++) {
+                ring.setOffset(offset);
+                offset += IOUringAccessor.SIZEOF_EVENT;
+                if (ring.isRemoval()) {
+                    continue;
+                }
+
+                final long id = ring.getData();
+                if (id == 0) {
+                    accept(timestamp);
+                    armServer();
+                    continue;
+                }
+
+                int row = pending.binarySearch(id, M_ID);
+                if (row < 0) {
+                    // poll of idle connection, which has been closed while poll completed
+                    continue;
+                }
+
+                // errors are left to connection to discover, as it would with epoll
+                final int result = ring.getResult();
+                publishOperation(
+                        result < 0 || (result & IOUringAccessor.POLLIN) > 0 ? IOOperation.READ : IOOperation.WRITE,
+                        pending.get(row)
+                );
+                pending.deleteRow(row);
+                watermark--;
+            }
+
+            // process rows over watermark
+            if (watermark < pending.size()) {
+                enqueuePending(watermark);
+            }
+            useful = true;
+        }
+
+        // process timed out connections
+        final long deadline = timestamp - idleConnectionTimeout;
+        if (pending.size() > 0 && pending.get(0, M_TIMESTAMP) < deadline) {
+            processIdleConnections(deadline);
+            useful = true;
+        }
+
+        useful = processRegistrations(timestamp) || useful;
+
+        if (ring.submit() < 0) {
+            // queued entries stay in ring and are submitted again by next iteration
+            LOG.error().$("could not submit polls [errno=").$(nf.errno()).$(']').$();
+        }
+        return useful;
+    }
+}
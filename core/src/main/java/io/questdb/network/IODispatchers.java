@@ -24,13 +24,49 @@
 
 package io.questdb.network;
 
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
 import io.questdb.std.Os;
 
 public class IODispatchers {
+    private static final Log LOG = LogFactory.getLog(IODispatchers.class);
 
     private IODispatchers() {
     }
 
+    /**
+     * Creates dispatchers that share listening port. Dispatcher count is capped by number of workers,
+     * as each dispatcher is run by one worker. Platforms other than Linux do not spread connections
+     * between sockets bound to the same port and get single dispatcher.
+     *
+     * @param configuration    dispatcher configuration
+     * @param ioContextFactory connection context factory
+     * @param workerCount      number of workers in pool that runs dispatchers
+     * @param <C>              connection context type
+     * @return list of dispatchers
+     */
+    public static <C extends IOContext> ObjList<IODispatcher<C>> create(
+            IODispatcherConfiguration configuration,
+            IOContextFactory<C> ioContextFactory,
+            int workerCount
+    ) {
+        final int dispatcherCount = Os.type == Os.LINUX_AMD64 || Os.type == Os.LINUX_ARM64
+                ? Math.max(1, Math.min(configuration.getDispatcherCount(), workerCount))
+                : 1;
+        final ObjList<IODispatcher<C>> dispatchers = new ObjList<>(dispatcherCount);
+        try {
+            for (int i = 0; i < dispatcherCount; i++) {
+                dispatchers.add(create(configuration, ioContextFactory));
+            }
+        } catch (Throwable e) {
+            Misc.freeObjList(dispatchers);
+            throw e;
+        }
+        return dispatchers;
+    }
+
     public static <C extends IOContext> IODispatcher<C> create(
             IODispatcherConfiguration configuration,
             IOContextFactory<C> ioContextFactory
@@ -38,6 +74,12 @@ public class IODispatchers {
         switch (Os.type) {
             case Os.LINUX_AMD64:
             case Os.LINUX_ARM64:
+                if (configuration.isIOUringEnabled()) {
+                    if (IOUring.isAvailable()) {
+                        return new IODispatcherLinuxIOUring<>(configuration, ioContextFactory);
+                    }
+                    LOG.info().$("io_uring is not supported, falling back to epoll").$();
+                }
                 return new IODispatcherLinux<>(configuration, ioContextFactory);
             case Os.OSX:
             case Os.FREEBSD:
@@ -0,0 +1,141 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+package io.questdb.network;
+
+import io.questdb.std.Os;
+import io.questdb.std.Unsafe;
+
+import java.io.Closeable;
+
+/**
+ * One-shot readiness polls of sockets via io_uring. Polls are queued in memory shared with kernel
+ * and handed over by single system call per {@link #submit()}, completions are read from shared
+ * memory without system calls at all.
+ */
+public final class IOUring implements Closeable {
+    // completion of poll removal, which is not reported
+    private static final long REMOVAL_DATA = -1;
+    private final long ring;
+    private final long events;
+    private final int capacity;
+    private boolean closed = false;
+    private long _rPtr;
+
+    public IOUring(int capacity, int completionCapacity) {
+        this.ring = IOUringAccessor.create(capacity, completionCapacity);
+        if (ring == 0) {
+            throw NetworkError.instance(Os.errno(), "io_uring_setup");
+        }
+        this.capacity = capacity;
+        this.events = _rPtr = Unsafe.calloc(IOUringAccessor.SIZEOF_EVENT * (long) capacity);
+    }
+
+    /**
+     * Checks that both kernel and native library support io_uring.
+     *
+     * @return true when rings can be created
+     */
+    public static boolean isAvailable() {
+        try {
+            final long ring = IOUringAccessor.create(1, 2);
+            if (ring != 0) {
+                IOUringAccessor.close(ring);
+                return true;
+            }
+        } catch (LinkageError ignore) {
+            // native library has been built without io_uring
+        }
+        return false;
+    }
+
+    /**
+     * Queues poll of socket, which completes once when socket is ready for operation.
+     *
+     * @param fd        socket
+     * @param id        identifies poll completion, see {@link #getData()}
+     * @param operation {@link IOOperation#READ} or {@link IOOperation#WRITE}
+     * @return 0 on success, -1 when poll could not be queued even after full queue has been submitted
+     */
+    public int arm(long fd, long id, int operation) {
+        return IOUringAccessor.poll(ring, fd, operation == IOOperation.READ ? IOUringAccessor.POLLIN : IOUringAccessor.POLLOUT, id);
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        IOUringAccessor.close(ring);
+        Unsafe.free(events, IOUringAccessor.SIZEOF_EVENT * (long) capacity);
+        closed = true;
+    }
+
+    /**
+     * Queues removal of poll, which has not completed yet. Kernel holds on to socket of poll
+     * in flight, socket is not released until poll is removed.
+     *
+     * @param id identifier poll has been queued with
+     * @return 0 on success, -1 when removal could not be queued even after full queue has been submitted
+     */
+    public int disarm(long id) {
+        return IOUringAccessor.pollRemove(ring, id);
+    }
+
+    public long getData() {
+        return Unsafe.getUnsafe().getLong(_rPtr + IOUringAccessor.DATA_OFFSET);
+    }
+
+    /**
+     * @return ready events of socket or negative error code
+     */
+    public int getResult() {
+        return Unsafe.getUnsafe().getInt(_rPtr + IOUringAccessor.RESULT_OFFSET);
+    }
+
+    public boolean isRemoval() {
+        return getData() == REMOVAL_DATA;
+    }
+
+    /**
+     * Reads completions available so far.
+     *
+     * @return number of completions, which can be accessed via {@link #setOffset(int)}
+     */
+    public int poll() {
+        return IOUringAccessor.harvest(ring, events, capacity);
+    }
+
+    public void setOffset(int offset) {
+        this._rPtr = this.events + (long) offset;
+    }
+
+    /**
+     * Hands queued polls and removals to kernel. There is no system call when nothing is queued.
+     *
+     * @return number of submitted entries or negative value on error
+     */
+    public int submit() {
+        return IOUringAccessor.submit(ring);
+    }
+}
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+package io.questdb.network;
+
+public class IOUringAccessor {
+    public static final short SIZEOF_EVENT;
+    public static final int POLLIN;
+    public static final int POLLOUT;
+    static final short DATA_OFFSET;
+    static final short RESULT_OFFSET;
+
+    static {
+        DATA_OFFSET = getDataOffset();
+        RESULT_OFFSET = getResultOffset();
+        SIZEOF_EVENT = getEventSize();
+        POLLIN = getPOLLIN();
+        POLLOUT = getPOLLOUT();
+    }
+
+    /**
+     * Sets up ring and maps its queues.
+     *
+     * @param capacity           number of submission queue entries
+     * @param completionCapacity number of completion queue entries
+     * @return ring address or 0 when kernel does not support io_uring
+     */
+    static native long create(int capacity, int completionCapacity);
+
+    static native void close(long ring);
+
+    static native int poll(long ring, long fd, int events, long data);
+
+    static native int pollRemove(long ring, long data);
+
+    static native int submit(long ring);
+
+    static native int harvest(long ring, long eventPtr, int eventCount);
+
+    static native short getDataOffset();
+
+    static native short getResultOffset();
+
+    static native short getEventSize();
+
+    static native int getPOLLIN();
+
+    static native int getPOLLOUT();
+}
@@ -0,0 +1,138 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.std;
+
+import java.math.BigInteger;
+
+/**
+ * Decimal to binary64 conversion after Daniel Lemire, "Number Parsing at a Gigabyte per Second".
+ * Decimal value is represented as unsigned 64-bit mantissa and power of ten. Conversion multiplies
+ * normalized mantissa by truncated 128-bit approximation of the power of five and gives up whenever
+ * the truncation error could affect rounding. Callers are expected to fall back to slow and exact
+ * conversion in that case.
+ */
+final class EiselLemire {
+    static final long FAILED = -1L;
+    static final int MIN_POWER = -325;
+    static final int MAX_POWER = 308;
+    private static final long[] pow5hi = new long[MAX_POWER - MIN_POWER + 1];
+    private static final long[] pow5lo = new long[MAX_POWER - MIN_POWER + 1];
+
+    private EiselLemire() {
+    }
+
+    /**
+     * Converts w * 10^q to positive binary64 value.
+     *
+     * @param w non-zero unsigned mantissa
+     * @param q power of ten in [MIN_POWER, MAX_POWER] range
+     * @return double bits or FAILED when result cannot be rounded reliably
+     */
+    static long toDoubleBits(long w, int q) {
+        final int index = q - MIN_POWER;
+        final long factorHi = pow5hi[index];
+        // power of two of 10^q, scaled by 2^16, 217706 ~ log2(10) * 2^16
+        final long exponent = (((152170L + 65536L) * q) >> 16) + 1024 + 63;
+        int lz = Long.numberOfLeadingZeros(w);
+        w <<= lz;
+
+        long lower = w * factorHi;
+        long upper = multiplyHighUnsigned(w, factorHi);
+
+        if ((upper & 0x1FF) == 0x1FF && Long.compareUnsigned(lower + w, lower) < 0) {
+            // low 9 bits of the upper word are all ones, truncated part of the power
+            // could carry into them; bring in lower 64 bits of the power
+            final long factorLo = pow5lo[index];
+            final long productLow = w * factorLo;
+            final long productMiddle2 = multiplyHighUnsigned(w, factorLo);
+            final long productMiddle = lower + productMiddle2;
+            if (Long.compareUnsigned(productMiddle, lower) < 0) {
+                upper++;
+            }
+            if (productMiddle + 1 == 0 && (upper & 0x1FF) == 0x1FF && Long.compareUnsigned(productLow + w, productLow) < 0) {
+                return FAILED;
+            }
+            lower = productMiddle;
+        }
+
+        final long upperBit = upper >>> 63;
+        long mantissa = upper >>> (upperBit + 9);
+        lz += (int) (1 ^ upperBit);
+
+        if (lower == 0 && (upper & 0x1FF) == 0 && (mantissa & 3) == 1) {
+            // exactly between two doubles, ties-to-even needs full precision
+            return FAILED;
+        }
+
+        mantissa += mantissa & 1;
+        mantissa >>>= 1;
+
+        if (mantissa >= (1L << 53)) {
+            mantissa = 1L << 52;
+            lz--;
+        }
+
+        mantissa &= ~(1L << 52);
+        final long realExponent = exponent - lz;
+        if (realExponent < 1 || realExponent > 2046) {
+            // sub-normals and overflow are left to the slow path
+            return FAILED;
+        }
+        return mantissa | (realExponent << 52);
+    }
+
+    private static long multiplyHighUnsigned(long a, long b) {
+        return Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a);
+    }
+
+    static {
+        // 128-bit normalized approximations of 5^q, most significant bit is always set
+        final BigInteger two128 = BigInteger.ONE.shiftLeft(128);
+        final BigInteger mask64 = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+        final BigInteger five = BigInteger.valueOf(5);
+        for (int q = MIN_POWER; q <= MAX_POWER; q++) {
+            BigInteger c;
+            if (q < 0) {
+                final BigInteger power5 = five.pow(-q);
+                final int z = power5.bitLength();
+                final int b = q >= -27 ? z + 127 : 2 * z + 128;
+                c = BigInteger.ONE.shiftLeft(b).divide(power5).add(BigInteger.ONE);
+            } else {
+                c = five.pow(q);
+                final int bits = c.bitLength();
+                if (bits < 128) {
+                    c = c.shiftLeft(128 - bits);
+                }
+            }
+            final int excess = c.bitLength() - 128;
+            if (excess > 0) {
+                c = c.shiftRight(excess);
+            }
+            assert c.compareTo(two128) < 0 && c.testBit(127);
+            pow5hi[q - MIN_POWER] = c.shiftRight(64).longValue();
+            pow5lo[q - MIN_POWER] = c.and(mask64).longValue();
+        }
+    }
+}
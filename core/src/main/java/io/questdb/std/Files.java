@@ -28,8 +28,11 @@ import io.questdb.std.str.LPSZ;
 import io.questdb.std.str.Path;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.concurrent.atomic.AtomicLong;
 
 public final class Files {
@@ -42,15 +45,29 @@ public final class Files {
     public static final int DT_DIR = 4;
     //    public static final int DT_BLK = 6;
 //    public static final int DT_REG = 8;
-//    public static final int DT_LNK = 10;
+    public static final int DT_LNK = 10;
 //    public static final int DT_SOCK = 12;
 //    public static final int DT_WHT = 14;
 
     public static final int MAP_RO = 1;
     public static final int MAP_RW = 2;
+    public static final int MADV_NORMAL = 0;
+    public static final int MADV_RANDOM = 1;
+    public static final int MADV_SEQUENTIAL = 2;
+    public static final int MADV_WILLNEED = 3;
+    public static final int MADV_DONTNEED = 4;
     public static final char SEPARATOR;
 
     static final AtomicLong OPEN_FILE_COUNT = new AtomicLong();
+    // natives below are newer than some of the library builds in circulation, calls fall back
+    // to JDK (or do nothing for hints) on the first LinkageError and do not retry native after that
+    static boolean hardLinkLinked = true;
+    static boolean copyLinked = true;
+    static boolean softLinkLinked = true;
+    static boolean isSoftLinkLinked = true;
+    static boolean exchangeLinked = true;
+    static boolean madviseLinked = true;
+    static boolean readAheadLinked = true;
 
     static {
         Os.init();
@@ -154,6 +171,39 @@ public final class Files {
         return address;
     }
 
+    /**
+     * Advises OS on how mapped memory is going to be accessed. This is a hint only,
+     * failure to apply it has no effect on correctness and is ignored by callers.
+     * On Windows, or when native library has been built without it, this is a no-op.
+     */
+    public static int madvise(long address, long len, int advice) {
+        if (madviseLinked) {
+            try {
+                return madvise0(address, len, advice);
+            } catch (LinkageError e) {
+                // native library has been built without madvise()
+                madviseLinked = false;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Asks OS to start reading given range of file into page cache without waiting for it.
+     * Like madvise() this is a hint, on Windows or without native support it is a no-op.
+     */
+    public static int readAhead(long fd, long offset, long len) {
+        if (readAheadLinked) {
+            try {
+                return readAhead0(fd, offset, len);
+            } catch (LinkageError e) {
+                // native library has been built without readAhead()
+                readAheadLinked = false;
+            }
+        }
+        return 0;
+    }
+
     public static void munmap(long address, long len) {
         if (address != 0 && munmap0(address, len) != -1) {
             Unsafe.recordMemAlloc(-len);
@@ -190,6 +240,105 @@ public final class Files {
 
     public native static long read(long fd, long address, long len, long offset);
 
+    public static boolean hardLink(LPSZ src, LPSZ hardLink) {
+        if (hardLinkLinked) {
+            try {
+                return hardLink(src.address(), hardLink.address());
+            } catch (LinkageError e) {
+                // native library has been built without hardLink()
+                hardLinkLinked = false;
+            }
+        }
+        try {
+            java.nio.file.Files.createLink(toNioPath(hardLink), toNioPath(src));
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Copies file contents, target file is created or truncated.
+     */
+    public static boolean copy(LPSZ from, LPSZ to) {
+        if (copyLinked) {
+            try {
+                return copy(from.address(), to.address());
+            } catch (LinkageError e) {
+                // native library has been built without copy()
+                copyLinked = false;
+            }
+        }
+        try {
+            java.nio.file.Files.copy(toNioPath(from), toNioPath(to), StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public static boolean softLink(LPSZ src, LPSZ softLink) {
+        if (softLinkLinked) {
+            try {
+                return softLink(src.address(), softLink.address());
+            } catch (LinkageError e) {
+                // native library has been built without softLink()
+                softLinkLinked = false;
+            }
+        }
+        try {
+            java.nio.file.Files.createSymbolicLink(toNioPath(softLink), toNioPath(src));
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            return false;
+        }
+    }
+
+    public static boolean isSoftLink(LPSZ path) {
+        if (isSoftLinkLinked) {
+            try {
+                return isSoftLink(path.address());
+            } catch (LinkageError e) {
+                // native library has been built without isSoftLink()
+                isSoftLinkLinked = false;
+            }
+        }
+        return java.nio.file.Files.isSymbolicLink(toNioPath(path));
+    }
+
+    /**
+     * Reads target of soft link. Relative target is resolved against directory of the link.
+     *
+     * @param softLink path to soft link
+     * @param target   receives absolute path of link target
+     * @return true when target has been read, false when path is not a soft link or cannot be read
+     */
+    public static boolean readLink(LPSZ softLink, Path target) {
+        try {
+            final java.nio.file.Path link = toNioPath(softLink);
+            target.of(link.resolveSibling(java.nio.file.Files.readSymbolicLink(link)).toString()).$();
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Atomically swaps two existing paths. Not every OS supports this, in which case
+     * false is returned and both paths are left untouched.
+     */
+    public static boolean exchange(LPSZ a, LPSZ b) {
+        if (exchangeLinked) {
+            try {
+                return exchange(a.address(), b.address());
+            } catch (LinkageError e) {
+                // native library has been built without exchange(), JDK has no atomic swap either
+                exchangeLinked = false;
+            }
+        }
+        return false;
+    }
+
     public static boolean remove(LPSZ lpsz) {
         return remove(lpsz.address());
     }
@@ -257,6 +406,15 @@ public final class Files {
 
     native static int close0(long fd);
 
+    private static java.nio.file.Path toNioPath(LPSZ lpsz) {
+        final long lo = lpsz.address();
+        long hi = lo;
+        while (Unsafe.getUnsafe().getByte(hi) != 0) {
+            hi++;
+        }
+        return Paths.get(Chars.stringFromUtf8Bytes(lo, hi));
+    }
+
     private static boolean strcmp(long lpsz, CharSequence s) {
         int len = s.length();
         for (int i = 0; i < len; i++) {
@@ -272,6 +430,10 @@ public final class Files {
 
     private static native long mmap0(long fd, long len, long offset, int flags);
 
+    private static native int madvise0(long address, long len, int advice);
+
+    private static native int readAhead0(long fd, long offset, long len);
+
     private native static long getPageSize();
 
     private native static boolean remove(long lpsz);
@@ -295,4 +457,14 @@ public final class Files {
     private native static boolean setLastModified(long lpszName, long millis);
 
     private static native boolean rename(long lpszOld, long lpszNew);
+
+    private static native boolean hardLink(long lpszSrc, long lpszHardLink);
+
+    private static native boolean copy(long lpszFrom, long lpszTo);
+
+    private static native boolean softLink(long lpszSrc, long lpszSoftLink);
+
+    private static native boolean isSoftLink(long lpsz);
+
+    private static native boolean exchange(long lpszA, long lpszB);
 }
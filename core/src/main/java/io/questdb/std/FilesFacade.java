@@ -32,8 +32,12 @@ public interface FilesFacade {
 
     boolean close(long fd);
 
+    boolean copy(LPSZ from, LPSZ to);
+
     int errno();
 
+    boolean exchange(LPSZ a, LPSZ b);
+
     boolean exists(LPSZ path);
 
     boolean exists(long fd);
@@ -58,8 +62,12 @@ public interface FilesFacade {
 
     long getPageSize();
 
+    boolean hardLink(LPSZ src, LPSZ hardLink);
+
     boolean isRestrictedFileSystem();
 
+    boolean isSoftLink(LPSZ path);
+
     void iterateDir(LPSZ path, FindVisitor func);
 
     long length(long fd);
@@ -74,8 +82,12 @@ public interface FilesFacade {
 
     long mmap(long fd, long size, long offset, int mode);
 
+    void madvise(long address, long size, int advice);
+
     void munmap(long address, long size);
 
+    void readAhead(long fd, long offset, long len);
+
     long openAppend(LPSZ name);
 
     long openRO(LPSZ name);
@@ -84,12 +96,16 @@ public interface FilesFacade {
 
     long read(long fd, long buf, long size, long offset);
 
+    boolean readLink(LPSZ softLink, Path target);
+
     boolean remove(LPSZ name);
 
     boolean rename(LPSZ from, LPSZ to);
 
     boolean rmdir(Path name);
 
+    boolean softLink(LPSZ src, LPSZ softLink);
+
     boolean touch(LPSZ path);
 
     boolean truncate(long fd, long size);
@@ -44,11 +44,21 @@ public class FilesFacadeImpl implements FilesFacade {
         return Files.close(fd) == 0;
     }
 
+    @Override
+    public boolean copy(LPSZ from, LPSZ to) {
+        return Files.copy(from, to);
+    }
+
     @Override
     public int errno() {
         return Os.errno();
     }
 
+    @Override
+    public boolean exchange(LPSZ a, LPSZ b) {
+        return Files.exchange(a, b);
+    }
+
     @Override
     public boolean exists(LPSZ path) {
         return Files.exists(path);
@@ -120,11 +130,21 @@ public class FilesFacadeImpl implements FilesFacade {
         return Files.PAGE_SIZE;
     }
 
+    @Override
+    public boolean hardLink(LPSZ src, LPSZ hardLink) {
+        return Files.hardLink(src, hardLink);
+    }
+
     @Override
     public boolean isRestrictedFileSystem() {
         return Os.type == Os.WINDOWS;
     }
 
+    @Override
+    public boolean isSoftLink(LPSZ path) {
+        return Files.isSoftLink(path);
+    }
+
     public void iterateDir(LPSZ path, FindVisitor func) {
         long p = findFirst(path);
         if (p > 0) {
@@ -168,11 +188,21 @@ public class FilesFacadeImpl implements FilesFacade {
         return Files.mmap(fd, len, offset, mode);
     }
 
+    @Override
+    public void madvise(long address, long size, int advice) {
+        Files.madvise(address, size, advice);
+    }
+
     @Override
     public void munmap(long address, long size) {
         Files.munmap(address, size);
     }
 
+    @Override
+    public void readAhead(long fd, long offset, long len) {
+        Files.readAhead(fd, offset, len);
+    }
+
     @Override
     public long openAppend(LPSZ name) {
         return Files.openAppend(name);
@@ -193,6 +223,11 @@ public class FilesFacadeImpl implements FilesFacade {
         return Files.read(fd, buf, len, offset);
     }
 
+    @Override
+    public boolean readLink(LPSZ softLink, Path target) {
+        return Files.readLink(softLink, target);
+    }
+
     @Override
     public boolean remove(LPSZ name) {
         return Files.remove(name);
@@ -208,6 +243,11 @@ public class FilesFacadeImpl implements FilesFacade {
         return Files.rmdir(name);
     }
 
+    @Override
+    public boolean softLink(LPSZ src, LPSZ softLink) {
+        return Files.softLink(src, softLink);
+    }
+
     @Override
     public boolean touch(LPSZ path) {
         return Files.touch(path);
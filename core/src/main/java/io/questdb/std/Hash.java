@@ -63,6 +63,19 @@ public final class Hash {
         return spread((int) hash);
     }
 
+    /**
+     * Calculates positive integer hash of long value. Multiplication moves entropy of
+     * low bits into high bits, which is where hash is taken from. Keys that differ only
+     * in their high bits, such as timestamps aligned to interval, do not collide.
+     *
+     * @param value long value
+     * @return hash code
+     */
+    public static int hashLong(long value) {
+        final long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & HASH_BITS;
+    }
+
     /**
      * (copied from ConcurrentHashMap)
      * Spreads (XORs) higher bits of hash to lower and also forces top
@@ -25,7 +25,6 @@
 package io.questdb.std;
 
 import io.questdb.std.str.CharSink;
-import jdk.internal.math.FDBigInteger;
 
 import java.util.Arrays;
 
@@ -39,30 +38,22 @@ public final class Numbers {
     public final static int[] hexNumbers;
     public final static int pow10max;
     public static final int SIGNIFICAND_WIDTH = 53;
-    private static final int EXP_BIAS = 1023;
     private static final long SIGN_BIT_MASK = 0x8000000000000000L;
     private static final long EXP_BIT_MASK = 0x7FF0000000000000L;
     private static final long SIGNIF_BIT_MASK = 0x000FFFFFFFFFFFFFL;
-    private static final int[] SMALL_5_POW = new int[]{1, 5, 25, 125, 625, 3125, 15625, 78125, 390625, 1953125, 9765625, 48828125, 244140625, 1220703125};
-    private static final long[] LONG_5_POW = new long[]{1L, 5L, 25L, 125L, 625L, 3125L, 15625L, 78125L, 390625L, 1953125L, 9765625L, 48828125L, 244140625L, 1220703125L, 6103515625L, 30517578125L, 152587890625L, 762939453125L, 3814697265625L, 19073486328125L, 95367431640625L, 476837158203125L, 2384185791015625L, 11920928955078125L, 59604644775390625L, 298023223876953125L, 1490116119384765625L};
-    private static final int MAX_SMALL_BIN_EXP = 62;
-    private static final int MIN_SMALL_BIN_EXP = -(63 / 3);
     private static final long[] pow10;
-    private static final long LONG_OVERFLOW_MAX = Long.MAX_VALUE / 10 + 1;
-    private static final long INT_OVERFLOW_MAX = Integer.MAX_VALUE / 10;
+    private static final int MAX_SIGNIFICANT_DIGITS = 19;
+    private static final long MAX_EXACT_DOUBLE_MANTISSA = 1L << 53;
+    private static final int MAX_EXACT_POW10 = 22;
+    private static final long MAX_EXPONENT = 100_000;
     private final static String NaN = "NaN";
     private static final String INFINITY = "Infinity";
     private static final double[] pow10d = new double[]{1, 1E1, 1E2, 1E3, 1E4, 1E5, 1E6, 1E7, 1E8, 1E9, 1E10, 1E11, 1E12, 1E13, 1E14, 1E15, 1E16, 1E17, 1E18, 1E19, 1E20, 1E21, 1E22, 1E23, 1E24, 1E25, 1E26, 1E27, 1E28, 1E29, 1E30, 1E31, 1E32, 1E33, 1E34, 1E35, 1E36, 1E37, 1E38, 1E39, 1E40, 1E41, 1E42, 1E43, 1E44, 1E45, 1E46, 1E47, 1E48, 1E49, 1E50, 1E51, 1E52, 1E53, 1E54, 1E55, 1E56, 1E57, 1E58, 1E59, 1E60, 1E61, 1E62, 1E63, 1E64, 1E65, 1E66, 1E67, 1E68, 1E69, 1E70, 1E71, 1E72, 1E73, 1E74, 1E75, 1E76, 1E77, 1E78, 1E79, 1E80, 1E81, 1E82, 1E83, 1E84, 1E85, 1E86, 1E87, 1E88, 1E89, 1E90, 1E91, 1E92, 1E93, 1E94, 1E95, 1E96, 1E97, 1E98, 1E99, 1E100, 1E101, 1E102, 1E103, 1E104, 1E105, 1E106, 1E107, 1E108, 1E109, 1E110, 1E111, 1E112, 1E113, 1E114, 1E115, 1E116, 1E117, 1E118, 1E119, 1E120, 1E121, 1E122, 1E123, 1E124, 1E125, 1E126, 1E127, 1E128, 1E129, 1E130, 1E131, 1E132, 1E133, 1E134, 1E135, 1E136, 1E137, 1E138, 1E139, 1E140, 1E141, 1E142, 1E143, 1E144, 1E145, 1E146, 1E147, 1E148, 1E149, 1E150, 1E151, 1E152, 1E153, 1E154, 1E155, 1E156, 1E157, 1E158, 1E159, 1E160, 1E161, 1E162, 1E163, 1E164, 1E165, 1E166, 1E167, 1E168, 1E169, 1E170, 1E171, 1E172, 1E173, 1E174, 1E175, 1E176, 1E177, 1E178, 1E179, 1E180, 1E181, 1E182, 1E183, 1E184, 1E185, 1E186, 1E187, 1E188, 1E189, 1E190, 1E191, 1E192, 1E193, 1E194, 1E195, 1E196, 1E197, 1E198, 1E199, 1E200, 1E201, 1E202, 1E203, 1E204, 1E205, 1E206, 1E207, 1E208, 1E209, 1E210, 1E211, 1E212, 1E213, 1E214, 1E215, 1E216, 1E217, 1E218, 1E219, 1E220, 1E221, 1E222, 1E223, 1E224, 1E225, 1E226, 1E227, 1E228, 1E229, 1E230, 1E231, 1E232, 1E233, 1E234, 1E235, 1E236, 1E237, 1E238, 1E239, 1E240, 1E241, 1E242, 1E243, 1E244, 1E245, 1E246, 1E247, 1E248, 1E249, 1E250, 1E251, 1E252, 1E253, 1E254, 1E255, 1E256, 1E257, 1E258, 1E259, 1E260, 1E261, 1E262, 1E263, 1E264, 1E265, 1E266, 1E267, 1E268, 1E269, 1E270, 1E271, 1E272, 1E273, 1E274, 1E275, 1E276, 1E277, 1E278, 1E279, 1E280, 1E281, 1E282, 1E283, 1E284, 1E285, 1E286, 1E287, 1E288, 1E289, 1E290, 1E291, 1E292, 1E293, 1E294, 1E295, 1E296, 1E297, 1E298, 1E299, 1E300, 1E301, 1E302, 1E303, 1E304, 1E305, 1E306, 1E307, 1E308};
     private static final double[] pow10dNeg =
             new double[]{1, 1E-1, 1E-2, 1E-3, 1E-4, 1E-5, 1E-6, 1E-7, 1E-8, 1E-9, 1E-10, 1E-11, 1E-12, 1E-13, 1E-14, 1E-15, 1E-16, 1E-17, 1E-18, 1E-19, 1E-20, 1E-21, 1E-22, 1E-23, 1E-24, 1E-25, 1E-26, 1E-27, 1E-28, 1E-29, 1E-30, 1E-31, 1E-32, 1E-33, 1E-34, 1E-35, 1E-36, 1E-37, 1E-38, 1E-39, 1E-40, 1E-41, 1E-42, 1E-43, 1E-44, 1E-45, 1E-46, 1E-47, 1E-48, 1E-49, 1E-50, 1E-51, 1E-52, 1E-53, 1E-54, 1E-55, 1E-56, 1E-57, 1E-58, 1E-59, 1E-60, 1E-61, 1E-62, 1E-63, 1E-64, 1E-65, 1E-66, 1E-67, 1E-68, 1E-69, 1E-70, 1E-71, 1E-72, 1E-73, 1E-74, 1E-75, 1E-76, 1E-77, 1E-78, 1E-79, 1E-80, 1E-81, 1E-82, 1E-83, 1E-84, 1E-85, 1E-86, 1E-87, 1E-88, 1E-89, 1E-90, 1E-91, 1E-92, 1E-93, 1E-94, 1E-95, 1E-96, 1E-97, 1E-98, 1E-99, 1E-100, 1E-101, 1E-102, 1E-103, 1E-104, 1E-105, 1E-106, 1E-107, 1E-108, 1E-109, 1E-110, 1E-111, 1E-112, 1E-113, 1E-114, 1E-115, 1E-116, 1E-117, 1E-118, 1E-119, 1E-120, 1E-121, 1E-122, 1E-123, 1E-124, 1E-125, 1E-126, 1E-127, 1E-128, 1E-129, 1E-130, 1E-131, 1E-132, 1E-133, 1E-134, 1E-135, 1E-136, 1E-137, 1E-138, 1E-139, 1E-140, 1E-141, 1E-142, 1E-143, 1E-144, 1E-145, 1E-146, 1E-147, 1E-148, 1E-149, 1E-150, 1E-151, 1E-152, 1E-153, 1E-154, 1E-155, 1E-156, 1E-157, 1E-158, 1E-159, 1E-160, 1E-161, 1E-162, 1E-163, 1E-164, 1E-165, 1E-166, 1E-167, 1E-168, 1E-169, 1E-170, 1E-171, 1E-172, 1E-173, 1E-174, 1E-175, 1E-176, 1E-177, 1E-178, 1E-179, 1E-180, 1E-181, 1E-182, 1E-183, 1E-184, 1E-185, 1E-186, 1E-187, 1E-188, 1E-189, 1E-190, 1E-191, 1E-192, 1E-193, 1E-194, 1E-195, 1E-196, 1E-197, 1E-198, 1E-199, 1E-200, 1E-201, 1E-202, 1E-203, 1E-204, 1E-205, 1E-206, 1E-207, 1E-208, 1E-209, 1E-210, 1E-211, 1E-212, 1E-213, 1E-214, 1E-215, 1E-216, 1E-217, 1E-218, 1E-219, 1E-220, 1E-221, 1E-222, 1E-223, 1E-224, 1E-225, 1E-226, 1E-227, 1E-228, 1E-229, 1E-230, 1E-231, 1E-232, 1E-233, 1E-234, 1E-235, 1E-236, 1E-237, 1E-238, 1E-239, 1E-240, 1E-241, 1E-242, 1E-243, 1E-244, 1E-245, 1E-246, 1E-247, 1E-248, 1E-249, 1E-250, 1E-251, 1E-252, 1E-253, 1E-254, 1E-255, 1E-256, 1E-257, 1E-258, 1E-259, 1E-260, 1E-261, 1E-262, 1E-263, 1E-264, 1E-265, 1E-266, 1E-267, 1E-268, 1E-269, 1E-270, 1E-271, 1E-272, 1E-273, 1E-274, 1E-275, 1E-276, 1E-277, 1E-278, 1E-279, 1E-280, 1E-281, 1E-282, 1E-283, 1E-284, 1E-285, 1E-286, 1E-287, 1E-288, 1E-289, 1E-290, 1E-291, 1E-292, 1E-293, 1E-294, 1E-295, 1E-296, 1E-297, 1E-298, 1E-299, 1E-300, 1E-301, 1E-302, 1E-303, 1E-304, 1E-305, 1E-306, 1E-307, 1E-308};
-    private static final float[] pow10f = new float[]{1, 1E1f, 1E2f, 1E3f, 1E4f, 1E5f, 1E6f, 1E7f, 1E8f, 1E9f, 1E10f, 1E11f, 1E12f, 1E13f, 1E14f, 1E15f, 1E16f, 1E17f, 1E18f, 1E19f, 1E20f, 1E21f, 1E22f, 1E23f, 1E24f, 1E25f, 1E26f, 1E27f, 1E28f, 1E29f, 1E30f, 1E31f, 1E32f, 1E33f, 1E34f, 1E35f, 1E36f, 1E37f, 1E38f};
     private static final LongHexAppender[] longHexAppender = new LongHexAppender[Long.SIZE + 1];
     private static final LongHexAppender[] longHexAppenderPad64 = new LongHexAppender[Long.SIZE + 1];
-    private static final int[] N_5_BITS = new int[]{0, 3, 5, 7, 10, 12, 14, 17, 19, 21, 24, 26, 28, 31, 33, 35, 38, 40, 42, 45, 47, 49, 52, 54, 56, 59, 61};
     private static final int EXP_SHIFT = SIGNIFICAND_WIDTH - 1;
-    static final long EXP_ONE = ((long) EXP_BIAS) << EXP_SHIFT; // exponent of 1.0
-    private static final long FRACT_HOB = (1L << EXP_SHIFT); // assumed High-Order bit
-    private static final int[] insignificantDigitsNumber = new int[]{0, 0, 0, 0, 1, 1, 1, 2, 2, 2, 3, 3, 3, 3, 4, 4, 4, 5, 5, 5, 6, 6, 6, 6, 7, 7, 7, 8, 8, 8, 9, 9, 9, 9, 10, 10, 10, 11, 11, 11, 12, 12, 12, 12, 13, 13, 13, 14, 14, 14, 15, 15, 15, 15, 16, 16, 16, 17, 17, 17, 18, 18, 18, 19};
 
     private Numbers() {
     }
@@ -243,7 +234,6 @@ public final class Numbers {
     }
 
     public static void append(CharSink sink, double value) {
-        final char[] digits = sink.getDoubleDigitsBuffer();
         final long doubleBits = Double.doubleToRawLongBits(value);
         boolean negative = (doubleBits & SIGN_BIT_MASK) != 0L;
         long significantBitCount = doubleBits & SIGNIF_BIT_MASK;
@@ -259,31 +249,16 @@ public final class Numbers {
             } else {
                 sink.put("NaN");
             }
-        } else {
-            int fractionLen;
-            if (binExp == 0) {
-                if (significantBitCount == 0L) {
-                    if (negative) {
-                        sink.put("-0.0");
-                    } else {
-                        sink.put("0.0");
-                    }
-                    return;
-                }
-
-                int leadingZeros = Long.numberOfLeadingZeros(significantBitCount);
-                int shift = leadingZeros - (63 - EXP_SHIFT);
-                significantBitCount <<= shift;
-                binExp = 1 - shift;
-                fractionLen = 64 - leadingZeros;
+        } else if (binExp == 0 && significantBitCount == 0L) {
+            if (negative) {
+                sink.put("-0.0");
             } else {
-                significantBitCount |= FRACT_HOB;
-                fractionLen = 53;
+                sink.put("0.0");
             }
-
-            binExp -= EXP_BIAS;
-
-            append(binExp, significantBitCount, fractionLen, negative, digits, sink);
+        } else {
+            final char[] digits = sink.getDoubleDigitsBuffer();
+            final long decimal = Schubfach.toDigits(value, digits);
+            append(digits, 0, decodeLowInt(decimal), negative, decodeHighInt(decimal), sink);
         }
     }
 
@@ -656,61 +631,42 @@ public final class Numbers {
                 break;
         }
 
-        long val = 0;
-        int dp = -1;
-        int dpe = lim;
-        int exp = 0;
-        out:
-        for (; i < lim; i++) {
-            final int c = sequence.charAt(i);
-            switch (c) {
-                case '.':
-                    dp = i;
-                    continue;
-                case 'E':
-                case 'e':
-                    exp = parseInt(sequence, i + 1, lim);
-                    if (dpe == lim) {
-                        dpe = i;
-                    }
-                    break out;
-                case 'D':
-                case 'd':
-                    if (i + 1 < lim || i == 0) {
-                        throw NumericException.INSTANCE;
-                    }
-                    if (dpe == lim) {
-                        dpe = i;
-                    }
-                    break out;
-                default:
-                    if (c < '0' || c > '9') {
-                        throw NumericException.INSTANCE;
-                    }
+        return parseDecimal(sequence, i, lim, negative, 'd');
+    }
 
-                    if (val < LONG_OVERFLOW_MAX) {
-                        // val * 10 + (c - '0')
-                        val = (val << 3) + (val << 1) + (c - '0');
-                    } else if (dpe == lim) {
-                        dpe = i;
-                    }
-                    break;
-            }
+    /**
+     * Parses UTF8 encoded double directly from native memory, for example
+     * content of {@link io.questdb.std.str.DirectByteCharSequence}.
+     *
+     * @param lo address of first byte
+     * @param hi address of byte following the last one
+     * @return correctly rounded double value
+     * @throws NumericException when bytes do not represent a double
+     */
+    public static double parseDouble(long lo, long hi) throws NumericException {
+        if (lo == hi) {
+            throw NumericException.INSTANCE;
         }
 
-        exp = dp == -1 ? exp : exp - (dpe - dp - 1);
+        boolean negative = Unsafe.getUnsafe().getByte(lo) == '-';
+        long p = negative ? lo + 1 : lo;
 
-        if (exp > 308) {
-            exp = 308;
-        } else if (exp < -308) {
-            exp = -308;
+        if (p >= hi) {
+            throw NumericException.INSTANCE;
         }
 
-        if (exp > -1) {
-            return (negative ? -val : val) * pow10d[exp];
-        } else {
-            return (negative ? -val : val) * pow10dNeg[-exp];
+        switch (Unsafe.getUnsafe().getByte(p)) {
+            case 'N':
+                validateConst(p, hi, NaN);
+                return Double.NaN;
+            case 'I':
+                validateConst(p, hi, INFINITY);
+                return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+            default:
+                break;
         }
+
+        return parseDecimal(lo, p, hi, negative, 'd');
     }
 
     public static float parseFloat(CharSequence sequence) throws NumericException {
@@ -740,62 +696,51 @@ public final class Numbers {
                 break;
         }
 
-        int val = 0;
-        int dp = -1;
-        int dpe = lim;
-        int exp = 0;
-        out:
-        for (int i = p; i < lim; i++) {
-            int c = sequence.charAt(i);
-            switch (c) {
-                case '.':
-                    dp = i;
-                    continue;
-                case 'E':
-                case 'e':
-                    exp = parseInt(sequence, i + 1, lim);
-                    if (dpe == lim) {
-                        dpe = i;
-                    }
-                    break out;
-                case 'F':
-                case 'f':
-                    if (i == 0 || i + 1 < lim) {
-                        throw NumericException.INSTANCE;
-                    }
-
-                    if (dpe == lim) {
-                        dpe = i;
-                    }
-                    break out;
-                default:
-                    if (c < '0' || c > '9') {
-                        throw NumericException.INSTANCE;
-                    }
-
-                    if (val <= INT_OVERFLOW_MAX) {
-                        // val * 10 + (c - '0')
-                        val = (val << 3) + (val << 1) + (c - '0');
-                    } else if (dpe == lim) {
-                        dpe = i;
-                    }
-                    break;
+        final double d = parseDecimal(sequence, p, lim, negative, 'f');
+        final float f = (float) d;
+        if (isFloatRoundingAmbiguous(d, f)) {
+            try {
+                return Float.parseFloat(sequence.toString());
+            } catch (NumberFormatException e) {
+                throw NumericException.INSTANCE;
             }
         }
+        return f;
+    }
+
+    public static float parseFloat(long lo, long hi) throws NumericException {
+        if (lo == hi) {
+            throw NumericException.INSTANCE;
+        }
+
+        boolean negative = Unsafe.getUnsafe().getByte(lo) == '-';
+        long p = negative ? lo + 1 : lo;
 
-        exp = dp == -1 ? exp : exp - (dpe - dp - 1);
+        if (p >= hi) {
+            throw NumericException.INSTANCE;
+        }
 
-        if (exp > 38) {
-            exp = 38;
-        } else if (exp < -38) {
-            exp = -38;
+        switch (Unsafe.getUnsafe().getByte(p)) {
+            case 'N':
+                validateConst(p, hi, NaN);
+                return Float.NaN;
+            case 'I':
+                validateConst(p, hi, INFINITY);
+                return negative ? Float.NEGATIVE_INFINITY : Float.POSITIVE_INFINITY;
+            default:
+                break;
         }
 
-        if (exp > 0) {
-            return (negative ? -val : val) * pow10f[exp];
-        } else {
-            return (negative ? -val : val) / pow10f[-exp];
+        final double d = parseDecimal(lo, p, hi, negative, 'f');
+        final float f = (float) d;
+        if (isFloatRoundingAmbiguous(d, f)) {
+            try {
+                return Float.parseFloat(Chars.stringFromUtf8Bytes(lo, hi));
+            } catch (NumberFormatException e) {
+                throw NumericException.INSTANCE;
+            }
         }
+        return f;
     }
 
     public static int parseHexInt(CharSequence sequence) throws NumericException {
@@ -1748,6 +1693,246 @@ public final class Numbers {
         sink.put((char) ('0' + (c % 10)));
     }
 
+    private static double parseDecimal(CharSequence sequence, int p, int lim, boolean negative, char suffix) throws NumericException {
+        // up to 19 significant digits are accumulated as unsigned long,
+        // remaining digits only count towards exponent
+        long w = 0;
+        int digits = 0;
+        long exp = 0;
+        boolean dot = false;
+        boolean truncated = false;
+        int i = p;
+        out:
+        for (; i < lim; i++) {
+            final int c = sequence.charAt(i);
+            switch (c) {
+                case '.':
+                    if (dot) {
+                        throw NumericException.INSTANCE;
+                    }
+                    dot = true;
+                    continue;
+                case 'E':
+                case 'e':
+                    exp += parseExponent(sequence, i + 1, lim);
+                    break out;
+                default:
+                    if (c >= '0' && c <= '9') {
+                        if (digits < MAX_SIGNIFICANT_DIGITS) {
+                            // w * 10 + (c - '0')
+                            w = (w << 3) + (w << 1) + (c - '0');
+                            if (w != 0) {
+                                digits++;
+                            }
+                            if (dot) {
+                                exp--;
+                            }
+                        } else {
+                            truncated |= c != '0';
+                            if (!dot) {
+                                exp++;
+                            }
+                        }
+                        continue;
+                    }
+
+                    if ((c | 0x20) != suffix || i + 1 < lim || i == 0) {
+                        throw NumericException.INSTANCE;
+                    }
+                    break out;
+            }
+        }
+
+        final double value = decimalToDouble(w, exp, truncated);
+        if (value == value) {
+            return negative ? -value : value;
+        }
+
+        try {
+            return Double.parseDouble(sequence.toString());
+        } catch (NumberFormatException e) {
+            throw NumericException.INSTANCE;
+        }
+    }
+
+    private static double parseDecimal(long lo, long p, long hi, boolean negative, char suffix) throws NumericException {
+        long w = 0;
+        int digits = 0;
+        long exp = 0;
+        boolean dot = false;
+        boolean truncated = false;
+        out:
+        for (long i = p; i < hi; i++) {
+            final int c = Unsafe.getUnsafe().getByte(i);
+            switch (c) {
+                case '.':
+                    if (dot) {
+                        throw NumericException.INSTANCE;
+                    }
+                    dot = true;
+                    continue;
+                case 'E':
+                case 'e':
+                    exp += parseExponent(i + 1, hi);
+                    break out;
+                default:
+                    if (c >= '0' && c <= '9') {
+                        if (digits < MAX_SIGNIFICANT_DIGITS) {
+                            w = (w << 3) + (w << 1) + (c - '0');
+                            if (w != 0) {
+                                digits++;
+                            }
+                            if (dot) {
+                                exp--;
+                            }
+                        } else {
+                            truncated |= c != '0';
+                            if (!dot) {
+                                exp++;
+                            }
+                        }
+                        continue;
+                    }
+
+                    if ((c | 0x20) != suffix || i + 1 < hi || i == lo) {
+                        throw NumericException.INSTANCE;
+                    }
+                    break out;
+            }
+        }
+
+        final double value = decimalToDouble(w, exp, truncated);
+        if (value == value) {
+            return negative ? -value : value;
+        }
+
+        try {
+            return Double.parseDouble(Chars.stringFromUtf8Bytes(lo, hi));
+        } catch (NumberFormatException e) {
+            throw NumericException.INSTANCE;
+        }
+    }
+
+    /**
+     * Converts unsigned w * 10^exp to correctly rounded positive double.
+     *
+     * @return double value or NaN when fast algorithms cannot guarantee correct rounding
+     */
+    private static double decimalToDouble(long w, long exp, boolean truncated) {
+        if (w == 0) {
+            return 0;
+        }
+
+        if (!truncated && w > -1 && w <= MAX_EXACT_DOUBLE_MANTISSA && exp >= -MAX_EXACT_POW10 && exp <= MAX_EXACT_POW10) {
+            // Clinger's fast path, both operands are exact and IEEE division
+            // and multiplication are correctly rounded
+            return exp < 0 ? (double) w / pow10d[(int) -exp] : (double) w * pow10d[(int) exp];
+        }
+
+        if (exp < EiselLemire.MIN_POWER) {
+            return exp < -342 ? 0 : Double.NaN;
+        }
+
+        if (exp > EiselLemire.MAX_POWER) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        final long bits = EiselLemire.toDoubleBits(w, (int) exp);
+        if (bits == EiselLemire.FAILED) {
+            return Double.NaN;
+        }
+
+        if (truncated && EiselLemire.toDoubleBits(w + 1, (int) exp) != bits) {
+            // dropped digits could change rounding
+            return Double.NaN;
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    /**
+     * Double to float cast rounds correctly rounded double once more. Result
+     * is only in doubt when double lands exactly half way between two floats.
+     */
+    private static boolean isFloatRoundingAmbiguous(double d, float f) {
+        if (f == d) {
+            return false;
+        }
+        if (Float.isInfinite(f)) {
+            return !Double.isInfinite(d);
+        }
+        final float other = f < d ? Math.nextUp(f) : Math.nextDown(f);
+        return d - f == other - d;
+    }
+
+    private static long parseExponent(CharSequence sequence, int p, int lim) throws NumericException {
+        if (p < lim) {
+            final char c = sequence.charAt(p);
+            if (c == '-' || c == '+') {
+                return c == '-' ? -parseExponentDigits(sequence, p + 1, lim) : parseExponentDigits(sequence, p + 1, lim);
+            }
+        }
+        return parseExponentDigits(sequence, p, lim);
+    }
+
+    private static long parseExponent(long p, long hi) throws NumericException {
+        if (p < hi) {
+            final byte c = Unsafe.getUnsafe().getByte(p);
+            if (c == '-' || c == '+') {
+                return c == '-' ? -parseExponentDigits(p + 1, hi) : parseExponentDigits(p + 1, hi);
+            }
+        }
+        return parseExponentDigits(p, hi);
+    }
+
+    private static long parseExponentDigits(CharSequence sequence, int p, int lim) throws NumericException {
+        if (p == lim) {
+            throw NumericException.INSTANCE;
+        }
+        long val = 0;
+        for (int i = p; i < lim; i++) {
+            final char c = sequence.charAt(i);
+            if (c < '0' || c > '9') {
+                throw NumericException.INSTANCE;
+            }
+            // exponents this large are out of double range anyway
+            if (val < MAX_EXPONENT) {
+                val = val * 10 + (c - '0');
+            }
+        }
+        return val;
+    }
+
+    private static long parseExponentDigits(long p, long hi) throws NumericException {
+        if (p == hi) {
+            throw NumericException.INSTANCE;
+        }
+        long val = 0;
+        for (long i = p; i < hi; i++) {
+            final byte c = Unsafe.getUnsafe().getByte(i);
+            if (c < '0' || c > '9') {
+                throw NumericException.INSTANCE;
+            }
+            if (val < MAX_EXPONENT) {
+                val = val * 10 + (c - '0');
+            }
+        }
+        return val;
+    }
+
+    private static void validateConst(long p, long hi, String target) throws NumericException {
+        int len = target.length();
+
+        if (hi - p != len) {
+            throw NumericException.INSTANCE;
+        }
+
+        for (int i = 0; i < len; i++) {
+            if (Unsafe.getUnsafe().getByte(p + i) != target.charAt(i)) {
+                throw NumericException.INSTANCE;
+            }
+        }
+    }
+
     private static double parseConst(CharSequence sequence, int p, int lim, String target, double value) throws NumericException {
         validateConst(sequence, p, lim, target);
         return value;
@@ -1869,284 +2054,6 @@ public final class Numbers {
         appendHex(sink, a, true);
     }
 
-    private static int insignificantDigitsForPow2(int p2) {
-        return p2 > 1 && p2 < insignificantDigitsNumber.length ? insignificantDigitsNumber[p2] : 0;
-    }
-
-    private static void append(
-            int binExp,
-            long fractionBits,
-            int significantBitCount,
-            boolean negative,
-            char[] digits,
-            CharSink out
-
-    ) {
-        assert fractionBits > 0L;
-        assert (fractionBits & FRACT_HOB) != 0L;
-
-        final int tailZeroes = Long.numberOfTrailingZeros(fractionBits);
-        final int fractBitCount = EXP_SHIFT + 1 - tailZeroes;
-        int decExp;
-        int firstDigitIndex;
-        int nDigits;
-
-        final int tinyBitCount = Math.max(0, fractBitCount - binExp - 1);
-        if (binExp < MAX_SMALL_BIN_EXP + 1 && binExp > MIN_SMALL_BIN_EXP - 1 && tinyBitCount < LONG_5_POW.length && fractBitCount + N_5_BITS[tinyBitCount] < 64 && tinyBitCount == 0) {
-            int insignificant;
-            if (binExp > significantBitCount) {
-                insignificant = insignificantDigitsForPow2(binExp - significantBitCount - 1);
-            } else {
-                insignificant = 0;
-            }
-
-            if (binExp >= EXP_SHIFT) {
-                fractionBits <<= binExp - EXP_SHIFT;
-            } else {
-                fractionBits >>>= EXP_SHIFT - binExp;
-            }
-
-            //
-            int binExp2 = 0;
-            if (insignificant != 0) {
-                long pow10 = LONG_5_POW[insignificant] << insignificant;
-                long residue = fractionBits % pow10;
-                fractionBits /= pow10;
-                binExp2 += insignificant;
-                if (residue >= pow10 >> 1) {
-                    ++fractionBits;
-                }
-            }
-
-            int digitIndex = digits.length - 1;
-            int digit;
-            if (fractionBits <= Integer.MAX_VALUE) {
-                assert fractionBits > 0L : fractionBits;
-
-                int fractRemaining = (int) fractionBits;
-                digit = fractRemaining % 10;
-
-                for (fractRemaining /= 10; digit == 0; fractRemaining /= 10) {
-                    ++binExp2;
-                    digit = fractRemaining % 10;
-                }
-
-                while (fractRemaining != 0) {
-                    digits[digitIndex--] = (char) (digit + '0');
-                    ++binExp2;
-                    digit = fractRemaining % 10;
-                    fractRemaining /= 10;
-                }
-
-            } else {
-                digit = (int) (fractionBits % 10L);
-
-                for (fractionBits /= 10L; digit == 0; fractionBits /= 10L) {
-                    ++binExp2;
-                    digit = (int) (fractionBits % 10L);
-                }
-
-                while (fractionBits != 0L) {
-                    digits[digitIndex--] = (char) (digit + '0');
-                    ++binExp2;
-                    digit = (int) (fractionBits % 10L);
-                    fractionBits /= 10L;
-                }
-
-            }
-            digits[digitIndex] = (char) (digit + '0');
-
-            decExp = binExp2 + 1;
-            firstDigitIndex = digitIndex;
-            nDigits = digits.length - digitIndex;
-
-            //
-        } else {
-            int estDecExp = estimateDecExp(fractionBits, binExp);
-            int B5 = Math.max(0, -estDecExp);
-            int B2 = B5 + tinyBitCount + binExp;
-            int S5 = Math.max(0, estDecExp);
-            int S2 = S5 + tinyBitCount;
-            int M2 = B2 - significantBitCount;
-            fractionBits >>>= tailZeroes;
-            B2 -= fractBitCount - 1;
-            int common2factor = Math.min(B2, S2);
-            B2 -= common2factor;
-            S2 -= common2factor;
-            M2 -= common2factor;
-            if (fractBitCount == 1) {
-                --M2;
-            }
-
-            if (M2 < 0) {
-                B2 -= M2;
-                S2 -= M2;
-                M2 = 0;
-            }
-
-            int bBits = fractBitCount + B2 + (B5 < N_5_BITS.length ? N_5_BITS[B5] : B5 * 3);
-            int tenBits = S2 + 1 + (S5 + 1 < N_5_BITS.length ? N_5_BITS[S5 + 1] : (S5 + 1) * 3);
-            boolean low;
-            boolean high;
-            long lowDigitDifference;
-            int q;
-            int digitIndex;
-            if (bBits < 64 && tenBits < 64) {
-                if (bBits < 32 && tenBits < 32) {
-                    int b = (int) fractionBits * SMALL_5_POW[B5] << B2;
-                    int s = SMALL_5_POW[S5] << S2;
-                    int m = SMALL_5_POW[B5] << M2;
-                    int tens = s * 10;
-                    digitIndex = 0;
-                    q = b / s;
-                    b = 10 * (b % s);
-                    m *= 10;
-                    low = b < m;
-                    high = b + m > tens;
-
-                    assert q < 10 : q;
-
-                    if (q == 0 && !high) {
-                        --estDecExp;
-                    } else {
-                        digits[digitIndex++] = (char) ('0' + q);
-                    }
-
-                    if (estDecExp < -3 || estDecExp >= 8) {
-                        low = false;
-                        high = false;
-                    }
-
-                    for (; !low && !high; digits[digitIndex++] = (char) ('0' + q)) {
-                        q = b / s;
-                        b = 10 * (b % s);
-                        m *= 10;
-
-                        assert q < 10 : q;
-
-                        if ((long) m > 0L) {
-                            low = b < m;
-                            high = b + m > tens;
-                        } else {
-                            low = true;
-                            high = true;
-                        }
-                    }
-
-                    lowDigitDifference = (b << 1) - tens;
-                } else {
-                    long b = fractionBits * LONG_5_POW[B5] << B2;
-                    long s = LONG_5_POW[S5] << S2;
-                    long m = LONG_5_POW[B5] << M2;
-                    long tens = s * 10L;
-                    digitIndex = 0;
-                    q = (int) (b / s);
-                    b = 10L * (b % s);
-                    m *= 10L;
-                    low = b < m;
-                    high = b + m > tens;
-
-                    assert q < 10 : q;
-
-                    if (q == 0 && !high) {
-                        --estDecExp;
-                    } else {
-                        digits[digitIndex++] = (char) ('0' + q);
-                    }
-
-                    if (estDecExp < -3 || estDecExp >= 8) {
-                        low = false;
-                        high = false;
-                    }
-
-                    for (; !low && !high; digits[digitIndex++] = (char) ('0' + q)) {
-                        q = (int) (b / s);
-                        b = 10L * (b % s);
-                        m *= 10L;
-
-                        assert q < 10 : q;
-
-                        if (m > 0L) {
-                            low = b < m;
-                            high = b + m > tens;
-                        } else {
-                            low = true;
-                            high = true;
-                        }
-                    }
-                    lowDigitDifference = (b << 1) - tens;
-                }
-            } else {
-                FDBigInteger sVal = FDBigInteger.valueOfPow52(S5, S2);
-                final int shiftBias = sVal.getNormalizationBias();
-                sVal = sVal.leftShift(shiftBias);
-                FDBigInteger bVal = FDBigInteger.valueOfMulPow52(fractionBits, B5, B2 + shiftBias);
-                FDBigInteger mVal = FDBigInteger.valueOfPow52(B5 + 1, M2 + shiftBias + 1);
-                FDBigInteger tensVal = FDBigInteger.valueOfPow52(S5 + 1, S2 + shiftBias + 1);
-                digitIndex = 0;
-                q = bVal.quoRemIteration(sVal);
-                low = bVal.cmp(mVal) < 0;
-                high = tensVal.addAndCmp(bVal, mVal) <= 0;
-
-                assert q < 10 : q;
-
-                if (q == 0 && !high) {
-                    --estDecExp;
-                } else {
-                    digits[digitIndex++] = (char) ('0' + q);
-                }
-
-                if (estDecExp < -3 || estDecExp >= 8) {
-                    low = false;
-                    high = false;
-                }
-
-                while (!low && !high) {
-                    q = bVal.quoRemIteration(sVal);
-
-                    assert q < 10 : q;
-
-                    mVal = mVal.multBy10();
-                    low = bVal.cmp(mVal) < 0;
-                    high = tensVal.addAndCmp(bVal, mVal) <= 0;
-                    digits[digitIndex++] = (char) ('0' + q);
-                }
-
-                if (high && low) {
-                    bVal = bVal.leftShift(1);
-                    lowDigitDifference = bVal.cmp(tensVal);
-                } else {
-                    lowDigitDifference = 0L;
-                }
-            }
-
-            decExp = estDecExp + 1;
-            firstDigitIndex = 0;
-            nDigits = digitIndex;
-            if (high) {
-                if (low) {
-                    if (lowDigitDifference == 0L) {
-                        if ((digits[firstDigitIndex + nDigits - 1] & 1) != 0) {
-                            if (roundup(firstDigitIndex, digits, nDigits)) {
-                                decExp++;
-                            }
-                        }
-                    } else if (lowDigitDifference > 0L) {
-                        if (roundup(firstDigitIndex, digits, nDigits)) {
-                            decExp++;
-                        }
-                    }
-                } else {
-                    if (roundup(firstDigitIndex, digits, nDigits)) {
-                        decExp++;
-                    }
-                }
-            }
-        }
-
-        append(digits, firstDigitIndex, nDigits, negative, decExp, out);
-    }
-
     private static void append(
             char[] digits,
             int firstDigitIndex,
@@ -2215,46 +2122,6 @@ public final class Numbers {
         }
     }
 
-    private static boolean roundup(int firstDigitIndex, char[] digits, int nDigits) {
-        int charIndex = firstDigitIndex + nDigits - 1;
-        char c = digits[charIndex];
-        if (c == '9') {
-            while (true) {
-                if (c != '9' || charIndex <= firstDigitIndex) {
-                    if (c == '9') {
-                        digits[firstDigitIndex] = '1';
-                        return true;
-                    }
-                    break;
-                }
-
-                digits[charIndex] = '0';
-                --charIndex;
-                c = digits[charIndex];
-            }
-        }
-
-        digits[charIndex] = (char) (c + 1);
-        return false;
-    }
-
-    private static int estimateDecExp(long fractBits, int binExp) {
-        double d2 = Double.longBitsToDouble(EXP_ONE | fractBits & SIGNIF_BIT_MASK);
-        double d = (d2 - 1.5D) * 0.289529654D + 0.176091259D + (double) binExp * 0.301029995663981D;
-        long dBits = Double.doubleToRawLongBits(d);
-        int exponent = (int) ((dBits & EXP_BIT_MASK) >> EXP_SHIFT) - EXP_BIAS;
-        final boolean isNegative = (dBits & SIGN_BIT_MASK) != 0L;
-        if (exponent > -1 && exponent < 52) {
-            final long mask = SIGNIF_BIT_MASK >> exponent;
-            final int r = (int) ((dBits & SIGNIF_BIT_MASK | FRACT_HOB) >> EXP_SHIFT - exponent);
-            return isNegative ? ((mask & dBits) == 0L ? -r : -r - 1) : r;
-        } else if (exponent < 0) {
-            return (dBits & ~SIGN_BIT_MASK) == 0L ? 0 : (isNegative ? -1 : 0);
-        } else {
-            return (int) d;
-        }
-    }
-
     @FunctionalInterface
     private interface LongHexAppender {
         void append(CharSink sink, long value);
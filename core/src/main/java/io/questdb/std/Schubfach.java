@@ -0,0 +1,193 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.std;
+
+import java.math.BigInteger;
+
+/**
+ * Shortest decimal that rounds back to the same binary64 value, after Raffaello Giulietti,
+ * "The Schubfach way to render doubles". Of all shortest candidates the one closest to the
+ * double is chosen, ties resolved to even digit. Conversion uses 64-bit arithmetic and a
+ * table of 126-bit powers of ten only, it does not allocate.
+ */
+final class Schubfach {
+    private static final int P = 53;
+    private static final int Q_MIN = -1074;
+    private static final long C_MIN = 1L << (P - 1);
+    private static final long T_MASK = C_MIN - 1;
+    private static final int BQ_MASK = 0x7FF;
+    // subnormals below this significand are scaled up by 10 to get enough precision
+    private static final long C_TINY = 3;
+    private static final int K_MIN = -324;
+    private static final int K_MAX = 292;
+    private static final long MASK_63 = 0x7FFF_FFFF_FFFF_FFFFL;
+    private static final long[] g = new long[(K_MAX - K_MIN + 1) * 2];
+
+    private Schubfach() {
+    }
+
+    /**
+     * Converts finite, non-zero double to decimal digits. Sign is ignored. Digits
+     * are written to the start of the buffer without trailing zeroes and represent
+     * value 0.d1d2...dn * 10^decExp.
+     *
+     * @param value  finite non-zero double
+     * @param digits buffer of at least 17 chars
+     * @return digit count and decimal exponent encoded via {@link Numbers#encodeLowHighInts(int, int)}
+     */
+    static long toDigits(double value, char[] digits) {
+        final long bits = Double.doubleToRawLongBits(value);
+        final long t = bits & T_MASK;
+        final int bq = (int) (bits >>> (P - 1)) & BQ_MASK;
+        assert bq < BQ_MASK && (bq != 0 || t != 0);
+
+        if (bq != 0) {
+            final int mq = -Q_MIN + 1 - bq;
+            final long c = C_MIN | t;
+            if (0 < mq & mq < P) {
+                // integer value, digits are exact
+                final long f = c >> mq;
+                if (f << mq == c) {
+                    return toDigits(f, 0, digits);
+                }
+            }
+            return toDecimal(-mq, c, 0, digits);
+        }
+        return t < C_TINY ? toDecimal(Q_MIN, 10 * t, -1, digits) : toDecimal(Q_MIN, t, 0, digits);
+    }
+
+    private static long toDecimal(int q, long c, int dk, char[] digits) {
+        final int out = (int) c & 0x1;
+        final long cb = c << 2;
+        final long cbr = cb + 2;
+        final long cbl;
+        final int k;
+        if (c != C_MIN | q == Q_MIN) {
+            // regular spacing
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            // irregular spacing, lower neighbour is twice as close
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        final int h = q + flog2pow10(-k) + 2;
+
+        final int index = (k - K_MIN) << 1;
+        final long g1 = g[index];
+        final long g0 = g[index + 1];
+
+        final long vb = rop(g1, g0, cb << h);
+        final long vbl = rop(g1, g0, cbl << h);
+        final long vbr = rop(g1, g0, cbr << h);
+
+        final long s = vb >> 2;
+        if (s >= 100) {
+            // try one digit shorter first, sp10 = 10 * floor(s / 10)
+            final long sp10 = 10 * Math.multiplyHigh(s, 115_292_150_460_684_698L << 4);
+            final long tp10 = sp10 + 10;
+            final boolean upin = vbl + out <= sp10 << 2;
+            final boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                return toDigits(upin ? sp10 : tp10, k, digits);
+            }
+        }
+
+        final long t = s + 1;
+        final boolean uin = vbl + out <= s << 2;
+        final boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            return toDigits(uin ? s : t, k + dk, digits);
+        }
+        // both candidates round trip, pick the closest one
+        final long cmp = vb - (s + t << 1);
+        return toDigits(cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk, digits);
+    }
+
+    private static long toDigits(long f, int e, char[] digits) {
+        while (f % 10 == 0) {
+            f /= 10;
+            e++;
+        }
+
+        int len = 1;
+        for (long x = f; x >= 10; x /= 10) {
+            len++;
+        }
+
+        for (int i = len - 1; i >= 0; i--) {
+            digits[i] = (char) ('0' + f % 10);
+            f /= 10;
+        }
+        return Numbers.encodeLowHighInts(len, e + len);
+    }
+
+    // rounding to odd of g * cp / 2^127
+    private static long rop(long g1, long g0, long cp) {
+        final long x1 = Math.multiplyHigh(g0, cp);
+        final long y0 = g1 * cp;
+        final long y1 = Math.multiplyHigh(g1, cp);
+        final long z = (y0 >>> 1) + x1;
+        final long vbp = y1 + (z >>> 63);
+        return vbp | (z & MASK_63) + MASK_63 >>> 63;
+    }
+
+    // floor(log10(2^e))
+    private static int flog10pow2(int e) {
+        return (int) (e * 661_971_961_083L >> 41);
+    }
+
+    // floor(log10(3/4 * 2^e))
+    private static int flog10threeQuartersPow2(int e) {
+        return (int) (e * 661_971_961_083L + -274_743_187_321L >> 41);
+    }
+
+    // floor(log2(10^e))
+    private static int flog2pow10(int e) {
+        return (int) (e * 913_124_641_741L >> 38);
+    }
+
+    static {
+        // 10^-k = beta * 2^r, where 2^125 <= beta < 2^126; table holds floor(beta) + 1
+        // split into upper and lower 63 bits
+        final BigInteger ten = BigInteger.TEN;
+        final BigInteger mask63 = BigInteger.ONE.shiftLeft(63).subtract(BigInteger.ONE);
+        for (int k = K_MIN; k <= K_MAX; k++) {
+            BigInteger beta;
+            if (k <= 0) {
+                beta = ten.pow(-k);
+                final int bits = beta.bitLength();
+                beta = bits <= 126 ? beta.shiftLeft(126 - bits) : beta.shiftRight(bits - 126);
+            } else {
+                final BigInteger pow10 = ten.pow(k);
+                beta = BigInteger.ONE.shiftLeft(125 + pow10.bitLength()).divide(pow10);
+            }
+            final BigInteger gk = beta.add(BigInteger.ONE);
+            final int index = (k - K_MIN) << 1;
+            g[index] = gk.shiftRight(63).longValue();
+            g[index + 1] = gk.and(mask63).longValue();
+        }
+    }
+}
@@ -87,6 +87,8 @@ public class PropServerConfigurationTest {
         Assert.assertEquals("Keep-Alive: timeout=5, max=10000" + Misc.EOL, configuration.getHttpServerConfiguration().getStaticContentProcessorConfiguration().getKeepAliveHeader());
 
         Assert.assertEquals(256, configuration.getHttpServerConfiguration().getDispatcherConfiguration().getActiveConnectionLimit());
+        Assert.assertEquals(1, configuration.getHttpServerConfiguration().getDispatcherConfiguration().getDispatcherCount());
+        Assert.assertFalse(configuration.getHttpServerConfiguration().getDispatcherConfiguration().isIOUringEnabled());
         Assert.assertEquals(1024, configuration.getHttpServerConfiguration().getDispatcherConfiguration().getEventCapacity());
         Assert.assertEquals(1024, configuration.getHttpServerConfiguration().getDispatcherConfiguration().getIOQueueCapacity());
         Assert.assertEquals(300000, configuration.getHttpServerConfiguration().getDispatcherConfiguration().getIdleConnectionTimeout());
@@ -116,6 +118,7 @@ public class PropServerConfigurationTest {
 
         Assert.assertEquals(CommitMode.NOSYNC, configuration.getCairoConfiguration().getCommitMode());
         Assert.assertEquals(2097152, configuration.getCairoConfiguration().getSqlCopyBufferSize());
+        Assert.assertEquals(64 * 1024 * 1024, configuration.getCairoConfiguration().getSqlCopyParallelChunkSize());
         Assert.assertEquals(32, configuration.getCairoConfiguration().getCopyPoolCapacity());
         Assert.assertEquals(5, configuration.getCairoConfiguration().getCreateAsSelectRetryCount());
         Assert.assertEquals("fast", configuration.getCairoConfiguration().getDefaultMapType());
@@ -130,8 +133,10 @@ public class PropServerConfigurationTest {
         Assert.assertEquals(509, configuration.getCairoConfiguration().getMkDirMode());
 
         Assert.assertEquals(100000, configuration.getCairoConfiguration().getParallelIndexThreshold());
+        Assert.assertEquals(1024 * 1024, configuration.getCairoConfiguration().getBloomFilterSize());
         Assert.assertEquals(5, configuration.getCairoConfiguration().getReaderPoolMaxSegments());
         Assert.assertEquals(1_000_000, configuration.getCairoConfiguration().getSpinLockTimeoutUs());
+        Assert.assertEquals(1_000, configuration.getCairoConfiguration().getGroupCommitWaitTimeout());
         Assert.assertEquals(1024, configuration.getCairoConfiguration().getSqlCharacterStoreCapacity());
         Assert.assertEquals(64, configuration.getCairoConfiguration().getSqlCharacterStoreSequencePoolCapacity());
         Assert.assertEquals(4096, configuration.getCairoConfiguration().getSqlColumnPoolCapacity());
@@ -151,6 +156,13 @@ public class PropServerConfigurationTest {
         Assert.assertEquals(16 * 1024 * 1024, configuration.getCairoConfiguration().getSqlSortValuePageSize());
         Assert.assertEquals(10000, configuration.getCairoConfiguration().getWorkStealTimeoutNanos());
         Assert.assertTrue(configuration.getCairoConfiguration().isParallelIndexingEnabled());
+        Assert.assertTrue(configuration.getCairoConfiguration().isParallelColumnSyncEnabled());
+        Assert.assertFalse(configuration.getCairoConfiguration().isBackupFileLevelEnabled());
+        Assert.assertNull(configuration.getCairoConfiguration().getColdRoot());
+        Assert.assertEquals(30, configuration.getCairoConfiguration().getColdPartitionAgeDays());
+        Assert.assertFalse(configuration.getCairoConfiguration().isColumnAccessAdviceEnabled());
+        Assert.assertFalse(configuration.getCairoConfiguration().isColumnPrefetchEnabled());
+        Assert.assertTrue(configuration.getCairoConfiguration().isSharedColumnMappingEnabled());
         Assert.assertEquals(16 * 1024, configuration.getCairoConfiguration().getSqlJoinMetadataPageSize());
         Assert.assertEquals(64, configuration.getCairoConfiguration().getAnalyticColumnPoolCapacity());
         Assert.assertEquals(128, configuration.getCairoConfiguration().getWithClauseModelPoolCapacity());
@@ -172,6 +184,13 @@ public class PropServerConfigurationTest {
         Assert.assertTrue(configuration.getLineUdpReceiverConfiguration().isEnabled());
         Assert.assertEquals(-1, configuration.getLineUdpReceiverConfiguration().ownThreadAffinity());
         Assert.assertFalse(configuration.getLineUdpReceiverConfiguration().ownThread());
+        Assert.assertEquals(0, configuration.getLineUdpReceiverConfiguration().getWriterShardCount());
+        Assert.assertEquals(1024, configuration.getLineUdpReceiverConfiguration().getWriterQueueCapacity());
+        Assert.assertEquals(1, configuration.getLineUdpReceiverConfiguration().getReceiverCount());
+        Assert.assertEquals(0, configuration.getLineUdpReceiverConfiguration().getMaxCommitLatency());
+        Assert.assertEquals(0, configuration.getLineUdpReceiverConfiguration().getMaxUncommittedRows());
+        Assert.assertEquals(0, configuration.getLineUdpReceiverConfiguration().getMaxUncommittedBytes());
+        Assert.assertArrayEquals(new int[]{-1}, configuration.getLineUdpReceiverConfiguration().getReceiverAffinity());
 
         // statics
         Assert.assertSame(FilesFacadeImpl.INSTANCE, configuration.getHttpServerConfiguration().getStaticContentProcessorConfiguration().getFilesFacade());
@@ -331,6 +350,8 @@ public class PropServerConfigurationTest {
             Assert.assertTrue(configuration.getHttpServerConfiguration().allowDeflateBeforeSend());
 
             Assert.assertEquals(64, configuration.getHttpServerConfiguration().getDispatcherConfiguration().getActiveConnectionLimit());
+            Assert.assertEquals(4, configuration.getHttpServerConfiguration().getDispatcherConfiguration().getDispatcherCount());
+            Assert.assertTrue(configuration.getHttpServerConfiguration().getDispatcherConfiguration().isIOUringEnabled());
             Assert.assertEquals(2048, configuration.getHttpServerConfiguration().getDispatcherConfiguration().getEventCapacity());
             Assert.assertEquals(64, configuration.getHttpServerConfiguration().getDispatcherConfiguration().getIOQueueCapacity());
             Assert.assertEquals(7000000, configuration.getHttpServerConfiguration().getDispatcherConfiguration().getIdleConnectionTimeout());
@@ -375,6 +396,7 @@ public class PropServerConfigurationTest {
             Assert.assertEquals(1000000, configuration.getCairoConfiguration().getParallelIndexThreshold());
             Assert.assertEquals(10, configuration.getCairoConfiguration().getReaderPoolMaxSegments());
             Assert.assertEquals(5_000_000, configuration.getCairoConfiguration().getSpinLockTimeoutUs());
+            Assert.assertEquals(250, configuration.getCairoConfiguration().getGroupCommitWaitTimeout());
             Assert.assertEquals(2048, configuration.getCairoConfiguration().getSqlCharacterStoreCapacity());
             Assert.assertEquals(128, configuration.getCairoConfiguration().getSqlCharacterStoreSequencePoolCapacity());
             Assert.assertEquals(2048, configuration.getCairoConfiguration().getSqlColumnPoolCapacity());
@@ -394,6 +416,13 @@ public class PropServerConfigurationTest {
             Assert.assertEquals(4 * 1024 * 1024, configuration.getCairoConfiguration().getSqlSortValuePageSize());
             Assert.assertEquals(1000000, configuration.getCairoConfiguration().getWorkStealTimeoutNanos());
             Assert.assertFalse(configuration.getCairoConfiguration().isParallelIndexingEnabled());
+            Assert.assertFalse(configuration.getCairoConfiguration().isParallelColumnSyncEnabled());
+            Assert.assertTrue(configuration.getCairoConfiguration().isBackupFileLevelEnabled());
+            TestUtils.assertEquals(new File(root, "cold").getAbsolutePath(), configuration.getCairoConfiguration().getColdRoot());
+            Assert.assertEquals(90, configuration.getCairoConfiguration().getColdPartitionAgeDays());
+            Assert.assertTrue(configuration.getCairoConfiguration().isColumnAccessAdviceEnabled());
+            Assert.assertTrue(configuration.getCairoConfiguration().isColumnPrefetchEnabled());
+            Assert.assertFalse(configuration.getCairoConfiguration().isSharedColumnMappingEnabled());
             Assert.assertEquals(8 * 1024, configuration.getCairoConfiguration().getSqlJoinMetadataPageSize());
 
             Assert.assertEquals(256, configuration.getCairoConfiguration().getAnalyticColumnPoolCapacity());
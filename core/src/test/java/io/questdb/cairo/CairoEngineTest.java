@@ -25,6 +25,7 @@
 package io.questdb.cairo;
 
 import io.questdb.cairo.pool.PoolListener;
+import io.questdb.cairo.pool.ex.EntryUnavailableException;
 import io.questdb.cairo.security.AllowAllCairoSecurityContext;
 import io.questdb.cairo.sql.ReaderOutOfDateException;
 import io.questdb.mp.Job;
@@ -35,6 +36,8 @@ import io.questdb.test.tools.TestUtils;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.concurrent.CountDownLatch;
+
 public class CairoEngineTest extends AbstractCairoTest {
     private final static Path path = new Path();
     private final static Path otherPath = new Path();
@@ -380,6 +383,210 @@ public class CairoEngineTest extends AbstractCairoTest {
         });
     }
 
+    @Test
+    public void testGroupCommit() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            createX();
+
+            class InsertTask extends GroupCommitQueue.Task {
+                final CountDownLatch appending = new CountDownLatch(1);
+                final CountDownLatch release = new CountDownLatch(1);
+                final int value;
+                volatile Thread appendedBy;
+                volatile Throwable error;
+
+                InsertTask(int value, boolean blocking) {
+                    this.value = value;
+                    if (!blocking) {
+                        release.countDown();
+                    }
+                }
+
+                @Override
+                protected void append(TableWriter writer) {
+                    appendedBy = Thread.currentThread();
+                    appending.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                    TableWriter.Row row = writer.newRow();
+                    if (value < 0) {
+                        throw CairoException.instance(0).put("negative value");
+                    }
+                    row.putInt(0, value);
+                    row.append();
+                }
+            }
+
+            final CairoConfiguration configuration = new DefaultCairoConfiguration(root) {
+                @Override
+                public long getGroupCommitWaitTimeout() {
+                    return 60_000;
+                }
+            };
+            try (CairoEngine engine = new CairoEngine(configuration)) {
+                final InsertTask leader = new InsertTask(1, true);
+                final InsertTask follower1 = new InsertTask(2, false);
+                final InsertTask follower2 = new InsertTask(-1, false);
+                final InsertTask follower3 = new InsertTask(3, false);
+                final InsertTask[] tasks = {leader, follower1, follower2, follower3};
+                final Thread[] threads = new Thread[tasks.length];
+
+                for (int i = 0; i < tasks.length; i++) {
+                    final InsertTask task = tasks[i];
+                    threads[i] = new Thread(() -> {
+                        try {
+                            engine.appendAndCommit(AllowAllCairoSecurityContext.INSTANCE, "x", task);
+                        } catch (Throwable e) {
+                            task.error = e;
+                        }
+                    });
+                }
+
+                threads[0].start();
+                leader.appending.await();
+
+                // followers queue up while leader is committing
+                for (int i = 1; i < threads.length; i++) {
+                    threads[i].start();
+                    while (threads[i].getState() != Thread.State.TIMED_WAITING) {
+                        Thread.yield();
+                    }
+                }
+
+                leader.release.countDown();
+                for (int i = 0; i < threads.length; i++) {
+                    threads[i].join();
+                }
+
+                Assert.assertEquals(threads[0], leader.appendedBy);
+                Assert.assertNull(leader.error);
+
+                // followers were appended by one of them in a single batch
+                Assert.assertNotNull(follower1.appendedBy);
+                Assert.assertEquals(follower1.appendedBy, follower2.appendedBy);
+                Assert.assertEquals(follower1.appendedBy, follower3.appendedBy);
+                Assert.assertNull(follower1.error);
+                Assert.assertNull(follower3.error);
+                Assert.assertTrue(follower2.error instanceof CairoException);
+                TestUtils.assertContains(((CairoException) follower2.error).getFlyweightMessage(), "negative value");
+
+                try (TableReader reader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, "x")) {
+                    sink.clear();
+                    printer.print(reader.getCursor(), reader.getMetadata(), true);
+                    TestUtils.assertEquals("a\n1\n2\n3\n", sink);
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testGroupCommitWaitTimeout() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            createX();
+
+            final CairoConfiguration configuration = new DefaultCairoConfiguration(root) {
+                @Override
+                public long getGroupCommitWaitTimeout() {
+                    return 10;
+                }
+            };
+            try (CairoEngine engine = new CairoEngine(configuration)) {
+                final CountDownLatch appending = new CountDownLatch(1);
+                final CountDownLatch release = new CountDownLatch(1);
+                final Thread leader = new Thread(() -> engine.appendAndCommit(AllowAllCairoSecurityContext.INSTANCE, "x", new GroupCommitQueue.Task() {
+                    @Override
+                    protected void append(TableWriter writer) {
+                        appending.countDown();
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            throw new RuntimeException(e);
+                        }
+                        TableWriter.Row row = writer.newRow();
+                        row.putInt(0, 1);
+                        row.append();
+                    }
+                }));
+                leader.start();
+                appending.await();
+
+                // inserter does not wait for leader's commit longer than configured
+                try {
+                    engine.appendAndCommit(AllowAllCairoSecurityContext.INSTANCE, "x", new GroupCommitQueue.Task() {
+                        @Override
+                        protected void append(TableWriter writer) {
+                            Assert.fail();
+                        }
+                    });
+                    Assert.fail();
+                } catch (EntryUnavailableException ignored) {
+                } finally {
+                    release.countDown();
+                    leader.join();
+                }
+                assertTableSize(engine, 1);
+            }
+        });
+    }
+
+    @Test
+    public void testGroupCommitWriterUnavailable() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            createX();
+
+            try (CairoEngine engine = new CairoEngine(configuration)) {
+                final GroupCommitQueue.Task task = new GroupCommitQueue.Task() {
+                    @Override
+                    protected void append(TableWriter writer) {
+                        Assert.fail();
+                    }
+                };
+
+                // writer is busy in another thread
+                final CountDownLatch acquired = new CountDownLatch(1);
+                final CountDownLatch release = new CountDownLatch(1);
+                final Thread thread = new Thread(() -> {
+                    try (TableWriter ignored = engine.getWriter(AllowAllCairoSecurityContext.INSTANCE, "x")) {
+                        acquired.countDown();
+                        release.await();
+                    } catch (InterruptedException ignored) {
+                    }
+                });
+                thread.start();
+                acquired.await();
+
+                try {
+                    engine.appendAndCommit(AllowAllCairoSecurityContext.INSTANCE, "x", task);
+                    Assert.fail();
+                } catch (EntryUnavailableException ignored) {
+                } finally {
+                    release.countDown();
+                    thread.join();
+                }
+
+                // writer is available again
+                engine.appendAndCommit(AllowAllCairoSecurityContext.INSTANCE, "x", new GroupCommitQueue.Task() {
+                    @Override
+                    protected void append(TableWriter writer) {
+                        TableWriter.Row row = writer.newRow();
+                        row.putInt(0, 7);
+                        row.append();
+                    }
+                });
+                assertTableSize(engine, 1);
+            }
+        });
+    }
+
+    private void assertTableSize(CairoEngine engine, long expected) {
+        try (TableReader reader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, "x")) {
+            Assert.assertEquals(expected, reader.size());
+        }
+    }
+
     private void assertReader(CairoEngine engine, String name) {
         try (TableReader reader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, name, TableUtils.ANY_TABLE_VERSION)) {
             Assert.assertNotNull(reader);
@@ -35,6 +35,9 @@ import io.questdb.std.microtime.Timestamps;
 import io.questdb.std.str.LPSZ;
 import io.questdb.std.str.StringSink;
 import io.questdb.tasks.ColumnIndexerTask;
+import io.questdb.tasks.ColumnPrefetchTask;
+import io.questdb.tasks.ColumnSyncTask;
+import io.questdb.tasks.TextImportTask;
 import io.questdb.tasks.VectorAggregateTask;
 import io.questdb.test.tools.TestUtils;
 import org.junit.Assert;
@@ -2448,6 +2451,36 @@ public class FullFwdDataFrameCursorTest extends AbstractCairoTest {
         }
 
 
+        @Override
+        public Sequence getColumnPrefetchPubSequence() {
+            return null;
+        }
+
+        @Override
+        public RingQueue<ColumnPrefetchTask> getColumnPrefetchQueue() {
+            return null;
+        }
+
+        @Override
+        public Sequence getColumnPrefetchSubSequence() {
+            return null;
+        }
+
+        @Override
+        public Sequence getColumnSyncPubSequence() {
+            return null;
+        }
+
+        @Override
+        public RingQueue<ColumnSyncTask> getColumnSyncQueue() {
+            return null;
+        }
+
+        @Override
+        public Sequence getColumnSyncSubSequence() {
+            return null;
+        }
+
         @Override
         public Sequence getIndexerPubSequence() {
             return pubSeq;
@@ -2463,6 +2496,21 @@ public class FullFwdDataFrameCursorTest extends AbstractCairoTest {
             return subSeq;
         }
 
+        @Override
+        public Sequence getTextImportPubSequence() {
+            return null;
+        }
+
+        @Override
+        public RingQueue<TextImportTask> getTextImportQueue() {
+            return null;
+        }
+
+        @Override
+        public Sequence getTextImportSubSequence() {
+            return null;
+        }
+
         @Override
         public RingQueue<VectorAggregateTask> getVectorAggregateQueue() {
             return null;
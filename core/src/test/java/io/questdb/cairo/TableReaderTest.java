@@ -1754,6 +1754,86 @@ public class TableReaderTest extends AbstractCairoTest {
         });
     }
 
+    @Test
+    public void testOpenColumnsOnAccess() throws Exception {
+        final ObjList<String> opened = new ObjList<>();
+        final FilesFacade ff = new FilesFacadeImpl() {
+            @Override
+            public long openRO(LPSZ name) {
+                if (Chars.endsWith(name, ".d") || Chars.endsWith(name, ".i")) {
+                    final String path = name.toString();
+                    opened.add(path.substring(path.lastIndexOf(Files.SEPARATOR) + 1));
+                }
+                return super.openRO(name);
+            }
+        };
+
+        TestUtils.assertMemoryLeak(() -> {
+            try (TableModel model = new TableModel(configuration, "x", PartitionBy.DAY)
+                    .col("a", ColumnType.INT)
+                    .col("b", ColumnType.STRING)
+                    .col("c", ColumnType.LONG)
+                    .timestamp()) {
+                CairoTestUtils.create(model);
+            }
+
+            final int N = 300;
+            final long increment = Timestamps.MINUTE_MICROS * 18;
+            try (TableWriter writer = new TableWriter(configuration, "x")) {
+                for (int i = 0; i < N; i++) {
+                    TableWriter.Row r = writer.newRow(i * increment);
+                    r.putInt(0, i);
+                    r.putStr(1, "s");
+                    r.putLong(2, i * 2L);
+                    r.append();
+                }
+                writer.commit();
+            }
+
+            CairoConfiguration configuration = new DefaultCairoConfiguration(root) {
+                @Override
+                public FilesFacade getFilesFacade() {
+                    return ff;
+                }
+            };
+
+            try (TableReader reader = new TableReader(configuration, "x")) {
+                RecordCursor cursor = reader.getCursor();
+                final Record record = cursor.getRecord();
+                int count = 0;
+                while (cursor.hasNext()) {
+                    Assert.assertEquals(count++, record.getInt(0));
+                }
+                Assert.assertEquals(N, count);
+                // only the column that has been read, once per partition
+                Assert.assertEquals("[a.d,a.d,a.d,a.d]", opened.toString());
+
+                try (TableWriter writer = new TableWriter(AbstractCairoTest.configuration, "x")) {
+                    for (int i = N; i < N + 10; i++) {
+                        TableWriter.Row r = writer.newRow(i * increment);
+                        r.putInt(0, i);
+                        r.putStr(1, "s");
+                        r.putLong(2, i * 2L);
+                        r.append();
+                    }
+                    writer.commit();
+                }
+
+                // columns opened after reload see rows appended to last partition
+                Assert.assertTrue(reader.reload());
+                opened.clear();
+                cursor = reader.getCursor();
+                count = 0;
+                while (cursor.hasNext()) {
+                    Assert.assertEquals(count * 2L, record.getLong(2));
+                    Assert.assertEquals(count++, record.getInt(0));
+                }
+                Assert.assertEquals(N + 10, count);
+                Assert.assertEquals("[c.d,c.d,c.d,c.d]", opened.toString());
+            }
+        });
+    }
+
     @Test
     public void testOver2GFile() throws Exception {
         TestUtils.assertMemoryLeak(() -> {
@@ -24,10 +24,14 @@
 
 package io.questdb.cairo;
 
+import io.questdb.MessageBus;
+import io.questdb.MessageBusImpl;
 import io.questdb.cairo.sql.Record;
 import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
+import io.questdb.mp.WorkerPool;
+import io.questdb.mp.WorkerPoolConfiguration;
 import io.questdb.std.*;
 import io.questdb.std.microtime.*;
 import io.questdb.std.str.LPSZ;
@@ -725,6 +729,141 @@ public class TableWriterTest extends AbstractCairoTest {
         });
     }
 
+    @Test
+    public void testAppendBatch() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            for (String name : new String[]{"rows", "batch"}) {
+                try (TableModel model = new TableModel(configuration, name, PartitionBy.DAY)
+                        .col("id", ColumnType.LONG)
+                        .col("name", ColumnType.STRING)
+                        .col("sym", ColumnType.SYMBOL)
+                        .col("price", ColumnType.DOUBLE)
+                        .col("qty", ColumnType.INT)
+                        .timestamp()) {
+                    CairoTestUtils.create(model);
+                }
+            }
+
+            final int N = 1000;
+            final long increment = 60 * 60000L * 1000L;
+            final long ts = TimestampFormatUtils.parseDateTime("2013-03-04T00:00:00.000Z");
+            final ObjList<CharSequence> dictionary = new ObjList<>();
+            dictionary.add("AB");
+            dictionary.add("CD");
+            dictionary.add("EF");
+
+            final long timestamps = Unsafe.malloc(N * 8L);
+            final long ids = Unsafe.malloc(N * 8L);
+            final long prices = Unsafe.malloc(N * 8L);
+            final long keys = Unsafe.malloc(N * 4L);
+            final long namesSize = N * 64L;
+            final long names = Unsafe.malloc(namesSize);
+            try {
+                Rnd rnd = new Rnd();
+                long p = names;
+                try (TableWriter writer = new TableWriter(configuration, "rows")) {
+                    for (int i = 0; i < N; i++) {
+                        final long timestamp = ts + i * increment;
+                        final long id = rnd.nextLong();
+                        final CharSequence name = rnd.nextInt() % 5 == 0 ? null : rnd.nextChars(rnd.nextPositiveInt() % 20);
+                        final int key = rnd.nextPositiveInt() % (dictionary.size() + 1) - 1;
+                        final double price = rnd.nextDouble();
+
+                        TableWriter.Row row = writer.newRow(timestamp);
+                        row.putLong(0, id);
+                        row.putStr(1, name);
+                        row.putSym(2, key == -1 ? null : dictionary.getQuick(key));
+                        row.putDouble(3, price);
+                        row.append();
+
+                        Unsafe.getUnsafe().putLong(timestamps + i * 8L, timestamp);
+                        Unsafe.getUnsafe().putLong(ids + i * 8L, id);
+                        Unsafe.getUnsafe().putDouble(prices + i * 8L, price);
+                        Unsafe.getUnsafe().putInt(keys + i * 4L, key);
+                        if (name == null) {
+                            Unsafe.getUnsafe().putInt(p, TableUtils.NULL_LEN);
+                            p += 4;
+                        } else {
+                            Unsafe.getUnsafe().putInt(p, name.length());
+                            p += 4;
+                            for (int c = 0, n = name.length(); c < n; c++) {
+                                Unsafe.getUnsafe().putChar(p, name.charAt(c));
+                                p += 2;
+                            }
+                        }
+                    }
+                    writer.commit();
+                }
+
+                try (TableWriter writer = new TableWriter(configuration, "batch")) {
+                    // two batches to make sure second one picks up where first has left off
+                    ColumnBatch batch = new ColumnBatch();
+                    writer.appendBatch(batch.of(6, N)
+                            .setTimestamps(timestamps)
+                            .setColumn(0, ids)
+                            .setColumn(1, names)
+                            .setSymbolColumn(2, keys, dictionary)
+                            .setColumn(3, prices)
+                    );
+                    writer.commit();
+                    Assert.assertEquals(N, writer.size());
+
+                    try {
+                        writer.appendBatch(batch.of(6, N).setTimestamps(timestamps));
+                        Assert.fail();
+                    } catch (CairoException e) {
+                        TestUtils.assertContains(e.getMessage(), "out of order");
+                    }
+
+                    // batch is rejected as a whole, rows ahead of out of order one are not appended either
+                    final long tail = ts + N * increment;
+                    for (int i = 0; i < N; i++) {
+                        Unsafe.getUnsafe().putLong(timestamps + i * 8L, tail + i * increment);
+                    }
+                    Unsafe.getUnsafe().putLong(timestamps + (N - 1) * 8L, tail);
+                    try {
+                        writer.appendBatch(batch.of(6, N).setTimestamps(timestamps));
+                        Assert.fail();
+                    } catch (CairoException e) {
+                        TestUtils.assertContains(e.getMessage(), "out of order");
+                    }
+                    writer.commit();
+                    Assert.assertEquals(N, writer.size());
+
+                    Unsafe.getUnsafe().putLong(timestamps + (N - 1) * 8L, tail + (N - 1) * increment);
+                    Unsafe.getUnsafe().putInt(keys + (N / 2) * 4L, dictionary.size());
+                    try {
+                        writer.appendBatch(batch.of(6, N).setTimestamps(timestamps).setSymbolColumn(2, keys, dictionary));
+                        Assert.fail();
+                    } catch (CairoException e) {
+                        TestUtils.assertContains(e.getMessage(), "symbol key is out of dictionary bounds");
+                    }
+                    writer.commit();
+                    Assert.assertEquals(N, writer.size());
+                }
+
+                try (
+                        TableReader expected = new TableReader(configuration, "rows");
+                        TableReader actual = new TableReader(configuration, "batch")
+                ) {
+                    Assert.assertEquals(expected.size(), actual.size());
+                    sink.clear();
+                    printer.print(expected.getCursor(), expected.getMetadata(), true);
+                    final String expectedText = sink.toString();
+                    sink.clear();
+                    printer.print(actual.getCursor(), actual.getMetadata(), true);
+                    TestUtils.assertEquals(expectedText, sink);
+                }
+            } finally {
+                Unsafe.free(timestamps, N * 8L);
+                Unsafe.free(ids, N * 8L);
+                Unsafe.free(prices, N * 8L);
+                Unsafe.free(keys, N * 4L);
+                Unsafe.free(names, namesSize);
+            }
+        });
+    }
+
     @Test
     public void testAppendOutOfOrder() throws Exception {
         int N = 10000;
@@ -1808,6 +1947,33 @@ public class TableWriterTest extends AbstractCairoTest {
         });
     }
 
+    @Test
+    public void testParallelColumnSync() throws Exception {
+        final WorkerPool workerPool = new WorkerPool(new WorkerPoolConfiguration() {
+            @Override
+            public int[] getWorkerAffinity() {
+                return new int[]{-1, -1};
+            }
+
+            @Override
+            public int getWorkerCount() {
+                return 2;
+            }
+
+            @Override
+            public boolean haltOnError() {
+                return false;
+            }
+        });
+        testParallelColumnSync(workerPool);
+    }
+
+    @Test
+    public void testParallelColumnSyncStealWork() throws Exception {
+        // nobody picks up tasks from the queue, writer has to sync every column itself
+        testParallelColumnSync(null);
+    }
+
     @Test
     public void testRemoveColumnAfterTimestamp() throws Exception {
         try (TableModel model = new TableModel(configuration, "ABC", PartitionBy.DAY)
@@ -2943,6 +3109,61 @@ public class TableWriterTest extends AbstractCairoTest {
         });
     }
 
+    private void testParallelColumnSync(WorkerPool workerPool) throws Exception {
+        final SyncOrderFacade ff = new SyncOrderFacade();
+        final CairoConfiguration configuration = new DefaultCairoConfiguration(root) {
+            @Override
+            public FilesFacade getFilesFacade() {
+                return ff;
+            }
+        };
+        TestUtils.assertMemoryLeak(() -> {
+            try (TableModel model = new TableModel(configuration, "x", PartitionBy.NONE)) {
+                for (int i = 0; i < 8; i++) {
+                    model.col("i" + i, ColumnType.INT);
+                }
+                for (int i = 0; i < 4; i++) {
+                    model.col("s" + i, ColumnType.STRING);
+                }
+                CairoTestUtils.create(model.timestamp());
+            }
+
+            final MessageBus messageBus = new MessageBusImpl();
+            if (workerPool != null) {
+                workerPool.assign(new ColumnSyncJob(messageBus));
+                workerPool.start(LOG);
+            }
+
+            try {
+                final Rnd rnd = new Rnd();
+                try (TableWriter writer = new TableWriter(configuration, "x", messageBus)) {
+                    for (int i = 0; i < 1000; i++) {
+                        TableWriter.Row r = writer.newRow(i * 1000L);
+                        for (int k = 0; k < 8; k++) {
+                            r.putInt(k, rnd.nextInt());
+                        }
+                        for (int k = 8; k < 12; k++) {
+                            r.putStr(k, rnd.nextChars(10));
+                        }
+                        r.append();
+                    }
+                    writer.commit(CommitMode.SYNC);
+                }
+            } finally {
+                if (workerPool != null) {
+                    workerPool.halt();
+                }
+            }
+
+            // all data and string index files are on disk before transaction is
+            Assert.assertEquals(8 + 4 * 2 + 1, ff.columnSyncCountAtTxnSync);
+
+            try (TableReader reader = new TableReader(configuration, "x")) {
+                Assert.assertEquals(1000, reader.size());
+            }
+        });
+    }
+
     private void testRemoveColumn(TableModel model) throws Exception {
         TestUtils.assertMemoryLeak(() -> {
             CairoTestUtils.create(model);
@@ -3396,4 +3617,39 @@ public class TableWriterTest extends AbstractCairoTest {
     static class CountingFilesFacade extends FilesFacadeImpl {
         long count = Long.MAX_VALUE;
     }
-}
\ No newline at end of file
+
+    private static class SyncOrderFacade extends FilesFacadeImpl {
+        private final AtomicInteger syncCount = new AtomicInteger();
+        private long txnFd = -1;
+        private long txnAddress = -1;
+        private int columnSyncCountAtTxnSync = -1;
+
+        @Override
+        public long mmap(long fd, long len, long offset, int mode) {
+            final long address = super.mmap(fd, len, offset, mode);
+            if (fd == txnFd) {
+                txnAddress = address;
+            }
+            return address;
+        }
+
+        @Override
+        public int msync(long addr, long len, boolean async) {
+            if (addr == txnAddress) {
+                columnSyncCountAtTxnSync = syncCount.get();
+            } else {
+                syncCount.incrementAndGet();
+            }
+            return super.msync(addr, len, async);
+        }
+
+        @Override
+        public long openRW(LPSZ name) {
+            final long fd = super.openRW(name);
+            if (Chars.endsWith(name, TableUtils.TXN_FILE_NAME)) {
+                txnFd = fd;
+            }
+            return fd;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo.map;
+
+import io.questdb.cairo.*;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.std.LongList;
+import io.questdb.std.Numbers;
+import io.questdb.std.Rnd;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PrimitiveKeyMapTest extends AbstractCairoTest {
+
+    @Test
+    public void testAllValueTypes() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            ArrayColumnTypes valueTypes = new ArrayColumnTypes();
+            valueTypes.add(ColumnType.BYTE);
+            valueTypes.add(ColumnType.SHORT);
+            valueTypes.add(ColumnType.INT);
+            valueTypes.add(ColumnType.LONG);
+            valueTypes.add(ColumnType.FLOAT);
+            valueTypes.add(ColumnType.DOUBLE);
+            valueTypes.add(ColumnType.BOOLEAN);
+            valueTypes.add(ColumnType.DATE);
+
+            final Rnd rnd = new Rnd();
+            final int N = 100000;
+            try (PrimitiveKeyMap map = new PrimitiveKeyMap(64, new SingleColumnType(ColumnType.INT), valueTypes, 64, 0.8)) {
+                for (int i = 0; i < N; i++) {
+                    MapKey key = map.withKey();
+                    key.putInt(i * 31);
+                    MapValue value = key.createValue();
+                    Assert.assertTrue(value.isNew());
+
+                    value.putByte(0, rnd.nextByte());
+                    value.putShort(1, rnd.nextShort());
+                    value.putInt(2, rnd.nextInt());
+                    value.putLong(3, rnd.nextLong());
+                    value.putFloat(4, rnd.nextFloat());
+                    value.putDouble(5, rnd.nextDouble());
+                    value.putBool(6, rnd.nextBoolean());
+                    value.putDate(7, rnd.nextLong());
+                }
+                Assert.assertEquals(N, map.size());
+
+                rnd.reset();
+                for (int i = 0; i < N; i++) {
+                    MapKey key = map.withKey();
+                    key.putInt(i * 31);
+                    MapValue value = key.createValue();
+                    Assert.assertFalse(value.isNew());
+                    assertValue(rnd, value);
+                }
+                Assert.assertEquals(N, map.size());
+
+                // cursor iterates in order of insertion, values are followed by key
+                try (RecordCursor cursor = map.getCursor()) {
+                    for (int pass = 0; pass < 2; pass++) {
+                        rnd.reset();
+                        final MapRecord record = (MapRecord) cursor.getRecord();
+                        int i = 0;
+                        while (cursor.hasNext()) {
+                            assertValue(rnd, record.getValue());
+                            Assert.assertEquals(i * 31, record.getInt(8));
+                            i++;
+                        }
+                        Assert.assertEquals(N, i);
+                        cursor.toTop();
+                    }
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            try (PrimitiveKeyMap map = new PrimitiveKeyMap(1024, new SingleColumnType(ColumnType.SYMBOL), new SingleColumnType(ColumnType.LONG), 16, 0.5)) {
+                for (int pass = 0; pass < 2; pass++) {
+                    for (int i = 0; i < 1000; i++) {
+                        MapKey key = map.withKey();
+                        key.putInt(i % 100);
+                        MapValue value = key.createValue();
+                        if (value.isNew()) {
+                            value.putLong(0, 1);
+                        } else {
+                            value.addLong(0, 1);
+                        }
+                    }
+                    Assert.assertEquals(100, map.size());
+
+                    MapKey key = map.withKey();
+                    key.putInt(100);
+                    Assert.assertTrue(key.notFound());
+
+                    key = map.withKey();
+                    key.putInt(42);
+                    Assert.assertEquals(10, key.findValue().getLong(0));
+
+                    map.clear();
+                    Assert.assertEquals(0, map.size());
+                    Assert.assertFalse(map.getCursor().hasNext());
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testLongKeys() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            // keys differ only in high bits, e.g. timestamps of midnight
+            final long step = 86_400_000_000L;
+            final int N = 10000;
+            try (PrimitiveKeyMap map = new PrimitiveKeyMap(1024, new SingleColumnType(ColumnType.TIMESTAMP), new SingleColumnType(ColumnType.INT), 16, 0.5)) {
+                for (int i = 0; i < N; i++) {
+                    MapKey key = map.withKey();
+                    key.putTimestamp(i * step);
+                    MapValue value = key.createValue();
+                    Assert.assertTrue(value.isNew());
+                    value.putInt(0, i);
+                }
+
+                // Long.MIN_VALUE and -1 are regular keys
+                MapKey key = map.withKey();
+                key.putTimestamp(Numbers.LONG_NaN);
+                Assert.assertTrue(key.createValue().isNew());
+                key = map.withKey();
+                key.putTimestamp(-1);
+                Assert.assertTrue(key.createValue().isNew());
+                Assert.assertEquals(N + 2, map.size());
+
+                LongList rowIds = new LongList();
+                try (RecordCursor cursor = map.getCursor()) {
+                    final MapRecord record = (MapRecord) cursor.getRecord();
+                    int i = 0;
+                    while (cursor.hasNext() && i < N) {
+                        rowIds.add(record.getRowId());
+                        Assert.assertEquals(i, record.getInt(0));
+                        Assert.assertEquals(i * step, record.getTimestamp(1));
+                        i++;
+                    }
+
+                    final MapRecord recordB = (MapRecord) cursor.getRecordB();
+                    Assert.assertNotSame(record, recordB);
+                    for (i = 0; i < N; i++) {
+                        cursor.recordAt(recordB, rowIds.getQuick(i));
+                        Assert.assertEquals(i, recordB.getInt(0));
+                        Assert.assertEquals(i * step, recordB.getLong(1));
+                    }
+                }
+
+                for (int i = 0; i < N; i++) {
+                    key = map.withKey();
+                    key.putTimestamp(i * step);
+                    Assert.assertEquals(i, key.findValue().getInt(0));
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testMapFactory() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            final SingleColumnType valueTypes = new SingleColumnType(ColumnType.LONG);
+            final int[] primitive = {ColumnType.INT, ColumnType.SYMBOL, ColumnType.LONG, ColumnType.DATE, ColumnType.TIMESTAMP};
+            for (int type : primitive) {
+                try (Map map = MapFactory.createMap(configuration, new SingleColumnType(type), valueTypes)) {
+                    Assert.assertTrue(map instanceof PrimitiveKeyMap);
+                }
+                try (Map map = MapFactory.createMap(configuration, new SingleColumnType(type))) {
+                    Assert.assertTrue(map instanceof PrimitiveKeyMap);
+                }
+            }
+
+            try (Map map = MapFactory.createMap(configuration, new SingleColumnType(ColumnType.STRING), valueTypes)) {
+                Assert.assertTrue(map instanceof FastMap);
+            }
+
+            ArrayColumnTypes keyTypes = new ArrayColumnTypes();
+            keyTypes.add(ColumnType.INT);
+            keyTypes.add(ColumnType.LONG);
+            try (Map map = MapFactory.createMap(configuration, keyTypes, valueTypes)) {
+                Assert.assertTrue(map instanceof FastMap);
+            }
+        });
+    }
+
+    @Test
+    public void testUnsupportedKeyType() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            try {
+                new PrimitiveKeyMap(1024, new SingleColumnType(ColumnType.DOUBLE), new SingleColumnType(ColumnType.LONG), 16, 0.5);
+                Assert.fail();
+            } catch (CairoException e) {
+                TestUtils.assertContains(e.getFlyweightMessage(), "key type is not supported: DOUBLE");
+            }
+        });
+    }
+
+    private static void assertValue(Rnd rnd, MapValue value) {
+        Assert.assertEquals(rnd.nextByte(), value.getByte(0));
+        Assert.assertEquals(rnd.nextShort(), value.getShort(1));
+        Assert.assertEquals(rnd.nextInt(), value.getInt(2));
+        Assert.assertEquals(rnd.nextLong(), value.getLong(3));
+        Assert.assertEquals(rnd.nextFloat(), value.getFloat(4), 0.000000001f);
+        Assert.assertEquals(rnd.nextDouble(), value.getDouble(5), 0.000000001d);
+        Assert.assertEquals(rnd.nextBoolean(), value.getBool(6));
+        Assert.assertEquals(rnd.nextLong(), value.getDate(7));
+    }
+}
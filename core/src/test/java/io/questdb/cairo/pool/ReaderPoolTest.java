@@ -30,7 +30,10 @@ import io.questdb.cairo.pool.ex.EntryUnavailableException;
 import io.questdb.cairo.pool.ex.PoolClosedException;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.std.*;
+import io.questdb.std.microtime.Timestamps;
 import io.questdb.std.str.LPSZ;
 import io.questdb.std.str.StringSink;
 import io.questdb.test.tools.TestUtils;
@@ -878,6 +881,75 @@ public class ReaderPoolTest extends AbstractCairoTest {
         });
     }
 
+    @Test
+    public void testSharedColumnMappings() throws Exception {
+        final AtomicInteger openCount = new AtomicInteger();
+        final AtomicInteger mapCount = new AtomicInteger();
+        final FilesFacade ff = new FilesFacadeImpl() {
+            @Override
+            public long mmap(long fd, long len, long offset, int mode) {
+                mapCount.incrementAndGet();
+                return super.mmap(fd, len, offset, mode);
+            }
+
+            @Override
+            public long openRO(LPSZ name) {
+                if (Chars.endsWith(name, "a.d")) {
+                    openCount.incrementAndGet();
+                }
+                return super.openRO(name);
+            }
+        };
+        final CairoConfiguration configuration = new DefaultCairoConfiguration(root) {
+            @Override
+            public FilesFacade getFilesFacade() {
+                return ff;
+            }
+        };
+
+        createPartitionedTable();
+
+        assertWithPool(pool -> {
+            try (TableReader reader1 = pool.get("x")) {
+                assertPartitionedTable(reader1, 0);
+                // one per partition
+                Assert.assertEquals(4, openCount.get());
+                final int firstReaderMapCount = mapCount.get();
+
+                try (TableReader reader2 = pool.get("x")) {
+                    Assert.assertNotSame(reader1, reader2);
+                    assertPartitionedTable(reader2, 0);
+                    // last partition is still being written to, it is the only one second reader maps
+                    Assert.assertEquals(5, openCount.get());
+                    Assert.assertEquals(firstReaderMapCount - 3, mapCount.get() - firstReaderMapCount);
+                }
+            }
+        }, configuration);
+    }
+
+    @Test
+    public void testSharedColumnMappingsOfRecreatedFiles() throws Exception {
+        createPartitionedTable();
+
+        assertWithPool(pool -> {
+            try (TableReader reader1 = pool.get("x")) {
+                assertPartitionedTable(reader1, 0);
+
+                // files of same name and size but different content
+                try (TableWriter writer = new TableWriter(configuration, "x")) {
+                    writer.truncate();
+                }
+                populatePartitionedTable(1000);
+
+                try (TableReader reader2 = pool.get("x")) {
+                    assertPartitionedTable(reader2, 1000);
+                }
+                // reader that has not reloaded yet keeps its own mapping of removed files
+                assertPartitionedTable(reader1, 0);
+            }
+        });
+    }
+
     @Test
     public void testUnlockByAnotherThread() throws Exception {
         assertWithPool(pool -> {
@@ -927,6 +999,35 @@ public class ReaderPoolTest extends AbstractCairoTest {
         });
     }
 
+    private static void assertPartitionedTable(TableReader reader, int base) {
+        final RecordCursor cursor = reader.getCursor();
+        final Record record = cursor.getRecord();
+        int count = 0;
+        while (cursor.hasNext()) {
+            Assert.assertEquals(base + count++, record.getInt(0));
+        }
+        Assert.assertEquals(300, count);
+    }
+
+    private static void createPartitionedTable() {
+        try (TableModel model = new TableModel(configuration, "x", PartitionBy.DAY).col("a", ColumnType.INT).timestamp()) {
+            CairoTestUtils.create(model);
+        }
+        populatePartitionedTable(0);
+    }
+
+    private static void populatePartitionedTable(int base) {
+        // four day partitions
+        try (TableWriter writer = new TableWriter(configuration, "x")) {
+            for (int i = 0; i < 300; i++) {
+                TableWriter.Row row = writer.newRow(i * 15 * Timestamps.MINUTE_MICROS);
+                row.putInt(0, base + i);
+                row.append();
+            }
+            writer.commit();
+        }
+    }
+
     private void assertWithPool(PoolAwareCode code) throws Exception {
         assertWithPool(code, configuration);
     }
@@ -0,0 +1,103 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cutlass.http;
+
+import io.questdb.std.Unsafe;
+import io.questdb.std.str.StringSink;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HttpChunkedContentParserTest {
+    private final static StringSink sink = new StringSink();
+    private final static HttpContentListener LISTENER = (lo, hi) -> {
+        for (long p = lo; p < hi; p++) {
+            sink.put((char) Unsafe.getUnsafe().getByte(p));
+        }
+    };
+    private final HttpChunkedContentParser parser = new HttpChunkedContentParser();
+
+    @Before
+    public void setUp() {
+        sink.clear();
+        parser.clear();
+    }
+
+    @Test
+    public void testBadChunkEnd() throws Exception {
+        assertError("3\r\nabcd\r\n0\r\n\r\n", "chunk must end with CRLF");
+    }
+
+    @Test
+    public void testBadSize() throws Exception {
+        assertError("3x\r\nabc\r\n0\r\n\r\n", "invalid chunk size");
+    }
+
+    @Test
+    public void testMissingSize() throws Exception {
+        assertError("\r\nabc\r\n0\r\n\r\n", "chunk size expected");
+    }
+
+    @Test
+    public void testSimple() throws Exception {
+        final String content = "5\r\nhello\r\n" +
+                "7;name=value\r\n, world\r\n" +
+                "1A\r\nabcdefghijklmnopqrstuvwxyz\r\n" +
+                "0\r\n" +
+                "Trailer: x\r\n" +
+                "\r\n";
+        final int len = content.length();
+        final long p = TestUtils.toMemory(content);
+        try {
+            // split content at every position to make sure parser resumes correctly
+            for (int i = 0; i < len; i++) {
+                sink.clear();
+                parser.clear();
+                Assert.assertFalse(parser.parse(p, p + i, LISTENER));
+                Assert.assertEquals(i == len - 1, parser.parse(p + i, p + i + 1, LISTENER));
+                if (len > i + 1) {
+                    Assert.assertTrue(parser.parse(p + i + 1, p + len, LISTENER));
+                }
+                TestUtils.assertEquals("hello, worldabcdefghijklmnopqrstuvwxyz", sink);
+            }
+        } finally {
+            Unsafe.free(p, len);
+        }
+    }
+
+    private void assertError(String content, String message) throws Exception {
+        final int len = content.length();
+        final long p = TestUtils.toMemory(content);
+        try {
+            parser.parse(p, p + len, LISTENER);
+            Assert.fail();
+        } catch (HttpException e) {
+            TestUtils.assertContains(e.getMessage(), message);
+        } finally {
+            Unsafe.free(p, len);
+        }
+    }
+}
@@ -29,6 +29,8 @@ import io.questdb.MessageBusImpl;
 import io.questdb.cairo.*;
 import io.questdb.cairo.security.AllowAllCairoSecurityContext;
 import io.questdb.cutlass.NetUtils;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.cutlass.http.processors.*;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
@@ -340,6 +342,17 @@ public class IODispatcherTest {
         );
     }
 
+    @Test
+    public void testExistentCheckMultipleDispatchers() throws Exception {
+        assertExistentCheck(4, false);
+    }
+
+    @Test
+    public void testExistentCheckIOUring() throws Exception {
+        // dispatcher falls back to epoll when io_uring is not available
+        assertExistentCheck(1, true);
+    }
+
     @Test
     public void testExistentCheckExistsPlain() throws Exception {
         testJsonQuery(
@@ -570,6 +583,110 @@ public class IODispatcherTest {
         });
     }
 
+    @Test
+    public void testIOUringQueueOverflow() throws Exception {
+        // single iteration re-arms and disarms more polls than submission queue holds
+        assertMemoryLeak(() -> {
+            final int N = 32;
+            final SOCountDownLatch contextClosedLatch = new SOCountDownLatch(N);
+            final long[] ticks = {0};
+
+            try (IODispatcher<HelloContext> dispatcher = IODispatchers.create(
+                    new DefaultIODispatcherConfiguration() {
+                        @Override
+                        public int getActiveConnectionLimit() {
+                            return N;
+                        }
+
+                        @Override
+                        public MillisecondClock getClock() {
+                            return () -> ticks[0];
+                        }
+
+                        @Override
+                        public int getEventCapacity() {
+                            return 4;
+                        }
+
+                        @Override
+                        public long getIdleConnectionTimeout() {
+                            return 1000;
+                        }
+
+                        @Override
+                        public boolean isIOUringEnabled() {
+                            return true;
+                        }
+                    },
+                    (fd, dispatcher1) -> new HelloContext(fd, contextClosedLatch, dispatcher1)
+            )) {
+                AtomicBoolean serverRunning = new AtomicBoolean(true);
+                SOCountDownLatch serverHaltLatch = new SOCountDownLatch(1);
+
+                new Thread(() -> {
+                    while (serverRunning.get()) {
+                        dispatcher.run(0);
+                        dispatcher.processIOQueue(
+                                (operation, context) -> {
+                                    final int n = Net.recv(context.getFd(), context.buffer, 1024);
+                                    if (n > 0) {
+                                        Assert.assertEquals(n, Net.send(context.getFd(), context.buffer, n));
+                                        context.dispatcher.registerChannel(context, IOOperation.READ);
+                                    } else {
+                                        context.dispatcher.disconnect(context);
+                                    }
+                                }
+                        );
+                    }
+                    serverHaltLatch.countDown();
+                }).start();
+
+                final long[] fds = new long[N];
+                final long sockAddr = Net.sockaddr("127.0.0.1", 9001);
+                final long buffer = Unsafe.malloc(1);
+                try {
+                    for (int i = 0; i < N; i++) {
+                        fds[i] = Net.socketTcp(true);
+                        Assert.assertTrue(fds[i] > -1);
+                        Assert.assertEquals(0, Net.connect(fds[i], sockAddr));
+                    }
+
+                    for (int round = 0; round < 3; round++) {
+                        for (int i = 0; i < N; i++) {
+                            Unsafe.getUnsafe().putByte(buffer, (byte) i);
+                            Assert.assertEquals(1, Net.send(fds[i], buffer, 1));
+                        }
+                        for (int i = 0; i < N; i++) {
+                            Assert.assertEquals(1, Net.recv(fds[i], buffer, 1));
+                            Assert.assertEquals((byte) i, Unsafe.getUnsafe().getByte(buffer));
+                        }
+                    }
+
+                    // connections time out together, except those whose re-registration
+                    // is processed after clock has moved, they time out on the next move
+                    do {
+                        ticks[0] += 10_000;
+                    } while (!contextClosedLatch.await(100_000_000));
+                    for (int i = 0; i < N; i++) {
+                        Assert.assertEquals(Net.EOTHERDISCONNECT, Net.recv(fds[i], buffer, 1));
+                    }
+
+                    serverRunning.set(false);
+                    serverHaltLatch.await();
+                    Assert.assertEquals(0, dispatcher.getConnectionCount());
+                } finally {
+                    for (int i = 0; i < N; i++) {
+                        if (fds[i] > 0) {
+                            Net.close(fds[i]);
+                        }
+                    }
+                    Unsafe.free(buffer, 1);
+                    Net.freeSockAddr(sockAddr);
+                }
+            }
+        });
+    }
+
     @Test
     public void testImportBadJson() throws Exception {
         testImport(
@@ -2802,6 +2919,76 @@ public class IODispatcherTest {
         );
     }
 
+    @Test
+    public void testLineProtoWrite() throws Exception {
+        final String lines = "weather,city=london temp=11.5 1000000000\n" +
+                "weather,city=paris temp=\"warm\" 2000000000\n" +
+                "weather,city=rome temp=21.25 3000000000\n";
+
+        testJsonQuery0(2, engine -> {
+            sendAndReceive(
+                    NetworkFacadeImpl.INSTANCE,
+                    "POST /write HTTP/1.1\r\n" +
+                            "Host: localhost:9000\r\n" +
+                            "Content-Length: " + lines.length() + "\r\n" +
+                            "\r\n" +
+                            lines,
+                    "HTTP/1.1 400 Bad request\r\n" +
+                            "Server: questDB/1.0\r\n" +
+                            "Date: Thu, 1 Jan 1970 00:00:00 GMT\r\n" +
+                            "Transfer-Encoding: chunked\r\n" +
+                            "Content-Type: application/json; charset=utf-8\r\n" +
+                            "Keep-Alive: timeout=5, max=10000\r\n" +
+                            "\r\n" +
+                            "6c\r\n" +
+                            "{\"status\":\"ERROR\",\"lines\":3,\"errors\":1,\"details\":[{\"line\":2,\"message\":\"mismatched column and value types\"}]}\r\n" +
+                            "00\r\n" +
+                            "\r\n",
+                    1,
+                    0,
+                    false,
+                    false
+            );
+            assertWeather(engine, "london:11.5\nrome:21.25\n");
+        });
+    }
+
+    @Test
+    public void testLineProtoWriteChunked() throws Exception {
+        testJsonQuery0(2, engine -> {
+            // lines are split across chunks
+            final String request = "POST /write HTTP/1.1\r\n" +
+                    "Host: localhost:9000\r\n" +
+                    "Transfer-Encoding: chunked\r\n" +
+                    "\r\n" +
+                    "1a\r\n" +
+                    "weather,city=london temp=1\r\n" +
+                    "1b;ext=1\r\n" +
+                    "1.5 1000000000\nweather,city\r\n" +
+                    "1c\r\n" +
+                    "=rome temp=21.25 3000000000\n\r\n" +
+                    "0\r\n" +
+                    "\r\n";
+            final String response = "HTTP/1.1 200 OK\r\n" +
+                    "Server: questDB/1.0\r\n" +
+                    "Date: Thu, 1 Jan 1970 00:00:00 GMT\r\n" +
+                    "Transfer-Encoding: chunked\r\n" +
+                    "Content-Type: application/json; charset=utf-8\r\n" +
+                    "Keep-Alive: timeout=5, max=10000\r\n" +
+                    "\r\n" +
+                    "31\r\n" +
+                    "{\"status\":\"OK\",\"lines\":2,\"errors\":0,\"details\":[]}\r\n" +
+                    "00\r\n" +
+                    "\r\n";
+            sendAndReceive(NetworkFacadeImpl.INSTANCE, request, response, 1, 0, false, false);
+            assertWeather(engine, "london:11.5\nrome:21.25\n");
+
+            // rows of every request are committed, later rows have to be in order
+            sendAndReceive(NetworkFacadeImpl.INSTANCE, request.replace("3000000000", "5000000000").replace("1000000000", "4000000000"), response, 1, 0, false, false);
+            assertWeather(engine, "london:11.5\nrome:21.25\nlondon:11.5\nrome:21.25\n");
+        });
+    }
+
     @Test
     public void testMaxConnections() throws Exception {
 
@@ -4197,6 +4384,42 @@ public class IODispatcherTest {
         Assert.assertEquals(requestLen, Net.send(fd, buffer, requestLen));
     }
 
+    private void assertExistentCheck(int dispatcherCount, boolean ioUringEnabled) throws Exception {
+        testJsonQuery0(4, dispatcherCount, ioUringEnabled, engine -> {
+            CairoTestUtils.createTestTable(
+                    engine.getConfiguration(),
+                    20,
+                    new Rnd(),
+                    new TestRecord.ArrayBinarySequence());
+
+            // kernel spreads connections between listening sockets of dispatchers
+            for (int i = 0; i < 32; i++) {
+                sendAndReceive(
+                        NetworkFacadeImpl.INSTANCE,
+                        "GET /chk?f=json&j=x HTTP/1.1\r\n" +
+                                "Host: localhost:9000\r\n" +
+                                "Connection: keep-alive\r\n" +
+                                "\r\n",
+                        "HTTP/1.1 200 OK\r\n" +
+                                "Server: questDB/1.0\r\n" +
+                                "Date: Thu, 1 Jan 1970 00:00:00 GMT\r\n" +
+                                "Transfer-Encoding: chunked\r\n" +
+                                "Content-Type: application/json\r\n" +
+                                "Keep-Alive: timeout=5, max=10000\r\n" +
+                                "\r\n" +
+                                "13\r\n" +
+                                "{\"status\":\"Exists\"}\r\n" +
+                                "00\r\n" +
+                                "\r\n",
+                        10,
+                        0,
+                        false,
+                        false
+                );
+            }
+        });
+    }
+
     @NotNull
     private DefaultHttpServerConfiguration createHttpServerConfiguration(
             String baseDir,
@@ -4219,12 +4442,35 @@ public class IODispatcherTest {
             int sendBufferSize,
             boolean dumpTraffic,
             boolean allowDeflateBeforeSend
+    ) {
+        return createHttpServerConfiguration(nf, baseDir, sendBufferSize, dumpTraffic, allowDeflateBeforeSend, 1, false);
+    }
+
+    @NotNull
+    private DefaultHttpServerConfiguration createHttpServerConfiguration(
+            NetworkFacade nf,
+            String baseDir,
+            int sendBufferSize,
+            boolean dumpTraffic,
+            boolean allowDeflateBeforeSend,
+            int dispatcherCount,
+            boolean ioUringEnabled
     ) {
         final IODispatcherConfiguration ioDispatcherConfiguration = new DefaultIODispatcherConfiguration() {
+            @Override
+            public int getDispatcherCount() {
+                return dispatcherCount;
+            }
+
             @Override
             public NetworkFacade getNetworkFacade() {
                 return nf;
             }
+
+            @Override
+            public boolean isIOUringEnabled() {
+                return ioUringEnabled;
+            }
         };
 
         return new DefaultHttpServerConfiguration() {
@@ -4287,6 +4533,18 @@ public class IODispatcherTest {
         };
     }
 
+    private static void assertWeather(CairoEngine engine, String expected) {
+        try (TableReader reader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, "weather", TableUtils.ANY_TABLE_VERSION)) {
+            final StringSink sink = new StringSink();
+            final RecordCursor cursor = reader.getCursor();
+            final Record record = cursor.getRecord();
+            while (cursor.hasNext()) {
+                sink.put(record.getSym(0)).put(':').put(record.getDouble(1)).put('\n');
+            }
+            TestUtils.assertEquals(expected, sink);
+        }
+    }
+
     private void sendAndReceive(
             NetworkFacade nf,
             String request,
@@ -4392,12 +4650,24 @@ public class IODispatcherTest {
     }
 
     private void testJsonQuery0(int workerCount, HttpClientCode code) throws Exception {
+        testJsonQuery0(workerCount, 1, false, code);
+    }
+
+    private void testJsonQuery0(int workerCount, int dispatcherCount, boolean ioUringEnabled, HttpClientCode code) throws Exception {
         final int[] workerAffinity = new int[workerCount];
         Arrays.fill(workerAffinity, -1);
 
         assertMemoryLeak(() -> {
             final String baseDir = temp.getRoot().getAbsolutePath();
-            final DefaultHttpServerConfiguration httpConfiguration = createHttpServerConfiguration(baseDir, false, false);
+            final DefaultHttpServerConfiguration httpConfiguration = createHttpServerConfiguration(
+                    NetworkFacadeImpl.INSTANCE,
+                    baseDir,
+                    1024 * 1024,
+                    false,
+                    false,
+                    dispatcherCount,
+                    ioUringEnabled
+            );
             final WorkerPool workerPool = new WorkerPool(new WorkerPoolConfiguration() {
                 @Override
                 public int[] getWorkerAffinity() {
@@ -4478,6 +4748,18 @@ public class IODispatcherTest {
                     }
                 });
 
+                httpServer.bind(new HttpRequestProcessorFactory() {
+                    @Override
+                    public HttpRequestProcessor newInstance() {
+                        return new LineProtoWriteProcessor(engine, httpConfiguration.getJsonQueryProcessorConfiguration());
+                    }
+
+                    @Override
+                    public String getUrl() {
+                        return "/write";
+                    }
+                });
+
                 workerPool.start(LOG);
 
                 try {
@@ -26,6 +26,8 @@ package io.questdb.cutlass.line;
 
 import io.questdb.cairo.*;
 import io.questdb.cairo.security.AllowAllCairoSecurityContext;
+import io.questdb.cutlass.line.udp.LineProtoSender;
+import io.questdb.network.NetworkFacadeImpl;
 import io.questdb.std.*;
 import io.questdb.std.microtime.MicrosecondClock;
 import io.questdb.std.microtime.TimestampFormatUtils;
@@ -44,8 +46,8 @@ public class CairoLineProtoParserTest extends AbstractCairoTest {
     public void testAddColumn() throws Exception {
         final String expected = "tag\ttag2\tfield\tf4\tfield2\tfx\ttimestamp\tf5\n" +
                 "abc\txyz\t10000\t9.034\tstr\ttrue\t1970-01-01T00:01:40.000000Z\tNaN\n" +
-                "woopsie\tdaisy\t2000\t3.0889100000000003\tcomment\ttrue\t1970-01-01T00:01:40.000000Z\tNaN\n" +
-                "444\td555\t510\t1.4000000000000001\tcomment\ttrue\t1970-01-01T00:01:40.000000Z\t55\n" +
+                "woopsie\tdaisy\t2000\t3.08891\tcomment\ttrue\t1970-01-01T00:01:40.000000Z\tNaN\n" +
+                "444\td555\t510\t1.4\tcomment\ttrue\t1970-01-01T00:01:40.000000Z\t55\n" +
                 "666\t777\t410\t1.1\tcomment X\tfalse\t1970-01-01T00:01:40.000000Z\tNaN\n";
 
         final String lines = "tab,tag=abc,tag2=xyz field=10000i,f4=9.034,field2=\"str\",fx=true 100000000000\n" +
@@ -57,6 +59,94 @@ public class CairoLineProtoParserTest extends AbstractCairoTest {
         assertThat(expected, lines, "tab");
     }
 
+    @Test
+    public void testBinaryValues() throws Exception {
+        final String expected1 = "tag\tvalue\tcount\ttimestamp\n" +
+                "abc\t1.5\t10\t1970-01-01T00:01:40.000000Z\n" +
+                "xyz\t-0.1\t9223372036854775806\t1970-01-01T00:01:40.000001Z\n" +
+                "xyz\t3.25\t-1\t1970-01-01T00:01:40.000002Z\n";
+
+        final String expected2 = "value\tcount\ttimestamp\n" +
+                "4.9E-324\t-9223372036854775807\t1970-01-01T00:01:40.000003Z\n";
+
+        TestUtils.assertMemoryLeak(() -> {
+            try (
+                    CairoEngine engine = new CairoEngine(configuration, null);
+                    CairoLineProtoParser parser = new CairoLineProtoParser(engine, AllowAllCairoSecurityContext.INSTANCE, LineProtoNanoTimestampAdapter.INSTANCE);
+                    LineProtoLexer lexer = new LineProtoLexer(4096)
+            ) {
+                lexer.withParser(parser);
+                parse(lexer, "x,tag=abc value=1.5,count=10i 100000000000\n");
+
+                // sender hands datagrams straight to lexer instead of network
+                final NetworkFacadeImpl nf = new NetworkFacadeImpl() {
+                    @Override
+                    public int close(long fd) {
+                        return 0;
+                    }
+
+                    @Override
+                    public int sendTo(long fd, long ptr, int len, long socketAddress) {
+                        lexer.parse(ptr, ptr + len);
+                        lexer.parseLast();
+                        return len;
+                    }
+
+                    @Override
+                    public int setMulticastInterface(long fd, int ipv4Address) {
+                        return 0;
+                    }
+
+                    @Override
+                    public int setMulticastTtl(long fd, int ttl) {
+                        return 0;
+                    }
+
+                    @Override
+                    public long socketUdp() {
+                        return 0;
+                    }
+                };
+
+                try (LineProtoSender sender = new LineProtoSender(nf, 0, 0, 9009, 1024, 1)) {
+                    sender.setBinaryFormat(true);
+                    sender.metric("x").tag("tag", "xyz").field("value", -0.1).field("count", Long.MAX_VALUE - 1).$(100000001000L);
+                    sender.metric("x").tag("tag", "xyz").field("value", 3.25).field("count", -1L).$(100000002000L);
+                    sender.metric("y").field("value", Double.MIN_VALUE).field("count", Long.MIN_VALUE + 1).$(100000003000L);
+                    sender.flush();
+                }
+                parser.commitAll(CommitMode.NOSYNC);
+            }
+            assertTable(expected1, "x");
+            assertTable(expected2, "y");
+        });
+    }
+
+    @Test
+    public void testBinaryValueTypeMismatch() throws Exception {
+        final String expected = "value\ttimestamp\n" +
+                "1.5\t1970-01-01T00:01:40.000000Z\n";
+
+        TestUtils.assertMemoryLeak(() -> {
+            try (
+                    CairoEngine engine = new CairoEngine(configuration, null);
+                    CairoLineProtoParser parser = new CairoLineProtoParser(engine, AllowAllCairoSecurityContext.INSTANCE, LineProtoNanoTimestampAdapter.INSTANCE);
+                    LineProtoLexer lexer = new LineProtoLexer(4096)
+            ) {
+                lexer.withParser(parser);
+                parse(lexer, "x value=1.5 100000000000\n");
+                // long into double column
+                parse(lexer, binaryLine("x value=", LineProtoLexer.BINARY_TYPE_LONG, 7, " 100000000000\n"));
+                // double timestamp
+                parse(lexer, binaryLine("x value=2.5 ", LineProtoLexer.BINARY_TYPE_DOUBLE, Double.doubleToLongBits(100000000000.0), "\n"));
+                // truncated value
+                parse(lexer, binaryLine("x value=", LineProtoLexer.BINARY_TYPE_DOUBLE, 0, "").substring(0, 12));
+                parser.commitAll(CommitMode.NOSYNC);
+            }
+            assertTable(expected, "x");
+        });
+    }
+
     @Test
     public void testStr() throws Exception {
         String expected = "host\tuptime_format\ttimestamp\n" +
@@ -104,7 +194,7 @@ public class CairoLineProtoParserTest extends AbstractCairoTest {
         final String expected1 = "sym2\tdouble\tint\tbool\tstr\ttimestamp\tsym1\n" +
                 "xyz\t1.6\t15\ttrue\tstring1\t1970-01-01T00:25:00.000000Z\t\n" +
                 "\t9.4\t6\tfalse\tstring3\t1970-01-01T00:25:00.000000Z\trow3\n" +
-                "\t0.30000000000000004\t91\ttrue\tstring4\t1970-01-01T00:25:00.000000Z\trow4\n";
+                "\t0.3\t91\ttrue\tstring4\t1970-01-01T00:25:00.000000Z\trow4\n";
 
         final String expected2 = "asym1\tasym2\tadouble\ttimestamp\n" +
                 "55\tbox\t5.9\t1970-01-01T00:28:20.000000Z\n" +
@@ -125,7 +215,7 @@ public class CairoLineProtoParserTest extends AbstractCairoTest {
         final String expected1 = "sym2\tdouble\tint\tbool\tstr\ttimestamp\tsym1\n" +
                 "\t1.3\t11\tfalse\tstring2\t1970-01-01T00:25:00.000000Z\tabc\n" +
                 "\t9.4\t6\tfalse\tstring3\t1970-01-01T00:25:00.000000Z\trow3\n" +
-                "\t0.30000000000000004\t91\ttrue\tstring4\t1970-01-01T00:25:00.000000Z\trow4\n";
+                "\t0.3\t91\ttrue\tstring4\t1970-01-01T00:25:00.000000Z\trow4\n";
 
         final String expected2 = "asym1\tasym2\tadouble\ttimestamp\n" +
                 "55\tbox\t5.9\t1970-01-01T00:28:20.000000Z\n" +
@@ -146,7 +236,7 @@ public class CairoLineProtoParserTest extends AbstractCairoTest {
         final String expected1 = "sym2\tdouble\tint\tbool\tstr\ttimestamp\tsym1\n" +
                 "xyz\t1.6\t15\ttrue\tstring1\t1970-01-01T00:25:00.000000Z\t\n" +
                 "\t9.4\t6\tfalse\tstring3\t1970-01-01T00:25:00.000000Z\trow3\n" +
-                "\t0.30000000000000004\t91\ttrue\tstring4\t1970-01-01T00:25:00.000000Z\trow4\n";
+                "\t0.3\t91\ttrue\tstring4\t1970-01-01T00:25:00.000000Z\trow4\n";
 
         final String expected2 = "asym1\tasym2\tadouble\ttimestamp\n" +
                 "55\tbox\t5.9\t1970-01-01T00:28:20.000000Z\n" +
@@ -167,7 +257,7 @@ public class CairoLineProtoParserTest extends AbstractCairoTest {
         final String expected1 = "sym2\tdouble\tint\tbool\tstr\ttimestamp\tsym1\n" +
                 "\t1.3\t11\tfalse\tstring2\t1970-01-01T00:25:00.000000Z\tabc\n" +
                 "\t9.4\t6\tfalse\tstring3\t1970-01-01T00:25:00.000000Z\trow3\n" +
-                "\t0.30000000000000004\t91\ttrue\tstring4\t1970-01-01T00:25:00.000000Z\trow4\n";
+                "\t0.3\t91\ttrue\tstring4\t1970-01-01T00:25:00.000000Z\trow4\n";
 
         final String expected2 = "asym1\tasym2\tadouble\ttimestamp\n" +
                 "55\tbox\t5.9\t1970-01-01T00:28:20.000000Z\n" +
@@ -188,7 +278,7 @@ public class CairoLineProtoParserTest extends AbstractCairoTest {
         final String expected1 = "sym2\tdouble\tint\tbool\tstr\ttimestamp\tsym1\n" +
                 "\t1.3\t11\tfalse\tstring2\t1970-01-01T00:25:00.000000Z\tabc\n" +
                 "\t9.4\t6\tfalse\tstring3\t1970-01-01T00:25:00.000000Z\trow3\n" +
-                "\t0.30000000000000004\t91\ttrue\tstring4\t1970-01-01T00:25:00.000000Z\trow4\n";
+                "\t0.3\t91\ttrue\tstring4\t1970-01-01T00:25:00.000000Z\trow4\n";
 
         final String expected2 = "asym1\tasym2\tadouble\ttimestamp\n" +
                 "55\tbox\t5.9\t1970-01-01T00:28:20.000000Z\n" +
@@ -209,7 +299,7 @@ public class CairoLineProtoParserTest extends AbstractCairoTest {
         final String expected1 = "sym2\tdouble\tint\tbool\tstr\ttimestamp\tsym1\n" +
                 "\t1.3\t11\tfalse\tstring2\t1970-01-01T00:25:00.000000Z\tabc\n" +
                 "\t9.4\t6\tfalse\tstring3\t1970-01-01T00:25:00.000000Z\trow3\n" +
-                "\t0.30000000000000004\t91\ttrue\tstring4\t1970-01-01T00:25:00.000000Z\trow4\n";
+                "\t0.3\t91\ttrue\tstring4\t1970-01-01T00:25:00.000000Z\trow4\n";
 
         final String expected2 = "asym1\tasym2\tadouble\ttimestamp\n" +
                 "55\tbox\t5.9\t1970-01-01T00:28:20.000000Z\n" +
@@ -230,7 +320,7 @@ public class CairoLineProtoParserTest extends AbstractCairoTest {
         final String expected1 = "sym2\tdouble\tint\tbool\tstr\ttimestamp\tsym1\n" +
                 "xyz\t1.6\t15\ttrue\tstring1\t1970-01-01T00:00:01.234000Z\t\n" +
                 "\t1.3\t11\tfalse\tstring2\t1970-01-01T00:25:00.000000Z\tabc\n" +
-                "\t0.30000000000000004\t91\ttrue\tstring4\t1970-01-01T00:25:00.000000Z\trow4\n";
+                "\t0.3\t91\ttrue\tstring4\t1970-01-01T00:25:00.000000Z\trow4\n";
 
         final String expected2 = "asym1\tasym2\tadouble\ttimestamp\n" +
                 "55\tbox\t5.9\t1970-01-01T00:28:20.000000Z\n" +
@@ -334,11 +424,65 @@ public class CairoLineProtoParserTest extends AbstractCairoTest {
         }
     }
 
+    @Test
+    public void testCommitPolicy() throws Exception {
+        final long[] now = {1000};
+        CairoConfiguration configuration = new DefaultCairoConfiguration(root) {
+            @Override
+            public MicrosecondClock getMicrosecondClock() {
+                return () -> now[0];
+            }
+        };
+
+        TestUtils.assertMemoryLeak(() -> {
+            try (CairoEngine engine = new CairoEngine(configuration, null)) {
+                try (
+                        CairoLineProtoParser parser = new CairoLineProtoParser(engine, AllowAllCairoSecurityContext.INSTANCE, LineProtoNanoTimestampAdapter.INSTANCE);
+                        LineProtoLexer lexer = new LineProtoLexer(4096)
+                ) {
+                    parser.setCommitPolicy(CommitMode.NOSYNC, 500, 3, 0);
+                    lexer.withParser(parser);
+
+                    parse(lexer, "x,tag=a value=1i 100000000000\nx,tag=b value=2i 100000000000\n");
+                    Assert.assertFalse(parser.commitDue());
+                    assertRowCount(0, "x");
+
+                    // row limit
+                    parse(lexer, "x,tag=c value=3i 100000000000\n");
+                    assertRowCount(3, "x");
+                    LineProtoCommitStats stats = parser.getCommitStats("x");
+                    Assert.assertNotNull(stats);
+                    Assert.assertEquals(1, stats.getCommitCount());
+                    Assert.assertEquals(0, stats.getLastCommitLag());
+                    Assert.assertEquals(0, stats.getUncommittedRowCount());
+
+                    // latency limit
+                    parse(lexer, "x,tag=d value=4i 100000000000\n");
+                    Assert.assertEquals(1, stats.getUncommittedRowCount());
+                    Assert.assertTrue(stats.getUncommittedByteCount() > 0);
+                    now[0] += 499;
+                    Assert.assertFalse(parser.commitDue());
+                    assertRowCount(3, "x");
+                    now[0]++;
+                    Assert.assertTrue(parser.commitDue());
+                    assertRowCount(4, "x");
+
+                    Assert.assertEquals(2, stats.getCommitCount());
+                    Assert.assertEquals(4, stats.getCommittedRowCount());
+                    Assert.assertEquals(500, stats.getLastCommitLag());
+                    Assert.assertEquals(500, stats.getMaxCommitLag());
+                    Assert.assertEquals(250, stats.getAvgCommitLag());
+                    Assert.assertNull(parser.getCommitStats("y"));
+                }
+            }
+        });
+    }
+
     @Test
     public void testCreateAndAppend() throws Exception {
         final String expected = "tag\ttag2\tfield\tf4\tfield2\tfx\ttimestamp\n" +
                 "abc\txyz\t10000\t9.034\tstr\ttrue\t1970-01-01T00:01:40.000000Z\n" +
-                "woopsie\tdaisy\t2000\t3.0889100000000003\tcomment\ttrue\t1970-01-01T00:01:40.000000Z\n";
+                "woopsie\tdaisy\t2000\t3.08891\tcomment\ttrue\t1970-01-01T00:01:40.000000Z\n";
 
         final String lines = "tab,tag=abc,tag2=xyz field=10000i,f4=9.034,field2=\"str\",fx=true 100000000000\n" +
                 "tab,tag=woopsie,tag2=daisy field=2000i,f4=3.08891,field2=\"comment\",fx=true 100000000000\n";
@@ -353,7 +497,7 @@ public class CairoLineProtoParserTest extends AbstractCairoTest {
                 "xyz\t1.6\t15\ttrue\tstring1\t2017-10-03T10:00:00.000000Z\t\n" +
                 "\t1.3\t11\tfalse\tstring2\t2017-10-03T10:00:00.010000Z\tabc\n" +
                 "\t0.9\t6\tfalse\tstring3\t2017-10-03T10:00:00.030000Z\trow3\n" +
-                "\t0.30000000000000004\t91\ttrue\tstring4\t2017-10-03T10:00:00.050000Z\trow4\n";
+                "\t0.3\t91\ttrue\tstring4\t2017-10-03T10:00:00.050000Z\trow4\n";
 
         final String expected2 = "asym1\tasym2\tadouble\ttimestamp\n" +
                 "55\tbox\t5.9\t2017-10-03T10:00:00.020000Z\n" +
@@ -377,6 +521,41 @@ public class CairoLineProtoParserTest extends AbstractCairoTest {
         assertThat(expected, lines, "measurement");
     }
 
+    @Test
+    public void testRepeatedLineShapes() throws Exception {
+        final String expected1 = "t\tb\tv\ttimestamp\tbb\tn\n" +
+                "a\tc\t1.0\t2017-10-03T10:00:00.000000Z\t\t\n" +
+                "a\tc\t2.0\t2017-10-03T10:00:00.010000Z\t\t\n" +
+                "a\tc\t3.0\t2017-10-03T10:00:00.020000Z\t\t\n" +
+                "ab\tc\t4.0\t2017-10-03T10:00:00.030000Z\t\t\n" +
+                "ab\tc\t5.0\t2017-10-03T10:00:00.040000Z\t\t\n" +
+                "a\t\t6.0\t2017-10-03T10:00:00.050000Z\tc\t\n" +
+                "a\tc\t7.0\t2017-10-03T10:00:00.070000Z\t\t\n" +
+                "a\tc\t8.0\t2017-10-03T10:00:00.080000Z\t\tz\n" +
+                "a\td\t9.0\t2017-10-03T10:00:00.100000Z\t\t\n" +
+                "a\tc\t10.0\t2017-10-03T10:00:00.110000Z\t\t\n";
+
+        final String expected2 = "k\tw\ttimestamp\n" +
+                "1\t1.0\t2017-10-03T10:00:00.060000Z\n" +
+                "1\t2.0\t2017-10-03T10:00:00.090000Z\n";
+
+        // tags of 6th line are made of the same characters as tags of 4th and 5th lines
+        String lines = "x,t=a,b=c v=1.0\n" +
+                "x,t=a,b=c v=2.0\n" +
+                "x,t=a,b=c v=3.0\n" +
+                "x,t=ab,b=c v=4.0\n" +
+                "x,t=ab,b=c v=5.0\n" +
+                "x,t=a,bb=c v=6.0\n" +
+                "y,k=1 w=1.0\n" +
+                "x,t=a,b=c v=7.0\n" +
+                "x,t=a,b=c,n=z v=8.0\n" +
+                "y,k=1 w=2.0\n" +
+                "x,t=a,b=d v=9.0\n" +
+                "x,t=a,b=c v=10.0\n";
+
+        assertMultiTable(expected1, expected2, lines);
+    }
+
     @Test
     public void testReservedName() throws Exception {
         final String expected = "sym\tdouble\tint\tbool\tstr\ttimestamp\n" +
@@ -410,7 +589,7 @@ public class CairoLineProtoParserTest extends AbstractCairoTest {
         final String expected1 = "sym2\tdouble\tint\tbool\tstr\ttimestamp\tsym1\n" +
                 "xyz\t1.6\t15\ttrue\tstring1\t2017-10-03T10:00:00.000000Z\t\n" +
                 "\t1.3\t11\tfalse\tstring2\t2017-10-03T10:00:00.010000Z\tabc\n" +
-                "\t0.30000000000000004\t91\ttrue\tstring4\t2017-10-03T10:00:00.040000Z\trow4\n";
+                "\t0.3\t91\ttrue\tstring4\t2017-10-03T10:00:00.040000Z\trow4\n";
 
         final String expected2 = "asym1\tasym2\tadouble\ttimestamp\n" +
                 "55\tbox\t5.9\t2017-10-03T10:00:00.020000Z\n" +
@@ -431,7 +610,7 @@ public class CairoLineProtoParserTest extends AbstractCairoTest {
         final String expected1 = "sym2\tdouble\tint\tbool\tstr\ttimestamp\tsym1\n" +
                 "xyz\t1.6\t15\ttrue\tstring1\t2017-10-03T10:00:00.000000Z\t\n" +
                 "\t1.3\t11\tfalse\tstring2\t2017-10-03T10:00:00.010000Z\tabc\n" +
-                "\t0.30000000000000004\t91\ttrue\tstring4\t2017-10-03T10:00:00.040000Z\trow4\n";
+                "\t0.3\t91\ttrue\tstring4\t2017-10-03T10:00:00.040000Z\trow4\n";
 
         final String expected2 = "asym1\tasym2\tadouble\ttimestamp\n" +
                 "55\tbox\t5.9\t2017-10-03T10:00:00.020000Z\n" +
@@ -452,7 +631,7 @@ public class CairoLineProtoParserTest extends AbstractCairoTest {
         final String expected1 = "sym2\tdouble\tint\tbool\tstr\ttimestamp\tsym1\n" +
                 "xyz\t1.6\t15\ttrue\tstring1\t2017-10-03T10:00:00.000000Z\t\n" +
                 "\t1.3\t11\tfalse\tstring2\t2017-10-03T10:00:00.010000Z\tabc\n" +
-                "\t0.30000000000000004\t91\ttrue\tstring4\t2017-10-03T10:00:00.040000Z\trow4\n";
+                "\t0.3\t91\ttrue\tstring4\t2017-10-03T10:00:00.040000Z\trow4\n";
 
         final String expected2 = "asym1\tasym2\tadouble\ttimestamp\n" +
                 "55\tbox\t5.9\t2017-10-03T10:00:00.020000Z\n" +
@@ -473,7 +652,7 @@ public class CairoLineProtoParserTest extends AbstractCairoTest {
         final String expected1 = "sym2\tdouble\tint\tbool\tstr\ttimestamp\tsym1\n" +
                 "xyz\t1.6\t15\ttrue\tstring1\t2017-10-03T10:00:00.000000Z\t\n" +
                 "\t9.4\t6\tfalse\tstring3\t2017-10-03T10:00:00.020000Z\trow3\n" +
-                "\t0.30000000000000004\t91\ttrue\tstring4\t2017-10-03T10:00:00.040000Z\trow4\n";
+                "\t0.3\t91\ttrue\tstring4\t2017-10-03T10:00:00.040000Z\trow4\n";
 
         final String expected2 = "asym1\tasym2\tadouble\ttimestamp\n" +
                 "55\tbox\t5.9\t2017-10-03T10:00:00.010000Z\n" +
@@ -494,7 +673,7 @@ public class CairoLineProtoParserTest extends AbstractCairoTest {
         final String expected1 = "sym1\tdouble\tint\tbool\tstr\ttimestamp\n" +
                 "abc\t1.3\t11\tfalse\tstring2\t2017-10-03T10:00:00.000000Z\n" +
                 "row3\t9.4\t6\tfalse\tstring3\t2017-10-03T10:00:00.020000Z\n" +
-                "row4\t0.30000000000000004\t91\ttrue\tstring4\t2017-10-03T10:00:00.040000Z\n";
+                "row4\t0.3\t91\ttrue\tstring4\t2017-10-03T10:00:00.040000Z\n";
 
         final String expected2 = "asym1\tasym2\tadouble\ttimestamp\n" +
                 "55\tbox\t5.9\t2017-10-03T10:00:00.010000Z\n" +
@@ -526,6 +705,36 @@ public class CairoLineProtoParserTest extends AbstractCairoTest {
         assertTable(expected2, "y");
     }
 
+    private static void parse(LineProtoLexer lexer, String lines) {
+        // binary values are kept one byte per character
+        byte[] bytes = lines.getBytes(StandardCharsets.ISO_8859_1);
+        int len = bytes.length;
+        long mem = Unsafe.malloc(len);
+        try {
+            for (int i = 0; i < len; i++) {
+                Unsafe.getUnsafe().putByte(mem + i, bytes[i]);
+            }
+            lexer.parse(mem, mem + len);
+            lexer.parseLast();
+        } finally {
+            Unsafe.free(mem, len);
+        }
+    }
+
+    private static String binaryLine(String prefix, byte type, long value, String suffix) {
+        final StringBuilder b = new StringBuilder(prefix).append('=').append((char) type);
+        for (int i = 0; i < 8; i++) {
+            b.append((char) ((value >>> (i * 8)) & 0xff));
+        }
+        return b.append(suffix).toString();
+    }
+
+    private void assertRowCount(long expected, CharSequence tableName) {
+        try (TableReader reader = new TableReader(configuration, tableName)) {
+            Assert.assertEquals(expected, reader.size());
+        }
+    }
+
     private void assertTable(CharSequence expected, CharSequence tableName) {
         try (TableReader reader = new TableReader(configuration, tableName)) {
             assertThat(expected, reader.getCursor(), reader.getMetadata(), true);
@@ -0,0 +1,145 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cutlass.line;
+
+import io.questdb.cairo.*;
+import io.questdb.cairo.security.AllowAllCairoSecurityContext;
+import io.questdb.std.Unsafe;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+public class LineProtoQueueParserTest extends AbstractCairoTest {
+
+    @Test
+    public void testMultipleTables() throws Exception {
+        final String expectedX = "sym2\tdouble\tint\tbool\tstr\ttimestamp\tsym1\n" +
+                "xyz\t1.6\t15\ttrue\tstring1\t1970-01-01T00:01:40.000000Z\t\n" +
+                "\t1.3\t11\tfalse\tstring 2\t1970-01-01T00:01:41.000000Z\tabc\n" +
+                "\t0.3\t91\ttrue\tstring4\t1970-01-01T00:01:44.000000Z\trow 4\n";
+
+        final String expectedY = "asym1\tasym2\tadouble\ttimestamp\n" +
+                "55\tbox\t5.9\t1970-01-01T00:01:40.000000Z\n" +
+                "66\tbox\t7.9\t1970-01-01T00:01:43.000000Z\n";
+
+        final String expectedZ = "a\tb\ttimestamp\n" +
+                "1\t2.0\t1970-01-01T00:01:40.000000Z\n" +
+                "3\t4.0\t1970-01-01T00:01:41.000000Z\n";
+
+        final String lines = "x,sym2=xyz double=1.6,int=15i,bool=true,str=\"string1\" 100000000000\n" +
+                "y,asym1=55,asym2=box adouble=5.9 100000000000\n" +
+                "z a=1i,b=2.0 100000000000\n" +
+                "x,sym1=abc double=1.3,int=11i,bool=false,str=\"string 2\" 101000000000\n" +
+                "x,sym1=row3 double=,int=6i,bool=false,str=\"string3\" 102000000000\n" +
+                "z a=3i,b=4.0 101000000000\n" +
+                "y,asym1=66,asym2=box adouble=7.9 103000000000\n" +
+                "x,sym1=row\\ 4 double=.3,int=91i,bool=true,str=\"string4\" 104000000000\n";
+
+        TestUtils.assertMemoryLeak(() -> {
+            try (CairoEngine engine = new CairoEngine(configuration, null)) {
+                try (LineProtoWriterShards shards = new LineProtoWriterShards(engine, new TestLineProtoWriterConfiguration(), 3)) {
+                    LineProtoQueueParser parser = new LineProtoQueueParser(shards);
+                    try (LineProtoLexer lexer = new LineProtoLexer(4096)) {
+                        lexer.withParser(parser);
+                        for (String line : lines.split("\n")) {
+                            byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+                            int len = bytes.length;
+                            long mem = Unsafe.malloc(len);
+                            try {
+                                for (int i = 0; i < len; i++) {
+                                    Unsafe.getUnsafe().putByte(mem + i, bytes[i]);
+                                }
+                                lexer.parse(mem, mem + len);
+                                lexer.parseLast();
+                                // task per line overflows queues and makes parser write lines itself
+                                parser.flush();
+                            } finally {
+                                Unsafe.free(mem, len);
+                            }
+                        }
+                    }
+                    shards.runAll();
+                }
+            }
+            assertTable(expectedX, "x");
+            assertTable(expectedY, "y");
+            assertTable(expectedZ, "z");
+        });
+    }
+
+    private void assertTable(CharSequence expected, CharSequence tableName) {
+        try (TableReader reader = new TableReader(configuration, tableName)) {
+            assertThat(expected, reader.getCursor(), reader.getMetadata(), true);
+        }
+    }
+
+    private static class TestLineProtoWriterConfiguration implements LineProtoWriterConfiguration {
+        @Override
+        public CairoSecurityContext getCairoSecurityContext() {
+            return AllowAllCairoSecurityContext.INSTANCE;
+        }
+
+        @Override
+        public int getCommitMode() {
+            return CommitMode.NOSYNC;
+        }
+
+        @Override
+        public int getCommitRate() {
+            return 1000;
+        }
+
+        @Override
+        public long getMaxCommitLatency() {
+            return 0;
+        }
+
+        @Override
+        public long getMaxUncommittedBytes() {
+            return 0;
+        }
+
+        @Override
+        public long getMaxUncommittedRows() {
+            return 0;
+        }
+
+        @Override
+        public LineProtoTimestampAdapter getTimestampAdapter() {
+            return LineProtoNanoTimestampAdapter.INSTANCE;
+        }
+
+        @Override
+        public int getWriterQueueCapacity() {
+            return 2;
+        }
+
+        @Override
+        public int getWriterShardCount() {
+            return 3;
+        }
+    }
+}
@@ -78,6 +78,16 @@ public class LinuxLineProtoReceiverTest extends AbstractCairoTest {
         assertReceive(new TestLineUdpReceiverConfiguration(), GENERIC_FACTORY);
     }
 
+    @Test
+    public void testGenericReusePort() throws Exception {
+        assertReusePort(LineProtoReceiver::new);
+    }
+
+    @Test
+    public void testGenericShardedReceive() throws Exception {
+        assertShardedReceive(GENERIC_FACTORY);
+    }
+
     @Test
     public void testLinuxCannotBindSocket() throws Exception {
         if (Os.type != Os.LINUX_AMD64) {
@@ -126,6 +136,22 @@ public class LinuxLineProtoReceiverTest extends AbstractCairoTest {
         assertReceive(new TestLineUdpReceiverConfiguration(), LINUX_FACTORY);
     }
 
+    @Test
+    public void testLinuxReusePort() throws Exception {
+        if (Os.type != Os.LINUX_AMD64) {
+            return;
+        }
+        assertReusePort(LinuxMMLineProtoReceiver::new);
+    }
+
+    @Test
+    public void testLinuxShardedReceive() throws Exception {
+        if (Os.type != Os.LINUX_AMD64) {
+            return;
+        }
+        assertShardedReceive(LINUX_FACTORY);
+    }
+
     private void assertCannotBindSocket(ReceiverFactory factory) throws Exception {
         TestUtils.assertMemoryLeak(() -> {
             NetworkFacade nf = new NetworkFacadeImpl() {
@@ -224,68 +250,111 @@ public class LinuxLineProtoReceiverTest extends AbstractCairoTest {
         assertReceive(configuration, factory);
     }
 
+    private void assertShardedReceive(ReceiverFactory factory) throws Exception {
+        LineUdpReceiverConfiguration configuration = new TestLineUdpReceiverConfiguration() {
+            @Override
+            public int getWriterQueueCapacity() {
+                return 2;
+            }
+
+            @Override
+            public int getWriterShardCount() {
+                return 3;
+            }
+        };
+        assertReceive(configuration, factory);
+    }
+
     private void assertReceive(LineUdpReceiverConfiguration receiverCfg, ReceiverFactory factory) throws Exception {
         TestUtils.assertMemoryLeak(() -> {
-            final String expected = "colour\tshape\tsize\ttimestamp\n" +
-                    "blue\tsquare\t3.4000000000000004\t1970-01-01T00:01:40.000000Z\n" +
-                    "blue\tsquare\t3.4000000000000004\t1970-01-01T00:01:40.000000Z\n" +
-                    "blue\tsquare\t3.4000000000000004\t1970-01-01T00:01:40.000000Z\n" +
-                    "blue\tsquare\t3.4000000000000004\t1970-01-01T00:01:40.000000Z\n" +
-                    "blue\tsquare\t3.4000000000000004\t1970-01-01T00:01:40.000000Z\n" +
-                    "blue\tsquare\t3.4000000000000004\t1970-01-01T00:01:40.000000Z\n" +
-                    "blue\tsquare\t3.4000000000000004\t1970-01-01T00:01:40.000000Z\n" +
-                    "blue\tsquare\t3.4000000000000004\t1970-01-01T00:01:40.000000Z\n" +
-                    "blue\tsquare\t3.4000000000000004\t1970-01-01T00:01:40.000000Z\n" +
-                    "blue\tsquare\t3.4000000000000004\t1970-01-01T00:01:40.000000Z\n";
-
             try (CairoEngine engine = new CairoEngine(new DefaultCairoConfiguration(root), null)) {
+                try (AbstractLineProtoReceiver receiver = factory.create(receiverCfg, engine, null, false, null)) {
+                    assertReceive(receiverCfg, engine, receiver::start, receiver::halt);
+                }
+            }
+        });
+    }
 
+    private void assertReceive(LineUdpReceiverConfiguration receiverCfg, CairoEngine engine, Runnable start, Runnable halt) {
+        final String expected = "colour\tshape\tsize\ttimestamp\n" +
+                "blue\tsquare\t3.4\t1970-01-01T00:01:40.000000Z\n" +
+                "blue\tsquare\t3.4\t1970-01-01T00:01:40.000000Z\n" +
+                "blue\tsquare\t3.4\t1970-01-01T00:01:40.000000Z\n" +
+                "blue\tsquare\t3.4\t1970-01-01T00:01:40.000000Z\n" +
+                "blue\tsquare\t3.4\t1970-01-01T00:01:40.000000Z\n" +
+                "blue\tsquare\t3.4\t1970-01-01T00:01:40.000000Z\n" +
+                "blue\tsquare\t3.4\t1970-01-01T00:01:40.000000Z\n" +
+                "blue\tsquare\t3.4\t1970-01-01T00:01:40.000000Z\n" +
+                "blue\tsquare\t3.4\t1970-01-01T00:01:40.000000Z\n" +
+                "blue\tsquare\t3.4\t1970-01-01T00:01:40.000000Z\n";
+
+        // create table
+
+        try (TableModel model = new TableModel(configuration, "tab", PartitionBy.NONE)
+                .col("colour", ColumnType.SYMBOL)
+                .col("shape", ColumnType.SYMBOL)
+                .col("size", ColumnType.DOUBLE)
+                .timestamp()) {
+            CairoTestUtils.create(model);
+        }
 
-                try (AbstractLineProtoReceiver receiver = factory.create(receiverCfg, engine, null, false, null)) {
+        // warm writer up
+        try (TableWriter w = engine.getWriter(AllowAllCairoSecurityContext.INSTANCE, "tab")) {
+            w.warmUp();
+        }
+
+        start.run();
+
+        try (LineProtoSender sender = new LineProtoSender(NetworkFacadeImpl.INSTANCE, 0, receiverCfg.getBindIPv4Address(), receiverCfg.getPort(), 1400, 1)) {
+            for (int i = 0; i < 10; i++) {
+                sender.metric("tab").tag("colour", "blue").tag("shape", "square").field("size", 3.4).$(100000000000L);
+            }
+            sender.flush();
+        }
 
-                    // create table
-
-                    try (TableModel model = new TableModel(configuration, "tab", PartitionBy.NONE)
-                            .col("colour", ColumnType.SYMBOL)
-                            .col("shape", ColumnType.SYMBOL)
-                            .col("size", ColumnType.DOUBLE)
-                            .timestamp()) {
-                        CairoTestUtils.create(model);
-                    }
-
-                    // warm writer up
-                    try (TableWriter w = engine.getWriter(AllowAllCairoSecurityContext.INSTANCE, "tab")) {
-                        w.warmUp();
-                    }
-
-                    receiver.start();
-
-                    try (LineProtoSender sender = new LineProtoSender(NetworkFacadeImpl.INSTANCE, 0, receiverCfg.getBindIPv4Address(), receiverCfg.getPort(), 1400, 1)) {
-                        for (int i = 0; i < 10; i++) {
-                            sender.metric("tab").tag("colour", "blue").tag("shape", "square").field("size", 3.4).$(100000000000L);
-                        }
-                        sender.flush();
-                    }
-
-                    try (TableReader reader = new TableReader(new DefaultCairoConfiguration(root), "tab")) {
-                        int count = 1000000;
-                        while (true) {
-                            if (count-- > 0 && reader.size() < 10) {
-                                reader.reload();
-                                LockSupport.parkNanos(1);
-                            } else {
-                                break;
-                            }
-                        }
-
-                        Assert.assertTrue(count > 0);
-                        receiver.halt();
-
-                        StringSink sink = new StringSink();
-                        RecordCursorPrinter printer = new RecordCursorPrinter(sink);
-                        printer.print(reader.getCursor(), reader.getMetadata(), true);
-                        TestUtils.assertEquals(expected, sink);
-                    }
+        try (TableReader reader = new TableReader(new DefaultCairoConfiguration(root), "tab")) {
+            int count = 1000000;
+            while (true) {
+                if (count-- > 0 && reader.size() < 10) {
+                    reader.reload();
+                    LockSupport.parkNanos(1);
+                } else {
+                    break;
+                }
+            }
+
+            Assert.assertTrue(count > 0);
+            halt.run();
+
+            StringSink sink = new StringSink();
+            RecordCursorPrinter printer = new RecordCursorPrinter(sink);
+            printer.print(reader.getCursor(), reader.getMetadata(), true);
+            TestUtils.assertEquals(expected, sink);
+        }
+    }
+
+    private void assertReusePort(LineUdpServer.ReceiverFactory factory) throws Exception {
+        LineUdpReceiverConfiguration receiverCfg = new TestLineUdpReceiverConfiguration() {
+            @Override
+            public int[] getReceiverAffinity() {
+                return new int[]{-1, -1, -1};
+            }
+
+            @Override
+            public int getReceiverCount() {
+                return 3;
+            }
+
+            @Override
+            public boolean isUnicast() {
+                return true;
+            }
+        };
+
+        TestUtils.assertMemoryLeak(() -> {
+            try (CairoEngine engine = new CairoEngine(new DefaultCairoConfiguration(root), null)) {
+                try (LineUdpServer server = new LineUdpServer(receiverCfg, engine, null, factory)) {
+                    assertReceive(receiverCfg, engine, server::start, server::halt);
                 }
             }
         });
@@ -370,5 +439,40 @@ public class LinuxLineProtoReceiverTest extends AbstractCairoTest {
         public int getCommitMode() {
             return CommitMode.NOSYNC;
         }
+
+        @Override
+        public long getMaxCommitLatency() {
+            return 0;
+        }
+
+        @Override
+        public long getMaxUncommittedBytes() {
+            return 0;
+        }
+
+        @Override
+        public long getMaxUncommittedRows() {
+            return 0;
+        }
+
+        @Override
+        public int[] getReceiverAffinity() {
+            return new int[]{-1};
+        }
+
+        @Override
+        public int getReceiverCount() {
+            return 1;
+        }
+
+        @Override
+        public int getWriterQueueCapacity() {
+            return 1024;
+        }
+
+        @Override
+        public int getWriterShardCount() {
+            return 0;
+        }
     }
 }
\ No newline at end of file
@@ -125,7 +125,7 @@ public class AlterTableAlterColumnTest extends AbstractGriffinTest {
 
     @Test
     public void testExpectActionKeyword() throws Exception {
-        assertFailure("alter table x", 13, "'add', 'alter' or 'drop' expected");
+        assertFailure("alter table x", 13, "'add', 'alter', 'drop', 'move' or 'set' expected");
     }
 
     @Test
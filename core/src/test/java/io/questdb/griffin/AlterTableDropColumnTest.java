@@ -141,7 +141,7 @@ public class AlterTableDropColumnTest extends AbstractGriffinTest {
 
     @Test
     public void testExpectActionKeyword() throws Exception {
-        assertFailure("alter table x", 13, "'add', 'alter' or 'drop' expected");
+        assertFailure("alter table x", 13, "'add', 'alter', 'drop', 'move' or 'set' expected");
     }
 
     @Test
@@ -0,0 +1,374 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin;
+
+import io.questdb.MessageBus;
+import io.questdb.MessageBusImpl;
+import io.questdb.cairo.*;
+import io.questdb.cairo.security.AllowAllCairoSecurityContext;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.engine.functions.bind.BindVariableService;
+import io.questdb.griffin.engine.functions.rnd.SharedRandom;
+import io.questdb.mp.Job;
+import io.questdb.std.*;
+import io.questdb.std.microtime.MicrosecondClock;
+import io.questdb.std.microtime.TimestampFormatUtils;
+import io.questdb.std.str.LPSZ;
+import io.questdb.std.str.NativeLPSZ;
+import io.questdb.std.str.Path;
+import io.questdb.std.str.StringSink;
+import io.questdb.test.tools.TestUtils;
+import org.junit.*;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+
+import static io.questdb.griffin.CompiledQuery.ALTER;
+
+public class AlterTableMovePartitionTest {
+    private static final StringSink sink = new StringSink();
+    private static final RecordCursorPrinter printer = new RecordCursorPrinter(sink);
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private CharSequence root;
+    private CharSequence coldRoot;
+    private boolean coldEnabled;
+    private boolean hardLinkDisabled;
+    private boolean exchangeDisabled;
+    private boolean linkRenameDisabled;
+    private long currentMicros;
+    private CairoEngine engine;
+    private SqlCompiler compiler;
+    private SqlExecutionContext sqlExecutionContext;
+
+    @Before
+    public void setUp() throws IOException {
+        SharedRandom.RANDOM.set(new Rnd());
+        root = temp.newFolder("dbRoot").getAbsolutePath();
+        coldRoot = temp.newFolder("dbColdRoot").getAbsolutePath();
+        coldEnabled = true;
+        hardLinkDisabled = false;
+        exchangeDisabled = false;
+        linkRenameDisabled = false;
+        currentMicros = 0;
+        final MicrosecondClock clock = () -> currentMicros;
+        final FilesFacade ff = new FilesFacadeImpl() {
+            @Override
+            public boolean hardLink(LPSZ src, LPSZ hardLink) {
+                // simulates cold root on a different device
+                return !hardLinkDisabled && super.hardLink(src, hardLink);
+            }
+
+            @Override
+            public boolean exchange(LPSZ a, LPSZ b) {
+                return !exchangeDisabled && super.exchange(a, b);
+            }
+
+            @Override
+            public boolean rename(LPSZ from, LPSZ to) {
+                return !(linkRenameDisabled && Chars.endsWith(from, ".lnk")) && super.rename(from, to);
+            }
+        };
+        CairoConfiguration configuration = new DefaultCairoConfiguration(root) {
+            @Override
+            public FilesFacade getFilesFacade() {
+                return ff;
+            }
+
+            @Override
+            public CharSequence getColdRoot() {
+                return coldEnabled ? coldRoot : null;
+            }
+
+            @Override
+            public int getColdPartitionAgeDays() {
+                return 15;
+            }
+
+            @Override
+            public MicrosecondClock getMicrosecondClock() {
+                return clock;
+            }
+        };
+        MessageBus messageBus = new MessageBusImpl();
+        engine = new CairoEngine(configuration, messageBus);
+        compiler = new SqlCompiler(engine);
+        sqlExecutionContext = new SqlExecutionContextImpl(configuration, messageBus, 1).with(AllowAllCairoSecurityContext.INSTANCE, new BindVariableService(), null);
+    }
+
+    @After
+    public void tearDown() {
+        compiler.close();
+        engine.close();
+    }
+
+    @Test
+    public void testMaintenanceJobMovesOldPartitions() throws Exception {
+        assertMemoryLeak(() -> {
+            createX();
+            final String expected = selectAll();
+
+            // partitions ending at or before 2018-01-05 are older than 15 days
+            currentMicros = TimestampFormatUtils.parseTimestamp("2018-01-20T00:00:00.000000Z");
+            final Job job = engine.getWriterMaintenanceJob();
+            Assert.assertTrue(job.run(0));
+
+            assertMoved("2018-01-01", true);
+            assertMoved("2018-01-04", true);
+            assertMoved("2018-01-05", false);
+            assertMoved("2018-01-09", false);
+            Assert.assertEquals(4, countColdPartitions());
+            TestUtils.assertEquals(expected, selectAll());
+        });
+    }
+
+    @Test
+    public void testMoveActivePartition() throws Exception {
+        assertFailure("alter table x move partition '2018-01-09'", 29, "could not move partition '2018-01-09'");
+    }
+
+    @Test
+    public void testMoveDisabled() throws Exception {
+        coldEnabled = false;
+        assertFailure("alter table x move partition '2018-01-02'", 19, "cold storage is disabled");
+    }
+
+    @Test
+    public void testMoveMalformedPartition() throws Exception {
+        assertFailure("alter table x move partition '2018-01'", 29, "'YYYY-MM-DD' expected");
+    }
+
+    @Test
+    public void testMoveMissingPartition() throws Exception {
+        assertFailure("alter table x move partition '2017-01-05'", 29, "could not move partition");
+    }
+
+    @Test
+    public void testMovePartitionExpectName() throws Exception {
+        assertFailure("alter table x move partition", 28, "partition name expected");
+    }
+
+    @Test
+    public void testMovePartitionTwice() throws Exception {
+        assertMemoryLeak(() -> {
+            createX();
+            Assert.assertEquals(ALTER, compiler.compile("alter table x move partition '2018-01-02'", sqlExecutionContext).getType());
+            try {
+                compiler.compile("alter table x move partition '2018-01-02'", sqlExecutionContext);
+                Assert.fail();
+            } catch (SqlException e) {
+                Assert.assertEquals(29, e.getPosition());
+                TestUtils.assertContains(e.getFlyweightMessage(), "could not move partition '2018-01-02'");
+            }
+            Assert.assertEquals(1, countColdPartitions());
+        });
+    }
+
+    @Test
+    public void testMoveTwoPartitions() throws Exception {
+        assertMemoryLeak(() -> {
+            createX();
+            final String expected = selectAll();
+            hardLinkDisabled = true;
+
+            try (TableReader reader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, "x")) {
+                Assert.assertEquals(ALTER, compiler.compile("alter table x move partition '2018-01-02', '2018-01-05'", sqlExecutionContext).getType());
+
+                // reader opened before the move keeps reading data it has mapped
+                reader.reload();
+                Assert.assertEquals(1000, reader.size());
+                RecordCursor cursor = reader.getCursor();
+                sink.clear();
+                printer.print(cursor, reader.getMetadata(), true);
+                TestUtils.assertEquals(expected, sink);
+            }
+
+            assertMoved("2018-01-02", true);
+            assertMoved("2018-01-05", true);
+            assertMoved("2018-01-03", false);
+            Assert.assertEquals(2, countColdPartitions());
+
+            engine.releaseAllReaders();
+            TestUtils.assertEquals(expected, selectAll());
+
+            // data in moved partitions remains writable by DDL
+            compiler.compile("alter table x add column z int", sqlExecutionContext);
+            compiler.compile("alter table x alter column sym add index", sqlExecutionContext);
+            assertCount("120", "select count() from x where timestamp = '2018-01-02'");
+        });
+    }
+
+    @Test
+    public void testDropMovedPartition() throws Exception {
+        assertMemoryLeak(() -> {
+            createX();
+            compiler.compile("alter table x move partition '2018-01-02', '2018-01-03'", sqlExecutionContext);
+            Assert.assertEquals(2, countColdPartitions());
+
+            compiler.compile("alter table x drop partition '2018-01-02'", sqlExecutionContext);
+            Assert.assertEquals(1, countColdPartitions());
+            assertCount("0", "select count() from x where timestamp = '2018-01-02'");
+            assertCount("120", "select count() from x where timestamp = '2018-01-03'");
+
+            engine.releaseAllReaders();
+            engine.releaseAllWriters();
+            compiler.compile("drop table x", sqlExecutionContext);
+            Assert.assertEquals(0, countColdPartitions());
+        });
+    }
+
+    @Test
+    public void testMoveWithoutExchange() throws Exception {
+        assertMemoryLeak(() -> {
+            createX();
+            final String expected = selectAll();
+            exchangeDisabled = true;
+
+            try (TableReader reader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, "x")) {
+                Assert.assertEquals(ALTER, compiler.compile("alter table x move partition '2018-01-02'", sqlExecutionContext).getType());
+                reader.reload();
+                RecordCursor cursor = reader.getCursor();
+                sink.clear();
+                printer.print(cursor, reader.getMetadata(), true);
+                TestUtils.assertEquals(expected, sink);
+            }
+
+            assertMoved("2018-01-02", true);
+            assertNotExists("2018-01-02.lnk");
+            assertNotExists("2018-01-02.old");
+            Assert.assertEquals(1, countColdPartitions());
+
+            engine.releaseAllReaders();
+            TestUtils.assertEquals(expected, selectAll());
+        });
+    }
+
+    @Test
+    public void testMoveWithoutExchangeRenameFails() throws Exception {
+        exchangeDisabled = true;
+        linkRenameDisabled = true;
+        assertFailure("alter table x move partition '2018-01-02'", 29, "could not move partition '2018-01-02'");
+        assertMoved("2018-01-02", false);
+        assertNotExists("2018-01-02.lnk");
+        assertNotExists("2018-01-02.old");
+        assertCount("120", "select count() from x where timestamp = '2018-01-02'");
+    }
+
+    private void assertNotExists(String name) {
+        try (Path path = new Path().of(root).concat("x").concat(name).$()) {
+            Assert.assertFalse(Files.exists(path));
+        }
+    }
+
+    private void assertCount(String expected, String query) throws SqlException {
+        try (RecordCursorFactory factory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory()) {
+            try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+                sink.clear();
+                printer.print(cursor, factory.getMetadata(), false);
+                TestUtils.assertEquals(expected + "\n", sink);
+            }
+        }
+    }
+
+    private void assertFailure(String sql, int position, String message) throws Exception {
+        assertMemoryLeak(() -> {
+            createX();
+            try {
+                compiler.compile(sql, sqlExecutionContext);
+                Assert.fail();
+            } catch (SqlException e) {
+                Assert.assertEquals(position, e.getPosition());
+                TestUtils.assertContains(e.getFlyweightMessage(), message);
+            }
+            Assert.assertEquals(0, countColdPartitions());
+        });
+    }
+
+    private void assertMemoryLeak(TestUtils.LeakProneCode code) throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            try {
+                code.run();
+                engine.releaseInactive();
+                Assert.assertEquals(0, engine.getBusyWriterCount());
+                Assert.assertEquals(0, engine.getBusyReaderCount());
+            } finally {
+                engine.releaseAllReaders();
+                engine.releaseAllWriters();
+            }
+        });
+    }
+
+    private void assertMoved(String partitionName, boolean moved) {
+        try (Path path = new Path().of(root).concat("x").concat(partitionName).$()) {
+            Assert.assertTrue(Files.exists(path));
+            Assert.assertEquals(moved, Files.isSoftLink(path));
+        }
+    }
+
+    private int countColdPartitions() {
+        final FilesFacade ff = FilesFacadeImpl.INSTANCE;
+        final NativeLPSZ name = new NativeLPSZ();
+        final int[] count = {0};
+        try (Path path = new Path().of(coldRoot).concat("x").$()) {
+            if (ff.exists(path)) {
+                ff.iterateDir(path, (pName, type) -> {
+                    if (type == Files.DT_DIR && name.of(pName).charAt(0) != '.') {
+                        count[0]++;
+                    }
+                });
+            }
+        }
+        return count[0];
+    }
+
+    private void createX() throws SqlException {
+        compiler.compile(
+                "create table x as (" +
+                        "select" +
+                        " cast(x as int) i," +
+                        " rnd_symbol('msft','ibm', 'googl') sym," +
+                        " round(rnd_double(0)*100, 3) amt," +
+                        " to_timestamp('2018-01', 'yyyy-MM') + x * 720000000 timestamp," +
+                        " rnd_str('ABC', 'CDE', null, 'XYZ') c," +
+                        " rnd_bin(10, 20, 2) m" +
+                        " from long_sequence(1000)" +
+                        ") timestamp (timestamp) " +
+                        "partition by DAY",
+                sqlExecutionContext
+        );
+    }
+
+    private String selectAll() throws SqlException {
+        try (RecordCursorFactory factory = compiler.compile("select * from x", sqlExecutionContext).getRecordCursorFactory()) {
+            try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+                sink.clear();
+                printer.print(cursor, factory.getMetadata(), true);
+                return sink.toString();
+            }
+        }
+    }
+}
@@ -0,0 +1,230 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin;
+
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.TableWriter;
+import io.questdb.cairo.security.AllowAllCairoSecurityContext;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.engine.functions.rnd.SharedRandom;
+import io.questdb.mp.Job;
+import io.questdb.std.Rnd;
+import io.questdb.test.tools.TestUtils;
+import org.jetbrains.annotations.Nullable;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static io.questdb.griffin.CompiledQuery.ALTER;
+
+public class AlterTableSetTtlTest extends AbstractGriffinTest {
+
+    @Before
+    public void setUp3() {
+        SharedRandom.RANDOM.set(new Rnd());
+    }
+
+    @Test
+    public void testCommitRemovesExpiredPartitions() throws Exception {
+        assertMemoryLeak(() -> {
+            createX("DAY", 720000000);
+            compiler.compile("alter table x set ttl 3 days", sqlExecutionContext);
+
+            // writer is held throughout, maintenance job would skip the table
+            try (TableWriter writer = engine.getWriter(AllowAllCairoSecurityContext.INSTANCE, "x")) {
+                // commit within active partition leaves expiry to maintenance job
+                TableWriter.Row row = writer.newRow(writer.partitionNameToTimestamp("2018-01-09") + 10 * 3600000000L);
+                row.putInt(0, 1001);
+                row.append();
+                writer.commit();
+                Assert.assertEquals(1001, writer.size());
+
+                // new partition is committed, writer catches up
+                row = writer.newRow(writer.partitionNameToTimestamp("2018-01-12"));
+                row.putInt(0, 1002);
+                row.append();
+                writer.commit();
+            }
+
+            // data ends at 2018-01-12T00:00, partitions ending before 2018-01-09T00:00 expire
+            assertCount("0", "2018-01-08");
+            assertCount("42", "2018-01-09");
+            assertCount("43", null);
+        });
+    }
+
+    @Test
+    public void testMaintenanceJobRemovesExpiredPartitions() throws Exception {
+        assertMemoryLeak(() -> {
+            createX("DAY", 720000000);
+            Assert.assertEquals(ALTER, compiler.compile("alter table x set ttl 3 days", sqlExecutionContext).getType());
+            engine.releaseAllWriters();
+
+            try (CairoEngine engine = new CairoEngine(configuration)) {
+                final Job job = engine.getWriterMaintenanceJob();
+                Assert.assertTrue(job.run(0));
+            }
+
+            // data ends at 2018-01-09T08:00, partitions ending before 2018-01-06T08:00 expire
+            assertCount("0", "2018-01-01");
+            assertCount("0", "2018-01-05");
+            assertCount("120", "2018-01-06");
+            assertCount("401", null);
+        });
+    }
+
+    @Test
+    public void testRemoveExpiredPartitionsByMonth() throws Exception {
+        assertMemoryLeak(() -> {
+            createX("MONTH", 3 * 7200000000L);
+            compiler.compile("alter table x set ttl 1 year", sqlExecutionContext);
+            compiler.compile("alter table x set ttl 2 months", sqlExecutionContext);
+
+            try (TableWriter writer = engine.getWriter(AllowAllCairoSecurityContext.INSTANCE, "x")) {
+                Assert.assertEquals(-2, writer.getTtl());
+                // data ends at 2018-09-08, partitions ending before 2018-07-08 expire
+                Assert.assertEquals(6, writer.removeExpiredPartitions(Long.MAX_VALUE));
+                Assert.assertEquals(0, writer.removeExpiredPartitions(Long.MAX_VALUE));
+            }
+
+            assertCount("0", "2018-06");
+            assertCount("124", "2018-07");
+        });
+    }
+
+    @Test
+    public void testRemoveExpiredPartitionsNotInFuture() throws Exception {
+        assertMemoryLeak(() -> {
+            createX("DAY", 720000000);
+            compiler.compile("alter table x set ttl 24 hours", sqlExecutionContext);
+
+            try (TableWriter writer = engine.getWriter(AllowAllCairoSecurityContext.INSTANCE, "x")) {
+                // clock behind data, retention counts back from the clock
+                Assert.assertEquals(2, writer.removeExpiredPartitions(writer.partitionNameToTimestamp("2018-01-04")));
+                Assert.assertEquals(5, writer.removeExpiredPartitions(Long.MAX_VALUE));
+            }
+
+            assertCount("0", "2018-01-07");
+            assertCount("120", "2018-01-08");
+        });
+    }
+
+    @Test
+    public void testSetTtlBadUnit() throws Exception {
+        assertFailure("alter table x set ttl 3 decades", 24, "'hours', 'days', 'weeks', 'months' or 'years' expected");
+    }
+
+    @Test
+    public void testSetTtlBadValue() throws Exception {
+        assertFailure("alter table x set ttl abc days", 22, "TTL value expected");
+    }
+
+    @Test
+    public void testSetTtlExpectKeyword() throws Exception {
+        assertFailure("alter table x set retention 3 days", 18, "'ttl' expected");
+    }
+
+    @Test
+    public void testSetTtlNonPartitioned() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table x (a int)", sqlExecutionContext);
+            try {
+                compiler.compile("alter table x set ttl 3 days", sqlExecutionContext);
+                Assert.fail();
+            } catch (SqlException e) {
+                Assert.assertEquals(22, e.getPosition());
+                TestUtils.assertContains(e.getFlyweightMessage(), "TTL requires partitioned table");
+            }
+        });
+    }
+
+    @Test
+    public void testSetTtlTooLarge() throws Exception {
+        assertFailure("alter table x set ttl 2000000000 weeks", 22, "TTL value is too large");
+    }
+
+    @Test
+    public void testTtlSurvivesStructureChange() throws Exception {
+        assertMemoryLeak(() -> {
+            createX("DAY", 720000000);
+            compiler.compile("alter table x set ttl 2 weeks", sqlExecutionContext);
+            compiler.compile("alter table x add column z int", sqlExecutionContext);
+            compiler.compile("alter table x alter column sym add index", sqlExecutionContext);
+            compiler.compile("alter table x drop column z", sqlExecutionContext);
+            engine.releaseAllWriters();
+
+            try (TableWriter writer = engine.getWriter(AllowAllCairoSecurityContext.INSTANCE, "x")) {
+                Assert.assertEquals(14 * 24, writer.getTtl());
+                Assert.assertEquals(0, writer.removeExpiredPartitions(Long.MAX_VALUE));
+            }
+
+            compiler.compile("alter table x set ttl 0 hours", sqlExecutionContext);
+            try (TableWriter writer = engine.getWriter(AllowAllCairoSecurityContext.INSTANCE, "x")) {
+                Assert.assertEquals(0, writer.getTtl());
+            }
+            assertCount("1000", null);
+        });
+    }
+
+    private void assertCount(String expected, @Nullable String intervalSearch) throws SqlException {
+        try (RecordCursorFactory factory = compiler.compile(intervalSearch == null ? "select count() from x" : "select count() from x where timestamp = '" + intervalSearch + "'", sqlExecutionContext).getRecordCursorFactory()) {
+            try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+                sink.clear();
+                printer.print(cursor, factory.getMetadata(), false);
+                TestUtils.assertEquals(expected + "\n", sink);
+            }
+        }
+    }
+
+    private void assertFailure(String sql, int position, String message) throws Exception {
+        assertMemoryLeak(() -> {
+            try {
+                createX("DAY", 720000000);
+                compiler.compile(sql, sqlExecutionContext);
+                Assert.fail();
+            } catch (SqlException e) {
+                Assert.assertEquals(position, e.getPosition());
+                TestUtils.assertContains(e.getFlyweightMessage(), message);
+            }
+        });
+    }
+
+    private void createX(String partitionBy, long increment) throws SqlException {
+        compiler.compile(
+                "create table x as (" +
+                        "select" +
+                        " cast(x as int) i," +
+                        " rnd_symbol('msft','ibm', 'googl') sym," +
+                        " round(rnd_double(0)*100, 3) amt," +
+                        " to_timestamp('2018-01', 'yyyy-MM') + x * " + increment + " timestamp," +
+                        " rnd_str('ABC', 'CDE', null, 'XYZ') c" +
+                        " from long_sequence(1000)" +
+                        ") timestamp (timestamp) " +
+                        "partition by " + partitionBy,
+                sqlExecutionContext
+        );
+    }
+}
@@ -0,0 +1,263 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin;
+
+import io.questdb.cairo.*;
+import io.questdb.cairo.security.AllowAllCairoSecurityContext;
+import io.questdb.std.Chars;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.FilesFacadeImpl;
+import io.questdb.std.IntList;
+import io.questdb.std.Unsafe;
+import io.questdb.std.str.LPSZ;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BloomFilterTest extends AbstractGriffinTest {
+
+    private static final String DDL = "create table t as (\n" +
+            "    select \n" +
+            "        x l, \n" +
+            "        cast(x as STRING) s, \n" +
+            "        timestamp_sequence(0, 3600000000) ts \n" +
+            "    from long_sequence(72)\n" +
+            ") timestamp(ts) partition by DAY";
+
+    @Test
+    public void testAddBloomFilterTwice() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile(DDL, sqlExecutionContext);
+            compiler.compile("alter table t alter column l add bloom filter", sqlExecutionContext);
+            try {
+                compiler.compile("alter table t alter column l add bloom filter", sqlExecutionContext);
+                Assert.fail();
+            } catch (SqlException e) {
+                Assert.assertEquals(12, e.getPosition());
+                TestUtils.assertContains(e.getFlyweightMessage(), "already has bloom filter");
+            }
+        });
+    }
+
+    @Test
+    public void testAddBloomFilterUnsupportedType() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile(DDL, sqlExecutionContext);
+            try {
+                compiler.compile("alter table t alter column ts add bloom filter", sqlExecutionContext);
+                Assert.fail();
+            } catch (SqlException e) {
+                Assert.assertEquals(12, e.getPosition());
+                TestUtils.assertContains(e.getFlyweightMessage(), "cannot create bloom filter");
+            }
+        });
+    }
+
+    @Test
+    public void testExpectIndexOrBloom() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile(DDL, sqlExecutionContext);
+            try {
+                compiler.compile("alter table t alter column l add xyz", sqlExecutionContext);
+                Assert.fail();
+            } catch (SqlException e) {
+                Assert.assertEquals(33, e.getPosition());
+                TestUtils.assertContains(e.getFlyweightMessage(), "'index' or 'bloom' expected");
+            }
+        });
+    }
+
+    @Test
+    public void testLongEquality() throws Exception {
+        final String expected = "l\ts\tts\n" +
+                "30\t30\t1970-01-02T05:00:00.000000Z\n";
+
+        assertQuery(
+                expected,
+                "select * from t where l = 30",
+                DDL,
+                "ts",
+                "alter table t alter column l add bloom filter",
+                expected
+        );
+    }
+
+    @Test
+    public void testFilterMappedOncePerPartition() throws Exception {
+        final IntList opened = new IntList();
+        opened.add(0);
+        final FilesFacade ff = new FilesFacadeImpl() {
+            @Override
+            public long openRO(LPSZ name) {
+                if (Chars.endsWith(name, ".bf")) {
+                    opened.increment(0);
+                }
+                return super.openRO(name);
+            }
+        };
+
+        assertMemoryLeak(() -> {
+            compiler.compile(DDL, sqlExecutionContext);
+            compiler.compile("alter table t alter column l add bloom filter", sqlExecutionContext);
+
+            final CairoConfiguration configuration = new DefaultCairoConfiguration(root) {
+                @Override
+                public FilesFacade getFilesFacade() {
+                    return ff;
+                }
+            };
+
+            try (TableReader reader = new TableReader(configuration, "t")) {
+                final int l = reader.getMetadata().getColumnIndex("l");
+                for (int i = 0; i < 10; i++) {
+                    Assert.assertTrue(reader.bloomFilterMightContain(1, l, BloomFilterUtils.hash(30)));
+                    Assert.assertFalse(reader.bloomFilterMightContain(1, l, BloomFilterUtils.hash(1000)));
+                    Assert.assertFalse(reader.bloomFilterMightContain(2, l, BloomFilterUtils.hash(1000)));
+                }
+                Assert.assertEquals(2, opened.getQuick(0));
+
+                // mapped filter of active partition follows writer
+                try (TableWriter writer = engine.getWriter(AllowAllCairoSecurityContext.INSTANCE, "t")) {
+                    TableWriter.Row row = writer.newRow(71 * 3600000000L + 1);
+                    row.putLong(0, 1000);
+                    row.append();
+                    writer.commit();
+                }
+                Assert.assertTrue(reader.reload());
+                Assert.assertTrue(reader.bloomFilterMightContain(2, l, BloomFilterUtils.hash(1000)));
+                Assert.assertFalse(reader.bloomFilterMightContain(1, l, BloomFilterUtils.hash(1000)));
+                Assert.assertEquals(2, opened.getQuick(0));
+            }
+        });
+    }
+
+    @Test
+    public void testPartitionsSkipped() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile(DDL, sqlExecutionContext);
+            compiler.compile("alter table t alter column l add bloom filter", sqlExecutionContext);
+            compiler.compile("alter table t alter column s add bloom filter", sqlExecutionContext);
+
+            try (TableWriter writer = engine.getWriter(AllowAllCairoSecurityContext.INSTANCE, "t")) {
+                TableWriter.Row row = writer.newRow(72 * 3600000000L);
+                row.putLong(0, 1000);
+                row.putStr(1, "1000");
+                row.append();
+                writer.commit();
+            }
+
+            try (TableReader reader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, "t", TableUtils.ANY_TABLE_VERSION)) {
+                final int l = reader.getMetadata().getColumnIndex("l");
+                final int s = reader.getMetadata().getColumnIndex("s");
+                Assert.assertEquals(4, reader.getPartitionCount());
+
+                Assert.assertTrue(reader.bloomFilterMightContain(0, l, BloomFilterUtils.hash(10)));
+                Assert.assertFalse(reader.bloomFilterMightContain(1, l, BloomFilterUtils.hash(10)));
+                Assert.assertFalse(reader.bloomFilterMightContain(2, l, BloomFilterUtils.hash(10)));
+                Assert.assertFalse(reader.bloomFilterMightContain(3, l, BloomFilterUtils.hash(10)));
+                Assert.assertTrue(reader.bloomFilterMightContain(3, l, BloomFilterUtils.hash(1000)));
+
+                Assert.assertTrue(reader.bloomFilterMightContain(2, s, BloomFilterUtils.hash("60")));
+                Assert.assertFalse(reader.bloomFilterMightContain(0, s, BloomFilterUtils.hash("60")));
+                Assert.assertTrue(reader.bloomFilterMightContain(3, s, BloomFilterUtils.hash("1000")));
+                Assert.assertFalse(reader.bloomFilterMightContain(3, s, BloomFilterUtils.hash("60")));
+            }
+        });
+    }
+
+    @Test
+    public void testStringEmptyAppendBatch() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table t (s string, ts timestamp) timestamp(ts) partition by DAY", sqlExecutionContext);
+            compiler.compile("alter table t alter column s add bloom filter", sqlExecutionContext);
+
+            // empty string and 'b' on first day, null and 'a' on the following days
+            final int N = 4;
+            final long timestamps = Unsafe.malloc(N * 8L);
+            final long strings = Unsafe.malloc(N * 8L);
+            try {
+                Unsafe.getUnsafe().putLong(timestamps, 0);
+                Unsafe.getUnsafe().putLong(timestamps + 8, 3600000000L);
+                Unsafe.getUnsafe().putLong(timestamps + 16, 86400000000L);
+                Unsafe.getUnsafe().putLong(timestamps + 24, 2 * 86400000000L);
+
+                long p = strings;
+                Unsafe.getUnsafe().putInt(p, 0);
+                p += 4;
+                Unsafe.getUnsafe().putInt(p, 1);
+                Unsafe.getUnsafe().putChar(p + 4, 'b');
+                p += 6;
+                Unsafe.getUnsafe().putInt(p, TableUtils.NULL_LEN);
+                p += 4;
+                Unsafe.getUnsafe().putInt(p, 1);
+                Unsafe.getUnsafe().putChar(p + 4, 'a');
+
+                try (TableWriter writer = engine.getWriter(AllowAllCairoSecurityContext.INSTANCE, "t")) {
+                    writer.appendBatch(new ColumnBatch().of(2, N).setTimestamps(timestamps).setColumn(0, strings));
+                    writer.commit();
+                }
+            } finally {
+                Unsafe.free(timestamps, N * 8L);
+                Unsafe.free(strings, N * 8L);
+            }
+
+            // '' in SQL is a char literal, so filter is probed directly
+            try (TableReader reader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, "t")) {
+                Assert.assertTrue(reader.bloomFilterMightContain(0, 0, BloomFilterUtils.hash("")));
+                Assert.assertTrue(reader.bloomFilterMightContain(0, 0, BloomFilterUtils.hash("b")));
+                Assert.assertFalse(reader.bloomFilterMightContain(1, 0, BloomFilterUtils.hash("")));
+            }
+        });
+    }
+
+    @Test
+    public void testStringEquality() throws Exception {
+        final String expected = "l\ts\tts\n" +
+                "50\t50\t1970-01-03T01:00:00.000000Z\n";
+
+        assertQuery(
+                expected,
+                "select * from t where s = '50'",
+                DDL,
+                "ts",
+                "alter table t alter column s add bloom filter",
+                expected
+        );
+    }
+
+    @Test
+    public void testStringEqualityAndFilter() throws Exception {
+        final String expected = "l\ts\tts\n";
+
+        assertQuery(
+                expected,
+                "select * from t where s = '50' and l > 60",
+                DDL,
+                "ts",
+                "alter table t alter column s add bloom filter",
+                expected
+        );
+    }
+}
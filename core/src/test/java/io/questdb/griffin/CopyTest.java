@@ -29,7 +29,10 @@ import io.questdb.MessageBusImpl;
 import io.questdb.cairo.*;
 import io.questdb.cairo.security.AllowAllCairoSecurityContext;
 import io.questdb.cairo.sql.*;
+import io.questdb.cutlass.text.TextImportJob;
 import io.questdb.griffin.engine.functions.bind.BindVariableService;
+import io.questdb.mp.WorkerPool;
+import io.questdb.mp.WorkerPoolConfiguration;
 import io.questdb.std.*;
 import io.questdb.test.tools.TestUtils;
 import org.jetbrains.annotations.NotNull;
@@ -37,6 +40,7 @@ import org.jetbrains.annotations.Nullable;
 import org.junit.*;
 
 import java.io.File;
+import java.io.FileWriter;
 
 public class CopyTest extends AbstractCairoTest {
 
@@ -461,7 +465,7 @@ public class CopyTest extends AbstractCairoTest {
                     "CMP2\t7\t6103\t6.36347207706422\t2015-01-24T19:15:09.000Z\t2015-01-24T19:15:09.000Z\t2015-01-24T00:00:00.000Z\t6047\tfalse\t84767095\n" +
                     "CMP1\t7\t1313\t7.38160170149058\t2015-01-25T19:15:09.000Z\t2015-01-25T19:15:09.000Z\t2015-01-25T00:00:00.000Z\t3837\ttrue\t13178079\n" +
                     "CMP1\t1\t9952\t5.43148486176506\t2015-01-26T19:15:09.000Z\t2015-01-26T19:15:09.000Z\t2015-01-26T00:00:00.000Z\t5578\tfalse\t61000112\n" +
-                    "CMP2\t2\t5589\t3.8917106972076003\t2015-01-27T19:15:09.000Z\t\t2015-01-27T00:00:00.000Z\t4153\ttrue\t43900701\n" +
+                    "CMP2\t2\t5589\t3.8917106972076\t2015-01-27T19:15:09.000Z\t\t2015-01-27T00:00:00.000Z\t4153\ttrue\t43900701\n" +
                     "CMP1\t3\t9438\t3.90446535777301\t2015-01-28T19:15:09.000Z\t2015-01-28T19:15:09.000Z\t2015-01-28T00:00:00.000Z\t6363\tfalse\t88289909\n" +
                     "CMP2\t8\t8000\t2.27636352181435\t2015-01-29T19:15:09.000Z\t2015-01-29T19:15:09.000Z\t2015-01-29T00:00:00.000Z\t323\ttrue\t14925407\n" +
                     "CMP1\t2\t1581\t9.01423481060192\t2015-01-30T19:15:09.000Z\t2015-01-30T19:15:09.000Z\t2015-01-30T00:00:00.000Z\t9138\tfalse\t68225213\n" +
@@ -492,7 +496,7 @@ public class CopyTest extends AbstractCairoTest {
                     "CMP2\t3\t9117\t6.16650991374627\t2015-02-24T19:15:09.000Z\t2015-02-24T19:15:09.000Z\t2015-02-24T00:00:00.000Z\t3588\ttrue\t4354364\n" +
                     "CMP1\t6\t2745\t6.12624417291954\t2015-02-25T19:15:09.000Z\t2015-02-25T19:15:09.000Z\t2015-02-25T00:00:00.000Z\t6149\tfalse\t71925383\n" +
                     "CMP2\t2\t986\t4.00966874323785\t2015-02-26T19:15:09.000Z\t2015-02-26T19:15:09.000Z\t2015-02-26T00:00:00.000Z\t4099\ttrue\t53416732\n" +
-                    "CMP1\t7\t8510\t0.8291012421250341\t2015-02-27T19:15:09.000Z\t2015-02-27T19:15:09.000Z\t2015-02-27T00:00:00.000Z\t6459\tfalse\t17817647\n" +
+                    "CMP1\t7\t8510\t0.829101242125034\t2015-02-27T19:15:09.000Z\t2015-02-27T19:15:09.000Z\t2015-02-27T00:00:00.000Z\t6459\tfalse\t17817647\n" +
                     "CMP2\t6\t2368\t4.37540231039748\t2015-02-28T19:15:09.000Z\t2015-02-28T19:15:09.000Z\t2015-02-28T00:00:00.000Z\t7812\ttrue\t99185079\n" +
                     "CMP1\t6\t1758\t8.40889546554536\t2015-03-01T19:15:09.000Z\t2015-03-01T19:15:09.000Z\t2015-03-01T00:00:00.000Z\t7485\tfalse\t46226610\n" +
                     "CMP2\t4\t4049\t1.08890570467338\t2015-03-02T19:15:09.000Z\t2015-03-02T19:15:09.000Z\t2015-03-02T00:00:00.000Z\t4412\ttrue\t54936589\n" +
@@ -508,10 +512,10 @@ public class CopyTest extends AbstractCairoTest {
                     "CMP2\t1\t1731\t6.87037272611633\t2015-03-12T19:15:09.000Z\t2015-03-12T19:15:09.000Z\t2015-03-12T00:00:00.000Z\t7299\ttrue\t61351111\n" +
                     "CMP1\t7\t6530\t9.17741159442812\t2015-03-13T19:15:09.000Z\t2015-03-13T19:15:09.000Z\t2015-03-13T00:00:00.000Z\t4186\tfalse\t68200832\n" +
                     "CMP2\t6\t441\t9.87805142300203\t2015-03-14T19:15:09.000Z\t2015-03-14T19:15:09.000Z\t2015-03-14T00:00:00.000Z\t6256\ttrue\t25615453\n" +
-                    "CMP1\t8\t6476\t0.6236567208543421\t2015-03-15T19:15:09.000Z\t2015-03-15T19:15:09.000Z\t2015-03-15T00:00:00.000Z\t8916\tfalse\t11378657\n" +
+                    "CMP1\t8\t6476\t0.623656720854342\t2015-03-15T19:15:09.000Z\t2015-03-15T19:15:09.000Z\t2015-03-15T00:00:00.000Z\t8916\tfalse\t11378657\n" +
                     "CMP2\t3\t9245\t4.85969736473635\t2015-03-16T19:15:09.000Z\t2015-03-16T19:15:09.000Z\t2015-03-16T00:00:00.000Z\t5364\ttrue\t72902099\n" +
                     "CMP1\t5\t135\t0.71932214545086\t2015-03-17T19:15:09.000Z\t2015-03-17T19:15:09.000Z\t2015-03-17T00:00:00.000Z\t6172\tfalse\t94911256\n" +
-                    "CMP2\t6\t5662\t0.9344037040136751\t2015-03-18T19:15:09.000Z\t2015-03-18T19:15:09.000Z\t2015-03-18T00:00:00.000Z\t3228\ttrue\t71957668\n" +
+                    "CMP2\t6\t5662\t0.934403704013675\t2015-03-18T19:15:09.000Z\t2015-03-18T19:15:09.000Z\t2015-03-18T00:00:00.000Z\t3228\ttrue\t71957668\n" +
                     "CMP1\t7\t8820\t2.26465462474152\t2015-03-19T19:15:09.000Z\t2015-03-19T19:15:09.000Z\t2015-03-19T00:00:00.000Z\t5414\tfalse\t37676934\n" +
                     "CMP2\t1\t1673\t1.13900111755356\t2015-03-20T19:15:09.000Z\t2015-03-20T19:15:09.000Z\t2015-03-20T00:00:00.000Z\t792\ttrue\t45159973\n" +
                     "CMP1\t6\t8704\t7.43929118616506\t2015-03-21T19:15:09.000Z\t2015-03-21T19:15:09.000Z\t2015-03-21T00:00:00.000Z\t4887\tfalse\t27305661\n" +
@@ -540,12 +544,12 @@ public class CopyTest extends AbstractCairoTest {
                     "CMP2\t6\t4692\t2.76645212434232\t2015-04-13T19:15:09.000Z\t2015-04-13T19:15:09.000Z\t2015-04-13T00:00:00.000Z\t4201\ttrue\t28465709\n" +
                     "CMP1\t7\t7116\t6.58135131234303\t2015-04-14T19:15:09.000Z\t2015-04-14T19:15:09.000Z\t2015-04-14T00:00:00.000Z\t3892\tfalse\t48420564\n" +
                     "CMP2\t3\t2457\t5.60338953277096\t2015-04-15T19:15:09.000Z\t2015-04-15T19:15:09.000Z\t2015-04-15T00:00:00.000Z\t7053\ttrue\t33039439\n" +
-                    "CMP1\t8\t9975\t0.16938636312261202\t2015-04-16T19:15:09.000Z\t2015-04-16T19:15:09.000Z\t2015-04-16T00:00:00.000Z\t6874\tfalse\t6451182\n" +
+                    "CMP1\t8\t9975\t0.169386363122612\t2015-04-16T19:15:09.000Z\t2015-04-16T19:15:09.000Z\t2015-04-16T00:00:00.000Z\t6874\tfalse\t6451182\n" +
                     "CMP2\t5\t4952\t0.968641364015639\t2015-04-17T19:15:09.000Z\t2015-04-17T19:15:09.000Z\t2015-04-17T00:00:00.000Z\t1680\ttrue\t77366482\n" +
                     "CMP1\t6\t2024\t1.11267756437883\t2015-04-18T19:15:09.000Z\t2015-04-18T19:15:09.000Z\t2015-04-18T00:00:00.000Z\t3883\tfalse\t65946538\n" +
                     "CMP2\t2\t7689\t6.29668754525483\t2015-04-19T19:15:09.000Z\t2015-04-19T19:15:09.000Z\t2015-04-19T00:00:00.000Z\t254\ttrue\t15272074\n" +
-                    "CMP1\t1\t9916\t0.24603431345894902\t2015-04-20T19:15:09.000Z\t2015-04-20T19:15:09.000Z\t2015-04-20T00:00:00.000Z\t7768\tfalse\t24934386\n" +
-                    "CMP2\t8\t2034\t7.2211763379164005\t2015-04-21T19:15:09.000Z\t2015-04-21T19:15:09.000Z\t2015-04-21T00:00:00.000Z\t8514\ttrue\t26112211\n" +
+                    "CMP1\t1\t9916\t0.246034313458949\t2015-04-20T19:15:09.000Z\t2015-04-20T19:15:09.000Z\t2015-04-20T00:00:00.000Z\t7768\tfalse\t24934386\n" +
+                    "CMP2\t8\t2034\t7.2211763379164\t2015-04-21T19:15:09.000Z\t2015-04-21T19:15:09.000Z\t2015-04-21T00:00:00.000Z\t8514\ttrue\t26112211\n" +
                     "CMP1\t8\t673\t4.48250063927844\t2015-04-22T19:15:09.000Z\t2015-04-22T19:15:09.000Z\t2015-04-22T00:00:00.000Z\t2455\tfalse\t51949360\n" +
                     "CMP2\t3\t6513\t4.39972517313436\t2015-04-23T19:15:09.000Z\t2015-04-23T19:15:09.000Z\t2015-04-23T00:00:00.000Z\t7307\ttrue\t74090772\n" +
                     "CMP1\t2\t8509\t7.21647302387282\t2015-04-24T19:15:09.000Z\t2015-04-24T19:15:09.000Z\t2015-04-24T00:00:00.000Z\t1784\tfalse\t43610015\n" +
@@ -560,7 +564,7 @@ public class CopyTest extends AbstractCairoTest {
                     "CMP2\tNaN\t2848\t5.32819046406075\t2015-05-03T19:15:09.000Z\t2015-05-03T19:15:09.000Z\t2015-05-03T00:00:00.000Z\t7628\ttrue\t36732064\n" +
                     "CMP1\tNaN\t2776\t5.30948682921007\t2015-05-04T19:15:09.000Z\t2015-05-04T19:15:09.000Z\t2015-05-04T00:00:00.000Z\t5917\tfalse\t59635623\n" +
                     "CMP2\t8\t5256\t8.02117716753855\t2015-05-05T19:15:09.000Z\t2015-05-05T19:15:09.000Z\t2015-05-05T00:00:00.000Z\t4088\ttrue\t50247928\n" +
-                    "CMP1\t7\t9250\t0.8500805334188041\t2015-05-06T19:15:09.000Z\t2015-05-06T19:15:09.000Z\t2015-05-06T00:00:00.000Z\t519\tfalse\t61373305\n" +
+                    "CMP1\t7\t9250\t0.850080533418804\t2015-05-06T19:15:09.000Z\t2015-05-06T19:15:09.000Z\t2015-05-06T00:00:00.000Z\t519\tfalse\t61373305\n" +
                     "CMP2\t2\t6675\t7.95846320921555\t2015-05-07T19:15:09.000Z\t2015-05-07T19:15:09.000Z\t2015-05-07T00:00:00.000Z\t7530\ttrue\t49634855\n" +
                     "CMP1\t5\t8367\t9.34185237856582\t2015-05-08T19:15:09.000Z\t2015-05-08T19:15:09.000Z\t2015-05-08T00:00:00.000Z\t9714\tfalse\t91106929\n" +
                     "CMP2\t4\t370\t7.84945336403325\t2015-05-09T19:15:09.000Z\t2015-05-09T19:15:09.000Z\t2015-05-09T00:00:00.000Z\t8590\ttrue\t89638043\n" +
@@ -578,6 +582,233 @@ public class CopyTest extends AbstractCairoTest {
         });
     }
 
+    @Test
+    public void testParallelCopy() throws Exception {
+        assertMemoryLeak(() -> {
+            // type detection samples the first buffer, both imports have to see the same one
+            CairoConfiguration serialConfiguration = new DefaultCairoConfiguration(root) {
+                @Override
+                public CharSequence getInputRoot() {
+                    return new File(".").getAbsolutePath();
+                }
+
+                @Override
+                public int getSqlCopyBufferSize() {
+                    return 1024;
+                }
+
+                @Override
+                public long getSqlCopyParallelChunkSize() {
+                    return 0;
+                }
+            };
+
+            try (
+                    CairoEngine engine = new CairoEngine(serialConfiguration, messageBus);
+                    SqlCompiler compiler = new SqlCompiler(engine, messageBus)
+            ) {
+                compiler.compile("copy x from '/target/test-classes/csv/test-import.csv'", sqlExecutionContext);
+            }
+
+            CairoConfiguration configuration = new DefaultCairoConfiguration(root) {
+                @Override
+                public CharSequence getInputRoot() {
+                    return new File(".").getAbsolutePath();
+                }
+
+                @Override
+                public int getSqlCopyBufferSize() {
+                    return 1024;
+                }
+
+                @Override
+                public long getSqlCopyParallelChunkSize() {
+                    return 2048;
+                }
+            };
+
+            try (
+                    CairoEngine engine = new CairoEngine(configuration, messageBus);
+                    SqlCompiler compiler = new SqlCompiler(engine, messageBus)
+            ) {
+                compiler.compile("copy y from '/target/test-classes/csv/test-import.csv'", sqlExecutionContext);
+            }
+
+            final String expected;
+            try (RecordCursorFactory factory = compiler.compile("x", sqlExecutionContext).getRecordCursorFactory()) {
+                try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+                    sink.clear();
+                    printer.print(cursor, factory.getMetadata(), true);
+                    expected = sink.toString();
+                }
+            }
+            assertQuery(expected, "y", null, true);
+        });
+    }
+
+    @Test
+    public void testParallelCopyFailure() throws Exception {
+        final File inputRoot = temp.newFolder("import");
+        // timestamps go back in time past the first chunk, appending later chunk fails
+        try (FileWriter writer = new FileWriter(new File(inputRoot, "unordered.csv"))) {
+            writer.write("v,ts\n");
+            for (int i = 0; i < 2000; i++) {
+                writer.write(Integer.toString(i));
+                writer.write(i < 1500 ? ",2020" : ",2019");
+                writer.write(String.format("-01-01T00:%02d:%02d.000000Z\n", i / 60 % 60, i % 60));
+            }
+        }
+
+        assertMemoryLeak(() -> {
+            compiler.compile("create table z (v int, ts timestamp) timestamp(ts)", sqlExecutionContext);
+
+            CairoConfiguration configuration = new DefaultCairoConfiguration(root) {
+                @Override
+                public CharSequence getInputRoot() {
+                    return inputRoot.getAbsolutePath();
+                }
+
+                @Override
+                public int getSqlCopyBufferSize() {
+                    return 1024;
+                }
+
+                @Override
+                public long getSqlCopyParallelChunkSize() {
+                    return 2048;
+                }
+            };
+
+            try (
+                    CairoEngine engine = new CairoEngine(configuration, messageBus);
+                    SqlCompiler compiler = new SqlCompiler(engine, messageBus)
+            ) {
+                try {
+                    compiler.compile("copy z from 'unordered.csv'", sqlExecutionContext);
+                    Assert.fail();
+                } catch (CairoException e) {
+                    TestUtils.assertContains(e.getFlyweightMessage(), "Cannot insert rows out of order");
+                }
+            }
+
+            // rows of the first chunk are not committed on their own
+            assertQuery("count\n0\n", "select count() from z", null, false);
+        });
+    }
+
+    @Test
+    public void testParallelCopyWithWorkers() throws Exception {
+        final File inputRoot = temp.newFolder("import");
+        // quoted multi-line values make for many line ends that chunk boundaries must not land on
+        try (FileWriter writer = new FileWriter(new File(inputRoot, "multiline.csv"))) {
+            writer.write("id,comment,price,active,updated\n");
+            final Rnd rnd = new Rnd();
+            for (int i = 0; i < 2000; i++) {
+                writer.write(Integer.toString(i));
+                writer.write(",\"line ");
+                writer.write(Integer.toString(i));
+                writer.write("\nsaid \"\"hi\"\",\nthen left\",");
+                if (i % 7 != 0) {
+                    writer.write(Double.toString(rnd.nextDouble()));
+                }
+                writer.write(',');
+                writer.write(rnd.nextBoolean() ? "true" : "false");
+                writer.write(",2020-01-0");
+                writer.write(Integer.toString(1 + i % 9));
+                writer.write("T10:00:00.000Z\n");
+            }
+        }
+
+        assertMemoryLeak(() -> {
+            final SqlExecutionContext workerExecutionContext = new SqlExecutionContextImpl(configuration, messageBus, 2).with(
+                    AllowAllCairoSecurityContext.INSTANCE,
+                    bindVariableService,
+                    null
+            );
+
+            CairoConfiguration serialConfiguration = new DefaultCairoConfiguration(root) {
+                @Override
+                public CharSequence getInputRoot() {
+                    return inputRoot.getAbsolutePath();
+                }
+
+                @Override
+                public int getSqlCopyBufferSize() {
+                    return 4096;
+                }
+
+                @Override
+                public long getSqlCopyParallelChunkSize() {
+                    return 0;
+                }
+            };
+
+            try (
+                    CairoEngine engine = new CairoEngine(serialConfiguration, messageBus);
+                    SqlCompiler compiler = new SqlCompiler(engine, messageBus)
+            ) {
+                compiler.compile("copy x from 'multiline.csv'", sqlExecutionContext);
+            }
+
+            CairoConfiguration configuration = new DefaultCairoConfiguration(root) {
+                @Override
+                public CharSequence getInputRoot() {
+                    return inputRoot.getAbsolutePath();
+                }
+
+                @Override
+                public int getSqlCopyBufferSize() {
+                    return 4096;
+                }
+
+                @Override
+                public long getSqlCopyParallelChunkSize() {
+                    return 4096;
+                }
+            };
+
+            final WorkerPool workerPool = new WorkerPool(new WorkerPoolConfiguration() {
+                @Override
+                public int[] getWorkerAffinity() {
+                    return new int[]{-1, -1};
+                }
+
+                @Override
+                public int getWorkerCount() {
+                    return 2;
+                }
+
+                @Override
+                public boolean haltOnError() {
+                    return false;
+                }
+            });
+            workerPool.assign(new TextImportJob(messageBus));
+            workerPool.start(null);
+
+            try (
+                    CairoEngine engine = new CairoEngine(configuration, messageBus);
+                    SqlCompiler compiler = new SqlCompiler(engine, messageBus)
+            ) {
+                compiler.compile("copy y from 'multiline.csv'", workerExecutionContext);
+            } finally {
+                workerPool.halt();
+            }
+
+            final String expected;
+            try (RecordCursorFactory factory = compiler.compile("x", sqlExecutionContext).getRecordCursorFactory()) {
+                try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+                    sink.clear();
+                    printer.print(cursor, factory.getMetadata(), true);
+                    expected = sink.toString();
+                }
+            }
+            Assert.assertTrue(expected.contains("said \"hi\""));
+            assertQuery(expected, "y", null, true);
+            assertQuery("count\n2000\n", "select count() from y", null, false);
+        });
+    }
+
     @Test
     public void testSimpleCopyForceHeader() throws Exception {
         assertMemoryLeak(() -> {
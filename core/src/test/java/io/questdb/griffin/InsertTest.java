@@ -29,6 +29,7 @@ import io.questdb.cairo.security.AllowAllCairoSecurityContext;
 import io.questdb.cairo.sql.InsertMethod;
 import io.questdb.cairo.sql.InsertStatement;
 import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.cairo.sql.WriterOutOfDateException;
 import io.questdb.griffin.engine.TestBinarySequence;
 import io.questdb.griffin.engine.functions.bind.BindVariableService;
@@ -40,6 +41,11 @@ import io.questdb.test.tools.TestUtils;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class InsertTest extends AbstractGriffinTest {
     @Test
     public void testInsertAllByDay() throws Exception {
@@ -137,6 +143,76 @@ public class InsertTest extends AbstractGriffinTest {
         });
     }
 
+    @Test
+    public void testInsertConcurrently() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table balances(cust_id int, balance double)", sqlExecutionContext);
+
+            final int threadCount = 4;
+            final int rowCount = 200;
+            final CyclicBarrier barrier = new CyclicBarrier(threadCount);
+            final CountDownLatch haltLatch = new CountDownLatch(threadCount);
+            final AtomicInteger errors = new AtomicInteger();
+
+            for (int i = 0; i < threadCount; i++) {
+                final InsertStatement insertStatement = compiler.compile("insert into balances values (" + i + ", 12.5)", sqlExecutionContext).getInsertStatement();
+                final SqlExecutionContext executionContext = new SqlExecutionContextImpl(configuration, messageBus, 1)
+                        .with(AllowAllCairoSecurityContext.INSTANCE, new BindVariableService(), null);
+                new Thread(() -> {
+                    try {
+                        barrier.await();
+                        for (int j = 0; j < rowCount; j++) {
+                            insertStatement.insert(executionContext);
+                        }
+                    } catch (Throwable e) {
+                        e.printStackTrace();
+                        errors.incrementAndGet();
+                    } finally {
+                        haltLatch.countDown();
+                    }
+                }).start();
+            }
+
+            Assert.assertTrue(haltLatch.await(30, TimeUnit.SECONDS));
+            Assert.assertEquals(0, errors.get());
+
+            final int[] counts = new int[threadCount];
+            try (TableReader reader = engine.getReader(sqlExecutionContext.getCairoSecurityContext(), "balances")) {
+                Assert.assertEquals(threadCount * rowCount, reader.size());
+                final RecordCursor cursor = reader.getCursor();
+                final Record record = cursor.getRecord();
+                while (cursor.hasNext()) {
+                    counts[record.getInt(0)]++;
+                }
+            }
+            for (int i = 0; i < threadCount; i++) {
+                Assert.assertEquals(rowCount, counts[i]);
+            }
+        });
+    }
+
+    @Test
+    public void testInsertAfterStructureChange() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table balances(cust_id int, ccy symbol, balance double)", sqlExecutionContext);
+            CompiledQuery cq = compiler.compile("insert into balances values (1, 'GBP', 356.12)", sqlExecutionContext);
+            InsertStatement insertStatement = cq.getInsertStatement();
+            insertStatement.insert(sqlExecutionContext);
+
+            compiler.compile("alter table balances drop column ccy", sqlExecutionContext);
+
+            try {
+                insertStatement.insert(sqlExecutionContext);
+                Assert.fail();
+            } catch (WriterOutOfDateException ignored) {
+            }
+
+            try (TableReader reader = engine.getReader(sqlExecutionContext.getCairoSecurityContext(), "balances")) {
+                Assert.assertEquals(1, reader.size());
+            }
+        });
+    }
+
     @Test
     public void testInsertExplicitTimestampPos1() throws Exception {
         assertMemoryLeak(() -> {
@@ -2086,7 +2086,7 @@ public class SqlCodeGeneratorTest extends AbstractGriffinTest {
                         ") timestamp(t)",
                 "a\tb\tk\n" +
                         "54.55175324785665\tHYRX\t1970-02-02T07:00:00.000000Z\n" +
-                        "88.10000000000001\tXYZ\t1971-01-01T00:00:00.000000Z\n");
+                        "88.1\tXYZ\t1971-01-01T00:00:00.000000Z\n");
 
         // good
         Assert.assertTrue(TestMatchFunctionFactory.assertAPI());
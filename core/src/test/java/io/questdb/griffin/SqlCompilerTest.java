@@ -3146,6 +3146,103 @@ public class SqlCompilerTest extends AbstractGriffinTest {
         });
     }
 
+    @Test
+    public void testSnapshotTable() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table y as (" +
+                    "select rnd_symbol('a','b','c') sym, x, timestamp_sequence(0, 36000000000) ts from long_sequence(8)" +
+                    ") timestamp(ts) partition by DAY", sqlExecutionContext);
+
+            Assert.assertEquals(CompiledQuery.SNAPSHOT_TABLE, compiler.compile("snapshot table y to x", sqlExecutionContext).getType());
+
+            final String expected = "sym\tx\tts\n" +
+                    "a\t1\t1970-01-01T00:00:00.000000Z\n" +
+                    "a\t2\t1970-01-01T10:00:00.000000Z\n" +
+                    "b\t3\t1970-01-01T20:00:00.000000Z\n" +
+                    "c\t4\t1970-01-02T06:00:00.000000Z\n" +
+                    "c\t5\t1970-01-02T16:00:00.000000Z\n" +
+                    "c\t6\t1970-01-03T02:00:00.000000Z\n" +
+                    "c\t7\t1970-01-03T12:00:00.000000Z\n" +
+                    "b\t8\t1970-01-03T22:00:00.000000Z\n";
+            printSqlResult(expected, "x", "ts", null, null, true, true);
+
+            // tables are independent of each other after snapshot, including the active partition
+            executeInsert("insert into x values ('dd', 9, cast(255600000000 as timestamp))");
+            executeInsert("insert into y values ('ee', 10, cast(259200000000 as timestamp))");
+
+            printSqlResult(expected + "dd\t9\t1970-01-03T23:00:00.000000Z\n", "x", "ts", null, null, true, true);
+            printSqlResult(expected + "ee\t10\t1970-01-04T00:00:00.000000Z\n", "y", "ts", null, null, true, true);
+        });
+    }
+
+    @Test
+    public void testSnapshotTableError() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table y as (" +
+                    "select x, timestamp_sequence(0, 36000000000) ts from long_sequence(8)" +
+                    ") timestamp(ts) partition by DAY", sqlExecutionContext);
+
+            final FilesFacade ff = new FilesFacadeImpl() {
+                @Override
+                public boolean copy(LPSZ from, LPSZ to) {
+                    throw new Error("test error");
+                }
+
+                @Override
+                public boolean hardLink(LPSZ src, LPSZ hardLink) {
+                    throw new Error("test error");
+                }
+            };
+
+            final DefaultCairoConfiguration configuration = new DefaultCairoConfiguration(root) {
+                @Override
+                public FilesFacade getFilesFacade() {
+                    return ff;
+                }
+            };
+
+            try (
+                    CairoEngine engine = new CairoEngine(configuration, null);
+                    SqlCompiler compiler = new SqlCompiler(engine)
+            ) {
+                try {
+                    compiler.compile("snapshot table y to x", sqlExecutionContext);
+                    Assert.fail();
+                } catch (Error e) {
+                    TestUtils.assertContains(e.getMessage(), "test error");
+                }
+                Assert.assertEquals(TableUtils.TABLE_DOES_NOT_EXIST, engine.getStatus(sqlExecutionContext.getCairoSecurityContext(), path, "x"));
+            }
+        });
+    }
+
+    @Test
+    public void testSnapshotTableExists() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table y (a int, t timestamp) timestamp(t)", sqlExecutionContext);
+            try {
+                compiler.compile("snapshot table y to y", sqlExecutionContext);
+                Assert.fail();
+            } catch (SqlException e) {
+                Assert.assertEquals(20, e.getPosition());
+                TestUtils.assertContains(e.getFlyweightMessage(), "table already exists");
+            }
+        });
+    }
+
+    @Test
+    public void testSnapshotTableMissing() throws Exception {
+        assertMemoryLeak(() -> {
+            try {
+                compiler.compile("snapshot table y to x", sqlExecutionContext);
+                Assert.fail();
+            } catch (SqlException e) {
+                Assert.assertEquals(15, e.getPosition());
+                TestUtils.assertContains(e.getFlyweightMessage(), "table 'y' does not exist");
+            }
+        });
+    }
+
     private void assertCast(String expectedData, String expectedMeta, String sql) throws SqlException {
         compiler.compile(sql, sqlExecutionContext);
         try (TableReader reader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, "y", TableUtils.ANY_TABLE_VERSION)) {
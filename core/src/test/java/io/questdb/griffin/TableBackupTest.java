@@ -31,10 +31,7 @@ import io.questdb.cairo.security.AllowAllCairoSecurityContext;
 import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.cairo.sql.RecordCursorFactory;
 import io.questdb.griffin.engine.functions.bind.BindVariableService;
-import io.questdb.std.Files;
-import io.questdb.std.FilesFacade;
-import io.questdb.std.FilesFacadeImpl;
-import io.questdb.std.Misc;
+import io.questdb.std.*;
 import io.questdb.std.microtime.DateFormatCompiler;
 import io.questdb.std.microtime.TimestampFormat;
 import io.questdb.std.str.LPSZ;
@@ -63,6 +60,9 @@ public class TableBackupTest {
     private int renameErrno;
     private int mkdirsErrno;
     private int mkdirsErrnoCountDown = 0;
+    private boolean fileLevel;
+    private boolean hardLinkFromRootDisabled;
+    private final ObjList<String> copiedFiles = new ObjList<>();
 
     @Before
     public void setup() throws IOException {
@@ -71,6 +71,9 @@ public class TableBackupTest {
         backupRoot = temp.newFolder("dbBackupRoot").getAbsolutePath();
         mkdirsErrno = -1;
         renameErrno = -1;
+        fileLevel = false;
+        hardLinkFromRootDisabled = false;
+        copiedFiles.clear();
         FilesFacade ff = new FilesFacadeImpl() {
             private int nextErrno = -1;
 
@@ -84,6 +87,21 @@ public class TableBackupTest {
                 return super.errno();
             }
 
+            @Override
+            public boolean copy(LPSZ from, LPSZ to) {
+                copiedFiles.add(from.toString());
+                return super.copy(from, to);
+            }
+
+            @Override
+            public boolean hardLink(LPSZ src, LPSZ hardLink) {
+                // simulates backup root on a different device than database root
+                if (hardLinkFromRootDisabled && Chars.startsWith(src, root)) {
+                    return false;
+                }
+                return super.hardLink(src, hardLink);
+            }
+
             @Override
             public int mkdirs(LPSZ path, int mode) {
                 if (mkdirsErrno != -1 && --mkdirsErrnoCountDown < 1) {
@@ -120,6 +138,11 @@ public class TableBackupTest {
             public TimestampFormat getBackupDirTimestampFormat() {
                 return new DateFormatCompiler().compile("ddMMMyyyy");
             }
+
+            @Override
+            public boolean isBackupFileLevelEnabled() {
+                return fileLevel;
+            }
         };
         MessageBus mainMessageBus = new MessageBusImpl();
         mainEngine = new CairoEngine(mainConfiguration, mainMessageBus);
@@ -218,6 +241,79 @@ public class TableBackupTest {
         });
     }
 
+    @Test
+    public void testFileLevelAllTypesPartitionedTable() throws Exception {
+        fileLevel = true;
+        testAllTypesPartitionedTable();
+    }
+
+    @Test
+    public void testFileLevelBackupDatabase() throws Exception {
+        fileLevel = true;
+        testBackupDatabase();
+    }
+
+    @Test
+    public void testFileLevelIncrementalBackups() throws Exception {
+        fileLevel = true;
+        hardLinkFromRootDisabled = true;
+        assertMemoryLeak(() -> {
+            String tableName = "testTable1";
+            // @formatter:off
+            mainCompiler.compile("create table " + tableName + " as (select" +
+                    " rnd_symbol(4,4,4,2) sym," +
+                    " rnd_str(3,3,2) s," +
+                    " rnd_double(2) d," +
+                    " timestamp_sequence(0, 3600000000) ts" +
+                    " from long_sequence(100)) timestamp(ts) partition by DAY", mainSqlExecutionContext);
+            // @formatter:on
+
+            mainCompiler.compile("backup table " + tableName, mainSqlExecutionContext);
+            setFinalBackupPath();
+            String sourceSelectAll = selectAll(tableName, false);
+            String backupSelectAll1 = selectAll(tableName, true);
+            Assert.assertEquals(sourceSelectAll, backupSelectAll1);
+
+            // @formatter:off
+            mainCompiler.compile("insert into " + tableName +
+                    " select * from (" +
+                    " select rnd_symbol(4,4,4,2) sym, rnd_str(3,3,2) s, rnd_double(2) d, timestamp_sequence(360000000000, 3600000000) ts from long_sequence(30)" +
+                    ") timestamp(ts)", mainSqlExecutionContext);
+            // @formatter:on
+
+            copiedFiles.clear();
+            mainCompiler.compile("backup table " + tableName, mainSqlExecutionContext);
+
+            // partitions sealed by the first backup are linked to from that backup
+            for (int i = 0, n = copiedFiles.size(); i < n; i++) {
+                String file = copiedFiles.getQuick(i);
+                Assert.assertFalse(file, file.contains("1970-01-01") || file.contains("1970-01-02") || file.contains("1970-01-03") || file.contains("1970-01-04"));
+            }
+            Assert.assertTrue(copiedFiles.size() > 0);
+
+            sourceSelectAll = selectAll(tableName, false);
+            setFinalBackupPath(1);
+            String backupSelectAll2 = selectAll(tableName, true);
+            Assert.assertEquals(sourceSelectAll, backupSelectAll2);
+
+            // previous backup is unaffected
+            setFinalBackupPath();
+            Assert.assertEquals(backupSelectAll1, selectAll(tableName, true));
+        });
+    }
+
+    @Test
+    public void testFileLevelSuccessiveBackups() throws Exception {
+        fileLevel = true;
+        testSuccessiveBackups();
+    }
+
+    @Test
+    public void testFileLevelTableBackupDirExists() throws Exception {
+        fileLevel = true;
+        testTableBackupDirExists();
+    }
+
     @Test
     public void testIncorrectConfig() throws Exception {
         backupRoot = null;
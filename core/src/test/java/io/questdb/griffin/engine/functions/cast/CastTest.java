@@ -1001,9 +1001,9 @@ public class CastTest extends AbstractGriffinTest {
                 "a\n" +
                         "1234.556\n" +
                         "NaN\n" +
-                        "988.2230000000001\n" +
+                        "988.223\n" +
                         "NaN\n" +
-                        "988.2230000000001\n" +
+                        "988.223\n" +
                         "NaN\n" +
                         "NaN\n" +
                         "NaN\n" +
@@ -1013,7 +1013,7 @@ public class CastTest extends AbstractGriffinTest {
                         "1234.556\n" +
                         "NaN\n" +
                         "NaN\n" +
-                        "988.2230000000001\n",
+                        "988.223\n",
                 true
         );
     }
@@ -1029,9 +1029,9 @@ public class CastTest extends AbstractGriffinTest {
                 "a\n" +
                         "1234.556\n" +
                         "NaN\n" +
-                        "988.2230000000001\n" +
+                        "988.223\n" +
                         "NaN\n" +
-                        "988.2230000000001\n" +
+                        "988.223\n" +
                         "NaN\n" +
                         "NaN\n" +
                         "NaN\n" +
@@ -1041,7 +1041,7 @@ public class CastTest extends AbstractGriffinTest {
                         "1234.556\n" +
                         "NaN\n" +
                         "NaN\n" +
-                        "988.2230000000001\n",
+                        "988.223\n",
                 true
         );
     }
@@ -24,80 +24,318 @@
 
 package io.questdb.griffin.engine.table;
 
+import io.questdb.MessageBus;
+import io.questdb.MessageBusImpl;
 import io.questdb.cairo.*;
 import io.questdb.cairo.security.AllowAllCairoSecurityContext;
 import io.questdb.cairo.sql.Record;
 import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.cairo.sql.RecordMetadata;
+import io.questdb.cairo.sql.RowCursorFactory;
 import io.questdb.griffin.SqlExecutionContext;
 import io.questdb.griffin.SqlExecutionContextImpl;
+import io.questdb.std.Files;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.FilesFacadeImpl;
 import io.questdb.std.Rnd;
 import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
 import org.junit.Test;
 
 public class DataFrameRecordCursorFactoryTest extends AbstractCairoTest {
+    private static final int N = 100;
+
+    @Test
+    public void testAdviceDisabled() throws Exception {
+        final AdviceCountingFacade ff = new AdviceCountingFacade();
+        final CairoConfiguration configuration = new DefaultCairoConfiguration(root) {
+            @Override
+            public FilesFacade getFilesFacade() {
+                return ff;
+            }
+
+            @Override
+            public boolean isColumnAccessAdviceEnabled() {
+                return false;
+            }
+        };
+        TestUtils.assertMemoryLeak(() -> {
+            final String[] symbols = createX();
+            assertFrameScan(configuration, symbols[N - 10], false);
+            assertFrameScan(configuration, symbols[N - 10], true);
+            for (int i = 0; i < ff.counts.length; i++) {
+                Assert.assertEquals(0, ff.counts[i]);
+            }
+        });
+    }
+
+    @Test
+    public void testAdviceFrameScan() throws Exception {
+        final AdviceCountingFacade ff = new AdviceCountingFacade();
+        final CairoConfiguration configuration = new DefaultCairoConfiguration(root) {
+            @Override
+            public FilesFacade getFilesFacade() {
+                return ff;
+            }
+
+            @Override
+            public boolean isColumnAccessAdviceEnabled() {
+                return true;
+            }
+        };
+        TestUtils.assertMemoryLeak(() -> {
+            createX();
+            final long count = assertFrameScan(configuration, null, false);
+            Assert.assertEquals(1000, count);
+            Assert.assertTrue(ff.counts[Files.MADV_SEQUENTIAL] > 0);
+            // every partition is released once scan moves past it
+            Assert.assertTrue(ff.counts[Files.MADV_DONTNEED] >= ff.counts[Files.MADV_SEQUENTIAL]);
+            Assert.assertEquals(0, ff.counts[Files.MADV_RANDOM]);
+            Assert.assertEquals(0, ff.counts[Files.MADV_NORMAL]);
+        });
+    }
+
+    @Test
+    public void testAdviceIndexScan() throws Exception {
+        final AdviceCountingFacade ff = new AdviceCountingFacade();
+        final CairoConfiguration configuration = new DefaultCairoConfiguration(root) {
+            @Override
+            public FilesFacade getFilesFacade() {
+                return ff;
+            }
+
+            @Override
+            public boolean isColumnAccessAdviceEnabled() {
+                return true;
+            }
+        };
+        TestUtils.assertMemoryLeak(() -> {
+            final String[] symbols = createX();
+            Assert.assertTrue(assertFrameScan(configuration, symbols[N - 10], true) > 0);
+            Assert.assertTrue(ff.counts[Files.MADV_RANDOM] > 0);
+            // random access partitions get default read-ahead back
+            Assert.assertTrue(ff.counts[Files.MADV_NORMAL] > 0);
+            Assert.assertEquals(0, ff.counts[Files.MADV_SEQUENTIAL]);
+            Assert.assertEquals(0, ff.counts[Files.MADV_DONTNEED]);
+        });
+    }
+
     @Test
     public void testFactory() throws Exception {
         TestUtils.assertMemoryLeak(() -> {
-            final int N = 100;
-            // separate two symbol columns with primitive. It will make problems apparent if index does not shift correctly
-            try (TableModel model = new TableModel(configuration, "x", PartitionBy.DAY).
-                    col("a", ColumnType.STRING).
-                    col("b", ColumnType.SYMBOL).indexed(true, N / 4).
-                    col("i", ColumnType.INT).
-                    col("c", ColumnType.SYMBOL).indexed(true, N / 4).
-                    timestamp()
-            ) {
-                CairoTestUtils.create(model);
+            final String[] symbols = createX();
+            assertFrameScan(configuration, symbols[N - 10], true);
+        });
+    }
+
+    @Test
+    public void testFactoryWithAdvice() throws Exception {
+        // native library may have been built without madvise(), scan must not notice
+        final CairoConfiguration configuration = new DefaultCairoConfiguration(root) {
+            @Override
+            public boolean isColumnAccessAdviceEnabled() {
+                return true;
+            }
+        };
+        TestUtils.assertMemoryLeak(() -> {
+            final String[] symbols = createX();
+            Assert.assertEquals(1000, assertFrameScan(configuration, null, false));
+            Assert.assertTrue(assertFrameScan(configuration, symbols[N - 10], true) > 0);
+        });
+    }
+
+    @Test
+    public void testPrefetchDisabled() throws Exception {
+        final CairoConfiguration configuration = new DefaultCairoConfiguration(root) {
+            @Override
+            public boolean isColumnPrefetchEnabled() {
+                return false;
             }
+        };
+        TestUtils.assertMemoryLeak(() -> {
+            createX();
+            final MessageBus messageBus = new MessageBusImpl();
+            Assert.assertEquals(1000, assertFrameScan(configuration, messageBus, null, false));
+            Assert.assertEquals(0, drainPrefetchQueue(messageBus, new ReadAheadCountingFacade()));
+        });
+    }
+
+    @Test
+    public void testPrefetchIndexScan() throws Exception {
+        final CairoConfiguration configuration = newPrefetchConfiguration();
+        TestUtils.assertMemoryLeak(() -> {
+            final String[] symbols = createX();
+            final MessageBus messageBus = new MessageBusImpl();
+            Assert.assertTrue(assertFrameScan(configuration, messageBus, symbols[N - 10], true) > 0);
+            // index driven row cursors do not look ahead
+            Assert.assertEquals(0, drainPrefetchQueue(messageBus, new ReadAheadCountingFacade()));
+        });
+    }
 
-            final Rnd rnd = new Rnd();
-            final String[] symbols = new String[N];
-            final int M = 1000;
-            final long increment = 1000000 * 60L * 4;
+    @Test
+    public void testPrefetchJob() throws Exception {
+        // native library may have been built without readAhead(), job must not notice
+        final CairoConfiguration configuration = newPrefetchConfiguration();
+        TestUtils.assertMemoryLeak(() -> {
+            createX();
+            final MessageBus messageBus = new MessageBusImpl();
+            Assert.assertEquals(1000, assertFrameScan(configuration, messageBus, null, false));
+            Assert.assertEquals(12, drainPrefetchQueue(messageBus, FilesFacadeImpl.INSTANCE));
+        });
+    }
 
-            for (int i = 0; i < N; i++) {
-                symbols[i] = rnd.nextChars(8).toString();
+    @Test
+    public void testPrefetchNextFrame() throws Exception {
+        final CairoConfiguration configuration = newPrefetchConfiguration();
+        TestUtils.assertMemoryLeak(() -> {
+            createX();
+            final MessageBus messageBus = new MessageBusImpl();
+            Assert.assertEquals(1000, assertFrameScan(configuration, messageBus, null, false));
+            final ReadAheadCountingFacade ff = new ReadAheadCountingFacade();
+            // first partition is read straight away, other two are prefetched:
+            // index and data of string column plus four fixed size columns
+            Assert.assertEquals(12, drainPrefetchQueue(messageBus, ff));
+            Assert.assertEquals(12, ff.count);
+            // 360 and 281 rows of two symbols, int, timestamp, string index and 20 char strings
+            Assert.assertEquals((360 + 281) * (4 + 4 + 4 + 8 + 8 + 4 + 20 * 2), ff.len);
+        });
+    }
+
+    @Test
+    public void testPrefetchSelectedColumns() throws Exception {
+        final CairoConfiguration configuration = newPrefetchConfiguration();
+        TestUtils.assertMemoryLeak(() -> {
+            createX();
+            final MessageBus messageBus = new MessageBusImpl();
+            Assert.assertEquals(1000, assertFrameScan(configuration, messageBus, null, false, false));
+            final ReadAheadCountingFacade ff = new ReadAheadCountingFacade();
+            // columns scan has not read are neither opened nor prefetched
+            Assert.assertEquals(2, drainPrefetchQueue(messageBus, ff));
+            Assert.assertEquals((360 + 281) * 4, ff.len);
+        });
+    }
+
+    private static CairoConfiguration newPrefetchConfiguration() {
+        return new DefaultCairoConfiguration(root) {
+            @Override
+            public boolean isColumnPrefetchEnabled() {
+                return true;
             }
+        };
+    }
 
-            rnd.reset();
-
-            // prepare the data
-            long timestamp = 0;
-            try (TableWriter writer = new TableWriter(configuration, "x")) {
-                for (int i = 0; i < M; i++) {
-                    TableWriter.Row row = writer.newRow(timestamp += increment);
-                    row.putStr(0, rnd.nextChars(20));
-                    row.putSym(1, symbols[rnd.nextPositiveInt() % N]);
-                    row.putInt(2, rnd.nextInt());
-                    row.putSym(3, symbols[rnd.nextPositiveInt() % N]);
-                    row.append();
-                }
-                writer.commit();
+    private static int drainPrefetchQueue(MessageBus messageBus, FilesFacade ff) {
+        final ColumnPrefetchJob job = new ColumnPrefetchJob(messageBus, ff);
+        int count = 0;
+        while (job.run(0)) {
+            count++;
+        }
+        return count;
+    }
+
+    private long assertFrameScan(CairoConfiguration configuration, String value, boolean indexed) {
+        return assertFrameScan(configuration, messageBus, value, indexed);
+    }
+
+    private long assertFrameScan(CairoConfiguration configuration, MessageBus messageBus, String value, boolean indexed) {
+        return assertFrameScan(configuration, messageBus, value, indexed, true);
+    }
+
+    private long assertFrameScan(CairoConfiguration configuration, MessageBus messageBus, String value, boolean indexed, boolean allColumns) {
+        try (CairoEngine engine = new CairoEngine(configuration, messageBus)) {
+            int columnIndex;
+            int symbolKey;
+            RecordMetadata metadata;
+            try (TableReader reader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, "x", TableUtils.ANY_TABLE_VERSION)) {
+                columnIndex = reader.getMetadata().getColumnIndexQuiet("b");
+                symbolKey = reader.getSymbolMapReader(columnIndex).keyOf(value);
+                metadata = GenericRecordMetadata.copyOf(reader.getMetadata());
             }
+            RowCursorFactory rowCursorFactory = indexed ?
+                    new SymbolIndexRowCursorFactory(columnIndex, symbolKey, true, BitmapIndexReader.DIR_FORWARD) :
+                    new DataFrameRowCursorFactory();
+            FullFwdDataFrameCursorFactory dataFrameFactory = new FullFwdDataFrameCursorFactory(engine, "x", TableUtils.ANY_TABLE_VERSION);
+            DataFrameRecordCursorFactory factory = new DataFrameRecordCursorFactory(metadata, dataFrameFactory, rowCursorFactory, false, null);
 
-            try (CairoEngine engine = new CairoEngine(configuration, messageBus)) {
-                String value = symbols[N - 10];
-                int columnIndex;
-                int symbolKey;
-                RecordMetadata metadata;
-                try (TableReader reader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, "x", TableUtils.ANY_TABLE_VERSION)) {
-                    columnIndex = reader.getMetadata().getColumnIndexQuiet("b");
-                    symbolKey = reader.getSymbolMapReader(columnIndex).keyOf(value);
-                    metadata = GenericRecordMetadata.copyOf(reader.getMetadata());
-                }
-                SymbolIndexRowCursorFactory symbolIndexRowCursorFactory = new SymbolIndexRowCursorFactory(columnIndex, symbolKey, true, BitmapIndexReader.DIR_FORWARD);
-                FullFwdDataFrameCursorFactory dataFrameFactory = new FullFwdDataFrameCursorFactory(engine, "x", TableUtils.ANY_TABLE_VERSION);
-                DataFrameRecordCursorFactory factory = new DataFrameRecordCursorFactory(metadata, dataFrameFactory, symbolIndexRowCursorFactory, false, null);
-
-                SqlExecutionContext sqlExecutionContext = new SqlExecutionContextImpl(configuration, messageBus, 1).with(AllowAllCairoSecurityContext.INSTANCE, null, null);
-                try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
-                    Record record = cursor.getRecord();
-                    while (cursor.hasNext()) {
+            SqlExecutionContext sqlExecutionContext = new SqlExecutionContextImpl(configuration, messageBus, 1).with(AllowAllCairoSecurityContext.INSTANCE, null, null);
+            long count = 0;
+            try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+                Record record = cursor.getRecord();
+                while (cursor.hasNext()) {
+                    if (indexed) {
                         TestUtils.assertEquals(value, record.getSym(1));
                     }
+                    if (allColumns) {
+                        Assert.assertEquals(20, record.getStrLen(0));
+                        Assert.assertNotNull(record.getSym(1));
+                        Assert.assertNotNull(record.getSym(3));
+                        Assert.assertTrue(record.getTimestamp(4) > 0);
+                    }
+                    record.getInt(2);
+                    count++;
                 }
             }
-        });
+            return count;
+        }
+    }
+
+    private String[] createX() {
+        // separate two symbol columns with primitive. It will make problems apparent if index does not shift correctly
+        try (TableModel model = new TableModel(configuration, "x", PartitionBy.DAY).
+                col("a", ColumnType.STRING).
+                col("b", ColumnType.SYMBOL).indexed(true, N / 4).
+                col("i", ColumnType.INT).
+                col("c", ColumnType.SYMBOL).indexed(true, N / 4).
+                timestamp()
+        ) {
+            CairoTestUtils.create(model);
+        }
+
+        final Rnd rnd = new Rnd();
+        final String[] symbols = new String[N];
+        final int M = 1000;
+        final long increment = 1000000 * 60L * 4;
+
+        for (int i = 0; i < N; i++) {
+            symbols[i] = rnd.nextChars(8).toString();
+        }
+
+        rnd.reset();
+
+        // prepare the data
+        long timestamp = 0;
+        try (TableWriter writer = new TableWriter(configuration, "x")) {
+            for (int i = 0; i < M; i++) {
+                TableWriter.Row row = writer.newRow(timestamp += increment);
+                row.putStr(0, rnd.nextChars(20));
+                row.putSym(1, symbols[rnd.nextPositiveInt() % N]);
+                row.putInt(2, rnd.nextInt());
+                row.putSym(3, symbols[rnd.nextPositiveInt() % N]);
+                row.append();
+            }
+            writer.commit();
+        }
+        return symbols;
+    }
+
+    private static class ReadAheadCountingFacade extends FilesFacadeImpl {
+        private int count;
+        private long len;
+
+        @Override
+        public void readAhead(long fd, long offset, long len) {
+            count++;
+            this.len += len;
+        }
+    }
+
+    private static class AdviceCountingFacade extends FilesFacadeImpl {
+        private final int[] counts = new int[Files.MADV_DONTNEED + 1];
+
+        @Override
+        public void madvise(long address, long size, int advice) {
+            counts[advice]++;
+            super.madvise(address, size, advice);
+        }
     }
-}
\ No newline at end of file
+}
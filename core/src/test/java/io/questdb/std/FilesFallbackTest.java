@@ -0,0 +1,159 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.std;
+
+import io.questdb.std.str.Path;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Exercises JDK implementations Files falls back to when native library has been built
+ * without corresponding functions.
+ */
+public class FilesFallbackTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testCopy() throws Exception {
+        final boolean linked = Files.copyLinked;
+        Files.copyLinked = false;
+        try (Path from = new Path(); Path to = new Path()) {
+            File src = temporaryFolder.newFile("src.d");
+            java.nio.file.Files.write(src.toPath(), "hello".getBytes(StandardCharsets.UTF_8));
+            File dst = new File(temporaryFolder.getRoot(), "dst.d");
+
+            Assert.assertTrue(Files.copy(from.of(src.getAbsolutePath()).$(), to.of(dst.getAbsolutePath()).$()));
+            Assert.assertEquals("hello", new String(java.nio.file.Files.readAllBytes(dst.toPath()), StandardCharsets.UTF_8));
+
+            // existing target is overwritten, same as native copy truncates it
+            java.nio.file.Files.write(src.toPath(), "bye".getBytes(StandardCharsets.UTF_8));
+            Assert.assertTrue(Files.copy(from, to));
+            Assert.assertEquals("bye", new String(java.nio.file.Files.readAllBytes(dst.toPath()), StandardCharsets.UTF_8));
+
+            Assert.assertFalse(Files.copy(from.of(temporaryFolder.getRoot().getAbsolutePath()).concat("missing.d").$(), to));
+        } finally {
+            Files.copyLinked = linked;
+        }
+    }
+
+    @Test
+    public void testExchange() throws Exception {
+        final boolean linked = Files.exchangeLinked;
+        Files.exchangeLinked = false;
+        try (Path a = new Path(); Path b = new Path()) {
+            File dirA = temporaryFolder.newFolder("a");
+            File dirB = temporaryFolder.newFolder("b");
+            Assert.assertTrue(new File(dirA, "x.d").createNewFile());
+
+            // there is no atomic swap in JDK, paths are left untouched
+            Assert.assertFalse(Files.exchange(a.of(dirA.getAbsolutePath()).$(), b.of(dirB.getAbsolutePath()).$()));
+            Assert.assertTrue(new File(dirA, "x.d").exists());
+        } finally {
+            Files.exchangeLinked = linked;
+        }
+    }
+
+    @Test
+    public void testHardLink() throws Exception {
+        final boolean linked = Files.hardLinkLinked;
+        Files.hardLinkLinked = false;
+        try (Path src = new Path(); Path link = new Path()) {
+            File file = temporaryFolder.newFile("a.d");
+            File linkFile = new File(temporaryFolder.getRoot(), "b.d");
+
+            Assert.assertTrue(Files.hardLink(src.of(file.getAbsolutePath()).$(), link.of(linkFile.getAbsolutePath()).$()));
+            java.nio.file.Files.write(file.toPath(), "shared".getBytes(StandardCharsets.UTF_8));
+            Assert.assertEquals("shared", new String(java.nio.file.Files.readAllBytes(linkFile.toPath()), StandardCharsets.UTF_8));
+
+            // link is not replaced
+            Assert.assertFalse(Files.hardLink(src, link));
+        } finally {
+            Files.hardLinkLinked = linked;
+        }
+    }
+
+    @Test
+    public void testMadvise() {
+        final boolean linked = Files.madviseLinked;
+        Files.madviseLinked = false;
+        try {
+            // advice is a hint, without native it is silently skipped
+            Assert.assertEquals(0, Files.madvise(0, Files.PAGE_SIZE, Files.MADV_SEQUENTIAL));
+        } finally {
+            Files.madviseLinked = linked;
+        }
+    }
+
+    @Test
+    public void testReadAhead() throws Exception {
+        final boolean linked = Files.readAheadLinked;
+        Files.readAheadLinked = false;
+        try (Path path = new Path()) {
+            File file = temporaryFolder.newFile("a.d");
+            long fd = Files.openRO(path.of(file.getAbsolutePath()).$());
+            Assert.assertTrue(fd > 0);
+            try {
+                Assert.assertEquals(0, Files.readAhead(fd, 0, Files.PAGE_SIZE));
+            } finally {
+                Files.close(fd);
+            }
+        } finally {
+            Files.readAheadLinked = linked;
+        }
+    }
+
+    @Test
+    public void testSoftLink() throws Exception {
+        final boolean linked = Files.softLinkLinked;
+        final boolean isLinked = Files.isSoftLinkLinked;
+        Files.softLinkLinked = false;
+        Files.isSoftLinkLinked = false;
+        try (Path src = new Path(); Path link = new Path(); Path target = new Path()) {
+            File dir = temporaryFolder.newFolder("target");
+            File linkFile = new File(temporaryFolder.getRoot(), "link");
+
+            Assert.assertTrue(Files.softLink(src.of(dir.getAbsolutePath()).$(), link.of(linkFile.getAbsolutePath()).$()));
+            Assert.assertTrue(Files.isSoftLink(link));
+            Assert.assertFalse(Files.isSoftLink(src));
+
+            Assert.assertTrue(Files.readLink(link, target));
+            Assert.assertEquals(dir.getAbsolutePath(), target.toString());
+            Assert.assertFalse(Files.readLink(src, target));
+
+            // link is not replaced
+            Assert.assertFalse(Files.softLink(src, link));
+        } finally {
+            Files.softLinkLinked = linked;
+            Files.isSoftLinkLinked = isLinked;
+        }
+    }
+}
@@ -232,18 +232,9 @@ public class NumbersTest {
             double d1 = random.nextDouble();
             double d2 = random.nextGaussian();
             double d3 = random.nextDouble() * Double.MAX_VALUE;
-            sink.clear();
-            Numbers.append(sink, d1);
-            TestUtils.assertEquals(Double.toString(d1), sink);
-
-            sink.clear();
-            Numbers.append(sink, d2);
-            TestUtils.assertEquals(Double.toString(d2), sink);
-
-            sink.clear();
-            Numbers.append(sink, d3);
-            TestUtils.assertEquals(Double.toString(d3), sink);
-
+            assertFormatDouble(d1);
+            assertFormatDouble(d2);
+            assertFormatDouble(d3);
         }
     }
 
@@ -254,17 +245,9 @@ public class NumbersTest {
             float d1 = random.nextFloat();
             float d2 = (float) random.nextGaussian();
             float d3 = random.nextFloat() * Float.MAX_VALUE;
-            sink.clear();
-            Numbers.append(sink, d1);
-            TestUtils.assertEquals(Double.toString(d1), sink);
-
-            sink.clear();
-            Numbers.append(sink, d2);
-            TestUtils.assertEquals(Double.toString(d2), sink);
-
-            sink.clear();
-            Numbers.append(sink, d3);
-            TestUtils.assertEquals(Double.toString(d3), sink);
+            assertFormatDouble(d1);
+            assertFormatDouble(d2);
+            assertFormatDouble(d3);
         }
     }
 
@@ -293,7 +276,7 @@ public class NumbersTest {
     public void testFormatDoubleFast() {
         sink.clear();
         Numbers.append(sink, -5.9522650387500933e18);
-        TestUtils.assertEquals("-5.9522650387500933E18", sink);
+        TestUtils.assertEquals("-5.952265038750093E18", sink);
     }
 
     @Test
@@ -303,6 +286,28 @@ public class NumbersTest {
         TestUtils.assertEquals("0.872989018674569", sink);
     }
 
+    @Test
+    public void testFormatDoubleShortest() {
+        // older JDKs print these with a superfluous or not the closest last digit
+        String[] values = {
+                "2.82879384806159E17",
+                "5.684341886080802E-14",
+                "1.9400994884341945E25",
+                "2.0E23",
+                "4.9E-324",
+                "9.9E-323",
+                "2.2250738585072014E-308",
+                "1.7976931348623157E308",
+                "0.001",
+                "9999999.999"
+        };
+        for (String s : values) {
+            sink.clear();
+            Numbers.append(sink, Double.parseDouble(s));
+            TestUtils.assertEquals(s, sink);
+        }
+    }
+
     @Test
     public void testFormatDoubleSlowInteractive() {
         sink.clear();
@@ -463,6 +468,63 @@ public class NumbersTest {
 
     }
 
+    @Test
+    public void testParseDoubleCorrectlyRounded() throws Exception {
+        String[] values = {
+                "3.4",
+                "0.1",
+                "7.342",
+                "-73.87202453613281",
+                "9007199254740993",
+                "1e23",
+                "2.2250738585072011e-308",
+                "4.9e-324",
+                "2.4703282292062328e-324",
+                "1.7976931348623157e308",
+                "1.7976931348623159e308",
+                "1e-400",
+                "123456789012345678901234567890",
+                "0.000000000000000000000000000000000000001234"
+        };
+        for (String s : values) {
+            assertParseDouble(s);
+        }
+
+        for (int i = 0; i < 100_000; i++) {
+            assertParseDouble(Double.toString(Double.longBitsToDouble(rnd.nextLong() & Long.MAX_VALUE)));
+            assertParseDouble(Double.toString(rnd.nextDouble() * 1000));
+        }
+    }
+
+    @Test
+    public void testParseDoubleExponentSign() throws Exception {
+        Assert.assertEquals(1.5E10, Numbers.parseDouble("1.5E+10"), 0);
+        Assert.assertEquals(1.5E-10, Numbers.parseDouble("1.5e-10"), 0);
+    }
+
+    @Test(expected = NumericException.class)
+    public void testParseDoubleTwoDots() throws Exception {
+        Numbers.parseDouble("1.2.3");
+    }
+
+    @Test
+    public void testParseDoubleUtf8() throws Exception {
+        final int len = 64;
+        long mem = Unsafe.malloc(len);
+        try {
+            for (int i = 0; i < 10_000; i++) {
+                String s = Double.toString(rnd.nextDouble() * rnd.nextLong());
+                for (int j = 0, n = s.length(); j < n; j++) {
+                    Unsafe.getUnsafe().putByte(mem + j, (byte) s.charAt(j));
+                }
+                Assert.assertEquals(s, Double.parseDouble(s), Numbers.parseDouble(mem, mem + s.length()), 0);
+                Assert.assertEquals(s, Float.parseFloat(s), Numbers.parseFloat(mem, mem + s.length()), 0);
+            }
+        } finally {
+            Unsafe.free(mem, len);
+        }
+    }
+
     @Test
     public void testParseExplicitDouble() throws Exception {
         Assert.assertEquals(1234.123d, Numbers.parseDouble("1234.123d"), 0.000001);
@@ -505,6 +567,28 @@ public class NumbersTest {
         Assert.assertEquals(Float.parseFloat(s8), Numbers.parseFloat(s8), 0.000000001);
     }
 
+    @Test
+    public void testParseFloatCorrectlyRounded() throws Exception {
+        String[] values = {
+                "3.4",
+                "1.4e-45",
+                "7.0e-46",
+                "3.4028235e38",
+                "3.4028236e38",
+                // half way between two floats, double rounding must not apply
+                "1.00000005960464477539062500000001",
+                "1.000000059604644775390625"
+        };
+        for (String s : values) {
+            Assert.assertEquals(s, Float.floatToRawIntBits(Float.parseFloat(s)), Float.floatToRawIntBits(Numbers.parseFloat(s)));
+        }
+
+        for (int i = 0; i < 100_000; i++) {
+            String s = Float.toString(Float.intBitsToFloat(rnd.nextInt() & Integer.MAX_VALUE));
+            Assert.assertEquals(s, Float.floatToRawIntBits(Float.parseFloat(s)), Float.floatToRawIntBits(Numbers.parseFloat(s)));
+        }
+    }
+
     @Test
     public void testParseInt() throws Exception {
         Assert.assertEquals(567963, Numbers.parseInt("567963"));
@@ -745,4 +829,19 @@ public class NumbersTest {
             Assert.assertTrue(d + " " + n + " " + (n - d - 1E-8), n - d - 1E-8 < Numbers.TOLERANCE);
         }
     }
+
+    private static void assertParseDouble(String s) throws NumericException {
+        Assert.assertEquals(s, Double.doubleToRawLongBits(Double.parseDouble(s)), Double.doubleToRawLongBits(Numbers.parseDouble(s)));
+    }
+
+    private void assertFormatDouble(double d) {
+        sink.clear();
+        Numbers.append(sink, d);
+        final String jdk = Double.toString(d);
+        if (!Chars.equals(jdk, sink)) {
+            // JDK before 19 occasionally prints more digits than needed to round trip
+            Assert.assertEquals(jdk, d, Double.parseDouble(sink.toString()), 0);
+            Assert.assertTrue(jdk + " vs " + sink, sink.length() <= jdk.length());
+        }
+    }
 }